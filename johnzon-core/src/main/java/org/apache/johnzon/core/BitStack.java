@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.io.Serializable;
+
+/**
+ * Stack of booleans packed in longs, used to track the kind of the enclosing containers
+ * (object or array) without allocating a node per level.
+ */
+final class BitStack implements Serializable {
+    private long[] bits = new long[1];
+    private int size;
+
+    void push(final boolean value) {
+        final int word = size >>> 6;
+        if (word == bits.length) {
+            final long[] newBits = new long[bits.length * 2];
+            System.arraycopy(bits, 0, newBits, 0, bits.length);
+            bits = newBits;
+        }
+        if (value) {
+            bits[word] |= 1L << size;
+        } else {
+            bits[word] &= ~(1L << size);
+        }
+        size++;
+    }
+
+    boolean pop() {
+        final boolean value = peek();
+        size--;
+        return value;
+    }
+
+    // callers check isEmpty() first
+    boolean peek() {
+        final int index = size - 1;
+        return (bits[index >>> 6] & 1L << index) != 0;
+    }
+
+    // from the bottom of the stack
+    boolean get(final int index) {
+        return (bits[index >>> 6] & 1L << index) != 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
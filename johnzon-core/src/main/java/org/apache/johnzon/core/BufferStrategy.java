@@ -26,6 +26,27 @@ import java.io.Serializable;
 public interface BufferStrategy {
     BufferProvider<char[]> newCharProvider(int size);
 
+    /**
+     * Byte buffers are used by the UTF-8 parser which works on the raw input and the UTF-8 generator.
+     * Default implementation allocates a new buffer each time, built-in strategies pool them as they do for chars.
+     *
+     * @param size the size of the buffers to provide.
+     * @return a byte buffer provider.
+     */
+    default BufferProvider<byte[]> newByteProvider(final int size) {
+        return new BufferProvider<byte[]>() {
+            @Override
+            public byte[] newBuffer() {
+                return new byte[size];
+            }
+
+            @Override
+            public void release(final byte[] value) {
+                // no-op
+            }
+        };
+    }
+
     interface BufferProvider<T> extends Serializable {
         T newBuffer();
 
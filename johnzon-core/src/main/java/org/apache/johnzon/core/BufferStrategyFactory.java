@@ -20,6 +20,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.IntFunction;
 
 import org.apache.johnzon.core.util.ClassUtil;
 
@@ -28,10 +29,10 @@ public class BufferStrategyFactory {
     static {
         DEFAULT_STRATEGIES = new HashMap<>();
 
-        DEFAULT_STRATEGIES.put("BY_INSTANCE", CharBufferByInstanceProvider::new);
-        DEFAULT_STRATEGIES.put("THREAD_LOCAL", CharBufferThreadLocalProvider::new);
-        DEFAULT_STRATEGIES.put("QUEUE", CharBufferQueueProvider::new);
-        DEFAULT_STRATEGIES.put("SINGLETON", CharBufferSingletonProvider::new);
+        DEFAULT_STRATEGIES.put("BY_INSTANCE", new DefaultBufferStrategy(CharBufferByInstanceProvider::new, ByteBufferByInstanceProvider::new));
+        DEFAULT_STRATEGIES.put("THREAD_LOCAL", new DefaultBufferStrategy(CharBufferThreadLocalProvider::new, ByteBufferThreadLocalProvider::new));
+        DEFAULT_STRATEGIES.put("QUEUE", new DefaultBufferStrategy(CharBufferQueueProvider::new, ByteBufferQueueProvider::new));
+        DEFAULT_STRATEGIES.put("SINGLETON", new DefaultBufferStrategy(CharBufferSingletonProvider::new, ByteBufferSingletonProvider::new));
     }
 
     private BufferStrategyFactory() {
@@ -76,6 +77,26 @@ public class BufferStrategyFactory {
         return bufferStrategy;
     }
 
+    private static final class DefaultBufferStrategy implements BufferStrategy {
+        private final IntFunction<BufferProvider<char[]>> chars;
+        private final IntFunction<BufferProvider<byte[]>> bytes;
+
+        private DefaultBufferStrategy(final IntFunction<BufferProvider<char[]>> chars, final IntFunction<BufferProvider<byte[]>> bytes) {
+            this.chars = chars;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public BufferProvider<char[]> newCharProvider(final int size) {
+            return chars.apply(size);
+        }
+
+        @Override
+        public BufferProvider<byte[]> newByteProvider(final int size) {
+            return bytes.apply(size);
+        }
+    }
+
     private static class CharBufferSingletonProvider extends SingletonProvider<char[]> {
         public CharBufferSingletonProvider(final int size) {
             super(size);
@@ -92,6 +113,17 @@ public class BufferStrategyFactory {
         }
     }
 
+    private static class ByteBufferSingletonProvider extends SingletonProvider<byte[]> {
+        public ByteBufferSingletonProvider(final int size) {
+            super(size);
+        }
+
+        @Override
+        protected byte[] newInstance(int size) {
+            return new byte[size];
+        }
+    }
+
     private static abstract class SingletonProvider<T> implements BufferStrategy.BufferProvider<T> {
         protected final T buffer;
 
@@ -148,6 +180,35 @@ public class BufferStrategyFactory {
         }
     }
 
+    private static class ByteBufferThreadLocalProvider extends ThreadLocalProvider<byte[]> {
+        public ByteBufferThreadLocalProvider(int size) {
+            super(size);
+        }
+
+        @Override
+        protected byte[] newInstance(final int size) {
+            return new byte[size];
+        }
+    }
+
+    private static class ByteBufferByInstanceProvider implements BufferStrategy.BufferProvider<byte[]> {
+        private final int size;
+
+        public ByteBufferByInstanceProvider(final int size) {
+            this.size = size;
+        }
+
+        @Override
+        public byte[] newBuffer() {
+            return new byte[size];
+        }
+
+        @Override
+        public void release(final byte[] value) {
+            // no-op
+        }
+    }
+
     private static class CharBufferByInstanceProvider implements BufferStrategy.BufferProvider<char[]> {
         private final int size;
 
@@ -201,4 +262,15 @@ public class BufferStrategyFactory {
             return new char[size];
         }
     }
+
+    private static class ByteBufferQueueProvider extends QueueProvider<byte[]> {
+        public ByteBufferQueueProvider(final int size) {
+            super(size);
+        }
+
+        @Override
+        protected byte[] newInstance(int size) {
+            return new byte[size];
+        }
+    }
 }
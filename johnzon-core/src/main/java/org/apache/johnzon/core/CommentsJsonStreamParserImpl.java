@@ -48,6 +48,27 @@ public class CommentsJsonStreamParserImpl extends JsonStreamParserImpl {
         super(reader, maxStringLength, bufferProvider, valueBuffer, autoAdjust, provider);
     }
 
+    public CommentsJsonStreamParserImpl(final char[] chars, final int offset, final int length,
+                                        final int maxStringLength,
+                                        final BufferStrategy.BufferProvider<char[]> valueBuffer,
+                                        final boolean autoAdjust, final JsonProviderImpl provider) {
+        super(chars, offset, length, maxStringLength, valueBuffer, autoAdjust, provider);
+    }
+
+    @Override
+    StructuralIndex indexCurrentArray() {
+        return null; // the index doesn't skip comments
+    }
+
+    @Override
+    void skipStructureRaw(final boolean array) { // the raw scan doesn't skip comments
+        if (array) {
+            skipArray();
+        } else {
+            skipObject();
+        }
+    }
+
     @Override
     protected Event defaultHandling(final char c) {
         if (c == '/') {
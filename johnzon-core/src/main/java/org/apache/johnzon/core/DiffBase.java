@@ -32,4 +32,10 @@ class DiffBase implements Serializable {
     protected boolean isJsonArray(JsonValue targetValue) {
         return targetValue instanceof JsonArray;
     }
+
+    // shared subtrees are skipped without walking them, other Johnzon values are only compared if their fingerprint match
+    protected boolean isSameValue(JsonValue source, JsonValue target) {
+        return source == target || (source instanceof JsonFingerprint.Holder && target instanceof JsonFingerprint.Holder
+                && JsonFingerprint.of(source) == JsonFingerprint.of(target) && source.equals(target));
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+/**
+ * Writes the decimal representation of integers in a buffer without creating a String,
+ * two digits at a time from lookup tables (same output as {@link Long#toString(long)}).
+ */
+final class Digits {
+    /**
+     * Max length of a long ("-9223372036854775808").
+     */
+    static final int MAX_LONG_LENGTH = 20;
+
+    private static final char[] TENS = new char[100];
+    private static final char[] ONES = new char[100];
+    static {
+        for (int i = 0; i < 100; i++) {
+            TENS[i] = (char) ('0' + i / 10);
+            ONES[i] = (char) ('0' + i % 10);
+        }
+    }
+
+    private Digits() {
+        // no-op
+    }
+
+    /**
+     * @param value the number to write.
+     * @param buffer the destination, it must have {@link #MAX_LONG_LENGTH} chars available from {@code pos}.
+     * @param pos where to write the first char.
+     * @return the position after the last written char.
+     */
+    static int write(final long value, final char[] buffer, final int pos) {
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return write((int) value, buffer, pos);
+        }
+        // work on negative values to support Long.MIN_VALUE
+        long remaining = value;
+        int start = pos;
+        if (value < 0) {
+            buffer[start++] = '-';
+        } else {
+            remaining = -remaining;
+        }
+        int i = start + length(remaining);
+        final int end = i;
+        while (remaining <= Integer.MIN_VALUE) {
+            final long quotient = remaining / 100;
+            final int twoDigits = (int) (quotient * 100 - remaining);
+            remaining = quotient;
+            buffer[--i] = ONES[twoDigits];
+            buffer[--i] = TENS[twoDigits];
+        }
+        writeNegative((int) remaining, buffer, i);
+        return end;
+    }
+
+    static int write(final int value, final char[] buffer, final int pos) {
+        int remaining = value;
+        int start = pos;
+        if (value < 0) {
+            buffer[start++] = '-';
+        } else {
+            remaining = -remaining;
+        }
+        final int end = start + length(remaining);
+        writeNegative(remaining, buffer, end);
+        return end;
+    }
+
+    // writes the digits of -value ending at end (exclusive)
+    private static void writeNegative(final int value, final char[] buffer, final int end) {
+        int remaining = value;
+        int i = end;
+        while (remaining <= -100) {
+            final int quotient = remaining / 100;
+            final int twoDigits = quotient * 100 - remaining;
+            remaining = quotient;
+            buffer[--i] = ONES[twoDigits];
+            buffer[--i] = TENS[twoDigits];
+        }
+        final int last = -remaining;
+        buffer[--i] = ONES[last];
+        if (last >= 10) {
+            buffer[--i] = TENS[last];
+        }
+    }
+
+    // number of digits of -value (value <= 0)
+    private static int length(final long value) {
+        long threshold = -10;
+        for (int i = 1; i < 19; i++) {
+            if (value > threshold) {
+                return i;
+            }
+            threshold *= 10;
+        }
+        return 19;
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.math.BigInteger;
+
+/**
+ * Writes the shortest decimal representation of a double (or a float) which parses back to the same double
+ * (or float) in a buffer without creating any String (Schubfach algorithm, R. Giulietti,
+ * "The Schubfach way to render doubles").
+ *
+ * The layout is the one of {@link Double#toString(double)} (and {@link Float#toString(float)}): plain notation ({@code 123.0}, {@code 0.001})
+ * when {@code 10^-3 <= |value| < 10^7}, computerized scientific notation ({@code 1.0E7}, {@code 4.9E-324}) otherwise,
+ * always with at least one digit after the dot.
+ * The only difference is with JVMs before 19 which sometimes emit more digits than needed
+ * ({@code 2.0E-3} is {@code 0.0020} there, {@code 0.002} here): the digits are always
+ * the ones of the Java 19+ {@link Double#toString(double)} whatever the JVM running the code (same for floats).
+ * The exponent keeps Java notation ({@code E}, no {@code +}) which is valid JSON but differs
+ * from {@link java.math.BigDecimal#toString()} ({@code 1.0E+7}).
+ */
+final class DoubleDigits {
+    /**
+     * Max length of a double ("-2.2250738585072014E-308").
+     */
+    static final int MAX_DOUBLE_LENGTH = 24;
+
+    private static final int P = 53; // precision
+    private static final int Q_MIN = -1074; // min exponent of the significand as an integer
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final int H = 17; // max number of digits
+    private static final long C_MIN = 1L << P - 1;
+    private static final int BQ_MASK = (1 << 11) - 1;
+    private static final long T_MASK = C_MIN - 1;
+    private static final long C_TINY = 3; // subnormals below need one more digit to get 2 digits
+    private static final long MASK_63 = Long.MAX_VALUE;
+    private static final int MASK_28 = (1 << 28) - 1;
+    private static final long MASK_32 = (1L << 32) - 1;
+
+    private static final int FLOAT_P = 24;
+    private static final int FLOAT_Q_MIN = -149;
+    private static final int FLOAT_C_MIN = 1 << FLOAT_P - 1;
+    private static final int FLOAT_BQ_MASK = (1 << 8) - 1;
+    private static final int FLOAT_T_MASK = FLOAT_C_MIN - 1;
+    private static final int FLOAT_C_TINY = 8;
+
+    private static final long[] POWERS_OF_TEN = new long[H + 1];
+
+    // 10^-k ~= g * 2^r with 2^125 <= g < 2^126, split in two 63 bits halves
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) * 2];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+
+        final BigInteger mask63 = BigInteger.valueOf(MASK_63);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            final int r = flog2pow10(-k) - 125;
+            final BigInteger floor;
+            if (k <= 0) {
+                final BigInteger pow = BigInteger.TEN.pow(-k);
+                floor = r >= 0 ? pow.shiftRight(r) : pow.shiftLeft(-r);
+            } else {
+                floor = BigInteger.ONE.shiftLeft(-r).divide(BigInteger.TEN.pow(k));
+            }
+            final BigInteger g = floor.add(BigInteger.ONE);
+            final int index = k - K_MIN << 1;
+            G[index] = g.shiftRight(63).longValue();
+            G[index + 1] = g.and(mask63).longValue();
+        }
+    }
+
+    private DoubleDigits() {
+        // no-op
+    }
+
+    /**
+     * @param value the finite number to write.
+     * @param buffer the destination, it must have {@link #MAX_DOUBLE_LENGTH} chars available from {@code pos}.
+     * @param pos where to write the first char.
+     * @return the position after the last written char.
+     */
+    static int write(final double value, final char[] buffer, final int pos) {
+        final long bits = Double.doubleToRawLongBits(value);
+        final long t = bits & T_MASK;
+        final int bq = (int) (bits >>> P - 1) & BQ_MASK;
+        if (bq == BQ_MASK) { // callers already reject them, just stay consistent
+            final String string = Double.toString(value);
+            string.getChars(0, string.length(), buffer, pos);
+            return pos + string.length();
+        }
+
+        int start = pos;
+        if (bits < 0) {
+            buffer[start++] = '-';
+        }
+        if (bq != 0) { // normal
+            final int mq = -Q_MIN + 1 - bq;
+            final long c = C_MIN | t;
+            if (0 < mq & mq < P) { // integers are written as they are
+                final long f = c >> mq;
+                if (f << mq == c) {
+                    return toChars(f, 0, buffer, start);
+                }
+            }
+            return toDecimal(-mq, c, 0, buffer, start);
+        }
+        if (t != 0) { // subnormal
+            return t < C_TINY ? toDecimal(Q_MIN, 10 * t, -1, buffer, start) : toDecimal(Q_MIN, t, 0, buffer, start);
+        }
+        buffer[start] = '0';
+        buffer[start + 1] = '.';
+        buffer[start + 2] = '0';
+        return start + 3;
+    }
+
+    /**
+     * Same as {@link #write(double, char[], int)} with the digits of {@link Float#toString(float)},
+     * a float widened to a double would get the digits of the double ({@code 0.1f} is {@code 0.10000000149011612}).
+     *
+     * @param value the finite number to write.
+     * @param buffer the destination, it must have {@link #MAX_DOUBLE_LENGTH} chars available from {@code pos}.
+     * @param pos where to write the first char.
+     * @return the position after the last written char.
+     */
+    static int write(final float value, final char[] buffer, final int pos) {
+        final int bits = Float.floatToRawIntBits(value);
+        final int t = bits & FLOAT_T_MASK;
+        final int bq = bits >>> FLOAT_P - 1 & FLOAT_BQ_MASK;
+        if (bq == FLOAT_BQ_MASK) {
+            final String string = Float.toString(value);
+            string.getChars(0, string.length(), buffer, pos);
+            return pos + string.length();
+        }
+
+        int start = pos;
+        if (bits < 0) {
+            buffer[start++] = '-';
+        }
+        if (bq != 0) {
+            final int mq = -FLOAT_Q_MIN + 1 - bq;
+            final int c = FLOAT_C_MIN | t;
+            if (0 < mq & mq < FLOAT_P) {
+                final int f = c >> mq;
+                if (f << mq == c) {
+                    return toChars(f, 0, buffer, start);
+                }
+            }
+            return toDecimal(-mq, c, 0, buffer, start);
+        }
+        if (t != 0) {
+            return t < FLOAT_C_TINY ? toDecimal(FLOAT_Q_MIN, 10 * t, -1, buffer, start) : toDecimal(FLOAT_Q_MIN, t, 0, buffer, start);
+        }
+        buffer[start] = '0';
+        buffer[start + 1] = '.';
+        buffer[start + 2] = '0';
+        return start + 3;
+    }
+
+    // value = c * 2^q, finds the shortest decimal in the rounding interval then writes it
+    private static int toDecimal(final int q, final long c, final int dk, final char[] buffer, final int pos) {
+        final int out = (int) c & 0x1;
+        final long cb = c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != C_MIN | q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else { // the interval is not symmetric at powers of two
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 2;
+
+        final long g1 = G[k - K_MIN << 1];
+        final long g0 = G[k - K_MIN << 1 | 1];
+
+        final long vb = rop(g1, g0, cb << h);
+        final long vbl = rop(g1, g0, cbl << h);
+        final long vbr = rop(g1, g0, cbr << h);
+
+        final long s = vb >> 2;
+        if (s >= 100) { // try with one digit less
+            final long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            final long tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return toChars(upin ? sp10 : tp10, k, buffer, pos);
+            }
+        }
+
+        final long t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return toChars(uin ? s : t, k + dk, buffer, pos);
+        }
+        final long cmp = vb - (s + t << 1); // both are in the interval, take the closest one (or the even one)
+        return toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buffer, pos);
+    }
+
+    // float flavor, the 63 high bits of g are precise enough
+    private static int toDecimal(final int q, final int c, final int dk, final char[] buffer, final int pos) {
+        final int out = c & 0x1;
+        final long cb = (long) c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != FLOAT_C_MIN | q == FLOAT_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 33;
+
+        final long g = G[k - K_MIN << 1] + 1;
+
+        final int vb = rop(g, cb << h);
+        final int vbl = rop(g, cbl << h);
+        final int vbr = rop(g, cbr << h);
+
+        final int s = vb >> 2;
+        if (s >= 100) {
+            final int sp10 = 10 * (int) (s * 1_717_986_919L >>> 34);
+            final int tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return toChars(upin ? sp10 : tp10, k, buffer, pos);
+            }
+        }
+
+        final int t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return toChars(uin ? s : t, k + dk, buffer, pos);
+        }
+        final int cmp = vb - (s + t << 1);
+        return toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buffer, pos);
+    }
+
+    // round to odd of g * cp / 2^95
+    private static int rop(final long g, final long cp) {
+        final long x1 = Math.multiplyHigh(g, cp);
+        final long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    // round to odd of g * cp / 2^127
+    private static long rop(final long g1, final long g0, final long cp) {
+        final long x1 = Math.multiplyHigh(g0, cp);
+        final long y0 = g1 * cp;
+        final long y1 = Math.multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1;
+        final long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    // writes f * 10^e
+    private static int toChars(final long significand, final int exponent, final char[] buffer, final int pos) {
+        int len = flog10pow2(Long.SIZE - Long.numberOfLeadingZeros(significand));
+        if (significand >= POWERS_OF_TEN[len]) {
+            len++;
+        }
+
+        // normalize to 17 digits, the value is now 0.f * 10^e
+        final long f = significand * POWERS_OF_TEN[H - len];
+        final int e = exponent + len;
+
+        // f = h * 10^16 + m * 10^8 + l
+        final long hm = Math.multiplyHigh(f, 193_428_131_138_340_668L) >>> 20;
+        final int l = (int) (f - 100_000_000 * hm);
+        final int h = (int) (hm * 1_441_151_881L >>> 57);
+        final int m = (int) (hm - 100_000_000 * h);
+
+        if (0 < e && e <= 7) { // plain
+            int i = pos;
+            buffer[i++] = (char) ('0' + h);
+            int y = y(m);
+            int d = 1;
+            for (; d < e; d++) {
+                final int t = 10 * y;
+                buffer[i++] = (char) ('0' + (t >>> 28));
+                y = t & MASK_28;
+            }
+            buffer[i++] = '.';
+            for (; d <= 8; d++) {
+                final int t = 10 * y;
+                buffer[i++] = (char) ('0' + (t >>> 28));
+                y = t & MASK_28;
+            }
+            return lowDigits(l, buffer, i);
+        }
+        if (-3 < e && e <= 0) { // plain with leading zeros
+            int i = pos;
+            buffer[i++] = '0';
+            buffer[i++] = '.';
+            for (int z = e; z < 0; z++) {
+                buffer[i++] = '0';
+            }
+            buffer[i++] = (char) ('0' + h);
+            i = eightDigits(m, buffer, i);
+            return lowDigits(l, buffer, i);
+        }
+
+        // computerized scientific notation
+        int i = pos;
+        buffer[i++] = (char) ('0' + h);
+        buffer[i++] = '.';
+        i = eightDigits(m, buffer, i);
+        i = lowDigits(l, buffer, i);
+        buffer[i++] = 'E';
+        int exp = e - 1;
+        if (exp < 0) {
+            buffer[i++] = '-';
+            exp = -exp;
+        }
+        if (exp < 10) {
+            buffer[i++] = (char) ('0' + exp);
+            return i;
+        }
+        if (exp >= 100) {
+            final int hundreds = exp * 1_311 >>> 17;
+            buffer[i++] = (char) ('0' + hundreds);
+            exp -= 100 * hundreds;
+        }
+        final int tens = exp * 103 >>> 10;
+        buffer[i++] = (char) ('0' + tens);
+        buffer[i++] = (char) ('0' + exp - 10 * tens);
+        return i;
+    }
+
+    private static int lowDigits(final int l, final char[] buffer, final int pos) {
+        int end = pos;
+        if (l != 0) {
+            end = eightDigits(l, buffer, end);
+        }
+        // remove trailing zeros but keep one digit after the dot
+        while (buffer[end - 1] == '0') {
+            end--;
+        }
+        if (buffer[end - 1] == '.') {
+            end++;
+        }
+        return end;
+    }
+
+    // left to right, a < 10^8 is seen as a fixed point 0.a with 28 bits for the fraction
+    private static int eightDigits(final int a, final char[] buffer, final int pos) {
+        int i = pos;
+        int y = y(a);
+        for (int d = 0; d < 8; d++) {
+            final int t = 10 * y;
+            buffer[i++] = (char) ('0' + (t >>> 28));
+            y = t & MASK_28;
+        }
+        return i;
+    }
+
+    private static int y(final int a) {
+        return (int) (Math.multiplyHigh((long) (a + 1) << 28, 193_428_131_138_340_668L) >>> 20) - 1;
+    }
+
+    // floor(e * log10(2))
+    private static int flog10pow2(final int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    // floor(e * log10(2) + log10(3/4))
+    private static int flog10threeQuartersPow2(final int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    // floor(e * log2(10))
+    private static int flog2pow10(final int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+}
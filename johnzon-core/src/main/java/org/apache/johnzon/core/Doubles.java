@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Correctly rounded conversion of JSON numbers (already validated by the parser) to double
+ * without creating any intermediate String or BigDecimal.
+ *
+ * The decimal significand is accumulated in a long (18 digits, it can't overflow) then:
+ * <ul>
+ *     <li>if it is exact and small enough, it is converted with a single (exact) multiplication or division (Clinger fast path),</li>
+ *     <li>else the Eisel-Lemire algorithm is used (128-bit multiplication by a power of ten approximation),</li>
+ *     <li>and in the rare cases it can't conclude (half way ambiguity, subnormals, overflow), {@link Double#parseDouble(String)}.</li>
+ * </ul>
+ */
+final class Doubles {
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int MAX_DIGITS = 18;
+    private static final int MIN_EXPONENT = -348;
+    private static final int MAX_EXPONENT = 347;
+
+    private Doubles() {
+        // no-op
+    }
+
+    static double parse(final char[] chars, final int start, final int end) {
+        int i = start;
+        final boolean negative = chars[i] == '-';
+        if (negative) {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean dot = false;
+        for (; i < end; i++) {
+            final char c = chars[i];
+            if (c == '.') {
+                dot = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            if (digits < MAX_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) { // leading zeros are not significant
+                    digits++;
+                }
+                if (dot) {
+                    exponent--;
+                }
+            } else {
+                if (c != '0') {
+                    truncated = true;
+                }
+                if (!dot) {
+                    exponent++;
+                }
+            }
+        }
+        if (i < end) { // e or E
+            i++;
+            boolean negativeExponent = false;
+            if (chars[i] == '-' || chars[i] == '+') {
+                negativeExponent = chars[i] == '-';
+                i++;
+            }
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                if (explicitExponent < 100_000) { // saturate, the result is 0 or infinity anyway
+                    explicitExponent = explicitExponent * 10 + (chars[i] - '0');
+                }
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        final double value = toDouble(mantissa, exponent, truncated, negative);
+        return Double.isNaN(value) ? Double.parseDouble(new String(chars, start, end - start)) : value;
+    }
+
+    static double parse(final byte[] bytes, final int start, final int end) {
+        int i = start;
+        final boolean negative = bytes[i] == '-';
+        if (negative) {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean dot = false;
+        for (; i < end; i++) {
+            final byte c = bytes[i];
+            if (c == '.') {
+                dot = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            if (digits < MAX_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+                if (dot) {
+                    exponent--;
+                }
+            } else {
+                if (c != '0') {
+                    truncated = true;
+                }
+                if (!dot) {
+                    exponent++;
+                }
+            }
+        }
+        if (i < end) {
+            i++;
+            boolean negativeExponent = false;
+            if (bytes[i] == '-' || bytes[i] == '+') {
+                negativeExponent = bytes[i] == '-';
+                i++;
+            }
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                if (explicitExponent < 100_000) {
+                    explicitExponent = explicitExponent * 10 + (bytes[i] - '0');
+                }
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        final double value = toDouble(mantissa, exponent, truncated, negative);
+        return Double.isNaN(value) ? Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1)) : value;
+    }
+
+    // NaN means "can't conclude, use the slow path"
+    private static double toDouble(final long mantissa, final int exponent, final boolean truncated, final boolean negative) {
+        if (mantissa == 0) {
+            return negative ? -0. : 0.;
+        }
+
+        if (!truncated && exponent >= -22 && exponent <= 22 && mantissa <= (1L << 53)) { // both operands are exact
+            final double value = exponent < 0 ? mantissa / EXACT_POWERS_OF_TEN[-exponent] : mantissa * EXACT_POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+
+        final double value = eiselLemire(mantissa, exponent, negative);
+        if (truncated && !Double.isNaN(value)) { // the real significand is in ]mantissa, mantissa + 1[
+            final double upper = eiselLemire(mantissa + 1, exponent, negative);
+            return value == upper ? value : Double.NaN;
+        }
+        return value;
+    }
+
+    private static double eiselLemire(final long mantissa, final int exponent, final boolean negative) {
+        if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT) {
+            return Double.NaN;
+        }
+
+        // normalization
+        final int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        final long normalized = mantissa << leadingZeros;
+        long exponent2 = ((217706L * exponent) >> 16) + 64 + 1023 - leadingZeros;
+
+        // multiplication
+        final int index = (exponent - MIN_EXPONENT) * 2;
+        final long[] powers = PowersOfTen.VALUES;
+        long high = unsignedMultiplyHigh(normalized, powers[index + 1]);
+        long low = normalized * powers[index + 1];
+
+        // wider approximation
+        if ((high & 0x1FF) == 0x1FF && Long.compareUnsigned(low + normalized, normalized) < 0) {
+            final long yHigh = unsignedMultiplyHigh(normalized, powers[index]);
+            final long yLow = normalized * powers[index];
+            long mergedHigh = high;
+            final long mergedLow = low + yHigh;
+            if (Long.compareUnsigned(mergedLow, low) < 0) {
+                mergedHigh++;
+            }
+            if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow + 1 == 0 && Long.compareUnsigned(yLow + normalized, normalized) < 0) {
+                return Double.NaN;
+            }
+            high = mergedHigh;
+            low = mergedLow;
+        }
+
+        // shifting to 54 bits
+        final long msb = high >>> 63;
+        long result = high >>> (msb + 9);
+        exponent2 -= 1 ^ msb;
+
+        // half-way ambiguity
+        if (low == 0 && (high & 0x1FF) == 0 && (result & 3) == 1) {
+            return Double.NaN;
+        }
+
+        // from 54 to 53 bits
+        result += result & 1;
+        result >>>= 1;
+        if ((result >>> 53) > 0) {
+            result >>>= 1;
+            exponent2++;
+        }
+
+        // subnormal or infinite
+        if (Long.compareUnsigned(exponent2 - 1, 0x7FF - 1) >= 0) {
+            return Double.NaN;
+        }
+
+        final long bits = exponent2 << 52 | result & 0x000FFFFFFFFFFFFFL | (negative ? 0x8000000000000000L : 0);
+        return Double.longBitsToDouble(bits);
+    }
+
+    private static long unsignedMultiplyHigh(final long a, final long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    // lazy holder, 128-bit approximations (rounded down) of the powers of ten normalized to have their highest bit set
+    // stored as {low, high} pairs for exponents in [MIN_EXPONENT, MAX_EXPONENT]
+    private static final class PowersOfTen {
+        private static final long[] VALUES = new long[(MAX_EXPONENT - MIN_EXPONENT + 1) * 2];
+
+        static {
+            final BigInteger ten = BigInteger.TEN;
+            final BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+            for (int e = MIN_EXPONENT; e <= MAX_EXPONENT; e++) {
+                BigInteger value;
+                if (e >= 0) {
+                    value = ten.pow(e);
+                    final int shift = value.bitLength() - 128;
+                    value = shift > 0 ? value.shiftRight(shift) : value.shiftLeft(-shift);
+                } else {
+                    final BigInteger divisor = ten.pow(-e);
+                    // enough bits for the quotient to have 128 significant bits
+                    value = BigInteger.ONE.shiftLeft(divisor.bitLength() + 127).divide(divisor);
+                    final int shift = value.bitLength() - 128;
+                    value = shift > 0 ? value.shiftRight(shift) : value.shiftLeft(-shift);
+                }
+                final int index = (e - MIN_EXPONENT) * 2;
+                VALUES[index] = value.and(mask).longValue();
+                VALUES[index + 1] = value.shiftRight(64).longValue();
+            }
+        }
+
+        private PowersOfTen() {
+            // no-op
+        }
+    }
+}
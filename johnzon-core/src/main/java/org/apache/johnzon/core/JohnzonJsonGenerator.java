@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.json.JsonReader;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonGenerationException;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParsingException;
+
+/**
+ * JsonGenerator with extended functionality.
+ *
+ * The {@link PreEncodedKey} flavors are equivalent to the {@code String name} ones but let the caller
+ * escape a key once and reuse it for every object it writes (a mapper knows the property names of a class upfront).
+ * Default implementations just use the key name.
+ *
+ * The float flavors write the digits of {@link Float#toString(float)} ({@code 0.1}) where the JSON-P double ones
+ * would write the ones of the widened double ({@code 0.10000000149011612}).
+ * Default implementations go through {@link BigDecimal} as JSON-P has no float write.
+ *
+ * The raw flavors write a value already serialized (a cached fragment for instance) as it is, without parsing it.
+ * Default implementations parse it and write the resulting value.
+ */
+public interface JohnzonJsonGenerator extends JsonGenerator {
+    default JohnzonJsonGenerator writeKey(final PreEncodedKey key) {
+        writeKey(key.getName());
+        return this;
+    }
+
+    default JohnzonJsonGenerator writeStartObject(final PreEncodedKey key) {
+        writeStartObject(key.getName());
+        return this;
+    }
+
+    default JohnzonJsonGenerator writeStartArray(final PreEncodedKey key) {
+        writeStartArray(key.getName());
+        return this;
+    }
+
+    default JohnzonJsonGenerator write(final PreEncodedKey key, final JsonValue value) {
+        write(key.getName(), value);
+        return this;
+    }
+
+    default JohnzonJsonGenerator write(final PreEncodedKey key, final String value) {
+        write(key.getName(), value);
+        return this;
+    }
+
+    default JohnzonJsonGenerator write(final PreEncodedKey key, final BigInteger value) {
+        write(key.getName(), value);
+        return this;
+    }
+
+    default JohnzonJsonGenerator write(final PreEncodedKey key, final BigDecimal value) {
+        write(key.getName(), value);
+        return this;
+    }
+
+    default JohnzonJsonGenerator write(final PreEncodedKey key, final int value) {
+        write(key.getName(), value);
+        return this;
+    }
+
+    default JohnzonJsonGenerator write(final PreEncodedKey key, final long value) {
+        write(key.getName(), value);
+        return this;
+    }
+
+    default JohnzonJsonGenerator write(final PreEncodedKey key, final double value) {
+        write(key.getName(), value);
+        return this;
+    }
+
+    default JohnzonJsonGenerator write(final PreEncodedKey key, final float value) {
+        write(key.getName(), value);
+        return this;
+    }
+
+    default JohnzonJsonGenerator write(final PreEncodedKey key, final boolean value) {
+        write(key.getName(), value);
+        return this;
+    }
+
+    default JohnzonJsonGenerator writeNull(final PreEncodedKey key) {
+        writeNull(key.getName());
+        return this;
+    }
+
+    default JohnzonJsonGenerator write(final float value) {
+        write(new BigDecimal(Float.toString(value)));
+        return this;
+    }
+
+    default JohnzonJsonGenerator write(final String name, final float value) {
+        write(name, new BigDecimal(Float.toString(value)));
+        return this;
+    }
+
+    /**
+     * Validates the calls from now on as JSON-P requires, a generator created without validation
+     * (the trusted mode of the mapper) switches to it before being handed to user code.
+     * Default implementation is a no-op, JSON-P generators always validate.
+     *
+     * @return this generator.
+     */
+    default JohnzonJsonGenerator enableValidation() {
+        return this;
+    }
+
+    /**
+     * Writes an already serialized JSON value in an array or as the root value.
+     * It is not reformatted when pretty printing. Johnzon generators check it is a single well formed value
+     * unless {@link JsonGeneratorFactoryImpl#GENERATOR_RAW_VALIDATION} is disabled.
+     *
+     * @param json a single JSON value.
+     * @return this generator.
+     * @throws JsonGenerationException if the value is not well formed.
+     */
+    default JohnzonJsonGenerator writeRaw(final CharSequence json) {
+        write(readRaw(json));
+        return this;
+    }
+
+    /**
+     * Writes an already serialized JSON value as the value of an object entry.
+     *
+     * @param key the entry name.
+     * @param json a single JSON value.
+     * @return this generator.
+     * @see #writeRaw(CharSequence)
+     */
+    default JohnzonJsonGenerator writeRaw(final String key, final CharSequence json) {
+        write(key, readRaw(json));
+        return this;
+    }
+
+    // generators not writing the text as it is parse it to write the value
+    private static JsonValue readRaw(final CharSequence json) {
+        try (final JsonReader reader = SerializableValue.factory().createReader(new StringReader(json.toString()))) {
+            return reader.readValue();
+        } catch (final JsonParsingException e) {
+            throw new JsonGenerationException("Invalid raw JSON value, " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reuses this generator (and its buffer) to write another document, typically for pooled per thread instances.
+     * What is still buffered is written to the previous output which is not closed, a closed generator can be reset too.
+     *
+     * @param writer the new output.
+     * @return this generator, ready to write a new document.
+     * @throws UnsupportedOperationException if the generator doesn't write to a {@link Writer}.
+     */
+    default JohnzonJsonGenerator reset(final Writer writer) {
+        throw new UnsupportedOperationException(getClass().getName() + " can't be reset with a Writer");
+    }
+
+    /**
+     * Same as {@link #reset(Writer)} for generators encoding UTF-8 directly in an {@link OutputStream}.
+     *
+     * @param stream the new output.
+     * @return this generator, ready to write a new document.
+     * @throws UnsupportedOperationException if the generator doesn't write to an {@link OutputStream}.
+     */
+    default JohnzonJsonGenerator reset(final OutputStream stream) {
+        throw new UnsupportedOperationException(getClass().getName() + " can't be reset with an OutputStream");
+    }
+
+    /**
+     * An object key already escaped, quoted and followed by the key separator ({@code "name":}),
+     * as chars for writers and UTF-8 bytes for output streams.
+     * It is immutable and can be shared between threads and generators.
+     */
+    final class PreEncodedKey {
+        private final String name;
+        private final char[] chars;
+        private final byte[] bytes;
+
+        public PreEncodedKey(final String name) {
+            this.name = name;
+            this.chars = JsonGeneratorImpl.encodeKey(name);
+            this.bytes = new String(chars).getBytes(StandardCharsets.UTF_8);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // not copied, callers must not modify them
+        char[] chars() {
+            return chars;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import jakarta.json.JsonArray;
+
+/**
+ * JsonArray of numbers stored as primitives, its elements are all longs or all doubles.
+ * The primitive accessors let callers (the mapper binding {@code long[]} or {@code double[]})
+ * read the numbers without creating a {@link jakarta.json.JsonNumber} per element.
+ */
+public interface JohnzonJsonNumberArray extends JsonArray {
+    /**
+     * @return {@code true} if the numbers are longs, {@code false} if they are doubles.
+     */
+    boolean isIntegral();
+
+    /**
+     * @return a copy of the numbers, doubles are converted as {@link jakarta.json.JsonNumber#longValue()} does.
+     */
+    long[] getLongArray();
+
+    /**
+     * @return a copy of the numbers, longs are converted as {@link jakarta.json.JsonNumber#doubleValue()} does.
+     */
+    double[] getDoubleArray();
+}
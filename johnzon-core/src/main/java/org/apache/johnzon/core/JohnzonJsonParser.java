@@ -16,6 +16,8 @@
  */
 package org.apache.johnzon.core;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.math.BigDecimal;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -34,6 +36,14 @@ public interface JohnzonJsonParser extends JsonParser {
 
     boolean isNotTooLong();
 
+    /**
+     * @return the current number as a double, same as {@code getBigDecimal().doubleValue()}
+     *          but implementations can avoid to create the intermediate {@link BigDecimal}.
+     */
+    default double getDouble() {
+        return getBigDecimal().doubleValue();
+    }
+
     /**
      * @return the _current_ Event. That's the one returned by the previous call to {@link #next()}
      *          but without propagating the Event pointer to the next entry.
@@ -42,6 +52,40 @@ public interface JohnzonJsonParser extends JsonParser {
         throw new UnsupportedOperationException("getting the current JsonParser Event is not supported");
     }
 
+    /**
+     * @return the JSON text of the current value without building the {@link JsonValue}s of a structure.
+     *          On a START_OBJECT or START_ARRAY event the whole structure is consumed, the parser is then on
+     *          the matching END event as after {@link #skipObject()} or {@link #skipArray()}.
+     *          Implementations reading a document return the structures and numbers exactly as they are in it
+     *          (whitespaces and escaping included), the default implementation serializes {@link #getValue()}.
+     */
+    default String getRawValue() {
+        return getValue().toString();
+    }
+
+    /**
+     * Reuses this parser (and its buffers) to parse another document, typically for pooled per thread instances.
+     * The previous input is not closed, a closed parser can be reset too.
+     *
+     * @param reader the new document.
+     * @return this parser positioned before the first event of the document.
+     * @throws UnsupportedOperationException if the parser doesn't read a {@link Reader} (in memory document, UTF-8 stream).
+     */
+    default JohnzonJsonParser reset(final Reader reader) {
+        throw new UnsupportedOperationException(getClass().getName() + " can't be reset with a Reader");
+    }
+
+    /**
+     * Same as {@link #reset(Reader)} for parsers reading UTF-8 streams, the stream must not start with a BOM.
+     *
+     * @param stream the new document.
+     * @return this parser positioned before the first event of the document.
+     * @throws UnsupportedOperationException if the parser doesn't read an UTF-8 {@link InputStream}.
+     */
+    default JohnzonJsonParser reset(final InputStream stream) {
+        throw new UnsupportedOperationException(getClass().getName() + " can't be reset with an InputStream");
+    }
+
 
     class JohnzonJsonParserWrapper implements JohnzonJsonParser {
         private final JsonParser jsonParser;
@@ -96,6 +140,36 @@ public interface JohnzonJsonParser extends JsonParser {
             return jsonParser.getBigDecimal();
         }
 
+        @Override
+        public double getDouble() {
+            return JohnzonJsonParser.class.isInstance(jsonParser) ?
+                    JohnzonJsonParser.class.cast(jsonParser).getDouble() : jsonParser.getBigDecimal().doubleValue();
+        }
+
+        @Override
+        public String getRawValue() {
+            return JohnzonJsonParser.class.isInstance(jsonParser) ?
+                    JohnzonJsonParser.class.cast(jsonParser).getRawValue() : jsonParser.getValue().toString();
+        }
+
+        @Override
+        public JohnzonJsonParser reset(final Reader reader) {
+            if (!JohnzonJsonParser.class.isInstance(jsonParser)) {
+                return JohnzonJsonParser.super.reset(reader);
+            }
+            JohnzonJsonParser.class.cast(jsonParser).reset(reader);
+            return this;
+        }
+
+        @Override
+        public JohnzonJsonParser reset(final InputStream stream) {
+            if (!JohnzonJsonParser.class.isInstance(jsonParser)) {
+                return JohnzonJsonParser.super.reset(stream);
+            }
+            JohnzonJsonParser.class.cast(jsonParser).reset(stream);
+            return this;
+        }
+
         @Override
         public JsonLocation getLocation() {
             return jsonParser.getLocation();
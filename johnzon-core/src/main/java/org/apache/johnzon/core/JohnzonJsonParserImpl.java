@@ -65,6 +65,91 @@ public abstract class JohnzonJsonParserImpl implements JohnzonJsonParser {
 
     protected abstract Event internalNext();
 
+    // parsers reused for another document reset their own state then call it
+    void resetParser() {
+        manualNext = false;
+    }
+
+    JsonProviderImpl getProvider() {
+        return provider;
+    }
+
+    // parsers able to canonicalize keys and short values override it
+    void setStringCache(final StringCache stringCache) {
+        // no-op
+    }
+
+    /**
+     * Moves the parser to the end event of the innermost open structure (the one just started on a START event).
+     * Implementations can skip the content without tokenizing it - only tracking strings and nesting -
+     * so it is not validated and no value is decoded.
+     *
+     * @param array {@code true} if the innermost open structure is an array, {@code false} for an object.
+     */
+    void skipStructureRaw(final boolean array) {
+        if (array) {
+            skipArray();
+        } else {
+            skipObject();
+        }
+    }
+
+    /**
+     * Parsers reading a document copy the text of the structure starting at the current event
+     * then move to its end event.
+     *
+     * @return the source text of the current structure or null if not supported.
+     */
+    String rawStructure() {
+        return null;
+    }
+
+    /**
+     * @return the whole document when it is an in memory char[] (or String), null otherwise.
+     */
+    char[] inMemoryChars() {
+        return null;
+    }
+
+    /**
+     * @return the whole document when it is an in memory byte[], null otherwise.
+     */
+    byte[] inMemoryBytes() {
+        return null;
+    }
+
+    /**
+     * @return the start of the current string or number in the in memory document
+     *          or -1 if its value is not a plain slice of it (escaped string, decoded UTF-8 for instance).
+     */
+    int valueStart() {
+        return -1;
+    }
+
+    // end (exclusive) of the current value when valueStart() is not -1
+    int valueEnd() {
+        return -1;
+    }
+
+    /**
+     * In memory parsers can index the array starting at the current event to split it at element boundaries.
+     * If they do, the parser must be moved after the array (its END_ARRAY event consumed).
+     *
+     * @return the index of the current array or null if not supported.
+     */
+    StructuralIndex indexCurrentArray() {
+        return null;
+    }
+
+    /**
+     * @param index the index of the array returned by {@link #indexCurrentArray()}.
+     * @param element the element to read.
+     * @return a parser reading only this element of the document, its locations are the ones of the whole document.
+     */
+    JohnzonJsonParserImpl newElementParser(final StructuralIndex index, final int element) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public JsonObject getObject() {
         Event current = current();
@@ -115,6 +200,20 @@ public abstract class JohnzonJsonParserImpl implements JohnzonJsonParser {
         }
     }
 
+    @Override
+    public String getRawValue() {
+        final Event current = current();
+        if (current == Event.START_OBJECT || current == Event.START_ARRAY) {
+            final String raw = rawStructure();
+            if (raw != null) {
+                return raw;
+            }
+        } else if (current == Event.VALUE_NUMBER) { // the text of the document (1e3), not the normalized value (1E+3)
+            return getString();
+        }
+        return getValue().toString();
+    }
+
     @Override
     public void skipObject() {
         if (isInObject()) {
@@ -148,10 +247,14 @@ public abstract class JohnzonJsonParserImpl implements JohnzonJsonParser {
     private static class ArrayStreamSpliterator extends Spliterators.AbstractSpliterator<JsonValue> {
 
         private final JohnzonJsonParserImpl parser;
+        private final JsonReaderImpl.Config config;
+        private final Runnable afterArray;
 
-        ArrayStreamSpliterator(JohnzonJsonParserImpl parser) {
+        ArrayStreamSpliterator(JohnzonJsonParserImpl parser, final JsonReaderImpl.Config config, final Runnable afterArray) {
             super(Long.MAX_VALUE, Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED);
             this.parser = parser;
+            this.config = config;
+            this.afterArray = afterArray;
         }
 
         @Override
@@ -159,22 +262,98 @@ public abstract class JohnzonJsonParserImpl implements JohnzonJsonParser {
             Event next = parser.next();
 
             if (next == Event.END_ARRAY) {
+                if (afterArray != null) {
+                    afterArray.run();
+                }
                 return false;
             }
 
-            action.accept(parser.getValue());
+            if (config == JsonReaderImpl.Config.DEFAULT) {
+                action.accept(parser.getValue());
+            } else { // not closed, it would close the parser
+                action.accept(new JsonReaderImpl(parser, true, parser.getCharArrayProvider(), config, parser.getProvider()).readValue());
+            }
             return true;
         }
     }
 
     @Override
     public Stream<JsonValue> getArrayStream() {
+        return getArrayStream(JsonReaderImpl.Config.DEFAULT, null);
+    }
+
+    /**
+     * @param config how the elements are created, the one of the reader streaming the array.
+     * @param afterArray if not null, called once the parser is after the array (its END_ARRAY event consumed).
+     * @return the elements of the current array.
+     */
+    Stream<JsonValue> getArrayStream(final JsonReaderImpl.Config config, final Runnable afterArray) {
         Event current = current();
         if (current != Event.START_ARRAY) {
             throw new IllegalStateException(current + " doesn't support getArrayStream()");
         }
 
-        return StreamSupport.stream(new ArrayStreamSpliterator(this), false);
+        final StructuralIndex index = indexCurrentArray();
+        if (index != null) {
+            if (afterArray != null) {
+                afterArray.run();
+            }
+            return StreamSupport.stream(new IndexedArraySpliterator(this, index, 0, index.elementCount(), config), false);
+        }
+        return StreamSupport.stream(new ArrayStreamSpliterator(this, config, afterArray), false);
+    }
+
+    // each element is parsed with its own parser so it can be split for parallel streams
+    private static class IndexedArraySpliterator implements Spliterator<JsonValue> {
+        private final JohnzonJsonParserImpl parser;
+        private final StructuralIndex index;
+        private final JsonReaderImpl.Config config;
+        private int current;
+        private final int end;
+
+        IndexedArraySpliterator(final JohnzonJsonParserImpl parser, final StructuralIndex index, final int start, final int end,
+                                final JsonReaderImpl.Config config) {
+            this.parser = parser;
+            this.index = index;
+            this.current = start;
+            this.end = end;
+            this.config = config;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super JsonValue> action) {
+            if (current >= end) {
+                return false;
+            }
+            final JohnzonJsonParserImpl elementParser = parser.newElementParser(index, current);
+            current++;
+            try (final JsonReaderImpl reader = new JsonReaderImpl(
+                    elementParser, false, parser.getCharArrayProvider(), config, parser.getProvider())) {
+                action.accept(reader.readValue());
+            }
+            return true;
+        }
+
+        @Override
+        public Spliterator<JsonValue> trySplit() {
+            final int middle = (current + end) >>> 1;
+            if (middle <= current) {
+                return null;
+            }
+            final Spliterator<JsonValue> prefix = new IndexedArraySpliterator(parser, index, current, middle, config);
+            current = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - current;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
     }
 
     private static class ObjectStreamSpliterator extends Spliterators.AbstractSpliterator<Map.Entry<String,JsonValue>> {
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.nio.file.Path;
+
+import jakarta.json.JsonReader;
+import jakarta.json.JsonReaderFactory;
+
+/**
+ * JsonReaderFactory reading in memory documents and files without a {@link java.io.Reader}.
+ *
+ * Readers of in memory documents honor {@link JsonReaderImpl#LAZY_VALUES}
+ * and split {@link JsonReaderImpl#readArrayStream()} for parallel streams.
+ */
+public interface JohnzonJsonReaderFactory extends JsonReaderFactory {
+    /**
+     * @param path the file to read, it is memory mapped by windows.
+     * @return a reader of the file.
+     */
+    JsonReader createReader(Path path);
+
+    /**
+     * @param chars the document, it must not change until the values are read.
+     *              Documents longer than the parser buffer are streamed unless {@link JsonReaderImpl#LAZY_VALUES} is set.
+     * @return a reader of the document.
+     */
+    JsonReader createReader(CharSequence chars);
+
+    /**
+     * @param bytes the document, it is read in place so it must not change until the values are read.
+     * @return a reader of the document.
+     */
+    JsonReader createReader(byte[] bytes);
+}
@@ -27,6 +27,7 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -40,6 +41,11 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder, Serializable {
     private List<JsonValue> tmpList;
     private BufferStrategy.BufferProvider<char[]> bufferProvider;
 
+    // while only longs or only doubles are added they are kept as primitives, they move to tmpList otherwise
+    private long[] longs;
+    private double[] doubles;
+    private int size;
+
     protected JsonArrayBuilderImpl() {
         // no-op: serialization
     }
@@ -48,10 +54,10 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder, Serializable {
                                 final BufferStrategy.BufferProvider<char[]> provider,
                                 final RejectDuplicateKeysMode rejectDuplicateKeysMode,
                                 final JsonProviderImpl jsonProvider) {
-        this.tmpList = new ArrayList<>(initialData);
         this.bufferProvider = provider;
         this.rejectDuplicateKeysMode = rejectDuplicateKeysMode;
         this.jsonProvider = jsonProvider;
+        initialData.forEach(this::addValue);
     }
 
     public JsonArrayBuilderImpl(final Collection<?> initialData, final BufferStrategy.BufferProvider<char[]> provider,
@@ -59,7 +65,6 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder, Serializable {
         this.bufferProvider = provider;
         this.rejectDuplicateKeysMode = rejectDuplicateKeysMode;
         this.jsonProvider = jsonProvider;
-        this.tmpList = new ArrayList<>();
         if (!initialData.isEmpty()) {
             for (Object initialValue : initialData) {
                 add(initialValue);
@@ -207,7 +212,7 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder, Serializable {
 
     @Override
     public JsonArrayBuilder remove(final int index) {
-        tmpList.remove(index);
+        list().remove(index);
         return this;
     }
 
@@ -268,19 +273,19 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder, Serializable {
 
     @Override
     public JsonArrayBuilder add(final int value) {
-        addValue(new JsonLongImpl(value));
+        addLong(value);
         return this;
     }
 
     @Override
     public JsonArrayBuilder add(final long value) {
-        addValue(new JsonLongImpl(value));
+        addLong(value);
         return this;
     }
 
     @Override
     public JsonArrayBuilder add(final double value) {
-        addValue(new JsonDoubleImpl(value));
+        addDouble(JsonDoubleImpl.checkFinite(value));
         return this;
     }
 
@@ -309,10 +314,10 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder, Serializable {
     }
 
     private void setValue(int idx, JsonValue value) {
-        if (value == null || tmpList == null) {
+        if (value == null || tmpList == null && longs == null && doubles == null) {
             throw npe();
         }
-        tmpList.set(idx, value);
+        list().set(idx, value);
     }
 
     private void addValue(JsonValue value) {
@@ -320,11 +325,13 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder, Serializable {
             throw npe();
         }
 
-        if(tmpList==null){
-            tmpList=new ArrayList<>();
+        if (value.getClass() == JsonLongImpl.class) {
+            addLong(JsonLongImpl.class.cast(value).longValue());
+        } else if (value.getClass() == JsonDoubleImpl.class) {
+            addDouble(JsonDoubleImpl.class.cast(value).doubleValue());
+        } else {
+            list().add(value);
         }
-
-        tmpList.add(value);
     }
 
     private void addValue(int idx, JsonValue value) {
@@ -332,15 +339,57 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder, Serializable {
             throw npe();
         }
 
-        if(tmpList==null){
-            tmpList=new ArrayList<>();
+        list().add(idx, value);
+    }
+
+    private void addLong(final long value) {
+        if (tmpList != null || doubles != null) {
+            list().add(new JsonLongImpl(value));
+            return;
+        }
+        if (longs == null) {
+            longs = new long[8];
+        } else if (size == longs.length) {
+            longs = Arrays.copyOf(longs, size * 2);
         }
+        longs[size++] = value;
+    }
 
-        tmpList.add(idx, value);
+    private void addDouble(final double value) {
+        if (tmpList != null || longs != null) {
+            list().add(new JsonDoubleImpl(value));
+            return;
+        }
+        if (doubles == null) {
+            doubles = new double[8];
+        } else if (size == doubles.length) {
+            doubles = Arrays.copyOf(doubles, size * 2);
+        }
+        doubles[size++] = value;
+    }
+
+    // switches to a list of values, the primitives become their JsonNumber
+    private List<JsonValue> list() {
+        if (tmpList == null) {
+            tmpList = new ArrayList<>(Math.max(10, size + 1));
+            for (int i = 0; i < size; i++) {
+                tmpList.add(longs != null ? new JsonLongImpl(longs[i]) : new JsonDoubleImpl(doubles[i]));
+            }
+            longs = null;
+            doubles = null;
+            size = 0;
+        }
+        return tmpList;
     }
 
     @Override
     public JsonArray build() {
+        if (longs != null) {
+            return new JsonNumberArrayImpl.Longs(longs, size, bufferProvider);
+        }
+        if (doubles != null) {
+            return new JsonNumberArrayImpl.Doubles(doubles, size, bufferProvider);
+        }
         if(tmpList == null) {
             return JsonValue.EMPTY_JSON_ARRAY;
         }
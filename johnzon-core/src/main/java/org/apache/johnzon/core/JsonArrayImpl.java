@@ -32,9 +32,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 
-class JsonArrayImpl extends AbstractList<JsonValue> implements JsonArray, Serializable {
+class JsonArrayImpl extends AbstractList<JsonValue> implements JsonArray, JsonFingerprint.Holder, Serializable {
     private final BufferStrategy.BufferProvider<char[]> provider;
     private Integer hashCode = null;
+    private transient volatile long fingerprint;
     private final List<JsonValue> unmodifieableBackingList;
     private int size = -1;
 
@@ -177,7 +178,17 @@ class JsonArrayImpl extends AbstractList<JsonValue> implements JsonArray, Serial
 
     @Override
     public boolean equals(final Object obj) {
-        return List.class.isInstance(obj) && super.equals(obj);
+        return obj == this || (List.class.isInstance(obj) && !JsonFingerprint.differ(this, obj) && super.equals(obj));
+    }
+
+    @Override
+    public long fingerprint() {
+        long f = fingerprint;
+        if (f == 0) {
+            f = JsonFingerprint.ofArray(unmodifieableBackingList);
+            fingerprint = f;
+        }
+        return f;
     }
 
     @Override
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the items two arrays have in common, in the same order (a longest common subsequence).
+ *
+ * The common prefix and suffix are matched first, then the remaining part is compared with the Myers algorithm
+ * which is O((N+M)D) for D differences, items are compared only when their {@link JsonFingerprint} match.
+ * For large arrays the items present exactly once on both sides are used as anchors first so Myers only runs
+ * between two consecutive anchors and the whole stays near-linear when few items changed.
+ * When a segment has more differences than {@link #MAX_EDIT_DISTANCE} nothing is matched in it,
+ * the caller then diffs its items one by one.
+ */
+final class JsonArrayMatcher {
+    static final int ANCHOR_THRESHOLD = 256;
+    static final int MAX_EDIT_DISTANCE = 1024;
+
+    private final JsonArray source;
+    private final JsonArray target;
+    private final long[] sourceFingerprints;
+    private final long[] targetFingerprints;
+    private final int[] matches;
+
+    private JsonArrayMatcher(final JsonArray source, final JsonArray target) {
+        this.source = source;
+        this.target = target;
+        this.sourceFingerprints = new long[source.size()];
+        this.targetFingerprints = new long[target.size()];
+        this.matches = new int[source.size()];
+    }
+
+    /**
+     * @return for each source index the index of the same item in the target or -1 if it has no match,
+     * matched target indices are increasing.
+     */
+    static int[] match(final JsonArray source, final JsonArray target) {
+        return new JsonArrayMatcher(source, target).match();
+    }
+
+    private int[] match() {
+        Arrays.fill(matches, -1);
+
+        int start = 0;
+        int sourceEnd = source.size();
+        int targetEnd = target.size();
+        while (start < sourceEnd && start < targetEnd && source.get(start).equals(target.get(start))) {
+            matches[start] = start;
+            start++;
+        }
+        while (sourceEnd > start && targetEnd > start && source.get(sourceEnd - 1).equals(target.get(targetEnd - 1))) {
+            matches[--sourceEnd] = --targetEnd;
+        }
+        if (start == sourceEnd || start == targetEnd) {
+            return matches;
+        }
+
+        for (int i = start; i < sourceEnd; i++) {
+            sourceFingerprints[i] = JsonFingerprint.of(source.get(i));
+        }
+        for (int i = start; i < targetEnd; i++) {
+            targetFingerprints[i] = JsonFingerprint.of(target.get(i));
+        }
+        if (sourceEnd - start + targetEnd - start > ANCHOR_THRESHOLD) {
+            matchAnchored(start, sourceEnd, start, targetEnd);
+        } else {
+            myers(start, sourceEnd, start, targetEnd);
+        }
+        return matches;
+    }
+
+    private void matchAnchored(final int sourceFrom, final int sourceTo, final int targetFrom, final int targetTo) {
+        // value -> {source count, source index, target count, target index}
+        final Map<JsonValue, int[]> occurrences = new HashMap<>();
+        for (int i = sourceFrom; i < sourceTo; i++) {
+            final int[] occurrence = occurrences.computeIfAbsent(source.get(i), k -> new int[]{0, -1, 0, -1});
+            occurrence[0]++;
+            occurrence[1] = i;
+        }
+        for (int i = targetFrom; i < targetTo; i++) {
+            final int[] occurrence = occurrences.get(target.get(i));
+            if (occurrence != null) {
+                occurrence[2]++;
+                occurrence[3] = i;
+            }
+        }
+
+        final List<int[]> unique = new ArrayList<>();
+        for (final int[] occurrence : occurrences.values()) {
+            if (occurrence[0] == 1 && occurrence[2] == 1) {
+                unique.add(new int[]{occurrence[1], occurrence[3]});
+            }
+        }
+        unique.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+        int sourceStart = sourceFrom;
+        int targetStart = targetFrom;
+        for (final int[] anchor : increasingTargets(unique)) {
+            myers(sourceStart, anchor[0], targetStart, anchor[1]);
+            matches[anchor[0]] = anchor[1];
+            sourceStart = anchor[0] + 1;
+            targetStart = anchor[1] + 1;
+        }
+        myers(sourceStart, sourceTo, targetStart, targetTo);
+    }
+
+    // longest increasing subsequence of the target indices (patience sorting), anchors are sorted by source index
+    private static List<int[]> increasingTargets(final List<int[]> anchors) {
+        final int[] tails = new int[anchors.size()];
+        final int[] previous = new int[anchors.size()];
+        int length = 0;
+        for (int i = 0; i < anchors.size(); i++) {
+            final int value = anchors.get(i)[1];
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (anchors.get(tails[middle])[1] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        final int[][] result = new int[length][];
+        for (int i = length - 1, current = length > 0 ? tails[length - 1] : -1; i >= 0; i--, current = previous[current]) {
+            result[i] = anchors.get(current);
+        }
+        return Arrays.asList(result);
+    }
+
+    // greedy Myers keeping the furthest reaching paths of each step to backtrack the common items
+    private void myers(final int sourceFrom, final int sourceTo, final int targetFrom, final int targetTo) {
+        final int n = sourceTo - sourceFrom;
+        final int m = targetTo - targetFrom;
+        if (n == 0 || m == 0) {
+            return;
+        }
+
+        final int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+        final int offset = max + 1;
+        final int[] v = new int[2 * max + 3];
+        final List<int[]> trace = new ArrayList<>();
+        for (int d = 0; d <= max; d++) {
+            trace.add(Arrays.copyOfRange(v, offset - d - 1, offset + d + 2));
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]) ?
+                        v[offset + k + 1] : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && equal(sourceFrom + x, targetFrom + y)) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    backtrack(trace, d, n, m, sourceFrom, targetFrom);
+                    return;
+                }
+            }
+        }
+        // too many differences, items are diffed one by one
+    }
+
+    private void backtrack(final List<int[]> trace, final int distance,
+                           final int n, final int m, final int sourceFrom, final int targetFrom) {
+        int x = n;
+        int y = m;
+        for (int d = distance; d > 0; d--) {
+            final int[] v = trace.get(d); // v[k] is at k + d + 1
+            final int k = x - y;
+            final int previousK = k == -d || (k != d && v[k - 1 + d + 1] < v[k + 1 + d + 1]) ? k + 1 : k - 1;
+            final int previousX = v[previousK + d + 1];
+            final int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                x--;
+                y--;
+                matches[sourceFrom + x] = targetFrom + y;
+            }
+            x = previousX;
+            y = previousY;
+        }
+        while (x > 0 && y > 0) {
+            x--;
+            y--;
+            matches[sourceFrom + x] = targetFrom + y;
+        }
+    }
+
+    private boolean equal(final int sourceIndex, final int targetIndex) {
+        return sourceFingerprints[sourceIndex] == targetFingerprints[targetIndex]
+                && source.get(sourceIndex).equals(target.get(targetIndex));
+    }
+}
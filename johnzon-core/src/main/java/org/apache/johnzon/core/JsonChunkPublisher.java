@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonGeneratorFactory;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates a document in UTF-8 chunks of a fixed size published to a single {@link Flow.Subscriber}.
+ *
+ * The document is written step by step by a {@link Producer} (one array item per step for instance)
+ * and a step only runs when the subscriber requested more chunks than the already generated ones:
+ * without demand the generation stops between two steps so only the chunks of the last step are retained,
+ * whatever the size of the document.
+ *
+ * Chunk arrays come from a pool of the buffer strategy configured on the factory
+ * ({@link AbstractJsonFactory#BUFFER_STRATEGY}), subscribers can give them back with {@link #release(ByteBuffer)}
+ * once consumed, otherwise they are simply garbage collected.
+ */
+public class JsonChunkPublisher implements Flow.Publisher<ByteBuffer> {
+    private final JsonGeneratorFactory factory;
+    private final int chunkSize;
+    private final Producer producer;
+    private final BufferStrategy.BufferProvider<byte[]> chunks;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    public JsonChunkPublisher(final JsonGeneratorFactory factory, final int chunkSize, final Producer producer) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunk size must be positive: " + chunkSize);
+        }
+        this.factory = factory;
+        this.chunkSize = chunkSize;
+        this.producer = producer;
+        this.chunks = bufferStrategy(factory).newByteProvider(chunkSize);
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(final long n) {
+                    // no-op
+                }
+
+                @Override
+                public void cancel() {
+                    // no-op
+                }
+            });
+            subscriber.onError(new IllegalStateException("A document can only be published to a single subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new ChunkSubscription(subscriber));
+    }
+
+    /**
+     * Gives a consumed chunk back to the pool, it must not be used after this call.
+     *
+     * @param chunk a chunk received from this publisher.
+     */
+    public void release(final ByteBuffer chunk) {
+        if (chunk.hasArray() && chunk.arrayOffset() == 0 && chunk.array().length == chunkSize) {
+            chunks.release(chunk.array());
+        }
+    }
+
+    // same strategy as the buffers of the generators of the factory
+    private static BufferStrategy bufferStrategy(final JsonGeneratorFactory factory) {
+        final Object name = factory.getConfigInUse().get(AbstractJsonFactory.BUFFER_STRATEGY);
+        return name != null ? BufferStrategyFactory.valueOf(name.toString()) : AbstractJsonFactory.DEFAULT_BUFFER_STRATEGY;
+    }
+
+    @FunctionalInterface
+    public interface Producer {
+        /**
+         * Writes the next part of the document, this is where the generation can be suspended.
+         *
+         * @param generator the generator writing the chunks, it is the same for all the calls.
+         * @return {@code false} when the document is complete, the generator is then closed.
+         */
+        boolean writeNext(JsonGenerator generator);
+    }
+
+    private final class ChunkSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final ArrayDeque<ByteBuffer> ready = new ArrayDeque<>();
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        // only used by the thread draining
+        private ChunkOutput output;
+        private JsonGenerator generator;
+        private boolean done;
+
+        private ChunkSubscription(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested chunks must be positive: " + n);
+            } else {
+                long current;
+                do {
+                    current = demand.get();
+                } while (current != Long.MAX_VALUE
+                        && !demand.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        // requests can come from onNext or from another thread, only one of them generates at a time
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                emit();
+                if (cancelled) {
+                    releaseResources();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            while (!cancelled) {
+                final Throwable failure = error;
+                if (failure != null) {
+                    fail(failure);
+                    return;
+                }
+                if (!ready.isEmpty()) {
+                    if (!consumeDemand()) {
+                        return;
+                    }
+                    subscriber.onNext(ready.poll());
+                    continue;
+                }
+                if (done) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                if (demand.get() == 0) { // suspended between two steps
+                    return;
+                }
+                try {
+                    step();
+                } catch (final RuntimeException re) {
+                    fail(re);
+                    return;
+                }
+            }
+        }
+
+        private boolean consumeDemand() {
+            long current;
+            do {
+                current = demand.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (current == Long.MAX_VALUE) { // unbounded
+                    return true;
+                }
+            } while (!demand.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        private void step() {
+            if (generator == null) {
+                output = new ChunkOutput();
+                generator = factory.createGenerator(output, StandardCharsets.UTF_8);
+            }
+            if (producer.writeNext(generator)) {
+                generator.flush();
+            } else {
+                final JsonGenerator last = generator;
+                generator = null;
+                done = true;
+                last.close();
+            }
+        }
+
+        private void fail(final Throwable throwable) {
+            cancelled = true;
+            releaseResources();
+            subscriber.onError(throwable);
+        }
+
+        // also closes an unfinished generator so its buffer goes back to its pool, what it still writes is dropped
+        private void releaseResources() {
+            if (output != null) {
+                output.discard();
+                output = null;
+            }
+            if (generator != null) {
+                final JsonGenerator unfinished = generator;
+                generator = null;
+                try {
+                    unfinished.close();
+                } catch (final RuntimeException re) {
+                    // expected, the document is incomplete
+                }
+            }
+            ByteBuffer chunk;
+            while ((chunk = ready.poll()) != null) {
+                chunks.release(chunk.array());
+            }
+        }
+
+        // fills pooled chunks and queues them once full, the last one when the generator is closed
+        private final class ChunkOutput extends OutputStream {
+            private byte[] current;
+            private int position;
+            private boolean discarded;
+
+            @Override
+            public void write(final int b) {
+                if (discarded) {
+                    return;
+                }
+                if (current == null) {
+                    current = chunks.newBuffer();
+                }
+                current[position++] = (byte) b;
+                if (position == current.length) {
+                    queue();
+                }
+            }
+
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) {
+                if (discarded) {
+                    return;
+                }
+                int from = offset;
+                int remaining = length;
+                while (remaining > 0) {
+                    if (current == null) {
+                        current = chunks.newBuffer();
+                    }
+                    final int count = Math.min(remaining, current.length - position);
+                    System.arraycopy(bytes, from, current, position, count);
+                    position += count;
+                    from += count;
+                    remaining -= count;
+                    if (position == current.length) {
+                        queue();
+                    }
+                }
+            }
+
+            @Override
+            public void flush() {
+                // no-op: a chunk is published only once full to keep a constant size
+            }
+
+            @Override
+            public void close() {
+                if (current != null) {
+                    queue();
+                }
+            }
+
+            private void queue() {
+                ready.add(ByteBuffer.wrap(current, 0, position));
+                current = null;
+                position = 0;
+            }
+
+            private void discard() {
+                discarded = true;
+                if (current != null) {
+                    chunks.release(current);
+                    current = null;
+                    position = 0;
+                }
+            }
+        }
+    }
+}
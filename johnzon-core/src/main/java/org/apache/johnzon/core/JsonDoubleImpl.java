@@ -24,18 +24,21 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Objects;
 
-final class JsonDoubleImpl implements JsonNumber, Serializable {
+final class JsonDoubleImpl implements JsonNumber, JsonFingerprint.Holder, Serializable {
     private final double value;
 
     private Integer hashCode = null;
+    private transient volatile long fingerprint;
 
     JsonDoubleImpl(final double value) {
-        
+        this.value = checkFinite(value);
+    }
+
+    static double checkFinite(final double value) {
         if(Double.isInfinite(value) || Double.isNaN(value)) {
             throw new NumberFormatException("double value must not be NaN or Infinite");
         }
-        
-        this.value = value;
+        return value;
     }
 
     @Override
@@ -109,6 +112,16 @@ final class JsonDoubleImpl implements JsonNumber, Serializable {
         return hashCode;
     }
 
+    @Override
+    public long fingerprint() {
+        long f = fingerprint;
+        if (f == 0) {
+            f = JsonFingerprint.ofDouble(value);
+            fingerprint = f;
+        }
+        return f;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         if (JsonDoubleImpl.class.isInstance(obj)) {
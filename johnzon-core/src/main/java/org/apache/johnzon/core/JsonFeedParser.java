@@ -0,0 +1,694 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonLocation;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParsingException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A non blocking UTF-8 parser: bytes are pushed with {@link #feed(ByteBuffer)} as they arrive and
+ * {@link #hasNext()} returns false when an event needs more input ({@link #needsMoreInput()}) or the document ended.
+ * A token cut by a chunk boundary (string, escape sequence, number, literal) is kept and completed by the next chunks,
+ * already scanned bytes are not scanned again.
+ *
+ * Since the structure can be incomplete, {@link #getObject()}, {@link #getArray()} and the skip/stream methods are not supported,
+ * {@link #getValue()} only supports scalars.
+ *
+ * Usage:
+ * <pre>
+ * parser.feed(chunk);
+ * while (parser.hasNext()) {
+ *     final Event event = parser.next();
+ *     ...
+ * }
+ * // if parser.needsMoreInput() wait for the next chunk, parser.endOfInput() when there is none
+ * </pre>
+ */
+public class JsonFeedParser implements JsonParser {
+    private static final int START = 0; // no value read yet
+    private static final int EXPECT_VALUE = 1; // after a colon or a comma in an array
+    private static final int EXPECT_KEY = 2; // after a comma in an object
+    private static final int AFTER_ARRAY_START = 3;
+    private static final int AFTER_OBJECT_START = 4;
+    private static final int AFTER_KEY = 5;
+    private static final int AFTER_VALUE = 6; // comma or end of the structure
+    private static final int DONE = 7; // the root value was read
+
+    private final boolean reportMalformedInput;
+    private final int maxValueLength;
+    private final JsonProviderImpl provider;
+
+    private byte[] buffer = new byte[256];
+    private int pos; // next byte to tokenize
+    private int end; // end of the fed bytes
+    private long consumedBefore; // bytes dropped from the buffer (offset of buffer[0] in the document)
+    private boolean endOfInput;
+    private boolean needsMoreInput = true;
+
+    private int state = START;
+    private boolean[] arrays = new boolean[16]; // open structures (true for an array)
+    private int depth;
+
+    // token cut by the end of the available bytes (it starts at pos)
+    private int scanPos = -1;
+    private boolean scanEscaped;
+    private boolean scanHasEscape;
+
+    // event read ahead by hasNext()
+    private Event pending;
+    private int pendingStart = -1;
+    private int pendingEnd;
+    private boolean pendingHasEscape;
+    private boolean pendingIntegral;
+    private String pendingString;
+    private long pendingLine;
+    private long pendingColumn;
+    private long pendingOffset;
+
+    // current event
+    private Event current;
+    private int valueStart = -1;
+    private int valueEnd;
+    private boolean hasEscape;
+    private boolean integral;
+    private String string;
+    private long line = 1;
+    private long column = 1;
+    private long offset;
+
+    // location tracking
+    private long currentLine = 1;
+    private long lastLineBreak = -1;
+
+    /**
+     * @param reportMalformedInput {@code true} to reject invalid UTF-8 sequences in strings,
+     *                             {@code false} to replace them by U+FFFD as an {@link java.io.InputStreamReader}.
+     * @param maxValueLength the maximum length of a string or number.
+     * @param provider the provider creating the values.
+     */
+    public JsonFeedParser(final boolean reportMalformedInput, final int maxValueLength, final JsonProviderImpl provider) {
+        this.reportMalformedInput = reportMalformedInput;
+        this.maxValueLength = maxValueLength;
+        this.provider = provider;
+    }
+
+    /**
+     * Appends the remaining bytes of the buffer (copied, the buffer can be reused once this method returned).
+     *
+     * @param bytes the next chunk of the document.
+     */
+    public void feed(final ByteBuffer bytes) {
+        if (endOfInput) {
+            throw new IllegalStateException("endOfInput() already called");
+        }
+        final int length = bytes.remaining();
+        if (length == 0) {
+            return;
+        }
+
+        // drop what is not needed anymore: everything before the current value (or the pending token)
+        int keep = pos;
+        if (valueStart >= 0) {
+            keep = Math.min(keep, valueStart);
+        }
+        if (pendingStart >= 0) {
+            keep = Math.min(keep, pendingStart);
+        }
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, end - keep);
+            end -= keep;
+            pos -= keep;
+            if (scanPos >= 0) {
+                scanPos -= keep;
+            }
+            if (valueStart >= 0) {
+                valueStart -= keep;
+                valueEnd -= keep;
+            }
+            if (pendingStart >= 0) {
+                pendingStart -= keep;
+                pendingEnd -= keep;
+            }
+            consumedBefore += keep;
+        }
+        if (end + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, end + length));
+        }
+        bytes.get(buffer, end, length);
+        end += length;
+    }
+
+    public void feed(final byte[] bytes, final int offset, final int length) {
+        feed(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Marks the end of the document, the last tokens can then be completed (a root number for instance)
+     * and a truncated document is reported.
+     */
+    public void endOfInput() {
+        endOfInput = true;
+    }
+
+    /**
+     * @return {@code true} if the last {@link #hasNext()} returned false because the available bytes don't contain a whole event.
+     */
+    public boolean needsMoreInput() {
+        return pending == null && needsMoreInput;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending == null) {
+            pending = tokenize();
+        }
+        return pending != null;
+    }
+
+    @Override
+    public Event next() {
+        if (!hasNext()) {
+            if (needsMoreInput) {
+                throw new IllegalStateException("No event available, more input is needed");
+            }
+            throw new NoSuchElementException();
+        }
+        current = pending;
+        pending = null;
+        valueStart = pendingStart;
+        valueEnd = pendingEnd;
+        hasEscape = pendingHasEscape;
+        integral = pendingIntegral;
+        string = pendingString;
+        line = pendingLine;
+        column = pendingColumn;
+        offset = pendingOffset;
+        pendingStart = -1;
+        pendingString = null;
+        return current;
+    }
+
+    @Override
+    public Event currentEvent() {
+        return current;
+    }
+
+    @Override
+    public String getString() {
+        if (current != Event.KEY_NAME && current != Event.VALUE_STRING && current != Event.VALUE_NUMBER) {
+            throw new IllegalStateException(current + " doesn't support getString()");
+        }
+        if (string == null) {
+            string = hasEscape ? unescape(valueStart, valueEnd) : new String(buffer, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8);
+        }
+        return string;
+    }
+
+    @Override
+    public boolean isIntegralNumber() {
+        checkNumber("isIntegralNumber()");
+        return integral;
+    }
+
+    @Override
+    public int getInt() {
+        checkNumber("getInt()");
+        return integral && valueEnd - valueStart < 10 ? (int) parseLong() : getBigDecimal().intValue();
+    }
+
+    @Override
+    public long getLong() {
+        checkNumber("getLong()");
+        return integral && valueEnd - valueStart < 19 ? parseLong() : getBigDecimal().longValue();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal() {
+        checkNumber("getBigDecimal()");
+        final char[] chars = new char[valueEnd - valueStart];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) buffer[valueStart + i];
+        }
+        return new BigDecimal(chars);
+    }
+
+    @Override
+    public JsonValue getValue() {
+        if (current == null) {
+            throw new IllegalStateException("No current event");
+        }
+        switch (current) {
+            case VALUE_TRUE:
+                return JsonValue.TRUE;
+            case VALUE_FALSE:
+                return JsonValue.FALSE;
+            case VALUE_NULL:
+                return JsonValue.NULL;
+            case VALUE_STRING:
+            case KEY_NAME:
+                return new JsonStringImpl(getString());
+            case VALUE_NUMBER:
+                if (integral && valueEnd - valueStart < 19) {
+                    return new JsonLongImpl(parseLong());
+                }
+                return new JsonNumberImpl(getBigDecimal(), provider::checkBigDecimalScale);
+            default:
+                throw new IllegalStateException(current + " doesn't support getValue() on a non blocking parser");
+        }
+    }
+
+    @Override
+    public JsonLocation getLocation() {
+        return new JsonLocationImpl(line, column, offset);
+    }
+
+    @Override
+    public void close() {
+        buffer = new byte[0];
+        pos = end = 0;
+        valueStart = pendingStart = -1;
+    }
+
+    private void checkNumber(final String method) {
+        if (current != Event.VALUE_NUMBER) {
+            throw new IllegalStateException(current + " doesn't support " + method);
+        }
+    }
+
+    private long parseLong() {
+        final boolean negative = buffer[valueStart] == '-';
+        long value = 0;
+        for (int i = negative ? valueStart + 1 : valueStart; i < valueEnd; i++) {
+            value = value * 10 + (buffer[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    // null if more input is needed or the document ended
+    private Event tokenize() {
+        needsMoreInput = false;
+        while (true) {
+            while (pos < end) { // whitespaces
+                final byte b = buffer[pos];
+                if (b == ' ' || b == '\t' || b == '\r') {
+                    pos++;
+                } else if (b == '\n') {
+                    currentLine++;
+                    lastLineBreak = consumedBefore + pos;
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            if (pos == end) {
+                return needInput("End of file hit too early");
+            }
+
+            final byte b = buffer[pos];
+            switch (b) {
+                case '{':
+                case '[':
+                    expectValue(b);
+                    if (depth == arrays.length) {
+                        arrays = Arrays.copyOf(arrays, depth * 2);
+                    }
+                    arrays[depth++] = b == '[';
+                    state = b == '[' ? AFTER_ARRAY_START : AFTER_OBJECT_START;
+                    pos++;
+                    return event(b == '[' ? Event.START_ARRAY : Event.START_OBJECT, -1, -1);
+                case '}':
+                case ']':
+                    final boolean array = b == ']';
+                    if (depth == 0 || arrays[depth - 1] != array
+                            || (state != AFTER_VALUE && state != (array ? AFTER_ARRAY_START : AFTER_OBJECT_START))) {
+                        throw uexc(b, "Unexpected end of structure");
+                    }
+                    depth--;
+                    state = depth == 0 ? DONE : AFTER_VALUE;
+                    pos++;
+                    return event(array ? Event.END_ARRAY : Event.END_OBJECT, -1, -1);
+                case ',':
+                    if (state != AFTER_VALUE) {
+                        throw uexc(b, "Expected \" ] } LITERAL");
+                    }
+                    state = arrays[depth - 1] ? EXPECT_VALUE : EXPECT_KEY;
+                    pos++;
+                    continue;
+                case ':':
+                    if (state != AFTER_KEY) {
+                        throw uexc(b, "A : can only follow a key name");
+                    }
+                    state = EXPECT_VALUE;
+                    pos++;
+                    continue;
+                case '"':
+                    return readString(state == EXPECT_KEY || state == AFTER_OBJECT_START);
+                case 't':
+                    return readLiteral(b, "true", Event.VALUE_TRUE);
+                case 'f':
+                    return readLiteral(b, "false", Event.VALUE_FALSE);
+                case 'n':
+                    return readLiteral(b, "null", Event.VALUE_NULL);
+                default:
+                    if (b == '-' || (b >= '0' && b <= '9')) {
+                        return readNumber(b);
+                    }
+                    throw uexc(b, "Expected structural character or digit or 't' or 'n' or 'f' or '-'");
+            }
+        }
+    }
+
+    private Event needInput(final String eofMessage) {
+        if (endOfInput) {
+            if (pos == end && (state == DONE || state == START)) {
+                return null;
+            }
+            throw uexc((byte) 0, eofMessage);
+        }
+        if (end - pos > maxValueLength) {
+            throw tmc();
+        }
+        needsMoreInput = true;
+        return null;
+    }
+
+    private void expectValue(final byte b) {
+        if (state != START && state != EXPECT_VALUE && state != AFTER_ARRAY_START) {
+            throw uexc(b, state == DONE ? "Expected end of file" : "Expected : , [");
+        }
+    }
+
+    private Event readString(final boolean key) {
+        if (!key) {
+            expectValue((byte) '"');
+        }
+        int i;
+        boolean escaped;
+        boolean hasEscape;
+        if (scanPos >= 0) { // resume the scan
+            i = scanPos;
+            escaped = scanEscaped;
+            hasEscape = scanHasEscape;
+        } else {
+            i = pos + 1;
+            escaped = false;
+            hasEscape = false;
+        }
+        while (true) {
+            if (escaped) {
+                if (i == end) {
+                    break;
+                }
+                escaped = false;
+                i++; // \\uXXXX digits are checked when unescaped
+                continue;
+            }
+            i = Swar.stringEnd(buffer, i, end);
+            if (i == end) {
+                break;
+            }
+            final byte c = buffer[i];
+            if (c == '"') {
+                final int start = pos + 1;
+                if (reportMalformedInput && !Swar.isAscii(buffer, start, i)) {
+                    validateUtf8(start, i);
+                }
+                scanPos = -1;
+                pos = i + 1;
+                state = key ? AFTER_KEY : (depth == 0 ? DONE : AFTER_VALUE);
+                final Event event = event(key ? Event.KEY_NAME : Event.VALUE_STRING, start, i);
+                pendingHasEscape = hasEscape;
+                if (hasEscape) { // validates the escape sequences
+                    pendingString = unescape(start, i);
+                }
+                return event;
+            }
+            if (c == '\\') {
+                escaped = true;
+                hasEscape = true;
+                i++;
+                continue;
+            }
+            throw uexc(c, "Unescaped control character");
+        }
+        scanPos = i;
+        scanEscaped = escaped;
+        scanHasEscape = hasEscape;
+        return needInput("End of file hit too early");
+    }
+
+    private Event readNumber(final byte b) {
+        expectValue(b);
+        int i = scanPos >= 0 ? scanPos : pos + 1;
+        while (i < end) {
+            final byte c = buffer[i];
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                i++;
+            } else {
+                break;
+            }
+        }
+        if (i == end && !endOfInput) { // the number can continue in the next chunk
+            scanPos = i;
+            return needInput(null);
+        }
+        scanPos = -1;
+
+        final int start = pos;
+        final boolean isIntegral = validateNumber(start, i);
+        pos = i;
+        state = depth == 0 ? DONE : AFTER_VALUE;
+        final Event event = event(Event.VALUE_NUMBER, start, i);
+        pendingIntegral = isIntegral;
+        return event;
+    }
+
+    // -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?, returns true if there is no fraction nor exponent
+    private boolean validateNumber(final int start, final int numberEnd) {
+        int i = start;
+        if (buffer[i] == '-') {
+            i++;
+        }
+        final int integerStart = i;
+        i = digits(i, numberEnd);
+        if (i == integerStart) {
+            throw invalidNumber(i, "Unexpected premature end of number");
+        }
+        if (buffer[integerStart] == '0' && i - integerStart > 1) {
+            throw invalidNumber(integerStart + 1, "Leading zeros not allowed");
+        }
+        boolean isIntegral = true;
+        if (i < numberEnd && buffer[i] == '.') {
+            isIntegral = false;
+            final int fractionStart = ++i;
+            i = digits(i, numberEnd);
+            if (i == fractionStart) {
+                throw invalidNumber(i, "Unexpected premature end of number");
+            }
+        }
+        if (i < numberEnd && (buffer[i] == 'e' || buffer[i] == 'E')) {
+            isIntegral = false;
+            i++;
+            if (i < numberEnd && (buffer[i] == '+' || buffer[i] == '-')) {
+                i++;
+            }
+            final int exponentStart = i;
+            i = digits(i, numberEnd);
+            if (i == exponentStart) {
+                throw invalidNumber(i, "Expected DIGIT or + or -");
+            }
+        }
+        if (i != numberEnd) {
+            throw invalidNumber(i, "Unexpected premature end of number");
+        }
+        return isIntegral;
+    }
+
+    // reports the byte at i, the one after the number, or the last one of the number when the input ends with it
+    private JsonParsingException invalidNumber(final int i, final String message) {
+        final int position = i < end ? i : i - 1;
+        return uexc(buffer[position], position, message);
+    }
+
+    private int digits(final int from, final int to) {
+        int i = from;
+        while (i < to && buffer[i] >= '0' && buffer[i] <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private Event readLiteral(final byte b, final String literal, final Event event) {
+        expectValue(b);
+        final int available = Math.min(literal.length(), end - pos);
+        for (int i = 1; i < available; i++) {
+            if (buffer[pos + i] != literal.charAt(i)) {
+                throw uexc(buffer[pos + i], "Expected LITERAL: " + literal);
+            }
+        }
+        if (available < literal.length()) {
+            return needInput("Expected LITERAL: " + literal);
+        }
+        pos += literal.length();
+        state = depth == 0 ? DONE : AFTER_VALUE;
+        return event(event, -1, -1);
+    }
+
+    private Event event(final Event event, final int start, final int end) {
+        if (end - start > maxValueLength) {
+            throw tmc();
+        }
+        pendingStart = start;
+        pendingEnd = end;
+        pendingHasEscape = false;
+        pendingIntegral = false;
+        pendingString = null;
+        pendingOffset = consumedBefore + pos;
+        pendingLine = currentLine;
+        pendingColumn = pendingOffset - lastLineBreak;
+        return event;
+    }
+
+    private String unescape(final int start, final int end) {
+        final StringBuilder builder = new StringBuilder(end - start);
+        int runStart = start;
+        int i = start;
+        while (i < end) {
+            if (buffer[i] != '\\') {
+                i++;
+                continue;
+            }
+            builder.append(new String(buffer, runStart, i - runStart, StandardCharsets.UTF_8));
+            final byte c = buffer[i + 1];
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    builder.append((char) c);
+                    break;
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (i + 6 > end) {
+                        throw uexc(c, "Invalid unicode escape");
+                    }
+                    int value = 0;
+                    for (int j = i + 2; j < i + 6; j++) {
+                        value = (value << 4) | hex(buffer[j]);
+                    }
+                    builder.append((char) value);
+                    i += 4;
+                    break;
+                default:
+                    throw uexc(c, "Invalid escape sequence");
+            }
+            i += 2;
+            runStart = i;
+        }
+        return builder.append(new String(buffer, runStart, end - runStart, StandardCharsets.UTF_8)).toString();
+    }
+
+    private int hex(final byte value) {
+        if (value >= '0' && value <= '9') {
+            return value - '0';
+        }
+        if (value >= 'a' && value <= 'f') {
+            return value - 'a' + 10;
+        }
+        if (value >= 'A' && value <= 'F') {
+            return value - 'A' + 10;
+        }
+        throw uexc(value, "Invalid hex character");
+    }
+
+    // strict mode: the multi-bytes sequences of a string are checked once the whole string is available
+    private void validateUtf8(final int from, final int to) {
+        int i = from;
+        while (i < to) {
+            final int b = buffer[i] & 0xFF;
+            if (b < 0x80) {
+                i++;
+                continue;
+            }
+            final int length = b >= 0xC2 && b <= 0xDF ? 2 : (b >= 0xE0 && b <= 0xEF ? 3 : (b >= 0xF0 && b <= 0xF4 ? 4 : 1));
+            if (length == 1) {
+                throw malformedInput(i);
+            }
+            // the range of the second byte rejects overlong forms, surrogates and code points over U+10FFFF
+            int min = b == 0xE0 ? 0xA0 : (b == 0xF0 ? 0x90 : 0x80);
+            int max = b == 0xED ? 0x9F : (b == 0xF4 ? 0x8F : 0xBF);
+            for (int j = i + 1; j < i + length; j++) {
+                final int next = j < to ? buffer[j] & 0xFF : -1;
+                if (next < min || next > max) {
+                    throw malformedInput(j);
+                }
+                min = 0x80;
+                max = 0xBF;
+            }
+            i += length;
+        }
+    }
+
+    private JsonParsingException malformedInput(final int position) {
+        final JsonLocation location = createLocation(position);
+        return new JsonParsingException("Invalid UTF-8 sequence on " + location, location);
+    }
+
+    private JsonLocation createLocation(final int position) {
+        final long streamOffset = consumedBefore + position;
+        return new JsonLocationImpl(currentLine, streamOffset - lastLineBreak, streamOffset);
+    }
+
+    private JsonParsingException uexc(final byte c, final String message) {
+        return uexc(c, pos, message);
+    }
+
+    private JsonParsingException uexc(final byte c, final int position, final String message) {
+        final JsonLocation location = createLocation(position);
+        final int codePoint = c & 0xFF;
+        return new JsonParsingException("Unexpected character '" + (char) codePoint + "' (Codepoint: " + codePoint + ") on "
+                + location + ". Reason is [[" + message + "]]", location);
+    }
+
+    private JsonParsingException tmc() {
+        final JsonLocation location = createLocation(pos);
+        return new JsonParsingException("Too many characters. Maximum string/number length of " + maxValueLength + " exceeded on "
+                + location + ". Maybe increase org.apache.johnzon.max-string-length in jsonp factory properties or system properties.", location);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import jakarta.json.stream.JsonParser;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+
+/**
+ * Parses the chunks of a {@link Flow.Publisher} with a {@link JsonFeedParser}:
+ * each chunk is fed to the parser, the available events are handed to the handler
+ * then the next chunk is requested so the parsing never blocks a thread waiting for input.
+ */
+public class JsonFeedSubscriber implements Flow.Subscriber<ByteBuffer> {
+    private final JsonFeedParser parser;
+    private final Handler handler;
+    private Flow.Subscription subscription;
+    private boolean failed;
+
+    public JsonFeedSubscriber(final JsonFeedParser parser, final Handler handler) {
+        this.parser = parser;
+        this.handler = handler;
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(final ByteBuffer item) {
+        if (failed) {
+            return;
+        }
+        try {
+            parser.feed(item);
+            drain();
+        } catch (final RuntimeException re) {
+            failed = true;
+            subscription.cancel();
+            handler.onError(re);
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        if (failed) {
+            return;
+        }
+        failed = true;
+        handler.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (failed) {
+            return;
+        }
+        try {
+            parser.endOfInput();
+            drain();
+        } catch (final RuntimeException re) {
+            failed = true;
+            handler.onError(re);
+            return;
+        }
+        handler.onComplete();
+    }
+
+    private void drain() {
+        while (parser.hasNext()) {
+            handler.onEvent(parser.next(), parser);
+        }
+    }
+
+    public interface Handler {
+        /**
+         * @param event the event read.
+         * @param parser the parser positioned on this event to read its value.
+         */
+        void onEvent(JsonParser.Event event, JsonParser parser);
+
+        default void onComplete() {
+            // no-op
+        }
+
+        default void onError(final Throwable error) {
+            // no-op
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * 64 bits structural hash of a JSON value: equal values have the same fingerprint so two values
+ * with different fingerprints are not equal without comparing them.
+ * The same fingerprint doesn't mean the values are equal, it is only very likely.
+ *
+ * It is canonical for numbers (1, 1.0 and 1e0 share a fingerprint whatever the {@link JsonNumber} flavor)
+ * and ignores the order of the object entries as {@link JsonObject#equals(Object)} does.
+ * Johnzon immutable values ({@link Holder}) compute it lazily once, a container reuses the one of its children.
+ */
+final class JsonFingerprint {
+    private static final long NULL = 0x6A09E667F3BCC908L;
+    private static final long TRUE = 0xBB67AE8584CAA73BL;
+    private static final long FALSE = 0x3C6EF372FE94F82BL;
+    private static final long STRING = 0xA54FF53A5F1D36F1L;
+    private static final long NUMBER = 0x510E527FADE682D1L;
+    private static final long DECIMAL = 0x9B05688C2B3E6C1FL;
+    private static final long ARRAY = 0x1F83D9ABFB41BD6BL;
+    private static final long OBJECT = 0x5BE0CD19137E2179L;
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private static final BigDecimal MIN_LONG = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal MAX_LONG = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    /**
+     * A value caching its fingerprint, it is computed at most once per instance (but can be computed concurrently).
+     */
+    interface Holder {
+        long fingerprint();
+    }
+
+    private JsonFingerprint() {
+        // no-op
+    }
+
+    static long of(final JsonValue value) {
+        if (value instanceof Holder) {
+            return ((Holder) value).fingerprint();
+        }
+        if (value instanceof JsonLongImpl) {
+            return ofLong(((JsonLongImpl) value).longValue());
+        }
+        switch (value.getValueType()) {
+            case NULL:
+                return NULL;
+            case TRUE:
+                return TRUE;
+            case FALSE:
+                return FALSE;
+            case STRING:
+                return ofString(((JsonString) value).getString());
+            case NUMBER:
+                return ofDecimal(((JsonNumber) value).bigDecimalValue());
+            case ARRAY:
+                return ofArray((JsonArray) value);
+            case OBJECT:
+                long object = OBJECT;
+                for (final Map.Entry<String, JsonValue> entry : ((JsonObject) value).entrySet()) {
+                    object = addEntry(object, entry.getKey(), of(entry.getValue()));
+                }
+                return object;
+            default:
+                throw new IllegalArgumentException("Unsupported value: " + value);
+        }
+    }
+
+    /**
+     * @return {@code true} if both values are Johnzon ones with different fingerprints, they are then not equal.
+     */
+    static boolean differ(final Holder value, final Object other) {
+        return other instanceof Holder && value.fingerprint() != ((Holder) other).fingerprint();
+    }
+
+    static long ofString(final String value) {
+        long hash = STRING;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L; // FNV-1a
+        }
+        return mix(hash);
+    }
+
+    static long ofLong(final long value) {
+        return mix(NUMBER ^ mix(value));
+    }
+
+    static long ofDouble(final double value) {
+        if (value % 1 == 0 && value >= -0x1p63 && value < 0x1p63) {
+            return ofLong((long) value);
+        }
+        return ofDecimal(new JsonDoubleImpl(value).bigDecimalValue());
+    }
+
+    static long ofDecimal(final BigDecimal value) {
+        if (value.scale() == 0 && value.compareTo(MIN_LONG) >= 0 && value.compareTo(MAX_LONG) <= 0) {
+            return ofLong(value.longValue());
+        }
+        final BigDecimal stripped = value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros();
+        if (stripped.scale() <= 0 && stripped.compareTo(MIN_LONG) >= 0 && stripped.compareTo(MAX_LONG) <= 0) {
+            return ofLong(stripped.longValue());
+        }
+        final long unscaled = stripped.unscaledValue().longValue() ^ (long) stripped.unscaledValue().hashCode() << 32;
+        return mix(DECIMAL ^ mix(unscaled) * MULTIPLIER + stripped.scale());
+    }
+
+    static long ofArray(final Iterable<JsonValue> items) {
+        long array = ARRAY;
+        for (final JsonValue item : items) {
+            array = addItem(array, of(item));
+        }
+        return array;
+    }
+
+    static long ofNumberArray(final JsonNumberArrayImpl numbers) {
+        long array = ARRAY;
+        for (int i = 0; i < numbers.size(); i++) {
+            array = addItem(array, numbers.fingerprint(i));
+        }
+        return array;
+    }
+
+    static long ofObject(final String[] keys, final JsonValue[] values, final int size) {
+        long object = OBJECT;
+        for (int i = 0; i < size; i++) {
+            object = addEntry(object, keys[i], of(values[i]));
+        }
+        return object;
+    }
+
+    private static long addItem(final long array, final long item) { // ordered
+        return mix(array * MULTIPLIER + item);
+    }
+
+    private static long addEntry(final long object, final String key, final long value) { // commutative
+        return object + mix(ofString(key) ^ Long.rotateLeft(value, 29));
+    }
+
+    private static long mix(final long value) { // murmur3 finalizer
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB93FE1F3CDA5L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -38,23 +38,44 @@ import static java.util.Optional.ofNullable;
 public class JsonGeneratorFactoryImpl extends AbstractJsonFactory implements JsonGeneratorFactory {
     public static final String GENERATOR_BUFFER_LENGTH = "org.apache.johnzon.default-char-buffer-generator";
     public static final String BOUNDED_OUTPUT_STREAM_WRITER_LEN = "org.apache.johnzon.boundedoutputstreamwriter";
+    /**
+     * Internal flag for callers which only emit well formed structures (mapper): the generators skip the JSON-P state
+     * validation and only track what commas and indentation need, an invalid sequence of calls produces invalid JSON
+     * instead of a {@link jakarta.json.stream.JsonGenerationException}.
+     * Such a generator must switch to the validation ({@link JohnzonJsonGenerator#enableValidation()})
+     * before any user code (custom serializer) writes with it.
+     */
+    public static final String GENERATOR_TRUSTED = "org.apache.johnzon.generator.trusted";
+    /**
+     * Should {@link JohnzonJsonGenerator#writeRaw(CharSequence)} check the fragment is a single well formed JSON value,
+     * default to true. It is checked without decoding it, disabling it is only for trusted fragments.
+     */
+    public static final String GENERATOR_RAW_VALIDATION = "org.apache.johnzon.generator.raw-validation";
     public static final int DEFAULT_GENERATOR_BUFFER_LENGTH = Integer.getInteger(GENERATOR_BUFFER_LENGTH, 64 * 1024); //64k
 
     static final Collection<String> SUPPORTED_CONFIG_KEYS = asList(
-            JsonGenerator.PRETTY_PRINTING, GENERATOR_BUFFER_LENGTH, BUFFER_STRATEGY, ENCODING, BOUNDED_OUTPUT_STREAM_WRITER_LEN
+            JsonGenerator.PRETTY_PRINTING, GENERATOR_BUFFER_LENGTH, BUFFER_STRATEGY, ENCODING, BOUNDED_OUTPUT_STREAM_WRITER_LEN,
+            GENERATOR_TRUSTED, GENERATOR_RAW_VALIDATION
     );
 
     private final Charset defaultEncoding;
 
     //key caching currently disabled
     private final boolean pretty;
+    private final boolean trusted;
+    private final boolean validateRaw;
+    private final boolean stringGenerators; // false for subclasses only customizing the Writer generators
     private final int boundedOutputStreamWriter;
     private final Buffer buffer;
+    private final BufferStrategy.BufferProvider<byte[]> byteBuffer;
     private volatile Buffer customBuffer;
 
     public JsonGeneratorFactoryImpl(final Map<String, ?> config) {
         super(config, SUPPORTED_CONFIG_KEYS, null);
         this.pretty = getBool(JsonGenerator.PRETTY_PRINTING, false);
+        this.trusted = getBool(GENERATOR_TRUSTED, false);
+        this.validateRaw = getBool(GENERATOR_RAW_VALIDATION, true);
+        this.stringGenerators = !isOwnMethod("createStringGenerator") || isOwnMethod("createGenerator", Writer.class);
         this.boundedOutputStreamWriter = getInt(BOUNDED_OUTPUT_STREAM_WRITER_LEN, -1);
         this.defaultEncoding = ofNullable(config)
                 .map(c -> c.get(ENCODING))
@@ -66,30 +87,58 @@ public class JsonGeneratorFactoryImpl extends AbstractJsonFactory implements Jso
             throw new IllegalArgumentException("buffer length must be greater than zero");
         }
         this.buffer = new Buffer(getBufferProvider().newCharProvider(bufferSize), bufferSize);
+        this.byteBuffer = getBufferProvider().newByteProvider(bufferSize);
     }
 
     @Override
     public JsonGenerator createGenerator(final Writer writer) {
-        return new JsonGeneratorImpl(writer, getBufferProvider(writer), pretty);
+        return configure(new JsonGeneratorImpl(writer, getBufferProvider(writer), pretty, trusted));
     }
 
     @Override
     public JsonGenerator createGenerator(final OutputStream out) {
-        return new JsonGeneratorImpl(
-            boundedOutputStreamWriter <= 0 ?
-                    new OutputStreamWriter(out, defaultEncoding) :
-                    new BoundedOutputStreamWriter(out, defaultEncoding, boundedOutputStreamWriter),
-            getBufferProvider(out), pretty);
+        return createGenerator(out, defaultEncoding);
     }
 
     @Override
     public JsonGenerator createGenerator(final OutputStream out, final Charset charset) {
         final Charset cs = charset == null ? defaultEncoding : charset;
-        return new JsonGeneratorImpl(
+        if (boundedOutputStreamWriter <= 0 && UTF_8.equals(cs)) { // encode directly in the output buffer
+            return configure(new JsonUtf8GeneratorImpl(out, byteBuffer, pretty, trusted));
+        }
+        return configure(new JsonGeneratorImpl(
                 boundedOutputStreamWriter <= 0 ?
                         new OutputStreamWriter(out, cs) :
                         new BoundedOutputStreamWriter(out, cs, boundedOutputStreamWriter),
-                getBufferProvider(out), pretty);
+                getBufferProvider(out), pretty, trusted));
+    }
+
+    /**
+     * Creates a generator keeping the document in memory instead of writing it to an output,
+     * its {@code toString()} returns the JSON once closed.
+     * Subclasses customizing {@link #createGenerator(Writer)} can override it too, if they don't it returns null
+     * so callers keep using their {@link Writer} generators.
+     *
+     * @return a generator to serialize a document as a String or null if the caller must write to a {@link java.io.StringWriter}.
+     */
+    public JohnzonJsonGenerator createStringGenerator() {
+        if (!stringGenerators) {
+            return null;
+        }
+        return configure(new JsonStringGeneratorImpl(buffer.provider, pretty, trusted));
+    }
+
+    private boolean isOwnMethod(final String name, final Class<?>... parameterTypes) {
+        try {
+            return getClass().getMethod(name, parameterTypes).getDeclaringClass() == JsonGeneratorFactoryImpl.class;
+        } catch (final NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    private <G extends JsonGeneratorImpl> G configure(final G generator) {
+        generator.setValidateRaw(validateRaw);
+        return generator;
     }
 
     @Override
@@ -36,18 +36,42 @@ import java.util.Map;
 
 import static org.apache.johnzon.core.Strings.toUnicode;
 
-class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
-    private final transient Writer writer;
-    private final BufferStrategy.BufferProvider<char[]> bufferProvider;
-    private final char[] buffer;
-    private int bufferPos = 0;
+class JsonGeneratorImpl implements JohnzonJsonGenerator, JsonChars, Serializable {
+    private transient Writer writer;
+    final BufferStrategy.BufferProvider<char[]> bufferProvider;
+    char[] buffer;
+    int bufferPos = 0;
+    private final char[] digits = new char[DoubleDigits.MAX_DOUBLE_LENGTH]; // numbers crossing the end of the buffer
     private final boolean prettyPrint;
     private static final String INDENT = "  ";
+
+    // escape sequences of the ASCII chars JSON strings can't contain as they are, null for the others
+    static final char[][] ESCAPES = new char[128][];
+    static {
+        for (char c = 0; c < SPACE; c++) {
+            ESCAPES[c] = toUnicode(c).toCharArray();
+        }
+        ESCAPES[QUOTE_CHAR] = new char[]{ESCAPE_CHAR, QUOTE_CHAR};
+        ESCAPES[ESCAPE_CHAR] = new char[]{ESCAPE_CHAR, ESCAPE_CHAR};
+        ESCAPES[EOL] = new char[]{ESCAPE_CHAR, 'n'};
+        ESCAPES['\r'] = new char[]{ESCAPE_CHAR, 'r'};
+        ESCAPES['\t'] = new char[]{ESCAPE_CHAR, 't'};
+        ESCAPES['\b'] = new char[]{ESCAPE_CHAR, 'b'};
+        ESCAPES['\f'] = new char[]{ESCAPE_CHAR, 'f'};
+    }
     private int depth = 0;
     private boolean closed;
 
     private final HStack<GeneratorState> state = new HStack<GeneratorState>();
 
+    // trusted mode (mapper output, well formed by construction): no validation,
+    // only the kind of the enclosing containers and what commas and indentation need
+    private boolean trusted;
+    private final BitStack containers; // true for an object, false for an array
+    private boolean validateRaw = true;
+    private boolean empty = true; // nothing written yet in the current container (or as root value)
+    private boolean afterKey; // only used to switch to the validation
+
     private enum GeneratorState {
         INITIAL(false, true, false), // nothing created yet
         START_OBJECT(true, false, true), IN_OBJECT(true, false, true), AFTER_KEY(false, true, false), // object
@@ -68,10 +92,28 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
 
     JsonGeneratorImpl(final Writer writer, final BufferStrategy.BufferProvider<char[]> bufferProvider,
                       final boolean prettyPrint) {
+        this(writer, bufferProvider, prettyPrint, false);
+    }
+
+    JsonGeneratorImpl(final Writer writer, final BufferStrategy.BufferProvider<char[]> bufferProvider,
+                      final boolean prettyPrint, final boolean trusted) {
         this.writer = writer;
         this.buffer = bufferProvider.newBuffer();
         this.bufferProvider = bufferProvider;
         this.prettyPrint = prettyPrint;
+        this.trusted = trusted;
+        this.containers = trusted ? new BitStack() : null;
+        state.push(GeneratorState.INITIAL);
+    }
+
+    // for subclasses writing to another kind of output, they override the low level write methods
+    JsonGeneratorImpl(final boolean prettyPrint, final boolean trusted) {
+        this.writer = null;
+        this.buffer = null;
+        this.bufferProvider = null;
+        this.prettyPrint = prettyPrint;
+        this.trusted = trusted;
+        this.containers = trusted ? new BitStack() : null;
         state.push(GeneratorState.INITIAL);
     }
 
@@ -93,6 +135,7 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
     //two problems:
     // 1) not easy to get the escaped value efficiently when its streamed and the buffer is full and needs to be flushed
     // 2) we have to use a kind of bounded threadsafe map to let the cache not grow indefinitely
+    // callers knowing their keys upfront can escape them once with a PreEncodedKey instead
     private void writeCachedKey(final String name) {
         /*  String k = cache.get(name);
 
@@ -121,7 +164,7 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
     @Override
     public JsonGenerator writeStartObject() {
         prepareValue();
-        state.push(GeneratorState.START_OBJECT);
+        pushState(GeneratorState.START_OBJECT);
 
         writeIndent();
         depth++;
@@ -137,7 +180,7 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
         writeKey(name);
         justWrite(START_OBJECT_CHAR);
         writeEol();
-        state.push(GeneratorState.START_OBJECT);
+        pushState(GeneratorState.START_OBJECT);
         depth++;
         return this;
     }
@@ -146,7 +189,7 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
     public JsonGenerator writeStartArray() {
         prepareValue();
         writeIndent();
-        state.push(GeneratorState.START_ARRAY);
+        pushState(GeneratorState.START_ARRAY);
         justWrite(START_ARRAY_CHAR);
         depth++;
         writeEol();
@@ -159,7 +202,7 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
         writeKey(name);
         justWrite(START_ARRAY_CHAR);
         writeEol();
-        state.push(GeneratorState.START_ARRAY);
+        pushState(GeneratorState.START_ARRAY);
         depth++;
         return this;
     }
@@ -314,7 +357,16 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
         checkObject();
         checkDoubleRange(value);
         writeKey(name);
-        writeValue(String.valueOf(value));
+        writeValue(value);
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(final String name, final float value) {
+        checkObject();
+        checkDoubleRange(value);
+        writeKey(name);
+        writeValue(value);
         return this;
     }
 
@@ -334,8 +386,217 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
         return this;
     }
 
+    @Override
+    public JohnzonJsonGenerator writeStartObject(final PreEncodedKey key) {
+        checkObject();
+        writeKey(key);
+        justWrite(START_OBJECT_CHAR);
+        writeEol();
+        pushState(GeneratorState.START_OBJECT);
+        depth++;
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator writeStartArray(final PreEncodedKey key) {
+        checkObject();
+        writeKey(key);
+        justWrite(START_ARRAY_CHAR);
+        writeEol();
+        pushState(GeneratorState.START_ARRAY);
+        depth++;
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(final PreEncodedKey key, final JsonValue value) {
+        checkObject();
+        switch (value.getValueType()) {
+            case ARRAY:
+                writeStartArray(key);
+                for (final JsonValue jsonValue : value.asJsonArray()) {
+                    write(jsonValue);
+                }
+                writeEnd();
+                break;
+            case OBJECT:
+                writeStartObject(key);
+                for (final Map.Entry<String, JsonValue> keyval : value.asJsonObject().entrySet()) {
+                    write(keyval.getKey(), keyval.getValue());
+                }
+                writeEnd();
+                break;
+            case STRING:
+                write(key, JsonString.class.cast(value).getString());
+                break;
+            case NUMBER:
+                final JsonNumber number = JsonNumber.class.cast(value);
+                if (number.isIntegral()) {
+                    write(key, number.longValueExact());
+                } else {
+                    write(key, number.bigDecimalValue());
+                }
+                break;
+            case TRUE:
+                write(key, true);
+                break;
+            case FALSE:
+                write(key, false);
+                break;
+            case NULL:
+                writeNull(key);
+                break;
+            default:
+                throw new JsonGenerationException("Unknown JsonValue type");
+        }
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(final PreEncodedKey key, final String value) {
+        checkObject();
+        writeKey(key);
+        writeValueAsJsonString(value);
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(final PreEncodedKey key, final BigInteger value) {
+        checkObject();
+        writeKey(key);
+        writeValue(String.valueOf(value));
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(final PreEncodedKey key, final BigDecimal value) {
+        checkObject();
+        writeKey(key);
+        writeValue(String.valueOf(value));
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(final PreEncodedKey key, final int value) {
+        checkObject();
+        writeKey(key);
+        writeValue(value);
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(final PreEncodedKey key, final long value) {
+        checkObject();
+        writeKey(key);
+        writeValue(value);
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(final PreEncodedKey key, final double value) {
+        checkObject();
+        checkDoubleRange(value);
+        writeKey(key);
+        writeValue(value);
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(final PreEncodedKey key, final float value) {
+        checkObject();
+        checkDoubleRange(value);
+        writeKey(key);
+        writeValue(value);
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(final PreEncodedKey key, final boolean value) {
+        checkObject();
+        writeKey(key);
+        writeValue(String.valueOf(value));
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator writeNull(final PreEncodedKey key) {
+        checkObject();
+        writeKey(key);
+        writeValue(NULL);
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator enableValidation() {
+        if (!trusted) {
+            return this;
+        }
+        trusted = false;
+        while (state.pop() != null) {
+            // clear
+        }
+        state.push(GeneratorState.INITIAL);
+        if (containers.isEmpty()) {
+            if (!empty) {
+                state.push(GeneratorState.ROOT_VALUE);
+            }
+            return this;
+        }
+        // enclosing containers are aligned when the current one ends so they can be seen as not empty
+        final int last = containers.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            final boolean start = i == last && empty;
+            if (containers.get(i)) {
+                state.push(start ? GeneratorState.START_OBJECT : GeneratorState.IN_OBJECT);
+            } else {
+                state.push(start ? GeneratorState.START_ARRAY : GeneratorState.IN_ARRAY);
+            }
+        }
+        if (afterKey) {
+            state.push(GeneratorState.AFTER_KEY);
+        }
+        return this;
+    }
+
+    // set by the factory, see JsonGeneratorFactoryImpl#GENERATOR_RAW_VALIDATION
+    void setValidateRaw(final boolean validateRaw) {
+        this.validateRaw = validateRaw;
+    }
+
+    @Override
+    public JohnzonJsonGenerator writeRaw(final CharSequence json) {
+        checkArrayOrValue();
+        if (validateRaw) {
+            checkRaw(json);
+        }
+        writeValue(json.toString());
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator writeRaw(final String key, final CharSequence json) {
+        checkObject();
+        if (validateRaw) {
+            checkRaw(json);
+        }
+        writeKey(key);
+        writeValue(json.toString());
+        return this;
+    }
+
     @Override
     public JsonGenerator writeEnd() {
+        if (trusted) {
+            final boolean object = containers.pop();
+            depth--;
+            if (object || !empty) {
+                writeEol();
+            }
+            writeIndent();
+            justWrite(object ? END_OBJECT_CHAR : END_ARRAY_CHAR);
+            alignState();
+            return this;
+        }
         final GeneratorState last = state.pop();
         if (last == null || !last.endable || last == GeneratorState.ROOT_VALUE) {
             throw new JsonGenerationException("Can't end current context: " + last);
@@ -400,7 +661,15 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
     public JsonGenerator write(final double value) {
         checkArrayOrValue();
         checkDoubleRange(value);
-        writeValue(String.valueOf(value));
+        writeValue(value);
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(final float value) {
+        checkArrayOrValue();
+        checkDoubleRange(value);
+        writeValue(value);
         return this;
     }
 
@@ -420,6 +689,29 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
 
     @Override
     public JsonGenerator writeKey(final String key) {
+        prepareKey();
+        writeCachedKey(key);
+        pushState(GeneratorState.AFTER_KEY);
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator writeKey(final PreEncodedKey key) {
+        prepareKey();
+        writeEncodedKey(key);
+        pushState(GeneratorState.AFTER_KEY);
+        return this;
+    }
+
+    private void prepareKey() {
+        if (trusted) {
+            if (!empty) {
+                justWrite(COMMA_CHAR);
+                writeEol();
+            }
+            writeIndent();
+            return;
+        }
         final GeneratorState currentState = currentState();
         if (!currentState.acceptsKey) {
             throw new JsonGenerationException("state " + currentState + " does not accept a key");
@@ -430,10 +722,6 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
         }
 
         writeIndent();
-
-        writeCachedKey(key);
-        state.push(GeneratorState.AFTER_KEY);
-        return this;
     }
 
 
@@ -444,14 +732,16 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
             return;
         }
         JsonGenerationException ex = null;
-        final GeneratorState state = currentState();
-        if (state != GeneratorState.END && state != GeneratorState.ROOT_VALUE) {
-            ex = new JsonGenerationException("Invalid json, state=" + state);
+        if (!trusted) {
+            final GeneratorState state = currentState();
+            if (state != GeneratorState.END && state != GeneratorState.ROOT_VALUE) {
+                ex = new JsonGenerationException("Invalid json, state=" + state);
+            }
         }
         try {
             if (ex == null) {
                 flushBuffer();
-                writer.close();
+                closeOutput();
             }
         } catch (final IOException e) {
             if (ex != null) {
@@ -460,7 +750,7 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
             throw new JsonException(e.getMessage(), e);
         } finally {
             closed = true;
-            bufferProvider.release(buffer);
+            releaseBuffer();
         }
         if (ex != null) {
             throw ex;
@@ -471,13 +761,64 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
     public void flush() {
         flushBuffer();
         try {
-            writer.flush();
+            flushOutput();
         } catch (final IOException e) {
             throw new JsonException(e.getMessage(), e);
         }
     }
 
-    private void flushBuffer() {
+    @Override
+    public JohnzonJsonGenerator reset(final Writer writer) {
+        if (bufferProvider == null) { // subclass writing to another kind of output
+            return JohnzonJsonGenerator.super.reset(writer);
+        }
+        resetState();
+        this.writer = writer;
+        return this;
+    }
+
+    // flushes what is left for the previous output then resets the structure state, outputs are switched after
+    void resetState() {
+        if (closed) {
+            acquireBuffer();
+            closed = false;
+        } else {
+            flushBuffer();
+        }
+        depth = 0;
+        trusted = containers != null; // back to the mode of the factory if the validation was enabled
+        if (trusted) {
+            containers.clear();
+            empty = true;
+            afterKey = false;
+        } else {
+            while (state.pop() != null) {
+                // clear
+            }
+            state.push(GeneratorState.INITIAL);
+        }
+    }
+
+    // low level output methods, overridden by JsonUtf8GeneratorImpl and JsonStringGeneratorImpl
+
+    void acquireBuffer() {
+        buffer = bufferProvider.newBuffer();
+        bufferPos = 0;
+    }
+
+    void closeOutput() throws IOException {
+        writer.close();
+    }
+
+    void flushOutput() throws IOException {
+        writer.flush();
+    }
+
+    void releaseBuffer() {
+        bufferProvider.release(buffer);
+    }
+
+    void flushBuffer() {
         if (bufferPos > 0) {
             try {
                 writer.write(buffer, 0, bufferPos);
@@ -488,104 +829,86 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
         }
     }
 
-    private void writeEscaped0(final String value) {
-        int len = 0;
+    // clean runs are copied in bulk, only the chars of ESCAPES are replaced
+    void writeEscaped0(final String value) {
+        final int len;
         if (value == null || (len = value.length()) == 0) {
             return;
         }
 
+        int start = 0;
         for (int i = 0; i < len; i++) {
-            char c = value.charAt(i);
-
-            while (c != ESCAPE_CHAR && c != QUOTE_CHAR && c >= SPACE) {
-
-                //read fast
-                justWrite(c);
-
-                if (i >= len - 1) {
-                    return;
+            final char c = value.charAt(i);
+            if (c < ESCAPES.length) {
+                final char[] escape = ESCAPES[c];
+                if (escape != null) {
+                    if (start < i) {
+                        justWrite(value, start, i);
+                    }
+                    justWrite(escape, escape.length);
+                    start = i + 1;
                 }
-
-                i++;
-                c = value.charAt(i);
             }
+        }
+        if (start < len) {
+            justWrite(value, start, len);
+        }
+    }
 
-            switch (c) {
-                case QUOTE_CHAR:
-                case ESCAPE_CHAR:
-                    justWrite(ESCAPE_CHAR);
-                    justWrite(c);
-                    break;
-                default:
-                    if (c < SPACE) {
-                        switch (c) {
-                            case EOL:
-                                justWrite("\\n");
-                                break;
-                            case '\r':
-                                justWrite("\\r");
-                                break;
-                            case '\t':
-                                justWrite("\\t");
-                                break;
-                            case '\b':
-                                justWrite("\\b");
-                                break;
-                            case '\f':
-                                justWrite("\\f");
-                                break;
-                            default:
-                                justWrite(toUnicode(c));
-                        }
-                    } else if ((c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
-                        justWrite(toUnicode(c));
-                    } else {
-                        justWrite(c);
-                    }
+    // same escaping as writeEscaped0 for keys encoded once, see PreEncodedKey
+    static char[] encodeKey(final String name) {
+        final StringBuilder builder = new StringBuilder(name.length() + 3).append(QUOTE_CHAR);
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c < ESCAPES.length && ESCAPES[c] != null) {
+                builder.append(ESCAPES[c]);
+            } else {
+                builder.append(c);
             }
         }
+        final char[] chars = new char[builder.length() + 2];
+        builder.append(QUOTE_CHAR).append(KEY_SEPARATOR).getChars(0, chars.length, chars, 0);
+        return chars;
     }
 
-    private static final String UNICODE_PREFIX = "\\u";
-    private static final String UNICODE_PREFIX_HELPER = "000";
-
-
-    private void justWrite(final String value) {
-        final int valueLength = value.length();
 
-        if (bufferPos + valueLength >= buffer.length) {
-
-            int start = 0;
-            int len = buffer.length - bufferPos;
-
-            while (true) {
-                int end = start + len;
-                if (end > valueLength) {
-                    end = valueLength;
-                }
-
-                value.getChars(start, end, buffer, bufferPos);
+    void justWrite(final String value) {
+        justWrite(value, 0, value.length());
+    }
 
-                bufferPos += (end - start);
-                start += (len);
+    // fills the buffer up to its end before flushing (Snippet relies on it to stop as late as possible)
+    void justWrite(final String value, final int from, final int to) {
+        int start = from;
+        while (start < to) {
+            if (bufferPos >= buffer.length) {
+                flushBuffer();
+            }
+            final int end = Math.min(to, start + buffer.length - bufferPos);
+            value.getChars(start, end, buffer, bufferPos);
+            bufferPos += end - start;
+            start = end;
+        }
+    }
 
-                if (start >= valueLength) {
-                    return;
-                }
+    void writeEncodedKey(final PreEncodedKey key) {
+        final char[] chars = key.chars();
+        justWrite(chars, chars.length);
+    }
 
-                if (bufferPos >= buffer.length) {
-                    flushBuffer();
-                    len = buffer.length;
-                }
+    private void justWrite(final char[] value, final int length) {
+        int written = 0;
+        while (written < length) {
+            if (bufferPos >= buffer.length) {
+                flushBuffer();
             }
-        } else {
-            //fits completely into the buffer
-            value.getChars(0, valueLength, buffer, bufferPos);
-            bufferPos += valueLength;
+            final int chunk = Math.min(length - written, buffer.length - bufferPos);
+            System.arraycopy(value, written, buffer, bufferPos, chunk);
+            bufferPos += chunk;
+            written += chunk;
         }
     }
 
-    private void justWrite(final char value) {
+    void justWrite(final char value) {
         if (bufferPos >= buffer.length) {
             flushBuffer();
         }
@@ -593,6 +916,9 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
     }
 
     private void checkObject() {
+        if (trusted) {
+            return;
+        }
         final GeneratorState currentState = currentState();
         if (currentState != GeneratorState.IN_OBJECT && currentState != GeneratorState.START_OBJECT) {
             throw new JsonGenerationException("write(name, param) is only valid in objects");
@@ -600,6 +926,9 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
     }
 
     private void checkArrayOrValue() {
+        if (trusted) {
+            return;
+        }
         final GeneratorState currentState = currentState();
         if (currentState != GeneratorState.IN_ARRAY && currentState != GeneratorState.START_ARRAY &
                 currentState != GeneratorState.AFTER_KEY) {
@@ -609,6 +938,194 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
         }
     }
 
+    private static final int RAW_VALUE = 0;
+    private static final int RAW_VALUE_OR_END = 1; // after '['
+    private static final int RAW_KEY = 2; // after ',' in an object
+    private static final int RAW_KEY_OR_END = 3; // after '{'
+    private static final int RAW_KEY_SEPARATOR = 4;
+    private static final int RAW_AFTER_VALUE = 5; // ',' or the end of the container
+    private static final int RAW_DONE = 6;
+
+    // well-formedness check of a raw value without decoding it: a single value with its structure, separators,
+    // literals and number grammar, strings are only checked to be terminated, without control chars and with valid escapes
+    static void checkRaw(final CharSequence json) {
+        final int length = json.length();
+        final BitStack containers = new BitStack(); // true for an object
+        int expected = RAW_VALUE;
+        int i = 0;
+        while (i < length) {
+            final char c = json.charAt(i);
+            if (c == SPACE || c == EOL || c == '\r' || c == '\t') {
+                i++;
+                continue;
+            }
+            switch (expected) {
+                case RAW_DONE:
+                    throw invalidRaw("more than one value", i);
+                case RAW_KEY_SEPARATOR:
+                    if (c != KEY_SEPARATOR) {
+                        throw invalidRaw("unexpected '" + c + "'", i);
+                    }
+                    expected = RAW_VALUE;
+                    i++;
+                    break;
+                case RAW_AFTER_VALUE:
+                    if (c == COMMA_CHAR) {
+                        expected = containers.peek() ? RAW_KEY : RAW_VALUE;
+                        i++;
+                    } else {
+                        expected = endRaw(containers, c, i++);
+                    }
+                    break;
+                case RAW_KEY_OR_END:
+                case RAW_KEY:
+                    if (c == END_OBJECT_CHAR && expected == RAW_KEY_OR_END) {
+                        expected = endRaw(containers, c, i++);
+                    } else if (c == QUOTE_CHAR) {
+                        i = skipRawString(json, i + 1);
+                        expected = RAW_KEY_SEPARATOR;
+                    } else {
+                        throw invalidRaw("unexpected '" + c + "'", i);
+                    }
+                    break;
+                default: // a value, or the end of an empty array
+                    if (c == END_ARRAY_CHAR && expected == RAW_VALUE_OR_END) {
+                        expected = endRaw(containers, c, i++);
+                        break;
+                    }
+                    if (c == START_OBJECT_CHAR || c == START_ARRAY_CHAR) {
+                        containers.push(c == START_OBJECT_CHAR);
+                        expected = c == START_OBJECT_CHAR ? RAW_KEY_OR_END : RAW_VALUE_OR_END;
+                        i++;
+                        break;
+                    }
+                    if (c == QUOTE_CHAR) {
+                        i = skipRawString(json, i + 1);
+                    } else if (c == TRUE_T) {
+                        i = skipRawLiteral(json, i, "true");
+                    } else if (c == FALSE_F) {
+                        i = skipRawLiteral(json, i, "false");
+                    } else if (c == NULL_N) {
+                        i = skipRawLiteral(json, i, "null");
+                    } else if (c == MINUS || (c >= ZERO && c <= NINE)) {
+                        i = skipRawNumber(json, i);
+                    } else {
+                        throw invalidRaw("unexpected '" + c + "'", i);
+                    }
+                    expected = containers.isEmpty() ? RAW_DONE : RAW_AFTER_VALUE;
+            }
+        }
+        if (expected != RAW_DONE) {
+            throw invalidRaw("incomplete value", length);
+        }
+    }
+
+    // closes the current container with c, returns what is expected after it
+    private static int endRaw(final BitStack containers, final char c, final int index) {
+        if ((c != END_OBJECT_CHAR && c != END_ARRAY_CHAR) || containers.isEmpty() || containers.pop() != (c == END_OBJECT_CHAR)) {
+            throw invalidRaw("unexpected '" + c + "'", index);
+        }
+        return containers.isEmpty() ? RAW_DONE : RAW_AFTER_VALUE;
+    }
+
+    // from the first char of the string content, returns the index after the closing quote
+    private static int skipRawString(final CharSequence json, final int from) {
+        final int length = json.length();
+        int i = from;
+        while (i < length) {
+            final char c = json.charAt(i);
+            if (c == QUOTE_CHAR) {
+                return i + 1;
+            }
+            if (c < SPACE) {
+                throw invalidRaw("control char in a string", i);
+            }
+            if (c == ESCAPE_CHAR) {
+                if (++i == length) {
+                    break;
+                }
+                final char escaped = json.charAt(i);
+                if (escaped == 'u') {
+                    for (int h = 0; h < 4; h++) {
+                        if (++i == length) {
+                            throw invalidRaw("incomplete value", length);
+                        }
+                        if (Character.digit(json.charAt(i), 16) < 0) {
+                            throw invalidRaw("invalid unicode escape", i);
+                        }
+                    }
+                } else if (escaped != QUOTE_CHAR && escaped != ESCAPE_CHAR && escaped != '/' && escaped != 'b'
+                        && escaped != 'f' && escaped != 'n' && escaped != 'r' && escaped != 't') {
+                    throw invalidRaw("invalid escape '" + escaped + "'", i);
+                }
+            }
+            i++;
+        }
+        throw invalidRaw("incomplete value", length);
+    }
+
+    private static int skipRawLiteral(final CharSequence json, final int from, final String literal) {
+        final int end = from + literal.length();
+        if (end > json.length() || !literal.contentEquals(json.subSequence(from, end))
+                || (end < json.length() && isRawValueChar(json.charAt(end)))) {
+            throw invalidRaw("invalid literal", from);
+        }
+        return end;
+    }
+
+    // -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?
+    private static int skipRawNumber(final CharSequence json, final int from) {
+        final int length = json.length();
+        int i = from;
+        if (json.charAt(i) == MINUS) {
+            i++;
+        }
+        final int integral = i;
+        i = skipRawDigits(json, i);
+        if (i == integral || (json.charAt(integral) == ZERO && i - integral > 1)) {
+            throw invalidRaw("invalid number", integral);
+        }
+        if (i < length && json.charAt(i) == DOT) {
+            final int fraction = ++i;
+            i = skipRawDigits(json, i);
+            if (i == fraction) {
+                throw invalidRaw("invalid number", i);
+            }
+        }
+        if (i < length && (json.charAt(i) == EXP_LOWERCASE || json.charAt(i) == EXP_UPPERCASE)) {
+            i++;
+            if (i < length && (json.charAt(i) == PLUS || json.charAt(i) == MINUS)) {
+                i++;
+            }
+            final int exponent = i;
+            i = skipRawDigits(json, i);
+            if (i == exponent) {
+                throw invalidRaw("invalid number", i);
+            }
+        }
+        if (i < length && isRawValueChar(json.charAt(i))) {
+            throw invalidRaw("invalid number", i);
+        }
+        return i;
+    }
+
+    private static int skipRawDigits(final CharSequence json, final int from) {
+        int i = from;
+        while (i < json.length() && json.charAt(i) >= ZERO && json.charAt(i) <= NINE) {
+            i++;
+        }
+        return i;
+    }
+
+    // chars which can't directly follow a literal or a number
+    private static boolean isRawValueChar(final char c) {
+        return (c >= ZERO && c <= NINE) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == MINUS || c == PLUS || c == DOT;
+    }
+
+    private static JsonGenerationException invalidRaw(final String message, final int index) {
+        return new JsonGenerationException("Invalid raw JSON value, " + message + " at index " + index);
+    }
+
     private static void checkDoubleRange(final double value) {
         if (Double.isInfinite(value) || Double.isNaN(value)) {
             throw new NumberFormatException("double can't be infinite or NaN");
@@ -616,6 +1133,13 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
     }
 
     private void prepareValue() {
+        if (trusted) {
+            if (!empty && inArray()) {
+                justWrite(COMMA_CHAR);
+                writeEol();
+            }
+            return;
+        }
         final GeneratorState currentState = currentState();
         if (!currentState.acceptsValue) {
             throw new JsonGenerationException("state " + currentState + " does not accept a value");
@@ -627,7 +1151,11 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
     }
 
     private void alignState() {
-
+        if (trusted) {
+            empty = false;
+            afterKey = false;
+            return;
+        }
         if (currentState() == GeneratorState.AFTER_KEY) {
             state.pop();
         }
@@ -645,6 +1173,26 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
         }
     }
 
+    private void pushState(final GeneratorState newState) {
+        if (!trusted) {
+            state.push(newState);
+        } else if (newState == GeneratorState.AFTER_KEY) { // keys are only in objects, nothing else to track
+            afterKey = true;
+        } else {
+            containers.push(newState == GeneratorState.START_OBJECT);
+            empty = true;
+            afterKey = false;
+        }
+    }
+
+    private boolean inArray() {
+        if (trusted) {
+            return !containers.isEmpty() && !containers.peek();
+        }
+        final GeneratorState peek = state.peek();
+        return peek == GeneratorState.START_ARRAY || peek == GeneratorState.IN_ARRAY;
+    }
+
     private void swapState(final GeneratorState newState) {
         state.pop();
         state.push(newState);
@@ -656,8 +1204,7 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
 
     private void writeValueAsJsonString(final String value) {
         prepareValue();
-        final GeneratorState peek = state.peek();
-        if (peek == GeneratorState.START_ARRAY || peek == GeneratorState.IN_ARRAY) {
+        if (inArray()) {
             writeIndent();
         }
         if (value == null) {
@@ -672,8 +1219,7 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
 
     private void writeValue(final String value) {
         prepareValue();
-        final GeneratorState peek = state.peek();
-        if (peek == GeneratorState.START_ARRAY || peek == GeneratorState.IN_ARRAY) {
+        if (inArray()) {
             writeIndent();
         }
         justWrite(value);
@@ -682,8 +1228,7 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
 
     private void writeValue(final int value) {
         prepareValue();
-        final GeneratorState peek = state.peek();
-        if (peek == GeneratorState.START_ARRAY || peek == GeneratorState.IN_ARRAY) {
+        if (inArray()) {
             writeIndent();
         }
         writeInt0(value);
@@ -692,21 +1237,60 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
 
     private void writeValue(final long value) {
         prepareValue();
-        final GeneratorState peek = state.peek();
-        if (peek == GeneratorState.START_ARRAY || peek == GeneratorState.IN_ARRAY) {
+        if (inArray()) {
             writeIndent();
         }
         writeLong0(value);
         alignState();
     }
 
-    //unoptimized, see below
-    private void writeLong0(final long i) {
-        justWrite(String.valueOf(i));
+    private void writeValue(final double value) {
+        prepareValue();
+        if (inArray()) {
+            writeIndent();
+        }
+        writeDouble0(value);
+        alignState();
+    }
+
+    private void writeValue(final float value) {
+        prepareValue();
+        if (inArray()) {
+            writeIndent();
+        }
+        writeFloat0(value);
+        alignState();
+    }
+
+    void writeDouble0(final double value) {
+        if (bufferPos + DoubleDigits.MAX_DOUBLE_LENGTH <= buffer.length) {
+            bufferPos = DoubleDigits.write(value, buffer, bufferPos);
+        } else {
+            justWrite(digits, DoubleDigits.write(value, digits, 0));
+        }
+    }
+
+    void writeFloat0(final float value) {
+        if (bufferPos + DoubleDigits.MAX_DOUBLE_LENGTH <= buffer.length) {
+            bufferPos = DoubleDigits.write(value, buffer, bufferPos);
+        } else {
+            justWrite(digits, DoubleDigits.write(value, digits, 0));
+        }
     }
 
-    //unoptimized, see below
-    private void writeInt0(final int i) {
-        justWrite(String.valueOf(i));
+    void writeLong0(final long i) {
+        if (bufferPos + Digits.MAX_LONG_LENGTH <= buffer.length) {
+            bufferPos = Digits.write(i, buffer, bufferPos);
+        } else { // fill the buffer up to its end before flushing as for other values
+            justWrite(digits, Digits.write(i, digits, 0));
+        }
+    }
+
+    void writeInt0(final int i) {
+        if (bufferPos + Digits.MAX_LONG_LENGTH <= buffer.length) {
+            bufferPos = Digits.write(i, buffer, bufferPos);
+        } else {
+            justWrite(digits, Digits.write(i, digits, 0));
+        }
     }
 }
@@ -48,6 +48,9 @@ class JsonMergePatchDiff extends DiffBase {
     }
 
     private JsonValue diff(JsonValue source, JsonValue target) {
+        if (isSameValue(source, target)) {
+            return JsonValue.EMPTY_JSON_OBJECT;
+        }
         JsonObjectBuilder builder = new JsonObjectBuilderImpl(emptyMap(), bufferProvider, RejectDuplicateKeysMode.DEFAULT, provider);
 
         if (isJsonObject(source) && isJsonObject(target)) {
@@ -60,23 +60,35 @@ public class JsonMergePatchImpl implements JsonMergePatch, Serializable {
         }
     }
 
+    // the builder is only created for the first change so unchanged objects are returned (and shared) as they are
     private JsonValue applyJsonObjectPatch(JsonObject jsonObject, JsonObject patch) {
-        JsonObjectBuilder builder = new JsonObjectBuilderImpl(jsonObject, bufferProvider, RejectDuplicateKeysMode.DEFAULT, provider);
+        JsonObjectBuilder builder = null;
 
         for (Map.Entry<String, JsonValue> patchAttrib : patch.entrySet()) {
             String attribName = patchAttrib.getKey();
+            JsonValue originalAttrib = jsonObject.get(attribName);
             if (patchAttrib.getValue().equals(JsonValue.NULL)) {
-                builder.remove(attribName);
+                if (originalAttrib != null) {
+                    builder = builder(builder, jsonObject);
+                    builder.remove(attribName);
+                }
             } else {
-                JsonValue originalAttrib = jsonObject.get(attribName);
-                if (originalAttrib == null) {
-                    builder.add(attribName, patchAttrib.getValue());
-                } else {
-                    builder.add(attribName, applyPatch(originalAttrib, patchAttrib.getValue()));
+                JsonValue patchedAttrib = originalAttrib == null ?
+                        patchAttrib.getValue() : applyPatch(originalAttrib, patchAttrib.getValue());
+                if (patchedAttrib != originalAttrib) {
+                    builder = builder(builder, jsonObject);
+                    builder.add(attribName, patchedAttrib);
                 }
             }
         }
-        return builder.build();
+        return builder == null ? jsonObject : builder.build();
+    }
+
+    private JsonObjectBuilder builder(JsonObjectBuilder builder, JsonObject jsonObject) {
+        if (builder != null) {
+            return builder;
+        }
+        return new JsonObjectBuilderImpl(jsonObject, bufferProvider, RejectDuplicateKeysMode.DEFAULT, provider);
     }
 
     @Override
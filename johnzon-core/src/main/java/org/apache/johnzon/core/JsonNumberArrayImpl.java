@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonGenerator;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Array built by {@link JsonArrayBuilderImpl} while only longs or only doubles are added: one primitive array
+ * instead of a list of {@link JsonLongImpl} or {@link JsonDoubleImpl}. {@link #get(int)} creates the number
+ * the builder would have stored otherwise so both representations are equal and serialized the same way.
+ */
+abstract class JsonNumberArrayImpl extends AbstractList<JsonValue> implements JohnzonJsonNumberArray, JsonFingerprint.Holder, Serializable {
+    final int size;
+    private final BufferStrategy.BufferProvider<char[]> provider;
+    private transient Integer hashCode;
+    private transient volatile long fingerprint;
+
+    private JsonNumberArrayImpl(final int size, final BufferStrategy.BufferProvider<char[]> provider) {
+        this.size = size;
+        this.provider = provider;
+    }
+
+    // no range check
+    abstract JsonNumber number(int index);
+
+    abstract int intValue(int index);
+
+    abstract long fingerprint(int index);
+
+    abstract void write(JsonGenerator generator, int index);
+
+    @Override
+    public JsonValue get(final int index) {
+        return number(Objects.checkIndex(index, size));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public JsonObject getJsonObject(final int index) {
+        return JsonObject.class.cast(get(index));
+    }
+
+    @Override
+    public JsonArray getJsonArray(final int index) {
+        return JsonArray.class.cast(get(index));
+    }
+
+    @Override
+    public JsonNumber getJsonNumber(final int index) {
+        return number(Objects.checkIndex(index, size));
+    }
+
+    @Override
+    public JsonString getJsonString(final int index) {
+        return JsonString.class.cast(get(index));
+    }
+
+    @Override
+    public <T extends JsonValue> List<T> getValuesAs(final Class<T> clazz) {
+        return (List<T>) this;
+    }
+
+    @Override
+    public String getString(final int index) {
+        return getJsonString(index).getString();
+    }
+
+    @Override
+    public String getString(final int index, final String defaultValue) {
+        return defaultValue;
+    }
+
+    @Override
+    public int getInt(final int index) {
+        return intValue(Objects.checkIndex(index, size));
+    }
+
+    @Override
+    public int getInt(final int index, final int defaultValue) {
+        return index >= 0 && index < size ? intValue(index) : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(final int index) {
+        get(index);
+        throw new ClassCastException();
+    }
+
+    @Override
+    public boolean getBoolean(final int index, final boolean defaultValue) {
+        return defaultValue;
+    }
+
+    @Override
+    public boolean isNull(final int index) {
+        get(index);
+        return false;
+    }
+
+    @Override
+    public ValueType getValueType() {
+        return ValueType.ARRAY;
+    }
+
+    @Override
+    public String toString() {
+        final StringWriter writer = new StringWriter(2048);
+        try (final JsonGenerator generator = new JsonGeneratorImpl(writer, provider, false)) {
+            generator.writeStartArray();
+            for (int i = 0; i < size; i++) {
+                write(generator, i);
+            }
+            generator.writeEnd();
+        }
+        return writer.toString();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj == this || (List.class.isInstance(obj) && !JsonFingerprint.differ(this, obj) && super.equals(obj));
+    }
+
+    @Override
+    public long fingerprint() {
+        long f = fingerprint;
+        if (f == 0) {
+            f = JsonFingerprint.ofNumberArray(this);
+            fingerprint = f;
+        }
+        return f;
+    }
+
+    @Override
+    public int hashCode() {
+        Integer h = hashCode;
+        if (h == null) {
+            h = super.hashCode();
+            hashCode = h;
+        }
+        return h;
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return new SerializableValue(toString());
+    }
+
+    // the interface is declared again on the concrete classes: some callers (the JSON-P TCK)
+    // resolve the kind of a value from the interfaces the class itself declares
+    static final class Longs extends JsonNumberArrayImpl implements JohnzonJsonNumberArray {
+        private final long[] values;
+
+        // the array is owned by this instance from now on, it can be longer than size
+        Longs(final long[] values, final int size, final BufferStrategy.BufferProvider<char[]> provider) {
+            super(size, provider);
+            this.values = values;
+        }
+
+        @Override
+        JsonNumber number(final int index) {
+            return new JsonLongImpl(values[index]);
+        }
+
+        @Override
+        int intValue(final int index) {
+            return (int) values[index];
+        }
+
+        @Override
+        long fingerprint(final int index) {
+            return JsonFingerprint.ofLong(values[index]);
+        }
+
+        @Override
+        void write(final JsonGenerator generator, final int index) {
+            generator.write(values[index]);
+        }
+
+        @Override
+        public boolean isIntegral() {
+            return true;
+        }
+
+        @Override
+        public long[] getLongArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        @Override
+        public double[] getDoubleArray() {
+            final double[] doubles = new double[size];
+            for (int i = 0; i < size; i++) {
+                doubles[i] = values[i];
+            }
+            return doubles;
+        }
+    }
+
+    static final class Doubles extends JsonNumberArrayImpl implements JohnzonJsonNumberArray {
+        private final double[] values;
+
+        // the array is owned by this instance from now on, it can be longer than size, values are finite
+        Doubles(final double[] values, final int size, final BufferStrategy.BufferProvider<char[]> provider) {
+            super(size, provider);
+            this.values = values;
+        }
+
+        @Override
+        JsonNumber number(final int index) {
+            return new JsonDoubleImpl(values[index]);
+        }
+
+        @Override
+        int intValue(final int index) {
+            return (int) values[index];
+        }
+
+        @Override
+        long fingerprint(final int index) {
+            return JsonFingerprint.ofDouble(values[index]);
+        }
+
+        @Override
+        void write(final JsonGenerator generator, final int index) {
+            generator.write(number(index)); // same output as the JsonDoubleImpl the builder would have kept
+        }
+
+        @Override
+        public boolean isIntegral() {
+            return false;
+        }
+
+        @Override
+        public long[] getLongArray() {
+            final long[] longs = new long[size];
+            for (int i = 0; i < size; i++) {
+                longs[i] = (long) values[i];
+            }
+            return longs;
+        }
+
+        @Override
+        public double[] getDoubleArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
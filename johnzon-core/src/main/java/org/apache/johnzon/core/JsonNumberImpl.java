@@ -24,9 +24,10 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.function.Consumer;
 
-final class JsonNumberImpl implements JsonNumber, Serializable {
+final class JsonNumberImpl implements JsonNumber, JsonFingerprint.Holder, Serializable {
     private final BigDecimal value;
     private transient Integer hashCode = null;
+    private transient volatile long fingerprint;
     private transient Consumer<BigDecimal> maxBigDecimalScale = (bigDecimal) -> {}; // for deserialization?
 
     JsonNumberImpl(final BigDecimal decimal, final Consumer<BigDecimal> maxBigDecimalScale) {
@@ -115,6 +116,16 @@ final class JsonNumberImpl implements JsonNumber, Serializable {
         return h;
     }
 
+    @Override
+    public long fingerprint() {
+        long f = fingerprint;
+        if (f == 0) {
+            f = JsonFingerprint.ofDecimal(value);
+            fingerprint = f;
+        }
+        return f;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         return JsonNumber.class.isInstance(obj) && JsonNumber.class.cast(obj).bigDecimalValue().equals(value);
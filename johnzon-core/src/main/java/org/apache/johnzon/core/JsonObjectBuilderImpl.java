@@ -28,10 +28,11 @@ import jakarta.json.JsonValue;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.johnzon.core.util.ArrayUtil;
 
@@ -39,7 +40,13 @@ class JsonObjectBuilderImpl implements JsonObjectBuilder, Serializable {
     private RejectDuplicateKeysMode rejectDuplicateKeysMode;
     private JsonProviderImpl provider;
     private BufferStrategy.BufferProvider<char[]> bufferProvider;
-    private Map<String, JsonValue> attributeMap = new LinkedHashMap<>();
+
+    // entries in insertion order handed to the built object
+    private String[] keys;
+    private JsonValue[] values;
+    private int size;
+    private int[] index; // created on the first lookup once there are more than KeyIndex.LINEAR_SCAN_MAX keys
+    private transient Map<String, JsonValue> entries; // map view for the duplicate key policies
 
     protected JsonObjectBuilderImpl() {
         // no-op: serialization
@@ -52,7 +59,7 @@ class JsonObjectBuilderImpl implements JsonObjectBuilder, Serializable {
         this.bufferProvider = bufferProvider;
         this.rejectDuplicateKeysMode = rejectDuplicateKeysMode;
         this.provider = provider;
-        this.attributeMap = new LinkedHashMap<>(initialData);
+        initialData.forEach(this::set);
     }
 
     public JsonObjectBuilderImpl(final Map<String, Object> initialValues,
@@ -172,13 +179,21 @@ class JsonObjectBuilderImpl implements JsonObjectBuilder, Serializable {
 
     @Override
     public JsonObjectBuilder addAll(JsonObjectBuilder builder) {
-        attributeMap.putAll(builder.build());
+        builder.build().forEach(this::set);
         return this;
     }
 
     @Override
     public JsonObjectBuilder remove(String name) {
-        attributeMap.remove(requireNonNull(name));
+        final int i = indexOf(requireNonNull(name));
+        if (i >= 0) {
+            size--;
+            System.arraycopy(keys, i + 1, keys, i, size - i);
+            System.arraycopy(values, i + 1, values, i, size - i);
+            keys[size] = null;
+            values[size] = null;
+            index = null;
+        }
         return this;
     }
 
@@ -189,20 +204,81 @@ class JsonObjectBuilderImpl implements JsonObjectBuilder, Serializable {
         if(value == null) {
             throw new NullPointerException("value/builder must not be null for name: " + name);
         }
-        rejectDuplicateKeysMode.put().put(attributeMap, name, value);
+        if (rejectDuplicateKeysMode == RejectDuplicateKeysMode.DEFAULT) {
+            set(name, value);
+        } else {
+            if (entries == null) {
+                entries = new Entries();
+            }
+            rejectDuplicateKeysMode.put().put(entries, name, value);
+        }
+    }
+
+    // lets the duplicate key policies work on the flat arrays
+    private class Entries extends AbstractMap<String, JsonValue> {
+        @Override
+        public JsonValue get(final Object key) {
+            final int i = indexOf(String.class.cast(key));
+            return i >= 0 ? values[i] : null;
+        }
+
+        @Override
+        public JsonValue put(final String key, final JsonValue value) {
+            final JsonValue previous = get(key);
+            set(key, value);
+            return previous;
+        }
+
+        @Override
+        public Set<Entry<String, JsonValue>> entrySet() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // replaces the value of an existing key in place as a LinkedHashMap does
+    private void set(final String name, final JsonValue value) {
+        final int existing = indexOf(name);
+        if (existing >= 0) {
+            values[existing] = value;
+            return;
+        }
+        if (keys == null) {
+            keys = new String[8];
+            values = new JsonValue[8];
+        } else if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = name;
+        values[size++] = value;
+        if (index != null) {
+            index = KeyIndex.added(index, keys, size);
+        }
+    }
+
+    private int indexOf(final String name) {
+        if (index == null && size > KeyIndex.LINEAR_SCAN_MAX) {
+            index = KeyIndex.create(keys, size);
+        }
+        return KeyIndex.indexOf(keys, size, index, name);
     }
 
 
     @Override
     public JsonObject build() {
 
-        if(attributeMap == null || attributeMap.isEmpty()) {
+        if (size == 0) {
             return JsonValue.EMPTY_JSON_OBJECT;
-        } else {
-            Map<String, JsonValue> dump = Collections.unmodifiableMap(new LinkedHashMap<>(attributeMap));
-
-            attributeMap.clear();
-            return new JsonObjectImpl(dump, bufferProvider);
         }
+        // trimmed, the built object can live much longer than the builder
+        final JsonObject object = new JsonObjectImpl(
+                size == keys.length ? keys : Arrays.copyOf(keys, size),
+                size == values.length ? values : Arrays.copyOf(values, size),
+                bufferProvider);
+        keys = null;
+        values = null;
+        size = 0;
+        index = null;
+        return object;
     }
 }
@@ -28,18 +28,30 @@ import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.io.StringWriter;
 import java.util.AbstractMap;
-import java.util.LinkedHashMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
-final class JsonObjectImpl extends AbstractMap<String, JsonValue> implements JsonObject, Serializable {
+/**
+ * Immutable object stored in parallel key and value arrays handed by the builder (no entry nodes).
+ * The keys are scanned for small objects, bigger ones build a {@link KeyIndex} table on the first lookup.
+ */
+final class JsonObjectImpl extends AbstractMap<String, JsonValue> implements JsonObject, JsonFingerprint.Holder, Serializable {
     private final BufferStrategy.BufferProvider<char[]> provider;
+    private final String[] keys;
+    private final JsonValue[] values;
+    private final int size;
 
+    private transient volatile int[] index;
     private transient Integer hashCode = null;
-    private final Map<String, JsonValue> unmodifieableBackingMap;
+    private transient volatile long fingerprint;
+    private transient Set<Entry<String, JsonValue>> entrySet;
 
     private <T> T value(final String name, final Class<T> clazz) {
-        final JsonValue v = unmodifieableBackingMap.get(name);
+        final JsonValue v = get(name);
         if (v != null) {
             return clazz.cast(v);
         }
@@ -55,11 +67,58 @@ final class JsonObjectImpl extends AbstractMap<String, JsonValue> implements Jso
         return value;
     }
 
-    JsonObjectImpl(final Map<String, JsonValue> backingMap, final BufferStrategy.BufferProvider<char[]> provider) {
-        this.unmodifieableBackingMap = new LinkedHashMap<>(backingMap);
+    // the arrays are owned by the object from now on, keys are unique
+    JsonObjectImpl(final String[] keys, final JsonValue[] values, final BufferStrategy.BufferProvider<char[]> provider) {
+        this.keys = keys;
+        this.values = values;
+        this.size = keys.length;
         this.provider = provider;
     }
 
+    JsonObjectImpl(final Map<String, JsonValue> entries, final BufferStrategy.BufferProvider<char[]> provider) {
+        this(entries.keySet().toArray(new String[0]), entries.values().toArray(new JsonValue[0]), provider);
+    }
+
+    private int indexOf(final Object key) {
+        if (!String.class.isInstance(key)) {
+            return -1;
+        }
+        int[] table = index;
+        if (table == null && size > KeyIndex.LINEAR_SCAN_MAX) {
+            table = KeyIndex.create(keys, size);
+            index = table;
+        }
+        return KeyIndex.indexOf(keys, size, table, String.class.cast(key));
+    }
+
+    @Override
+    public JsonValue get(final Object key) {
+        final int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super String, ? super JsonValue> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
     @Override
     public JsonArray getJsonArray(final String name) {
         return value(name, JsonArray.class);
@@ -143,38 +202,83 @@ final class JsonObjectImpl extends AbstractMap<String, JsonValue> implements Jso
 
     @Override
     public String toString() {
-        if (unmodifieableBackingMap.isEmpty()) {
+        if (size == 0) {
             return "{}";
         }
         final StringWriter writer = new StringWriter(2048);
         try (final JsonGenerator generator = new JsonGeneratorImpl(writer, provider, false)) {
             generator.writeStartObject();
-            unmodifieableBackingMap.forEach(generator::write);
+            for (int i = 0; i < size; i++) {
+                generator.write(keys[i], values[i]);
+            }
             generator.writeEnd();
         }
         return writer.toString();
     }
 
-    @Override
-    public boolean equals(final Object obj) {
-        return (JsonObjectImpl.class.isInstance(obj)
-                && unmodifieableBackingMap.equals(JsonObjectImpl.class.cast(obj).unmodifieableBackingMap))
-                || (Map.class.isInstance(obj) && unmodifieableBackingMap.equals(Map.class.cast(obj)));
-    }
-
     @Override
     public int hashCode() {
         Integer h = hashCode;
         if (h == null) {
-            h = unmodifieableBackingMap.hashCode();
+            int sum = 0;
+            for (int i = 0; i < size; i++) { // as Map.Entry#hashCode()
+                sum += keys[i].hashCode() ^ values[i].hashCode();
+            }
+            h = sum;
             hashCode = h;
         }
         return h;
     }
 
     @Override
-    public Set<java.util.Map.Entry<String, JsonValue>> entrySet() {
-        return unmodifieableBackingMap.entrySet();
+    public boolean equals(final Object obj) {
+        return obj == this || (!JsonFingerprint.differ(this, obj) && super.equals(obj));
+    }
+
+    @Override
+    public long fingerprint() {
+        long f = fingerprint;
+        if (f == 0) {
+            f = JsonFingerprint.ofObject(keys, values, size);
+            fingerprint = f;
+        }
+        return f;
+    }
+
+    @Override
+    public Set<Entry<String, JsonValue>> entrySet() {
+        Set<Entry<String, JsonValue>> entries = entrySet;
+        if (entries == null) {
+            entries = new AbstractSet<Entry<String, JsonValue>>() {
+                @Override
+                public Iterator<Entry<String, JsonValue>> iterator() {
+                    return new Iterator<Entry<String, JsonValue>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < size;
+                        }
+
+                        @Override
+                        public Entry<String, JsonValue> next() {
+                            if (next >= size) {
+                                throw new NoSuchElementException();
+                            }
+                            final int i = next++;
+                            return new SimpleImmutableEntry<>(keys[i], values[i]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+            entrySet = entries;
+        }
+        return entries;
     }
 
     @Override
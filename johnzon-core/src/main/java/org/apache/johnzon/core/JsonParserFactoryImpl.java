@@ -19,12 +19,22 @@
 package org.apache.johnzon.core;
 
 import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
 import jakarta.json.JsonObject;
 import jakarta.json.stream.JsonParser;
 import jakarta.json.stream.JsonParserFactory;
+import org.apache.johnzon.core.io.MappedFileInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -43,16 +53,32 @@ public class JsonParserFactoryImpl extends AbstractJsonFactory implements JsonPa
     public static final String SUPPORTS_COMMENTS = "org.apache.johnzon.supports-comments";
     public static final boolean DEFAULT_SUPPORTS_COMMENT = Boolean.getBoolean(SUPPORTS_COMMENTS); //default is false;
 
+    public static final String MAPPED_WINDOW_LENGTH = "org.apache.johnzon.mapped-window-length";
+    public static final int DEFAULT_MAPPED_WINDOW_LENGTH = Integer.getInteger(MAPPED_WINDOW_LENGTH, 64 * 1024 * 1024); //64MB
+
+    // number of slots of the key cache shared by the parsers of the factory, 0 (default) disables it
+    public static final String STRING_CACHE_SIZE = "org.apache.johnzon.string-cache-size";
+    public static final int DEFAULT_STRING_CACHE_SIZE = Integer.getInteger(STRING_CACHE_SIZE, 0);
+    // string values up to this length are cached too (when the cache is enabled), 0 (default) means only keys are cached
+    public static final String STRING_CACHE_MAX_VALUE_LENGTH = "org.apache.johnzon.string-cache-max-value-length";
+    public static final int DEFAULT_STRING_CACHE_MAX_VALUE_LENGTH = Integer.getInteger(STRING_CACHE_MAX_VALUE_LENGTH, 0);
+
     static final Collection<String> SUPPORTED_CONFIG_KEYS = asList(
-        BUFFER_STRATEGY, MAX_STRING_LENGTH, BUFFER_LENGTH, SUPPORTS_COMMENTS, AUTO_ADJUST_STRING_BUFFER, ENCODING
+        BUFFER_STRATEGY, MAX_STRING_LENGTH, BUFFER_LENGTH, SUPPORTS_COMMENTS, AUTO_ADJUST_STRING_BUFFER, ENCODING, MAPPED_WINDOW_LENGTH,
+        STRING_CACHE_SIZE, STRING_CACHE_MAX_VALUE_LENGTH
     );
       
     private final int maxSize;
+    private final int bufferLength;
     private final BufferStrategy.BufferProvider<char[]> bufferProvider;
     private final BufferStrategy.BufferProvider<char[]> valueBufferProvider;
+    private final BufferStrategy.BufferProvider<byte[]> byteBufferProvider;
+    private final BufferStrategy.BufferProvider<byte[]> byteValueBufferProvider;
+    private final int mappedWindowSize;
     private final boolean supportsComments;
     private final boolean autoAdjustBuffers;
     private final Charset defaultEncoding;
+    private final StringCache stringCache;
     private final JsonProviderImpl provider;
 
     JsonParserFactoryImpl(final Map<String, ?> config, final JsonProviderImpl provider) {
@@ -65,37 +91,158 @@ public class JsonParserFactoryImpl extends AbstractJsonFactory implements JsonPa
         }
 
         this.maxSize = getInt(MAX_STRING_LENGTH, DEFAULT_MAX_STRING_LENGTH);
+        this.bufferLength = bufferSize;
         this.bufferProvider = getBufferProvider().newCharProvider(bufferSize);
         this.valueBufferProvider = getBufferProvider().newCharProvider(maxSize);
+        this.byteBufferProvider = getBufferProvider().newByteProvider(bufferSize);
+        this.byteValueBufferProvider = getBufferProvider().newByteProvider(maxSize);
+        this.mappedWindowSize = getInt(MAPPED_WINDOW_LENGTH, DEFAULT_MAPPED_WINDOW_LENGTH);
         this.supportsComments = getBool(SUPPORTS_COMMENTS, DEFAULT_SUPPORTS_COMMENT);
         this.autoAdjustBuffers = getBool(AUTO_ADJUST_STRING_BUFFER, true);
         this.defaultEncoding = ofNullable(getString(ENCODING, null)).map(Charset::forName).orElse(null);
+
+        final int stringCacheSize = getInt(STRING_CACHE_SIZE, DEFAULT_STRING_CACHE_SIZE);
+        this.stringCache = stringCacheSize > 0 ?
+                new StringCache(stringCacheSize, getInt(STRING_CACHE_MAX_VALUE_LENGTH, DEFAULT_STRING_CACHE_MAX_VALUE_LENGTH)) : null;
     }
 
     public BufferStrategy.BufferProvider<char[]> getValueBufferProvider() {
         return valueBufferProvider;
     }
 
-    private JsonStreamParserImpl getDefaultJsonParserImpl(final InputStream in) {
+    /**
+     * @return the key cache of this factory (to monitor its hit rate) or {@code null} if not enabled.
+     */
+    public StringCache getStringCache() {
+        return stringCache;
+    }
+
+    private JohnzonJsonParserImpl withStringCache(final JohnzonJsonParserImpl parser) {
+        if (stringCache != null) {
+            parser.setStringCache(stringCache);
+        }
+        return parser;
+    }
+
+    private JohnzonJsonParserImpl getDefaultJsonParserImpl(final InputStream in) {
         if (defaultEncoding != null) {
             return getDefaultJsonParserImpl(in, defaultEncoding);
         }
         if (supportsComments) {
             return new CommentsJsonStreamParserImpl(in, maxSize, bufferProvider, valueBufferProvider, autoAdjustBuffers, provider);
         }
-        //UTF Auto detection RFC 4627
-        return new JsonStreamParserImpl(in, maxSize, bufferProvider, valueBufferProvider, autoAdjustBuffers, provider);
+        //UTF Auto detection RFC 4627, UTF-8 (the common case) is parsed at the byte level
+        final PushbackInputStream pushbackInputStream = new PushbackInputStream(in, 4);
+        final Charset charset = RFC4627AwareInputStreamReader.getCharset(pushbackInputStream);
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return new JsonUtf8StreamParserImpl(
+                    pushbackInputStream, true, maxSize, byteBufferProvider, byteValueBufferProvider, valueBufferProvider, autoAdjustBuffers, provider);
+        }
+        return new JsonStreamParserImpl(
+                new RFC4627AwareInputStreamReader(pushbackInputStream, charset), maxSize, bufferProvider, valueBufferProvider, autoAdjustBuffers, provider);
     }
 
-    private JsonStreamParserImpl getDefaultJsonParserImpl(final InputStream in, final Charset charset) {
+    private JohnzonJsonParserImpl getDefaultJsonParserImpl(final InputStream in, final Charset charset) {
         if (supportsComments) {
             return new CommentsJsonStreamParserImpl(in, charset, maxSize, bufferProvider, valueBufferProvider, autoAdjustBuffers, provider);
         }
+        if (StandardCharsets.UTF_8.equals(charset)) { // lenient decoding as InputStreamReader(in, charset)
+            return new JsonUtf8StreamParserImpl(
+                    in, false, maxSize, byteBufferProvider, byteValueBufferProvider, valueBufferProvider, autoAdjustBuffers, provider);
+        }
         //use provided charset
         return new JsonStreamParserImpl(in, charset, maxSize, bufferProvider, valueBufferProvider, autoAdjustBuffers, provider);
     }
 
-    private JsonStreamParserImpl getDefaultJsonParserImpl(final Reader in) {
+    private JohnzonJsonParserImpl getDefaultJsonParserImpl(final byte[] bytes, final int offset, final int length) {
+        if (defaultEncoding != null && !StandardCharsets.UTF_8.equals(defaultEncoding)) {
+            return getDefaultJsonParserImpl(new ByteArrayInputStream(bytes, offset, length), defaultEncoding);
+        }
+        if (supportsComments) {
+            return getDefaultJsonParserImpl(new ByteArrayInputStream(bytes, offset, length));
+        }
+
+        int bom = 0;
+        if (defaultEncoding == null) {
+            bom = utf8BomLength(bytes, offset, Math.min(4, length));
+            if (bom < 0) {
+                return getDefaultJsonParserImpl(new ByteArrayInputStream(bytes, offset, length));
+            }
+        }
+        return new JsonUtf8StreamParserImpl(
+                bytes, offset + bom, length - bom, defaultEncoding == null, maxSize, byteValueBufferProvider, valueBufferProvider, autoAdjustBuffers, provider);
+    }
+
+    private JohnzonJsonParserImpl getDefaultJsonParserImpl(final Path path) {
+        final MappedFileInputStream stream;
+        try {
+            stream = new MappedFileInputStream(path, mappedWindowSize);
+        } catch (final IOException e) {
+            throw new JsonException("Can't read " + path + ": " + e.getMessage(), e);
+        }
+        if (supportsComments || (defaultEncoding != null && !StandardCharsets.UTF_8.equals(defaultEncoding))) {
+            return getDefaultJsonParserImpl(stream);
+        }
+
+        int bom = 0;
+        if (defaultEncoding == null) {
+            try {
+                final byte[] header = new byte[4];
+                bom = utf8BomLength(header, 0, stream.peek(header));
+                if (bom < 0) {
+                    return getDefaultJsonParserImpl(stream);
+                }
+                stream.skip(bom);
+            } catch (final IOException e) {
+                throw new JsonException("Can't read " + path + ": " + e.getMessage(), e);
+            }
+        }
+        // offsets are the ones of the file, including the BOM
+        return new JsonUtf8StreamParserImpl(
+                stream, bom, defaultEncoding == null, maxSize, byteBufferProvider, byteValueBufferProvider, valueBufferProvider, autoAdjustBuffers, provider);
+    }
+
+    // same detection than for streams (RFC 4627) but we only need to know the BOM length, -1 means not UTF-8
+    private static int utf8BomLength(final byte[] bytes, final int offset, final int headerLength) {
+        final PushbackInputStream pushbackInputStream = new PushbackInputStream(new ByteArrayInputStream(bytes, offset, headerLength), 4);
+        final Charset charset = RFC4627AwareInputStreamReader.getCharset(pushbackInputStream);
+        if (!StandardCharsets.UTF_8.equals(charset)) {
+            return -1;
+        }
+        try {
+            return headerLength - pushbackInputStream.available();
+        } catch (final IOException e) { // can't happen with in memory streams
+            throw new JsonException(e.getMessage(), e);
+        }
+    }
+
+    private JohnzonJsonParserImpl getDefaultJsonParserImpl(final char[] chars, final int offset, final int length) {
+        if (supportsComments) {
+            return new CommentsJsonStreamParserImpl(chars, offset, length, maxSize, valueBufferProvider, autoAdjustBuffers, provider);
+        }
+        //no reader and no buffer, the parser reads the array directly
+        return new JsonStreamParserImpl(chars, offset, length, maxSize, valueBufferProvider, autoAdjustBuffers, provider);
+    }
+
+    // inMemory forces a copy of the whole document for the features needing it (lazy values)
+    private JohnzonJsonParserImpl getDefaultJsonParserImpl(final CharSequence chars, final boolean inMemory) {
+        if (CharBuffer.class.isInstance(chars)) {
+            final CharBuffer buffer = CharBuffer.class.cast(chars);
+            if (buffer.hasArray()) {
+                return getDefaultJsonParserImpl(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            }
+        }
+        if (inMemory || chars.length() <= bufferLength) {
+            // strings don't expose their storage (and it is likely latin1 bytes) so a copy is the best we can do,
+            // it is not bigger than the buffer a Reader would use
+            final char[] array = String.class.isInstance(chars) ? String.class.cast(chars).toCharArray() : chars.toString().toCharArray();
+            return getDefaultJsonParserImpl(array, 0, array.length);
+        }
+        // bigger documents are copied window by window in the pooled buffer
+        return getDefaultJsonParserImpl(new CharSequenceReader(chars));
+    }
+
+    private JohnzonJsonParserImpl getDefaultJsonParserImpl(final Reader in) {
         if (supportsComments) {
             return new CommentsJsonStreamParserImpl(in, maxSize, bufferProvider, valueBufferProvider, autoAdjustBuffers, provider);
         }
@@ -105,17 +252,56 @@ public class JsonParserFactoryImpl extends AbstractJsonFactory implements JsonPa
 
     @Override
     public JsonParser createParser(final Reader reader) {
-        return getDefaultJsonParserImpl(reader);
+        return withStringCache(getDefaultJsonParserImpl(reader));
     }
 
     @Override
     public JsonParser createParser(final InputStream in) {
-        return getDefaultJsonParserImpl(in);
+        return withStringCache(getDefaultJsonParserImpl(in));
     }
 
     @Override
     public JsonParser createParser(final InputStream in, final Charset charset) {
-        return getDefaultJsonParserImpl(in, charset);
+        return withStringCache(getDefaultJsonParserImpl(in, charset));
+    }
+
+    public JsonParser createParser(final Path path) {
+        return withStringCache(getDefaultJsonParserImpl(path));
+    }
+
+    /**
+     * @param chars the document, documents up to the buffer length are parsed as an in memory char[]
+     *              (their arrays can be streamed in parallel), bigger ones are streamed.
+     * @return a parser of the document.
+     */
+    public JsonParser createParser(final CharSequence chars) {
+        return withStringCache(getDefaultJsonParserImpl(chars, false));
+    }
+
+    public JsonParser createParser(final char[] chars, final int offset, final int length) {
+        return withStringCache(getDefaultJsonParserImpl(chars, offset, length));
+    }
+
+    public JsonParser createParser(final byte[] bytes) {
+        return withStringCache(getDefaultJsonParserImpl(bytes, 0, bytes.length));
+    }
+
+    public JsonParser createParser(final byte[] bytes, final int offset, final int length) {
+        return withStringCache(getDefaultJsonParserImpl(bytes, offset, length));
+    }
+
+    public JsonParser createParser(final ByteBuffer buffer) {
+        return createInternalParser(buffer);
+    }
+
+    /**
+     * Invalid UTF-8 sequences are handled as by the UTF-8 stream parsers: rejected by default,
+     * replaced by U+FFFD when the encoding is explicitly configured.
+     *
+     * @return a non blocking parser fed with the document chunks as they arrive.
+     */
+    public JsonFeedParser createFeedParser() {
+        return new JsonFeedParser(defaultEncoding == null, maxSize, provider);
     }
 
     @Override
@@ -135,15 +321,102 @@ public class JsonParserFactoryImpl extends AbstractJsonFactory implements JsonPa
         return Collections.unmodifiableMap(internalConfig);
     }
 
-    public JsonStreamParserImpl createInternalParser(final InputStream in) {
-        return getDefaultJsonParserImpl(in);
+    public JohnzonJsonParserImpl createInternalParser(final InputStream in) {
+        return withStringCache(getDefaultJsonParserImpl(in));
     }
     
-    public JsonStreamParserImpl createInternalParser(final InputStream in, final Charset charset) {
-        return getDefaultJsonParserImpl(in, charset);
+    public JohnzonJsonParserImpl createInternalParser(final InputStream in, final Charset charset) {
+        return withStringCache(getDefaultJsonParserImpl(in, charset));
+    }
+
+    public JohnzonJsonParserImpl createInternalParser(final Reader reader) {
+        return withStringCache(getDefaultJsonParserImpl(reader));
+    }
+
+    public JohnzonJsonParserImpl createInternalParser(final Path path) {
+        return withStringCache(getDefaultJsonParserImpl(path));
+    }
+
+    public JohnzonJsonParserImpl createInternalParser(final CharSequence chars, final boolean inMemory) {
+        return withStringCache(getDefaultJsonParserImpl(chars, inMemory));
+    }
+
+    public JohnzonJsonParserImpl createInternalParser(final char[] chars, final int offset, final int length) {
+        return withStringCache(getDefaultJsonParserImpl(chars, offset, length));
+    }
+
+    public JohnzonJsonParserImpl createInternalParser(final byte[] bytes, final int offset, final int length) {
+        return withStringCache(getDefaultJsonParserImpl(bytes, offset, length));
+    }
+
+    // heap buffers are parsed in place, direct ones are streamed
+    public JohnzonJsonParserImpl createInternalParser(final ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return withStringCache(getDefaultJsonParserImpl(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()));
+        }
+        return withStringCache(getDefaultJsonParserImpl(new ByteBufferInputStream(buffer.duplicate())));
+    }
+
+    private static final class CharSequenceReader extends Reader {
+        private final CharSequence chars;
+        private int position;
+
+        private CharSequenceReader(final CharSequence chars) {
+            this.chars = chars;
+        }
+
+        @Override
+        public int read(final char[] buffer, final int offset, final int length) {
+            if (position >= chars.length()) {
+                return -1;
+            }
+            final int end = Math.min(chars.length(), position + length);
+            if (String.class.isInstance(chars)) {
+                String.class.cast(chars).getChars(position, end, buffer, offset);
+            } else {
+                for (int i = position; i < end; i++) {
+                    buffer[offset + i - position] = chars.charAt(i);
+                }
+            }
+            final int read = end - position;
+            position = end;
+            return read;
+        }
+
+        @Override
+        public void close() {
+            // no-op
+        }
     }
 
-    public JsonStreamParserImpl createInternalParser(final Reader reader) {
-        return getDefaultJsonParserImpl(reader);
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
     }
 }
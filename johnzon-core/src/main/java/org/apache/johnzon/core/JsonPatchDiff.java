@@ -16,6 +16,11 @@
  */
 package org.apache.johnzon.core;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import jakarta.json.JsonArray;
@@ -27,18 +32,29 @@ import jakarta.json.JsonValue;
 import jakarta.json.spi.JsonProvider;
 
 /**
- * Create a diff from a source and target JsonStructure
+ * Create a diff from a source and target JsonStructure.
+ *
+ * By default arrays are compared index by index, with {@code minimalArrays} the items
+ * both arrays have in common are kept (see {@link JsonArrayMatcher}) and only the other ones are
+ * added, removed, moved, copied or diffed in place.
  */
 class JsonPatchDiff extends DiffBase {
 
     private final JsonProvider provider;
     private final JsonStructure source;
     private final JsonStructure target;
+    private final boolean minimalArrays;
 
     JsonPatchDiff(final JsonProvider provider, final JsonStructure source, final JsonStructure target) {
+        this(provider, source, target, false);
+    }
+
+    JsonPatchDiff(final JsonProvider provider, final JsonStructure source, final JsonStructure target,
+                  final boolean minimalArrays) {
         this.provider = provider;
         this.source = source;
         this.target = target;
+        this.minimalArrays = minimalArrays;
     }
 
     JsonPatch calculateDiff() {
@@ -50,10 +66,17 @@ class JsonPatchDiff extends DiffBase {
     }
 
     private void diff(JsonPatchBuilder patchBuilder, String basePath, JsonValue source, JsonValue target) {
+        if (isSameValue(source, target)) {
+            return;
+        }
         if (isJsonObject(source) && isJsonObject(target)) {
             diffJsonObjects(patchBuilder, basePath + "/", (JsonObject) source, (JsonObject) target);
         } else if (isJsonArray(source) && isJsonArray(target)) {
-            diffJsonArray(patchBuilder, basePath + "/", (JsonArray) source, (JsonArray) target);
+            if (minimalArrays) {
+                new ArrayDiff(patchBuilder, basePath + "/", (JsonArray) source, (JsonArray) target).diff();
+            } else {
+                diffJsonArray(patchBuilder, basePath + "/", (JsonArray) source, (JsonArray) target);
+            }
         } else if (!source.equals(target)){
             patchBuilder.replace(basePath, target);
         }
@@ -95,4 +118,201 @@ class JsonPatchDiff extends DiffBase {
             }
         }
     }
+
+    /**
+     * Walks both arrays with the current index of the array being patched:
+     * matched items are kept, a removed item equal to an added one is moved,
+     * other removed and added items of the same gap are diffed in place by pairs
+     * and the remaining ones are removed or added (copied from an earlier equal item when it is a container).
+     * A moved item which is still before its new position is left in place until it is reached ("pending").
+     */
+    private final class ArrayDiff {
+        private final JsonPatchBuilder patchBuilder;
+        private final String basePath;
+        private final JsonArray source;
+        private final JsonArray target;
+        private final int[] matches;
+        private final int[] movedTo;
+        private final int[] movedFrom;
+        private final int[] pendingPositions;
+        private final List<Integer> pending = new ArrayList<>();
+        private int[] movedOut; // Fenwick tree of the source items moved before the walk reached them
+        private Map<JsonValue, Integer> placed; // for copies, only when there is an added container
+
+        private int sourceIndex;
+        private int position;
+
+        private ArrayDiff(final JsonPatchBuilder patchBuilder, final String basePath,
+                          final JsonArray source, final JsonArray target) {
+            this.patchBuilder = patchBuilder;
+            this.basePath = basePath;
+            this.source = source;
+            this.target = target;
+            this.matches = JsonArrayMatcher.match(source, target);
+            this.movedTo = new int[source.size()];
+            this.movedFrom = new int[target.size()];
+            this.pendingPositions = new int[source.size()];
+            Arrays.fill(movedTo, -1);
+            Arrays.fill(movedFrom, -1);
+            Arrays.fill(pendingPositions, -1);
+            findMoves();
+        }
+
+        private void findMoves() {
+            final boolean[] kept = new boolean[target.size()];
+            final Map<JsonValue, ArrayDeque<Integer>> removed = new HashMap<>();
+            for (int i = 0; i < matches.length; i++) {
+                if (matches[i] >= 0) {
+                    kept[matches[i]] = true;
+                } else {
+                    removed.computeIfAbsent(source.get(i), k -> new ArrayDeque<>()).add(i);
+                }
+            }
+            for (int i = 0; i < kept.length; i++) {
+                if (kept[i]) {
+                    continue;
+                }
+                final JsonValue value = target.get(i);
+                final ArrayDeque<Integer> candidates = removed.isEmpty() ? null : removed.get(value);
+                if (candidates != null && !candidates.isEmpty()) {
+                    final int from = candidates.poll();
+                    movedTo[from] = i;
+                    movedFrom[i] = from;
+                } else if (placed == null && isCopyable(value)) {
+                    placed = new HashMap<>();
+                }
+            }
+        }
+
+        private void diff() {
+            int targetIndex = 0;
+            while (sourceIndex < source.size() || targetIndex < target.size()) {
+                if (sourceIndex < source.size() && matches[sourceIndex] == targetIndex) {
+                    place(targetIndex++);
+                    sourceIndex++;
+                    position++;
+                    continue;
+                }
+
+                int gapEnd = sourceIndex;
+                while (gapEnd < source.size() && matches[gapEnd] < 0) {
+                    gapEnd++;
+                }
+                final int targetGapEnd = gapEnd < source.size() ? matches[gapEnd] : target.size();
+                for (; targetIndex < targetGapEnd; targetIndex++) {
+                    fill(targetIndex, gapEnd);
+                }
+                for (; sourceIndex < gapEnd; sourceIndex++) {
+                    if (!skip(sourceIndex)) {
+                        patchBuilder.remove(basePath + position);
+                    }
+                }
+            }
+        }
+
+        private void fill(final int targetIndex, final int gapEnd) {
+            final int from = movedFrom[targetIndex];
+            if (from >= 0) {
+                move(from);
+            } else {
+                while (sourceIndex < gapEnd && skip(sourceIndex)) {
+                    sourceIndex++;
+                }
+                if (sourceIndex < gapEnd) {
+                    JsonPatchDiff.this.diff(patchBuilder, basePath + position, source.get(sourceIndex++), target.get(targetIndex));
+                } else {
+                    addOrCopy(target.get(targetIndex));
+                }
+                position++;
+            }
+            place(targetIndex);
+        }
+
+        private void move(final int from) {
+            final int pendingPosition = pendingPositions[from];
+            if (pendingPosition >= 0) { // left before, removing it shifts the current position
+                pendingPositions[from] = -1;
+                pending.remove(Integer.valueOf(from));
+                for (final int other : pending) {
+                    if (pendingPositions[other] > pendingPosition) {
+                        pendingPositions[other]--;
+                    }
+                }
+                if (pendingPosition != position - 1) {
+                    patchBuilder.move(basePath + (position - 1), basePath + pendingPosition);
+                }
+            } else { // still after the current position
+                final int current = position + from - sourceIndex - (movedOutBefore(from) - movedOutBefore(sourceIndex));
+                markMovedOut(from);
+                if (current != position) {
+                    patchBuilder.move(basePath + position, basePath + current);
+                }
+                position++;
+            }
+        }
+
+        // handles the source items which are not removed nor diffed when reached
+        private boolean skip(final int index) {
+            if (isMovedOut(index)) {
+                return true;
+            }
+            if (movedTo[index] >= 0) {
+                pendingPositions[index] = position++;
+                pending.add(index);
+                return true;
+            }
+            return false;
+        }
+
+        private void addOrCopy(final JsonValue value) {
+            // without pending items the index of the placed items is their target index
+            if (placed != null && pending.isEmpty() && isCopyable(value)) {
+                final Integer from = placed.get(value);
+                if (from != null) {
+                    patchBuilder.copy(basePath + position, basePath + from);
+                    return;
+                }
+            }
+            patchBuilder.add(basePath + position, value);
+        }
+
+        private void place(final int targetIndex) {
+            if (placed != null) {
+                final JsonValue value = target.get(targetIndex);
+                if (isCopyable(value)) {
+                    placed.putIfAbsent(value, targetIndex);
+                }
+            }
+        }
+
+        private boolean isCopyable(final JsonValue value) {
+            return (isJsonObject(value) && !value.asJsonObject().isEmpty())
+                    || (isJsonArray(value) && !value.asJsonArray().isEmpty());
+        }
+
+        private boolean isMovedOut(final int index) {
+            return movedOut != null && movedOutBefore(index + 1) - movedOutBefore(index) > 0;
+        }
+
+        private void markMovedOut(final int index) {
+            if (movedOut == null) {
+                movedOut = new int[source.size() + 1];
+            }
+            for (int i = index + 1; i < movedOut.length; i += i & -i) {
+                movedOut[i]++;
+            }
+        }
+
+        // count of moved out items with a source index lower than index
+        private int movedOutBefore(final int index) {
+            if (movedOut == null) {
+                return 0;
+            }
+            int count = 0;
+            for (int i = index; i > 0; i -= i & -i) {
+                count += movedOut[i];
+            }
+            return count;
+        }
+    }
 }
@@ -41,6 +41,8 @@ class JsonPatchImpl implements JsonPatch {
     private final JsonProvider provider;
     private final List<PatchValue> patches;
 
+    private final boolean transientPointers;
+
     private volatile JsonArray json;
 
     JsonPatchImpl(final JsonProvider provider, final PatchValue... patches) {
@@ -54,12 +56,64 @@ class JsonPatchImpl implements JsonPatch {
         } else {
             this.patches = Collections.unmodifiableList(patches);
         }
+        this.transientPointers = this.patches.stream().allMatch(patch -> patch.pathPointer instanceof JsonPointerImpl
+                && (patch.fromPointer == null || patch.fromPointer instanceof JsonPointerImpl));
     }
 
 
+    /**
+     * Applies all the operations on a mutable view of the target which is frozen at the end:
+     * only the containers on the patched paths are copied, untouched subtrees are shared with the target.
+     */
     @Override
     public <T extends JsonStructure> T apply(T target) {
+        if (!transientPointers) {
+            return applyOneByOne(target);
+        }
+        if (target == null && !patches.isEmpty()) {
+            throw new NullPointerException("target must not be null");
+        }
+
+        final TransientJsonStructure patched = new TransientJsonStructure(provider, target);
+        for (PatchValue patch : patches) {
+            final JsonPointerImpl pathPointer = (JsonPointerImpl) patch.pathPointer;
+
+            switch (patch.operation) {
+                case ADD:
+                    pathPointer.addTransient(patched, patch.value);
+                    break;
+                case REMOVE:
+                    pathPointer.removeTransient(patched);
+                    break;
+                case REPLACE:
+                    // first remove the existing element and then add the new value
+                    pathPointer.removeTransient(patched);
+                    pathPointer.addTransient(patched, patch.value);
+                    break;
+                case MOVE:
+                    // the value is detached so it can be moved as it is, even thawed
+                    pathPointer.addTransient(patched, ((JsonPointerImpl) patch.fromPointer).removeTransient(patched));
+                    break;
+                case COPY:
+                    // frozen to not share a mutable container between two locations
+                    pathPointer.addTransient(patched, patched.freeze(((JsonPointerImpl) patch.fromPointer).getTransient(patched)));
+                    break;
+                case TEST:
+                    JsonValue toTest = patched.freeze(pathPointer.getTransient(patched));
+                    if (!toTest.equals(patch.value)) {
+                        throw new JsonException("JsonPatch.Operation.TEST fails! Values are not equal");
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("unsupported operation: " + patch.operation);
+            }
+        }
+
+        return (T) patched.freeze();
+    }
 
+    // pointers of another provider, each operation creates a new structure
+    private <T extends JsonStructure> T applyOneByOne(T target) {
         //X TODO JsonPointer should use generics like JsonPatch
         JsonStructure patched = target;
 
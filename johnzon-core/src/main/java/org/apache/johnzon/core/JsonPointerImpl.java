@@ -19,10 +19,8 @@
 package org.apache.johnzon.core;
 
 import jakarta.json.JsonArray;
-import jakarta.json.JsonArrayBuilder;
 import jakarta.json.JsonException;
 import jakarta.json.JsonObject;
-import jakarta.json.JsonObjectBuilder;
 import jakarta.json.JsonPointer;
 import jakarta.json.JsonStructure;
 import jakarta.json.JsonValue;
@@ -30,9 +28,6 @@ import jakarta.json.spi.JsonProvider;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.regex.Pattern;
 
 
 public class JsonPointerImpl implements JsonPointer {
@@ -40,7 +35,6 @@ public class JsonPointerImpl implements JsonPointer {
     private final JsonProvider provider;
     private final String jsonPointer;
     private final List<String> referenceTokens = new ArrayList<>();
-    private static final Pattern IS_NUMBER = Pattern.compile("\\d+");
 
     /**
      * Constructs and initializes a JsonPointer.
@@ -114,11 +108,11 @@ public class JsonPointerImpl implements JsonPointer {
             return target;
         }
 
-        JsonValue jsonValue = target;
+        Object jsonValue = target;
         for (int i = 1; i < referenceTokens.size(); i++) {
             jsonValue = getValue(jsonValue, referenceTokens.get(i), i, referenceTokens.size() - 1);
         }
-        return jsonValue;
+        return (JsonValue) jsonValue;
     }
 
     @Override
@@ -157,7 +151,9 @@ public class JsonPointerImpl implements JsonPointer {
      *                              or if the pointer contains references to non-existing objects or arrays.
      */
     public JsonStructure add(JsonStructure target, JsonValue value) {
-        validateAdd(target);
+        if (target == null) {
+            throw new NullPointerException("target must not be null");
+        }
         if (isEmptyJsonPointer()) {
             return (JsonStructure) value;
         }
@@ -179,8 +175,6 @@ public class JsonPointerImpl implements JsonPointer {
      * @see #add(JsonStructure, JsonValue)
      */
     public JsonObject add(JsonObject target, JsonValue value) {
-        validateAdd(target);
-
         return addInternal(target, value);
     }
 
@@ -198,8 +192,6 @@ public class JsonPointerImpl implements JsonPointer {
      * @see #add(JsonStructure, JsonValue)
      */
     public JsonArray add(JsonArray target, JsonValue value) {
-        validateAdd(target);
-
         return addInternal(target, value);
     }
 
@@ -234,7 +226,7 @@ public class JsonPointerImpl implements JsonPointer {
      * @see #replace(JsonStructure, JsonValue)
      */
     public JsonObject replace(JsonObject target, JsonValue value) {
-        return add(remove(target), value);
+        return replaceInternal(target, value);
     }
 
     /**
@@ -249,7 +241,7 @@ public class JsonPointerImpl implements JsonPointer {
      * @see #replace(JsonStructure, JsonValue)
      */
     public JsonArray replace(JsonArray target, JsonValue value) {
-        return add(remove(target), value);
+        return replaceInternal(target, value);
     }
 
     /**
@@ -279,9 +271,7 @@ public class JsonPointerImpl implements JsonPointer {
      * @see #remove(JsonStructure)
      */
     public JsonObject remove(JsonObject target) {
-        validateRemove(target);
-
-        return remove(target, 1).asJsonObject();
+        return removeInternal(target);
     }
 
     /**
@@ -295,9 +285,7 @@ public class JsonPointerImpl implements JsonPointer {
      * @see #remove(JsonStructure)
      */
     public JsonArray remove(JsonArray target) {
-        validateRemove(target);
-
-        return remove(target, 1).asJsonArray();
+        return removeInternal(target);
     }
 
     String getJsonPointer() {
@@ -312,180 +300,162 @@ public class JsonPointerImpl implements JsonPointer {
                 '}';
     }
 
-    private void validateAdd(JsonValue target) {
-        validateJsonPointer(target, referenceTokens.size() - 1);
+    /**
+     * Same as {@link #getValue(JsonStructure)} on the mutable view of a structure,
+     * the returned value can be a thawed container.
+     */
+    Object getTransient(final TransientJsonStructure target) {
+        Object value = target.getRoot();
+        for (int i = 1; i < referenceTokens.size(); i++) {
+            value = getValue(value, referenceTokens.get(i), i, referenceTokens.size() - 1);
+        }
+        return value;
     }
 
-    private void validateRemove(JsonValue target) {
-        validateJsonPointer(target, referenceTokens.size());
+    /**
+     * Same as {@link #add(JsonStructure, JsonValue)} on the mutable view of a structure,
+     * only the containers on the path are thawed.
+     */
+    void addTransient(final TransientJsonStructure target, final Object value) {
         if (isEmptyJsonPointer()) {
-            throw new JsonException("The reference must not be the target");
+            target.setRoot(value);
+            return;
         }
-    }
 
-    private boolean isEmptyJsonPointer() {
-        return jsonPointer.equals("");
+        final Object parent = thawParent(target);
+        final String token = referenceTokens.get(referenceTokens.size() - 1);
+        if (parent instanceof TransientJsonStructure.ObjectNode) {
+            TransientJsonStructure.ObjectNode.class.cast(parent).put(token, value);
+        } else if (parent instanceof TransientJsonStructure.ArrayNode) {
+            final TransientJsonStructure.ArrayNode array = TransientJsonStructure.ArrayNode.class.cast(parent);
+            array.add(getArrayIndex(token, array, array.size(), true), value);
+        } // else a primitive value is on the path, there is nothing to add to
     }
 
-    private JsonValue getValue(JsonValue jsonValue, String referenceToken, int currentPosition, int referencePosition) {
-        if (jsonValue instanceof JsonObject) {
-            JsonObject jsonObject = (JsonObject) jsonValue;
-            jsonValue = jsonObject.get(referenceToken);
-
-            if (jsonValue != null) {
-                return jsonValue;
-            }
-            throw new JsonException("'" + jsonObject + "' contains no value for name '" + referenceToken + "'");
-        } else if (jsonValue instanceof JsonArray) {
-            validateArrayIndex(referenceToken);
+    /**
+     * Same as {@link #remove(JsonStructure)} on the mutable view of a structure.
+     *
+     * @return the removed value, it can be a thawed container.
+     */
+    Object removeTransient(final TransientJsonStructure target) {
+        if (isEmptyJsonPointer()) {
+            throw new JsonException("The reference must not be the target");
+        }
 
-            try {
-                JsonArray jsonArray = (JsonArray) jsonValue;
-                int arrayIndex = getArrayIndex(referenceToken, jsonArray, false);
-                return jsonArray.get(arrayIndex);
-            } catch (NumberFormatException e) {
-                throw new JsonException("'" + referenceToken + "' is no valid array index", e);
+        final Object parent = thawParent(target);
+        final String token = referenceTokens.get(referenceTokens.size() - 1);
+        if (parent instanceof TransientJsonStructure.ObjectNode) {
+            final Object removed = TransientJsonStructure.ObjectNode.class.cast(parent).remove(token);
+            if (removed == null) {
+                throw new JsonException("'" + parent + "' contains no value for name '" + token + "'");
             }
-        } else {
-            if (currentPosition != referencePosition) {
-                return jsonValue;
-            }
-            throw new JsonException("'" + jsonValue + "' contains no element for '" + referenceToken + "'");
+            return removed;
         }
+        if (parent instanceof TransientJsonStructure.ArrayNode) {
+            validateArrayIndex(token);
+            final TransientJsonStructure.ArrayNode array = TransientJsonStructure.ArrayNode.class.cast(parent);
+            return array.remove(getArrayIndex(token, array, array.size(), false));
+        }
+        throw new JsonException("'" + parent + "' contains no element for '" + token + "'");
     }
 
-    private <T extends JsonStructure> T addInternal(T jsonValue, JsonValue newValue) {
-        List<String> currentPath = new ArrayList<>();
-        currentPath.add("");
-
-        return (T) addInternal(jsonValue, newValue, currentPath, true);
+    private boolean isEmptyJsonPointer() {
+        return jsonPointer.equals("");
     }
 
-    private JsonValue addInternal(JsonValue jsonValue, JsonValue newValue, List<String> currentPath,
-                                  boolean check) {
-        if (jsonValue.getValueType() == JsonValue.ValueType.OBJECT) {
-            JsonObject jsonObject = jsonValue.asJsonObject();
-            if (!check) {
-                return provider.createObjectBuilder(jsonObject).build();
-            }
+    private <T extends JsonStructure> T addInternal(final T target, final JsonValue value) {
+        if (target == null) {
+            throw new NullPointerException("target must not be null");
+        }
+        if (isEmptyJsonPointer()) {
+            return target;
+        }
 
-            JsonObjectBuilder objectBuilder = provider.createObjectBuilder();
+        final TransientJsonStructure structure = new TransientJsonStructure(provider, target);
+        addTransient(structure, value);
+        return (T) structure.freeze();
+    }
 
-            if (jsonObject.isEmpty() && isPositionToAdd(currentPath)) {
-                objectBuilder.add(referenceTokens.get(referenceTokens.size() - 1), newValue);
-            } else {
-                for (Map.Entry<String, JsonValue> entry : jsonObject.entrySet()) {
+    private <T extends JsonStructure> T replaceInternal(final T target, final JsonValue value) {
+        if (target == null) {
+            throw new NullPointerException("target must not be null");
+        }
 
-                    currentPath.add(entry.getKey());
-                    objectBuilder.add(entry.getKey(), addInternal(entry.getValue(), newValue, currentPath, canMatch(currentPath)));
-                    currentPath.remove(entry.getKey());
+        final TransientJsonStructure structure = new TransientJsonStructure(provider, target);
+        removeTransient(structure);
+        addTransient(structure, value);
+        return (T) structure.freeze();
+    }
 
-                    if (isPositionToAdd(currentPath)) {
-                        objectBuilder.add(referenceTokens.get(referenceTokens.size() - 1), newValue);
-                    }
-                }
-            }
-            return objectBuilder.build();
-        } else if (jsonValue.getValueType() == JsonValue.ValueType.ARRAY) {
-            JsonArray jsonArray = jsonValue.asJsonArray();
-            if (!check) {
-                return provider.createArrayBuilder(jsonArray).build();
-            }
-            JsonArrayBuilder arrayBuilder = provider.createArrayBuilder();
+    private <T extends JsonStructure> T removeInternal(final T target) {
+        if (target == null) {
+            throw new NullPointerException("target must not be null");
+        }
 
-            int arrayIndex = -1;
-            if (isPositionToAdd(currentPath)) {
-                arrayIndex = getArrayIndex(referenceTokens.get(referenceTokens.size() - 1), jsonArray, canMatch(currentPath));
-            }
+        final TransientJsonStructure structure = new TransientJsonStructure(provider, target);
+        removeTransient(structure);
+        return (T) structure.freeze();
+    }
 
-            int jsonArraySize = jsonArray.size();
-            for (int i = 0; i <= jsonArraySize; i++) {
-                if (i == arrayIndex) {
-                    arrayBuilder.add(newValue);
-                }
-                if (i == jsonArraySize) {
-                    break;
-                }
-
-                String path = String.valueOf(i);
-                currentPath.add(path);
-                arrayBuilder.add(addInternal(jsonArray.get(i), newValue, currentPath, canMatch(currentPath)));
-                currentPath.remove(path);
-            }
-            return arrayBuilder.build();
+    // thaws the containers down to the parent of the referenced value, the siblings stay shared
+    private Object thawParent(final TransientJsonStructure target) {
+        Object current = target.thawRoot();
+        final int last = referenceTokens.size() - 1;
+        for (int i = 1; i < last; i++) {
+            final String token = referenceTokens.get(i);
+            getValue(current, token, i, last); // validates the token
+            if (current instanceof TransientJsonStructure.ObjectNode) {
+                current = TransientJsonStructure.ObjectNode.class.cast(current).thaw(token);
+            } else if (current instanceof TransientJsonStructure.ArrayNode) {
+                current = TransientJsonStructure.ArrayNode.class.cast(current).thaw(Integer.parseInt(token));
+            } // else a primitive, kept as getValue does
         }
-        return jsonValue;
+        return current;
     }
 
-    private boolean isPositionToAdd(List<String> currentPath) {
-        return currentPath.size() == referenceTokens.size() - 1 &&
-                currentPath.get(currentPath.size() - 1).equals(referenceTokens.get(referenceTokens.size() - 2));
-    }
+    // value is an immutable JsonValue or a thawed container
+    private Object getValue(Object jsonValue, String referenceToken, int currentPosition, int referencePosition) {
+        if (jsonValue instanceof JsonObject || jsonValue instanceof TransientJsonStructure.ObjectNode) {
+            final Object value = jsonValue instanceof JsonObject ?
+                    JsonObject.class.cast(jsonValue).get(referenceToken) :
+                    TransientJsonStructure.ObjectNode.class.cast(jsonValue).get(referenceToken);
 
-    private boolean canMatch(final List<String> currentPath) {
-        return currentPath.size() <= referenceTokens.size() &&
-                Objects.equals(currentPath.get(currentPath.size() - 1), referenceTokens.get(currentPath.size() - 1));
-    }
+            if (value != null) {
+                return value;
+            }
+            throw new JsonException("'" + jsonValue + "' contains no value for name '" + referenceToken + "'");
+        } else if (jsonValue instanceof JsonArray) {
+            validateArrayIndex(referenceToken);
 
-    private JsonValue remove(final JsonValue jsonValue, final int currentPosition) {
-        if (referenceTokens.size() <= currentPosition) { // unlikely
-            return jsonValue;
-        }
+            JsonArray jsonArray = (JsonArray) jsonValue;
+            return jsonArray.get(getArrayIndex(referenceToken, jsonArray, jsonArray.size(), false));
+        } else if (jsonValue instanceof TransientJsonStructure.ArrayNode) {
+            validateArrayIndex(referenceToken);
 
-        final String token = referenceTokens.get(currentPosition);
-        if (jsonValue.getValueType() == JsonValue.ValueType.OBJECT) {
-            final JsonObject jsonObject = jsonValue.asJsonObject();
-            final JsonObjectBuilder objectBuilder = provider.createObjectBuilder();
-            for (final Map.Entry<String, JsonValue> entry : jsonObject.entrySet()) {
-                final boolean matchesToken = token.equals(entry.getKey());
-                if (matchesToken && currentPosition == referenceTokens.size() - 1) {
-                    continue;
-                }
-                if (matchesToken) {
-                    objectBuilder.add(
-                            entry.getKey(),
-                            remove(entry.getValue(), currentPosition + 1));
-                } else {
-                    objectBuilder.add(entry.getKey(), entry.getValue());
-                }
+            final TransientJsonStructure.ArrayNode array = TransientJsonStructure.ArrayNode.class.cast(jsonValue);
+            return array.get(getArrayIndex(referenceToken, array, array.size(), false));
+        } else {
+            if (currentPosition != referencePosition) {
+                return jsonValue;
             }
-            return objectBuilder.build();
-        } else if (jsonValue.getValueType() == JsonValue.ValueType.ARRAY) {
-            final JsonArray jsonArray = jsonValue.asJsonArray();
-            if ("-".equals(token) || IS_NUMBER.matcher(token).matches()) {
-                final int arrayIndex = getArrayIndex(token, jsonArray, false);
-                final JsonArrayBuilder arrayBuilder = provider.createArrayBuilder();
-                final int jsonArraySize = jsonArray.size();
-                for (int i = 0; i < jsonArraySize; i++) {
-                    final boolean matchesIndex = i == arrayIndex;
-                    if (matchesIndex && currentPosition != referenceTokens.size() - 1) {
-                        arrayBuilder.add(remove(jsonArray.get(i), currentPosition + 1));
-                    } else if (!matchesIndex) {
-                        arrayBuilder.add(jsonArray.get(i));
-                    }
-                }
-                return arrayBuilder.build();
-            } // else?
-            return jsonArray;
+            throw new JsonException("'" + jsonValue + "' contains no element for '" + referenceToken + "'");
         }
-        return jsonValue;
     }
 
-    private int getArrayIndex(String referenceToken, JsonArray jsonArray, boolean addOperation) {
+    private int getArrayIndex(String referenceToken, Object jsonArray, int size, boolean addOperation) {
         if (addOperation && referenceToken.equals("-")) {
-            return jsonArray.size();
+            return size;
 
         } else if (!addOperation && referenceToken.equals("-")) {
-            final int arrayIndex = jsonArray.size();
-            validateArraySize(referenceToken, jsonArray, arrayIndex, jsonArray.size());
-            return arrayIndex;
+            validateArraySize(referenceToken, jsonArray, size, size);
+            return size;
         }
 
         validateArrayIndex(referenceToken);
 
         try {
             int arrayIndex = Integer.parseInt(referenceToken);
-            int arraySize = addOperation ? jsonArray.size() + 1 : jsonArray.size();
+            int arraySize = addOperation ? size + 1 : size;
             validateArraySize(referenceToken, jsonArray, arrayIndex, arraySize);
             return arrayIndex;
         } catch (final NumberFormatException e) {
@@ -493,17 +463,6 @@ public class JsonPointerImpl implements JsonPointer {
         }
     }
 
-    private void validateJsonPointer(JsonValue target, int size) throws NullPointerException, JsonException {
-        if (target == null) {
-            throw new NullPointerException("target must not be null");
-        }
-
-        JsonValue jsonValue = target;
-        for (int i = 1; i < size; i++) {
-            jsonValue = getValue(jsonValue, referenceTokens.get(i), i, referenceTokens.size() - 1);
-        }
-    }
-
     private void validateArrayIndex(String referenceToken) throws JsonException {
         if (referenceToken.startsWith("-") && referenceToken.length() > 1) {
             throw new JsonException("An array index must not start with '" + referenceToken.charAt(0) + "'");
@@ -513,7 +472,7 @@ public class JsonPointerImpl implements JsonPointer {
         }
     }
 
-    private void validateArraySize(final String referenceToken, final JsonArray jsonArray,
+    private void validateArraySize(final String referenceToken, final Object jsonArray,
                                    final int arrayIndex, final int arraySize) throws JsonException {
 
         if (arrayIndex >= arraySize) {
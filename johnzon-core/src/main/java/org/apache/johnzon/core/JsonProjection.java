@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonPointer;
+import jakarta.json.JsonStructure;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonLocation;
+import jakarta.json.stream.JsonParser;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of JSON pointers compiled into a trie to read only the matching values of a document.
+ * Values which can't match are skipped without being tokenized (see {@link JohnzonJsonParserImpl#skipStructureRaw(boolean)})
+ * so they are not validated, and a structure is left as soon as all its requested children were read.
+ *
+ * A pointer to a value nested in another requested value is part of the events of this last one.
+ * The "-" array token never matches.
+ */
+public final class JsonProjection {
+    private final JsonProvider provider;
+    private final Node root = new Node();
+
+    public JsonProjection(final JsonProvider provider, final Collection<? extends JsonPointer> pointers) {
+        this.provider = provider;
+        for (final JsonPointer pointer : pointers) {
+            final String value = asString(pointer);
+            if (!value.isEmpty() && !value.startsWith("/")) {
+                throw new JsonException("A non-empty JsonPointer string must begin with a '/': " + value);
+            }
+            Node node = root;
+            if (!value.isEmpty()) {
+                for (final String token : value.substring(1).split("/", -1)) {
+                    node = node.child(JsonPointerUtil.decode(token));
+                }
+            }
+            node.pointer = pointer;
+            node.value = value;
+        }
+        root.collectNested(null);
+    }
+
+    /**
+     * @param parser the parser to read, before its first event.
+     * @return a parser emitting only the events of the requested values, see {@link ProjectedParser#getPointer()}.
+     */
+    public ProjectedParser project(final JsonParser parser) {
+        return new ProjectedParser(parser, root);
+    }
+
+    /**
+     * Reads the requested values in a single pass.
+     *
+     * @param parser the parser to read, before its first event.
+     * @return the values found in document order, keyed by their pointer string.
+     */
+    public Map<String, JsonValue> extract(final JsonParser parser) {
+        final Map<String, JsonValue> values = new LinkedHashMap<>();
+        final ProjectedParser projected = project(parser);
+        while (projected.hasNext()) {
+            projected.next();
+            final Node node = projected.matched;
+            final JsonValue value = projected.getValue();
+            values.put(node.value, value);
+            if (node.nested != null && JsonStructure.class.isInstance(value)) {
+                final JsonStructure structure = JsonStructure.class.cast(value);
+                for (final Node nested : node.nested) {
+                    final JsonPointer relative = new JsonPointerImpl(provider, nested.value.substring(node.value.length()));
+                    if (relative.containsValue(structure)) {
+                        values.put(nested.value, relative.getValue(structure));
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    private static String asString(final JsonPointer pointer) {
+        return JsonPointerImpl.class.isInstance(pointer) ? JsonPointerImpl.class.cast(pointer).getJsonPointer() : pointer.toString();
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final Map<Integer, Node> indices = new HashMap<>(); // children matching array elements
+        private JsonPointer pointer; // null if the value itself is not requested
+        private String value;
+        private List<Node> nested; // requested nodes under a requested one
+
+        private Node child(final String token) {
+            Node node = children.get(token);
+            if (node == null) {
+                node = new Node();
+                children.put(token, node);
+                final int index = toIndex(token);
+                if (index >= 0) {
+                    indices.put(index, node);
+                }
+            }
+            return node;
+        }
+
+        private Node element(final int index) {
+            return indices.isEmpty() ? null : indices.get(index);
+        }
+
+        private void collectNested(final Node requestedParent) {
+            Node parent = requestedParent;
+            if (pointer != null) {
+                if (parent != null) {
+                    if (parent.nested == null) {
+                        parent.nested = new ArrayList<>();
+                    }
+                    parent.nested.add(this);
+                } else {
+                    parent = this;
+                }
+            }
+            for (final Node child : children.values()) {
+                child.collectNested(parent);
+            }
+        }
+
+        // -1 if not an array index ("-", leading zeros, not a number)
+        private static int toIndex(final String token) {
+            if (token.isEmpty() || token.length() > 9 || (token.length() > 1 && token.charAt(0) == '0')) {
+                return -1;
+            }
+            for (int i = 0; i < token.length(); i++) {
+                if (token.charAt(i) < '0' || token.charAt(i) > '9') {
+                    return -1;
+                }
+            }
+            return Integer.parseInt(token);
+        }
+    }
+
+    // a structure on the path to requested values
+    private static final class Frame {
+        private final Node node;
+        private final boolean array;
+        private int remaining; // requested children not yet read
+        private int index;
+        private Node pending; // node of the last key
+
+        private Frame(final Node node, final boolean array) {
+            this.node = node;
+            this.array = array;
+            this.remaining = array ? node.indices.size() : node.children.size();
+        }
+    }
+
+    /**
+     * Emits the events of the requested values one after the other, the structures containing them are not emitted.
+     * Note that {@link #hasNext()} reads ahead the first event of the next requested value so accessors must be called before it.
+     */
+    public static final class ProjectedParser implements JsonParser {
+        private final JsonParser parser;
+        private final Node root;
+        private final List<Frame> frames = new ArrayList<>();
+
+        private Node matched;
+        private Event current;
+        private Event next; // read ahead by hasNext()
+        private boolean rootRead;
+
+        // kind (array or not) of the structures opened in the current requested value
+        private boolean[] matchStructures = new boolean[8];
+        private int matchDepth;
+
+        private ProjectedParser(final JsonParser parser, final Node root) {
+            this.parser = parser;
+            this.root = root;
+        }
+
+        /**
+         * @return the pointer of the requested value being read.
+         */
+        public JsonPointer getPointer() {
+            if (matched == null) {
+                throw new IllegalStateException("No requested value read");
+            }
+            return matched.pointer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null || matchDepth > 0) {
+                return true;
+            }
+            next = nextMatch();
+            return next != null;
+        }
+
+        @Override
+        public Event next() {
+            if (next != null) {
+                current = next;
+                next = null;
+            } else if (matchDepth > 0) {
+                current = parser.next();
+            } else {
+                current = nextMatch();
+                if (current == null) {
+                    throw new NoSuchElementException();
+                }
+            }
+            switch (current) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    if (matchDepth == matchStructures.length) {
+                        matchStructures = Arrays.copyOf(matchStructures, matchDepth * 2);
+                    }
+                    matchStructures[matchDepth++] = current == Event.START_ARRAY;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    matchDepth--;
+                    break;
+                default:
+            }
+            return current;
+        }
+
+        // reads up to the first event of the next requested value, null if there is none
+        private Event nextMatch() {
+            while (true) {
+                Frame frame = frames.isEmpty() ? null : frames.get(frames.size() - 1);
+                while (frame != null && frame.remaining == 0) { // nothing more to read there
+                    skip(frame.array);
+                    frames.remove(frames.size() - 1);
+                    frame = frames.isEmpty() ? null : frames.get(frames.size() - 1);
+                }
+                if ((frame == null && rootRead) || !parser.hasNext()) {
+                    return null;
+                }
+
+                final Event event = parser.next();
+                final Node node;
+                switch (event) {
+                    case KEY_NAME:
+                        frame.pending = frame.node.children.get(parser.getString());
+                        continue;
+                    case END_OBJECT:
+                    case END_ARRAY:
+                        frames.remove(frames.size() - 1);
+                        continue;
+                    default:
+                        if (frame == null) {
+                            rootRead = true;
+                            node = root;
+                        } else if (frame.array) {
+                            node = frame.node.element(frame.index++);
+                        } else {
+                            node = frame.pending;
+                            frame.pending = null;
+                        }
+                }
+
+                final boolean structure = event == Event.START_OBJECT || event == Event.START_ARRAY;
+                if (node == null) {
+                    if (structure) {
+                        skip(event == Event.START_ARRAY);
+                    }
+                    continue;
+                }
+                if (frame != null) {
+                    frame.remaining--;
+                }
+                if (node.pointer != null) {
+                    matched = node;
+                    return event;
+                }
+                if (structure) {
+                    frames.add(new Frame(node, event == Event.START_ARRAY));
+                } // else a scalar where a structure was expected so nothing can match
+            }
+        }
+
+        private void skip(final boolean array) {
+            if (JohnzonJsonParserImpl.class.isInstance(parser)) {
+                JohnzonJsonParserImpl.class.cast(parser).skipStructureRaw(array);
+            } else if (array) {
+                parser.skipArray();
+            } else {
+                parser.skipObject();
+            }
+        }
+
+        // the parser read a whole structure of the requested value
+        private void onStructureRead(final Event end) {
+            matchDepth--;
+            current = end;
+        }
+
+        @Override
+        public Event currentEvent() {
+            return current;
+        }
+
+        @Override
+        public String getString() {
+            return parser.getString();
+        }
+
+        @Override
+        public boolean isIntegralNumber() {
+            return parser.isIntegralNumber();
+        }
+
+        @Override
+        public int getInt() {
+            return parser.getInt();
+        }
+
+        @Override
+        public long getLong() {
+            return parser.getLong();
+        }
+
+        @Override
+        public BigDecimal getBigDecimal() {
+            return parser.getBigDecimal();
+        }
+
+        @Override
+        public JsonLocation getLocation() {
+            return parser.getLocation();
+        }
+
+        @Override
+        public JsonObject getObject() {
+            final JsonObject object = parser.getObject();
+            onStructureRead(Event.END_OBJECT);
+            return object;
+        }
+
+        @Override
+        public JsonArray getArray() {
+            final JsonArray array = parser.getArray();
+            onStructureRead(Event.END_ARRAY);
+            return array;
+        }
+
+        @Override
+        public JsonValue getValue() {
+            if (current == Event.START_OBJECT) {
+                return getObject();
+            }
+            if (current == Event.START_ARRAY) {
+                return getArray();
+            }
+            return parser.getValue();
+        }
+
+        @Override
+        public void skipObject() {
+            if (matchDepth > 0 && !matchStructures[matchDepth - 1]) {
+                parser.skipObject();
+                onStructureRead(Event.END_OBJECT);
+            }
+        }
+
+        @Override
+        public void skipArray() {
+            if (matchDepth > 0 && matchStructures[matchDepth - 1]) {
+                parser.skipArray();
+                onStructureRead(Event.END_ARRAY);
+            }
+        }
+
+        @Override
+        public void close() {
+            parser.close();
+        }
+    }
+}
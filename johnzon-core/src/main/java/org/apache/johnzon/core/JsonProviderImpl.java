@@ -64,6 +64,8 @@ public class JsonProviderImpl extends JsonProvider implements Serializable {
     private final Supplier<JsonBuilderFactory> builderFactory = new Cached<>(() ->
             new JsonBuilderFactoryImpl(null, bufferProvider.get(), RejectDuplicateKeysMode.DEFAULT, this));
     private int maxBigDecimalScale = Integer.getInteger("johnzon.max-big-decimal-scale", 1_000);
+    // arrays diffed as sequences (minimal add/remove/move/copy) instead of index by index by createDiff
+    private boolean minimalArrayDiff = Boolean.getBoolean("johnzon.patch-diff.minimal-arrays");
     @Override
     public JsonParser createParser(final InputStream in) {
         return parserFactory.createParser(in);
@@ -218,7 +220,7 @@ public class JsonProviderImpl extends JsonProvider implements Serializable {
 
     @Override
     public JsonPatch createDiff(JsonStructure source, JsonStructure target) {
-        return new JsonPatchDiff(this, source, target).calculateDiff();
+        return new JsonPatchDiff(this, source, target, minimalArrayDiff).calculateDiff();
     }
 
     @Override
@@ -239,6 +241,14 @@ public class JsonProviderImpl extends JsonProvider implements Serializable {
         this.maxBigDecimalScale = maxBigDecimalScale;
     }
 
+    public boolean isMinimalArrayDiff() {
+        return minimalArrayDiff;
+    }
+
+    public void setMinimalArrayDiff(final boolean minimalArrayDiff) {
+        this.minimalArrayDiff = minimalArrayDiff;
+    }
+
     /**
      * Enables to not allocate potentially big instances or delay the initialization but ensure it happens only once.
      * @param <T> the type of the cached instance.
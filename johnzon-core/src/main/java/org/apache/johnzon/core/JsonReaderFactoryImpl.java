@@ -21,48 +21,74 @@ package org.apache.johnzon.core;
 import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import jakarta.json.JsonReader;
-import jakarta.json.JsonReaderFactory;
 import jakarta.json.stream.JsonParser;
 
-class JsonReaderFactoryImpl extends AbstractJsonFactory implements JsonReaderFactory {
-    static final Collection<String> SUPPORTED_CONFIG_KEYS = RejectDuplicateKeysMode.CONFIG_KEYS;
+class JsonReaderFactoryImpl extends AbstractJsonFactory implements JohnzonJsonReaderFactory {
+    static final Collection<String> SUPPORTED_CONFIG_KEYS;
+    static {
+        final List<String> keys = new ArrayList<>(RejectDuplicateKeysMode.CONFIG_KEYS);
+        keys.add(JsonReaderImpl.DOUBLE_NUMBERS);
+        keys.add(JsonReaderImpl.LAZY_VALUES);
+        SUPPORTED_CONFIG_KEYS = Collections.unmodifiableList(keys);
+    }
 
     private final JsonParserFactoryImpl parserFactory;
-    private final RejectDuplicateKeysMode rejectDuplicateKeys;
+    private final JsonReaderImpl.Config readerConfig;
+    private final boolean lazyValues;
     private JsonProviderImpl provider;
 
     JsonReaderFactoryImpl(final Map<String, ?> config, final JsonProviderImpl provider) {
         super(config, SUPPORTED_CONFIG_KEYS, JsonParserFactoryImpl.SUPPORTED_CONFIG_KEYS);
         this.provider = provider;
+        this.lazyValues = getBool(JsonReaderImpl.LAZY_VALUES, false);
+        this.readerConfig = new JsonReaderImpl.Config(RejectDuplicateKeysMode.from(config),
+                getBool(JsonReaderImpl.DOUBLE_NUMBERS, false), lazyValues);
         if (!internalConfig.isEmpty()) {
-            RejectDuplicateKeysMode.CONFIG_KEYS.forEach(internalConfig::remove);
+            SUPPORTED_CONFIG_KEYS.forEach(internalConfig::remove);
         }
         this.parserFactory = new JsonParserFactoryImpl(internalConfig, provider);
-        this.rejectDuplicateKeys = RejectDuplicateKeysMode.from(config);
     }
 
     @Override
     public JsonReader createReader(final Reader reader) {
-        return new JsonReaderImpl(parserFactory.createInternalParser(reader), parserFactory.getValueBufferProvider(), rejectDuplicateKeys, provider);
+        return new JsonReaderImpl(parserFactory.createInternalParser(reader), false, parserFactory.getValueBufferProvider(), readerConfig, provider);
     }
 
     @Override
     public JsonReader createReader(final InputStream in) {
-        return new JsonReaderImpl(parserFactory.createInternalParser(in), parserFactory.getValueBufferProvider(), rejectDuplicateKeys, provider);
+        return new JsonReaderImpl(parserFactory.createInternalParser(in), false, parserFactory.getValueBufferProvider(), readerConfig, provider);
     }
 
     @Override
     public JsonReader createReader(final InputStream in, final Charset charset) {
-        return new JsonReaderImpl(parserFactory.createInternalParser(in, charset), parserFactory.getValueBufferProvider(), rejectDuplicateKeys, provider);
+        return new JsonReaderImpl(parserFactory.createInternalParser(in, charset), false, parserFactory.getValueBufferProvider(), readerConfig, provider);
+    }
+
+    @Override
+    public JsonReader createReader(final Path path) {
+        return new JsonReaderImpl(parserFactory.createInternalParser(path), false, parserFactory.getValueBufferProvider(), readerConfig, provider);
+    }
+
+    @Override
+    public JsonReader createReader(final CharSequence chars) {
+        return new JsonReaderImpl(parserFactory.createInternalParser(chars, lazyValues), false, parserFactory.getValueBufferProvider(), readerConfig, provider);
+    }
+
+    @Override
+    public JsonReader createReader(final byte[] bytes) {
+        return new JsonReaderImpl(parserFactory.createInternalParser(bytes, 0, bytes.length), false, parserFactory.getValueBufferProvider(), readerConfig, provider);
     }
 
     public JsonReader createReader(final JsonParser parser) {
-        return new JsonReaderImpl(parser, parserFactory.getValueBufferProvider(), rejectDuplicateKeys, provider);
+        return new JsonReaderImpl(parser, false, parserFactory.getValueBufferProvider(), readerConfig, provider);
     }
 
     @Override
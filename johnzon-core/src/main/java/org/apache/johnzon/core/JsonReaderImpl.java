@@ -24,20 +24,42 @@ import jakarta.json.JsonArrayBuilder;
 import jakarta.json.JsonNumber;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonPointer;
 import jakarta.json.JsonReader;
 import jakarta.json.JsonStructure;
 import jakarta.json.JsonValue;
 import jakarta.json.stream.JsonParser;
 import jakarta.json.stream.JsonParsingException;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 
 public class JsonReaderImpl implements JsonReader {
+    /**
+     * When true decimal numbers are read as double (see {@link JohnzonJsonParser#getDouble()})
+     * instead of {@link java.math.BigDecimal}, it is faster but the exact decimal representation is lost.
+     */
+    public static final String DOUBLE_NUMBERS = "org.apache.johnzon.double-numbers";
+
+    /**
+     * When true objects and arrays read from an in memory document (see {@link JohnzonJsonReaderFactory})
+     * are views over an index of the document which only create the values when they are accessed.
+     * It is useful when only a few values of a big document are read but the document is kept in memory
+     * as long as one of these views is referenced. Ignored when duplicated keys are rejected or with streams.
+     */
+    public static final String LAZY_VALUES = "org.apache.johnzon.lazy-values";
+
     private final JohnzonJsonParser parser;
     private final BufferStrategy.BufferProvider<char[]> bufferProvider;
     private JsonProviderImpl provider;
+    private final Config config;
     private final RejectDuplicateKeysMode rejectDuplicateKeysMode;
+    private final boolean doubleNumbers;
+    private final boolean lazyValues;
     private boolean closed = false;
 
     private boolean subStreamReader;
@@ -56,6 +78,15 @@ public class JsonReaderImpl implements JsonReader {
     public JsonReaderImpl(final JsonParser parser, boolean subStreamReader,
                           final BufferStrategy.BufferProvider<char[]> bufferProvider,
                           final RejectDuplicateKeysMode rejectDuplicateKeys, final JsonProviderImpl provider) {
+        this(parser, subStreamReader, bufferProvider, Config.of(rejectDuplicateKeys), provider);
+    }
+
+    /**
+     * @param config how values are created, see {@link Config}.
+     */
+    JsonReaderImpl(final JsonParser parser, boolean subStreamReader,
+                   final BufferStrategy.BufferProvider<char[]> bufferProvider,
+                   final Config config, final JsonProviderImpl provider) {
         this.bufferProvider = bufferProvider;
         this.provider = provider;
         if (parser instanceof JohnzonJsonParser) {
@@ -65,7 +96,10 @@ public class JsonReaderImpl implements JsonReader {
         }
 
         this.subStreamReader = subStreamReader;
-        this.rejectDuplicateKeysMode = rejectDuplicateKeys;
+        this.config = config;
+        this.rejectDuplicateKeysMode = config.rejectDuplicateKeysMode;
+        this.doubleNumbers = config.doubleNumbers;
+        this.lazyValues = config.lazyValues;
     }
 
     @Override
@@ -89,6 +123,16 @@ public class JsonReaderImpl implements JsonReader {
             next = parser.next();
         }
 
+        if (lazyValues && (next == JsonParser.Event.START_OBJECT || next == JsonParser.Event.START_ARRAY)) {
+            final JsonValue value = readLazyValue();
+            if (value != null) {
+                if (!subStreamReader && parser.hasNext()) {
+                    throw new JsonParsingException("Expected end of file", parser.getLocation());
+                }
+                return value;
+            }
+        }
+
         switch (next) {
             case START_OBJECT:
                 final JsonObjectBuilder objectBuilder = new JsonObjectBuilderImpl(emptyMap(), bufferProvider, rejectDuplicateKeysMode, provider);
@@ -130,7 +174,7 @@ public class JsonReaderImpl implements JsonReader {
                 if (parser.isFitLong()) {
                     number = new JsonLongImpl(parser.getLong());
                 } else {
-                    number = new JsonNumberImpl(parser.getBigDecimal(), provider::checkBigDecimalScale);
+                    number = decimalNumber();
                 }
                 if (!subStreamReader && parser.hasNext()) {
                     throw new JsonParsingException("Expected end of file", parser.getLocation());
@@ -156,6 +200,50 @@ public class JsonReaderImpl implements JsonReader {
         return JsonArray.class.cast(read);
     }
 
+    /**
+     * Streams the elements of the array document. When the document is in memory (byte[], String up to the buffer length)
+     * the stream splits at element boundaries so {@code parallel()} parses elements concurrently.
+     * Elements are created with the options of this reader and closing the stream closes this reader.
+     * As {@link #readArray()} nothing can follow the array, it is checked once the array is read
+     * (when the stream is created for an in memory document).
+     *
+     * @return the elements of the array.
+     */
+    public Stream<JsonValue> readArrayStream() {
+        checkClosed();
+
+        if (!parser.hasNext()) {
+            throw new NothingToRead();
+        }
+
+        final JsonParser.Event next = subStreamReader ? parser.current() : parser.next();
+        if (next != JsonParser.Event.START_ARRAY) {
+            throw new JsonParsingException("Expecting an array but got " + next, parser.getLocation());
+        }
+        final Stream<JsonValue> stream = JohnzonJsonParserImpl.class.isInstance(parser) ?
+                JohnzonJsonParserImpl.class.cast(parser).getArrayStream(config, subStreamReader ? null : this::checkEndOfFile) :
+                parser.getArrayStream();
+        return stream.onClose(this::close);
+    }
+
+    private void checkEndOfFile() {
+        if (parser.hasNext()) {
+            throw new JsonParsingException("Expected end of file", parser.getLocation());
+        }
+    }
+
+    /**
+     * Reads only the values referenced by the pointers, other values are skipped without being decoded
+     * (see {@link JsonProjection}).
+     *
+     * @param pointers the values to read.
+     * @return the values found keyed by their pointer string.
+     */
+    public Map<String, JsonValue> extract(final Set<JsonPointer> pointers) {
+        checkClosed();
+        return new JsonProjection(provider, pointers).extract(parser);
+    }
+
     private void checkType(final Class<?> expected, final JsonStructure read) {
         if (!expected.isInstance(read)) {
             throw new JsonParsingException("Expecting " + expected + " but got " + read, parser.getLocation());
@@ -199,7 +287,7 @@ public class JsonReaderImpl implements JsonReader {
                     if (parser.isIntegralNumber() && parser.isNotTooLong()) {
                         builder.add(key, new JsonLongImpl(parser.getLong()));
                     } else {
-                        builder.add(key, new JsonNumberImpl(parser.getBigDecimal(), provider::checkBigDecimalScale));
+                        builder.add(key, decimalNumber());
                     }
                     break;
 
@@ -237,9 +325,9 @@ public class JsonReaderImpl implements JsonReader {
 
                 case VALUE_NUMBER:
                     if (parser.isFitLong()) {
-                        builder.add(new JsonLongImpl(parser.getLong()));
+                        builder.add(parser.getLong()); // JsonArrayBuilderImpl keeps numbers as primitives when it can
                     } else {
-                        builder.add(new JsonNumberImpl(parser.getBigDecimal(), provider::checkBigDecimalScale));
+                        builder.add(decimalNumber());
                     }
                     break;
 
@@ -282,6 +370,28 @@ public class JsonReaderImpl implements JsonReader {
         }
     }
 
+    // null if the parser doesn't read an in memory document
+    private JsonValue readLazyValue() {
+        if (rejectDuplicateKeysMode != RejectDuplicateKeysMode.DEFAULT || !JohnzonJsonParserImpl.class.isInstance(parser)) {
+            return null;
+        }
+        final JohnzonJsonParserImpl impl = JohnzonJsonParserImpl.class.cast(parser);
+        if (impl.inMemoryChars() == null && impl.inMemoryBytes() == null) {
+            return null;
+        }
+        return JsonTape.read(impl, bufferProvider, provider, doubleNumbers);
+    }
+
+    private JsonNumber decimalNumber() {
+        if (doubleNumbers && !parser.isIntegralNumber()) {
+            final double value = parser.getDouble();
+            if (!Double.isInfinite(value)) {
+                return new JsonDoubleImpl(value);
+            } // else too big for a double, keep the exact value
+        }
+        return new JsonNumberImpl(parser.getBigDecimal(), provider::checkBigDecimalScale);
+    }
+
     private void checkClosed() {
         if (closed) {
             throw new IllegalStateException("read(), readObject(), readArray() or close() method was already called");
@@ -289,6 +399,34 @@ public class JsonReaderImpl implements JsonReader {
 
     }
 
+    /**
+     * The reading options of a reader factory, readers created from a parser of a reader (streams) reuse them
+     * so they create the same values.
+     */
+    static final class Config {
+        static final Config DEFAULT = new Config(RejectDuplicateKeysMode.DEFAULT, false, false);
+
+        private final RejectDuplicateKeysMode rejectDuplicateKeysMode;
+        private final boolean doubleNumbers;
+        private final boolean lazyValues;
+
+        /**
+         * @param rejectDuplicateKeysMode how duplicated keys are handled.
+         * @param doubleNumbers {@code true} to read decimal numbers as double instead of BigDecimal.
+         * @param lazyValues {@code true} to read in memory documents as lazy views (see {@link #LAZY_VALUES}).
+         */
+        Config(final RejectDuplicateKeysMode rejectDuplicateKeysMode, final boolean doubleNumbers, final boolean lazyValues) {
+            this.rejectDuplicateKeysMode = rejectDuplicateKeysMode;
+            this.doubleNumbers = doubleNumbers;
+            this.lazyValues = lazyValues;
+        }
+
+        static Config of(final RejectDuplicateKeysMode rejectDuplicateKeysMode) {
+            return rejectDuplicateKeysMode == RejectDuplicateKeysMode.DEFAULT ?
+                    DEFAULT : new Config(rejectDuplicateKeysMode, false, false);
+        }
+    }
+
     public static class NothingToRead extends IllegalStateException {
         public NothingToRead() {
             super("Nothing to read");
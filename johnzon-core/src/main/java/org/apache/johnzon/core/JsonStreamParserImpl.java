@@ -36,8 +36,8 @@ import java.util.NoSuchElementException;
 public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonChars {
     private final boolean autoAdjust;
 
-    //the main buffer where the stream will be buffered
-    private final char[] buffer;
+    //the main buffer where the stream will be buffered, or the caller array if the whole document is in memory
+    private char[] buffer;
 
     //current parser position within the buffer
     //Initial MIN_VALUE will trigger buffer refill, normally bufferPos is >= -1
@@ -50,12 +50,17 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
     //available character in the buffer. It might be <= "buffer.length".
     private int availableCharsInBuffer;
 
+    // when parsing an in memory document (in == null) the bounds of the document in the buffer
+    private final int inputStart;
+    private final int inputEnd;
+    private boolean inputConsumed;
+
     //start and end position of values in the buffer
     //may cross boundaries, then value is in fallBackCopyBuffer
     private int startOfValueInBuffer = -1;
     private int endOfValueInBuffer = -1;
 
-    private final Reader in;
+    private Reader in;
 
     //do we read from a character stream or a byte stream
     //not used at the moment but maybe relevant in future to calculate the JsonLocation offset
@@ -73,6 +78,7 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
 
     //this buffer is used to store current String or Number value in case that
     //within the value a buffer boundary is crossed or the string contains escaped characters
+    //for in memory documents it is only taken from the value provider when a value is escaped
     private char[] fallBackCopyBuffer;
     private boolean releaseFallBackCopyBuffer = true;
     private int fallBackCopyBufferLength;
@@ -86,6 +92,10 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
     private long lastLineBreakPosition;
     private long pastBufferReadCount;
 
+    // optional factory cache for keys and short values, currentValueHash is computed while scanning when it is set
+    private StringCache stringCache;
+    private int currentValueHash;
+
     //cache (if current value is a number) integral state and the number itself if its only one digit    
     private boolean isCurrentNumberIntegral = true;
     private int currentIntegralNumber = Integer.MIN_VALUE; //for number from 0 - 9
@@ -100,24 +110,16 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
     //This can only be determined by build up a stack which tracks the trail of Json objects and arrays
     //This stack here is only needed for validating the above mentioned case, if we want to be lenient we can skip suing the stack.
     //Stack can cause out of memory issues when the nesting depth of a Json stream is too deep.
-    private StructureElement currentStructureElement = null;
+    private final BitStack structure = new BitStack(); // true for an array, false for an object
 
     private int arrayDepth = 0;
     private int objectDepth = 0;
 
     private boolean closed;
 
-    //minimal stack implementation
-    private static final class StructureElement {
-        private final StructureElement previous;
-        private final boolean isArray;
-
-        StructureElement(final StructureElement previous, final boolean isArray) {
-            super();
-            this.previous = previous;
-            this.isArray = isArray;
-        }
-    }
+    // text of the structure read by rawStructure() which was in previous buffers
+    private StringBuilder rawValue;
+    private int rawValueStart;
 
     private static final class Buffer {
         private char[] buffer;
@@ -151,6 +153,25 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
         this(null, reader, null, maxStringLength, bufferProvider, valueBuffer, autoAdjust, provider);
     }
 
+    // parses chars[offset, offset + length[ in place, no copy and no pooled buffer
+    public JsonStreamParserImpl(final char[] chars, final int offset, final int length, final int maxStringLength,
+                                final BufferStrategy.BufferProvider<char[]> valueBuffer, final boolean autoAdjust, final JsonProviderImpl provider) {
+
+        super(provider);
+        if (offset < 0 || length < 0 || offset + length > chars.length) {
+            throw new IndexOutOfBoundsException("Invalid range [" + offset + ", " + (offset + length) + "[ for an array of " + chars.length + " chars");
+        }
+        this.autoAdjust = autoAdjust;
+        this.maxValueLength = maxStringLength <= 0 ? 8192 : maxStringLength;
+        this.buffer = chars;
+        this.bufferProvider = null;
+        this.valueProvider = valueBuffer;
+        this.in = null;
+        this.inputStart = offset;
+        this.inputEnd = offset + length;
+        this.pastBufferReadCount = -offset; // offsets are relative to the first char of the document
+    }
+
     private JsonStreamParserImpl(final InputStream inputStream, final Reader reader, final Charset encoding, final int maxStringLength,
                                  final BufferStrategy.BufferProvider<char[]> bufferProvider, final BufferStrategy.BufferProvider<char[]> valueBuffer,
                                  final boolean autoAdjust, final JsonProviderImpl provider) {
@@ -162,6 +183,8 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
         this.buffer = bufferProvider.newBuffer();
         this.bufferProvider = bufferProvider;
         this.valueProvider = valueBuffer;
+        this.inputStart = 0;
+        this.inputEnd = 0;
 
         if (fallBackCopyBuffer.length < maxStringLength) {
             throw cust("Size of value buffer cannot be smaller than maximum string length");
@@ -178,6 +201,9 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
 
     //append a single char to the value buffer
     private void appendToCopyBuffer(final char c) {
+        if (fallBackCopyBuffer == null) {
+            fallBackCopyBuffer = valueProvider.newBuffer();
+        }
         if (fallBackCopyBufferLength >= fallBackCopyBuffer.length - 1) {
             createNewFallBackCopyBuffer();
         }
@@ -193,6 +219,9 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
                 throw tmc();
             }
 
+            if (fallBackCopyBuffer == null) {
+                fallBackCopyBuffer = valueProvider.newBuffer();
+            }
             if (fallBackCopyBufferLength >= fallBackCopyBuffer.length - length) { // not good at runtime but handled
                 createNewFallBackCopyBuffer();
             }
@@ -232,7 +261,7 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
 
     @Override
     public final boolean hasNext() {
-        if (currentStructureElement != null || previousEvent == 0) {
+        if (!structure.isEmpty() || previousEvent == 0) {
             return true;
         }
         if (previousEvent != END_ARRAY && previousEvent != END_OBJECT &&
@@ -321,9 +350,26 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
                 startOfValueInBuffer = 0;
             }
 
+            if (in == null) { // the whole document is already in the buffer
+                if (inputConsumed || inputStart == inputEnd) {
+                    inputConsumed = true;
+                    availableCharsInBuffer = -1;
+                    return EOF;
+                }
+                inputConsumed = true;
+                availableCharsInBuffer = inputEnd;
+                bufferPos = inputStart;
+                bufferLeft = inputEnd - inputStart - 1;
+                return buffer[bufferPos];
+            }
+
             if (bufferPos >= -1) {
                 pastBufferReadCount += availableCharsInBuffer;
             }
+            if (rawValue != null) {
+                rawValue.append(buffer, rawValueStart, availableCharsInBuffer - rawValueStart);
+                rawValueStart = 0;
+            }
 
             try {
                 availableCharsInBuffer = in.read(buffer, 0, buffer.length);
@@ -374,6 +420,23 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
             }
             dosCount++;
 
+            //skip the buffered spaces (indentation) at once
+            final int spacesStart = bufferPos + 1;
+            final int spacesEnd = spacesStart + bufferLeft;
+            int spacesPos = spacesStart;
+            while (spacesPos < spacesEnd && buffer[spacesPos] == SPACE) {
+                spacesPos++;
+            }
+            final int spaces = spacesPos - spacesStart;
+            if (spaces > 0) {
+                dosCount += spaces;
+                if (dosCount > maxValueLength) {
+                    throw tmc();
+                }
+                bufferLeft -= spaces;
+                bufferPos += spaces;
+            }
+
             //read next character
             c = readNextChar();
 
@@ -416,7 +479,7 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
             throw new NoSuchElementException();
         }
 
-        if (previousEvent > 0 && currentStructureElement == null) {
+        if (previousEvent > 0 && structure.isEmpty()) {
             throw uexc("Unexpected end of structure");
         }
 
@@ -524,15 +587,10 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
         }
 
         //push upon the stack
-        if (currentStructureElement == null) {
-            currentStructureElement = new StructureElement(null, false);
-        } else {
-            if (!currentStructureElement.isArray && previousEvent != KEY_SEPARATOR_EVENT) {
-                throw uexc("Expected :");
-            }
-            final StructureElement localStructureElement = new StructureElement(currentStructureElement, false);
-            currentStructureElement = localStructureElement;
+        if (!structure.isEmpty() && !structure.peek() && previousEvent != KEY_SEPARATOR_EVENT) {
+            throw uexc("Expected :");
         }
+        structure.push(false);
 
         objectDepth++;
 
@@ -544,16 +602,16 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
 
         //last event must one of the following-> " ] { } LITERAL
         if (previousEvent == START_ARRAY || previousEvent == COMMA_EVENT || previousEvent == KEY_NAME
-                || previousEvent == KEY_SEPARATOR_EVENT || currentStructureElement == null) {
+                || previousEvent == KEY_SEPARATOR_EVENT || structure.isEmpty()) {
             throw uexc("Expected \" ] { } LITERAL");
         }
 
-        if (currentStructureElement.isArray) {
+        if (structure.peek()) {
             throw uexc("Expected : ]");
         }
 
         //pop from stack
-        currentStructureElement = currentStructureElement.previous;
+        structure.pop();
 
         objectDepth--;
 
@@ -568,15 +626,10 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
         }
 
         //push upon the stack
-        if (currentStructureElement == null) {
-            currentStructureElement = new StructureElement(null, true);
-        } else {
-            if (!currentStructureElement.isArray && previousEvent != KEY_SEPARATOR_EVENT) {
-                throw uexc("Expected \"");
-            }
-            final StructureElement localStructureElement = new StructureElement(currentStructureElement, true);
-            currentStructureElement = localStructureElement;
+        if (!structure.isEmpty() && !structure.peek() && previousEvent != KEY_SEPARATOR_EVENT) {
+            throw uexc("Expected \"");
         }
+        structure.push(true);
 
         arrayDepth++;
 
@@ -587,16 +640,16 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
 
         //last event must one of the following-> [ ] } " LITERAL
         if (previousEvent == START_OBJECT || previousEvent == COMMA_EVENT || previousEvent == KEY_SEPARATOR_EVENT
-                || currentStructureElement == null) {
+                || structure.isEmpty()) {
             throw uexc("Expected [ ] } \" LITERAL");
         }
 
-        if (!currentStructureElement.isArray) {
+        if (!structure.peek()) {
             throw uexc("Expected : }");
         }
 
         //pop from stack
-        currentStructureElement = currentStructureElement.previous;
+        structure.pop();
 
         arrayDepth--;
 
@@ -616,7 +669,7 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
 
     @Override
     protected BufferStrategy.BufferProvider<char[]> getCharArrayProvider() {
-        return bufferProvider;
+        return bufferProvider != null ? bufferProvider : valueProvider; // in memory documents don't use a buffer
     }
 
     //read a string, gets called recursively
@@ -632,6 +685,7 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
 
             if (n == QUOTE_CHAR) {
                 endOfValueInBuffer = startOfValueInBuffer = bufferPos; //->"" case
+                currentValueHash = 0;
                 return;
             } else if (n == EOL) {
                 throw uexc("Unexpected linebreak");
@@ -662,9 +716,27 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
                 startOfValueInBuffer = bufferPos;
                 endOfValueInBuffer = -1;
 
-                while ((n = readNextChar()) > '\u001F' && n != ESCAPE_CHAR && n != EOL && n != QUOTE_CHAR) {
-                    //read fast
+                int hash = n;
+                while (true) {
+                    // scan the buffered chars without the per char bookkeeping then consume the run at once
+                    final int runEnd;
+                    if (stringCache == null) {
+                        runEnd = stringEnd(buffer, bufferPos + 1, bufferPos + 1 + bufferLeft);
+                    } else {
+                        final long scan = hashedStringEnd(buffer, bufferPos + 1, bufferPos + 1 + bufferLeft, hash);
+                        runEnd = (int) scan;
+                        hash = (int) (scan >>> 32);
+                    }
+                    bufferLeft -= runEnd - bufferPos - 1;
+                    bufferPos = runEnd - 1;
+
+                    n = readNextChar(); // the end of the string or the first char of a refilled buffer
+                    if (n <= '\u001F' || n == ESCAPE_CHAR || n == QUOTE_CHAR) {
+                        break;
+                    }
+                    hash = 31 * hash + n;
                 }
+                currentValueHash = hash;
 
                 endOfValueInBuffer = bufferPos;
 
@@ -707,6 +779,55 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
     }
 
 
+    // index of the first quote, backslash or control character in [from, to) or to,
+    // chars are 16 bits so they can't be viewed as longs in pure java, a 4 times unrolled loop is the closest
+    private static int stringEnd(final char[] chars, final int from, final int to) {
+        int i = from;
+        for (; i + 4 <= to; i += 4) {
+            if (isStringEnd(chars[i])) {
+                return i;
+            }
+            if (isStringEnd(chars[i + 1])) {
+                return i + 1;
+            }
+            if (isStringEnd(chars[i + 2])) {
+                return i + 2;
+            }
+            if (isStringEnd(chars[i + 3])) {
+                return i + 3;
+            }
+        }
+        while (i < to && !isStringEnd(chars[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    // same as stringEnd but also continues the String#hashCode() of the value with the scanned chars,
+    // returns the hash in the high 32 bits and the index in the low ones
+    private static long hashedStringEnd(final char[] chars, final int from, final int to, final int seed) {
+        int hash = seed;
+        int i = from;
+        for (; i + 4 <= to; i += 4) {
+            final char c0 = chars[i];
+            final char c1 = chars[i + 1];
+            final char c2 = chars[i + 2];
+            final char c3 = chars[i + 3];
+            if (isStringEnd(c0) || isStringEnd(c1) || isStringEnd(c2) || isStringEnd(c3)) {
+                break;
+            }
+            hash = 923521 * hash + 29791 * c0 + 961 * c1 + 31 * c2 + c3; // 31^4, 31^3, 31^2
+        }
+        for (; i < to && !isStringEnd(chars[i]); i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return (long) hash << 32 | i;
+    }
+
+    private static boolean isStringEnd(final char c) {
+        return c <= '\u001F' || c == QUOTE_CHAR || c == ESCAPE_CHAR;
+    }
+
     //read the next four chars, check them and treat them as an single unicode char
     private char parseUnicodeHexChars() {
         // \u08Ac etc       
@@ -735,7 +856,7 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
         if (previousEvent == KEY_SEPARATOR_EVENT) {
             //must be value
 
-            if (currentStructureElement != null && currentStructureElement.isArray) {
+            if (!structure.isEmpty() && structure.peek()) {
                 //not in array, only allowed within array
                 throw uexc("Key value pair not allowed in an array");
             }
@@ -745,7 +866,7 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
         } else { //Event is  START_OBJECT  OR START_ARRAY OR COMMA_EVENT
             //must be a key if we are in an object, if not its a value 
 
-            if ((currentStructureElement != null && currentStructureElement.isArray) || currentStructureElement == null) {
+            if (structure.isEmpty() || structure.peek()) {
                 return EVT_MAP[previousEvent = VALUE_STRING];
             }
 
@@ -872,7 +993,7 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
             throw uexc("Expected : , [");
         }
 
-        if (previousEvent == COMMA_EVENT && !currentStructureElement.isArray) {
+        if (previousEvent == COMMA_EVENT && !structure.peek()) {
             //only allowed within array
             throw uexc("Not in an array context");
         }
@@ -915,6 +1036,12 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
             combinePreviousFallbackBuffersToCurrent();
 
             //if there a content in the value buffer read from them, if not use main buffer
+            if (stringCache != null && previousEvent != VALUE_NUMBER) {
+                return fallBackCopyBufferLength > 0 ?
+                        cachedString(fallBackCopyBuffer, 0, fallBackCopyBufferLength,
+                                StringCache.hash(fallBackCopyBuffer, 0, fallBackCopyBufferLength)) :
+                        cachedString(buffer, startOfValueInBuffer, endOfValueInBuffer - startOfValueInBuffer, currentValueHash);
+            }
             return fallBackCopyBufferLength > 0 ? new String(fallBackCopyBuffer, 0, fallBackCopyBufferLength) : new String(buffer,
                     startOfValueInBuffer, endOfValueInBuffer - startOfValueInBuffer);
         } else {
@@ -922,6 +1049,160 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
         }
     }
 
+    private String cachedString(final char[] chars, final int start, final int length, final int hash) {
+        return stringCache.accepts(previousEvent == KEY_NAME, length) ?
+                stringCache.get(chars, start, length, hash) : new String(chars, start, length);
+    }
+
+    @Override
+    void setStringCache(final StringCache stringCache) {
+        this.stringCache = stringCache;
+    }
+
+    @Override
+    void skipStructureRaw(final boolean array) { // nesting is tracked whatever the structure kind
+        int depth = 1;
+        boolean string = false;
+        boolean escaped = false;
+        while (true) {
+            final int end = bufferPos + 1 + bufferLeft;
+            for (int i = bufferPos + 1; i < end; i++) {
+                final char c = buffer[i];
+                if (c == EOL) {
+                    currentLine++;
+                    lastLineBreakPosition = pastBufferReadCount + i;
+                } else if (string) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == ESCAPE_CHAR) {
+                        escaped = true;
+                    } else if (c == QUOTE_CHAR) {
+                        string = false;
+                    }
+                } else if (c == QUOTE_CHAR) {
+                    string = true;
+                } else if (c == START_OBJECT_CHAR || c == START_ARRAY_CHAR) {
+                    depth++;
+                } else if ((c == END_OBJECT_CHAR || c == END_ARRAY_CHAR) && --depth == 0) {
+                    // move just before the closing bracket and consume it, it validates the bracket type
+                    bufferLeft -= i - 1 - bufferPos;
+                    bufferPos = i - 1;
+                    internalNext();
+                    return;
+                }
+            }
+
+            bufferLeft = 0;
+            bufferPos = end - 1;
+            readNextChar(); // refill
+            if (availableCharsInBuffer <= 0) {
+                throw uexc("End of file hit too early");
+            }
+            unreadChar();
+        }
+    }
+
+    @Override
+    public JohnzonJsonParser reset(final Reader reader) {
+        if (bufferProvider == null) {
+            throw new UnsupportedOperationException("A parser of an in memory document can't be reset");
+        }
+        releasePreviousFallBackCopyBuffers();
+        if (closed || !releaseFallBackCopyBuffer) { // released or not pooled, taken again when needed
+            fallBackCopyBuffer = null;
+            releaseFallBackCopyBuffer = true;
+        }
+        if (closed) {
+            buffer = bufferProvider.newBuffer();
+            closed = false;
+        }
+        in = reader;
+
+        bufferPos = Integer.MIN_VALUE;
+        bufferLeft = 0;
+        availableCharsInBuffer = 0;
+        startOfValueInBuffer = endOfValueInBuffer = -1;
+        previousEvent = -1;
+        fallBackCopyBufferLength = 0;
+        currentLine = 1;
+        lastLineBreakPosition = 0;
+        pastBufferReadCount = 0;
+        isCurrentNumberIntegral = true;
+        currentIntegralNumber = Integer.MIN_VALUE;
+        structure.clear();
+        arrayDepth = 0;
+        objectDepth = 0;
+        resetParser();
+        return this;
+    }
+
+    @Override
+    String rawStructure() {
+        final int start = bufferPos;
+        if (in == null) {
+            skipStructureRaw(previousEvent == START_ARRAY);
+            return new String(buffer, start, bufferPos + 1 - start);
+        }
+        rawValue = new StringBuilder();
+        rawValueStart = start;
+        try {
+            skipStructureRaw(previousEvent == START_ARRAY);
+            return rawValue.append(buffer, rawValueStart, bufferPos + 1 - rawValueStart).toString();
+        } finally {
+            rawValue = null;
+        }
+    }
+
+    @Override
+    char[] inMemoryChars() {
+        return in == null ? buffer : null;
+    }
+
+    @Override
+    int valueStart() {
+        return in == null && fallBackCopyBufferLength == 0 && startOfValueInBuffer >= 0 && endOfValueInBuffer >= 0 ?
+                startOfValueInBuffer : -1;
+    }
+
+    @Override
+    int valueEnd() {
+        return endOfValueInBuffer;
+    }
+
+    @Override
+    StructuralIndex indexCurrentArray() {
+        if (in != null || previousEvent != START_ARRAY) { // only when the whole document is in the buffer
+            return null;
+        }
+        // in memory the line break positions are buffer positions shifted by pastBufferReadCount
+        final StructuralIndex index = StructuralIndex.ofArray(
+                buffer, bufferPos, inputEnd, (int) currentLine, (int) (lastLineBreakPosition - pastBufferReadCount));
+        if (index == null) { // let the sequential parsing report the error with its location
+            return null;
+        }
+
+        currentLine = index.closingLine();
+        lastLineBreakPosition = pastBufferReadCount + index.closingLastLineBreak();
+        // move just before the closing bracket and consume it
+        bufferLeft -= index.closingBracket() - 1 - bufferPos;
+        bufferPos = index.closingBracket() - 1;
+        internalNext();
+        return index;
+    }
+
+    @Override
+    JohnzonJsonParserImpl newElementParser(final StructuralIndex index, final int element) {
+        final int start = index.elementStart(element);
+        final JsonStreamParserImpl parser = new JsonStreamParserImpl(
+                buffer, start, index.elementEnd(element) - start, maxValueLength, valueProvider, autoAdjust, getProvider());
+        parser.setStringCache(stringCache);
+        // locations are the ones of the whole document
+        parser.pastBufferReadCount = pastBufferReadCount;
+        parser.currentLine = index.elementLine(element);
+        parser.lastLineBreakPosition = pastBufferReadCount + index.elementLastLineBreak(element);
+        return parser;
+    }
+
     // Combines all old stored fallback buffers into the current fallback buffer again so we have a char[] to easily access
     // Releases all previous fallback buffers while doing so
     private void combinePreviousFallbackBuffersToCurrent() {
@@ -1037,6 +1318,20 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
                 fallBackCopyBufferLength) : new BigDecimal(buffer, startOfValueInBuffer, (endOfValueInBuffer - startOfValueInBuffer)));
     }
 
+    @Override
+    public double getDouble() {
+        if (previousEvent != VALUE_NUMBER) {
+            throw new IllegalStateException(EVT_MAP[previousEvent] + " doesn't support getDouble()");
+        } else if (isCurrentNumberIntegral && currentIntegralNumber != Integer.MIN_VALUE) {
+            return currentIntegralNumber;
+        }
+
+        combinePreviousFallbackBuffersToCurrent();
+        return fallBackCopyBufferLength > 0 ?
+                Doubles.parse(fallBackCopyBuffer, 0, fallBackCopyBufferLength) :
+                Doubles.parse(buffer, startOfValueInBuffer, endOfValueInBuffer);
+    }
+
     @Override
     public JsonLocation getLocation() {
         return createLocation();
@@ -1048,14 +1343,18 @@ public class JsonStreamParserImpl extends JohnzonJsonParserImpl implements JsonC
             return;
         }
 
-        bufferProvider.release(buffer);
-        if (releaseFallBackCopyBuffer) {
+        if (bufferProvider != null) {
+            bufferProvider.release(buffer);
+        }
+        if (releaseFallBackCopyBuffer && fallBackCopyBuffer != null) {
             valueProvider.release(fallBackCopyBuffer);
         }
         releasePreviousFallBackCopyBuffers();
 
         try {
-            in.close();
+            if (in != null) {
+                in.close();
+            }
         } catch (final IOException e) {
             throw new JsonException("Unexpected IO exception " + e.getMessage(), e);
         } finally {
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Generator keeping the whole document in its buffer: the buffer grows instead of being flushed
+ * and {@link #toString()} copies it once in the resulting String,
+ * where a {@link java.io.StringWriter} appends it to a synchronized StringBuffer copied again by its toString().
+ *
+ * The pooled buffer is used until the document doesn't fit in it anymore,
+ * bigger documents continue in a plain array which is not pooled.
+ */
+class JsonStringGeneratorImpl extends JsonGeneratorImpl {
+    private char[] pooled;
+    private String result;
+
+    JsonStringGeneratorImpl(final BufferStrategy.BufferProvider<char[]> bufferProvider,
+                            final boolean prettyPrint, final boolean trusted) {
+        super(null, bufferProvider, prettyPrint, trusted);
+        this.pooled = buffer;
+    }
+
+    @Override
+    public JohnzonJsonGenerator reset(final Writer writer) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't write to a Writer");
+    }
+
+    /**
+     * @return the JSON written so far, the whole document once closed.
+     */
+    @Override
+    public String toString() {
+        if (result != null) {
+            return result;
+        }
+        return buffer == null ? "" : new String(buffer, 0, bufferPos); // closed on an invalid state
+    }
+
+    @Override
+    void flushBuffer() {
+        if (bufferPos < buffer.length) { // flush() or close(), there is no output
+            return;
+        }
+        final int length = buffer.length;
+        buffer = Arrays.copyOf(buffer, length > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE - 8 : length * 2);
+        if (pooled != null) {
+            bufferProvider.release(pooled);
+            pooled = null;
+        }
+    }
+
+    @Override
+    void closeOutput() {
+        result = new String(buffer, 0, bufferPos); // before the buffer goes back to the pool
+    }
+
+    @Override
+    void flushOutput() {
+        // no-op
+    }
+
+    @Override
+    void releaseBuffer() {
+        if (pooled != null) {
+            bufferProvider.release(pooled);
+            pooled = null;
+        }
+        buffer = null;
+    }
+}
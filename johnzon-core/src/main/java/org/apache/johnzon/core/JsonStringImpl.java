@@ -21,10 +21,11 @@ package org.apache.johnzon.core;
 import jakarta.json.JsonString;
 import java.io.Serializable;
 
-final class JsonStringImpl implements JsonString, Serializable {
+final class JsonStringImpl implements JsonString, JsonFingerprint.Holder, Serializable {
     private final String value;
     private String escape;
     private transient Integer hashCode = null;
+    private transient volatile long fingerprint;
 
 
     JsonStringImpl(final String value) {
@@ -72,6 +73,16 @@ final class JsonStringImpl implements JsonString, Serializable {
         return h;
     }
 
+    @Override
+    public long fingerprint() {
+        long f = fingerprint;
+        if (f == 0) {
+            f = JsonFingerprint.ofString(value);
+            fingerprint = f;
+        }
+        return f;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         return JsonString.class.isInstance(obj) && JsonString.class.cast(obj).getString().equals(value);
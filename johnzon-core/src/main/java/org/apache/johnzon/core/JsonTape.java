@@ -0,0 +1,697 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A parsed in memory document stored as a tape: one long per value referencing its bounds in the source array.
+ * Objects and arrays read from it are views which only create their children when they are accessed
+ * so reading a few fields of a big document doesn't allocate the rest of the tree.
+ *
+ * Entries (in document order, a key is followed by its value):
+ * <ul>
+ *     <li>the type on the 4 highest bits,</li>
+ *     <li>for objects and arrays: the children count on the next 28 bits and the index of the entry after the structure on the 32 lowest,</li>
+ *     <li>for strings (unescaped content) and numbers: the length on the next 28 bits and the start in the document on the 32 lowest,</li>
+ *     <li>for values which are not a plain slice of the document (escaped or non ASCII UTF-8 strings): the index of the value already created.</li>
+ * </ul>
+ *
+ * The views keep a reference on the source document. They are thread safe: the children of a view are indexed
+ * on the first access and each child is created at most once so a view always returns the same instances.
+ */
+final class JsonTape {
+    private static final int OBJECT = 1;
+    private static final int ARRAY = 2;
+    private static final int STRING = 3;
+    private static final int LONG = 4;
+    private static final int DECIMAL = 5;
+    private static final int CREATED = 6;
+    private static final int TRUE = 7;
+    private static final int FALSE = 8;
+    private static final int NULL = 9;
+    private static final int BIG_INTEGER = 10;
+
+    private static final int MAX_LENGTH = (1 << 28) - 1;
+
+    private final char[] chars;
+    private final byte[] bytes;
+    private final long[] entries;
+    private final JsonValue[] created;
+    private final BufferStrategy.BufferProvider<char[]> bufferProvider;
+    private final JsonProviderImpl provider;
+    private final boolean doubleNumbers;
+
+    private JsonTape(final char[] chars, final byte[] bytes, final long[] entries, final JsonValue[] created,
+                     final BufferStrategy.BufferProvider<char[]> bufferProvider, final JsonProviderImpl provider,
+                     final boolean doubleNumbers) {
+        this.chars = chars;
+        this.bytes = bytes;
+        this.entries = entries;
+        this.created = created;
+        this.bufferProvider = bufferProvider;
+        this.provider = provider;
+        this.doubleNumbers = doubleNumbers;
+    }
+
+    /**
+     * @param parser an in memory parser (see {@link JohnzonJsonParserImpl#inMemoryChars()}) positioned on a START_OBJECT or START_ARRAY event.
+     * @param bufferProvider used by the toString() of the created values.
+     * @param provider the provider checking the scale of the big decimals.
+     * @param doubleNumbers {@code true} to create JsonDoubleImpl for the decimal numbers.
+     * @return the object or array view of the current structure, the parser is positioned on its end event.
+     */
+    static JsonValue read(final JohnzonJsonParserImpl parser, final BufferStrategy.BufferProvider<char[]> bufferProvider,
+                          final JsonProviderImpl provider, final boolean doubleNumbers) {
+        final boolean asciiOnly = parser.inMemoryChars() == null;
+
+        long[] entries = new long[64];
+        int size = 0;
+        JsonValue[] created = null;
+        int createdCount = 0;
+
+        // open structures: their entry index and children count
+        int[] structures = new int[16];
+        int[] counts = new int[16];
+        int depth = 0;
+
+        JsonParser.Event event = parser.current();
+        do {
+            if (size + 1 >= entries.length) {
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            if (depth > 0 && event != JsonParser.Event.END_OBJECT && event != JsonParser.Event.END_ARRAY
+                    && (event == JsonParser.Event.KEY_NAME || type(entries[structures[depth - 1]]) == ARRAY)) {
+                counts[depth - 1]++;
+            }
+
+            switch (event) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    if (depth == structures.length) {
+                        structures = Arrays.copyOf(structures, depth * 2);
+                        counts = Arrays.copyOf(counts, depth * 2);
+                    }
+                    structures[depth] = size;
+                    counts[depth] = 0;
+                    depth++;
+                    entries[size++] = entry(event == JsonParser.Event.START_OBJECT ? OBJECT : ARRAY, 0, 0);
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    if (counts[depth] > MAX_LENGTH) {
+                        throw new JsonException("Too many values in a structure for a tape: " + counts[depth]);
+                    }
+                    entries[structures[depth]] = entry(type(entries[structures[depth]]), counts[depth], size);
+                    break;
+                case KEY_NAME:
+                case VALUE_STRING:
+                case VALUE_NUMBER:
+                    final int start = parser.valueStart();
+                    final int length = parser.valueEnd() - start;
+                    if (start >= 0 && length <= MAX_LENGTH) {
+                        final int type = event != JsonParser.Event.VALUE_NUMBER ? STRING :
+                                (parser.isFitLong() ? LONG : (parser.isIntegralNumber() ? BIG_INTEGER : DECIMAL));
+                        entries[size++] = entry(type, length, start);
+                    } else {
+                        if (created == null) {
+                            created = new JsonValue[8];
+                        } else if (createdCount == created.length) {
+                            created = Arrays.copyOf(created, createdCount * 2);
+                        }
+                        created[createdCount] = event == JsonParser.Event.VALUE_NUMBER ?
+                                parser.getValue() : new JsonStringImpl(parser.getString());
+                        entries[size++] = entry(CREATED, 0, createdCount++);
+                    }
+                    break;
+                case VALUE_TRUE:
+                    entries[size++] = entry(TRUE, 0, 0);
+                    break;
+                case VALUE_FALSE:
+                    entries[size++] = entry(FALSE, 0, 0);
+                    break;
+                case VALUE_NULL:
+                    entries[size++] = entry(NULL, 0, 0);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected event: " + event);
+            }
+        } while (depth > 0 && (event = parser.next()) != null);
+
+        final JsonTape tape = new JsonTape(
+                asciiOnly ? null : parser.inMemoryChars(), asciiOnly ? parser.inMemoryBytes() : null,
+                entries, created, bufferProvider, provider, doubleNumbers);
+        return tape.value(0);
+    }
+
+    private static long entry(final int type, final int length, final int offset) {
+        return ((long) type << 60) | ((long) length << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int type(final long entry) {
+        return (int) (entry >>> 60);
+    }
+
+    private static int length(final long entry) {
+        return (int) ((entry >>> 32) & MAX_LENGTH);
+    }
+
+    private static int offset(final long entry) {
+        return (int) entry;
+    }
+
+    // index of the entry following the value at index
+    private int next(final int index) {
+        final long entry = entries[index];
+        final int type = type(entry);
+        return type == OBJECT || type == ARRAY ? offset(entry) : index + 1;
+    }
+
+    private JsonValue value(final int index) {
+        final long entry = entries[index];
+        switch (type(entry)) {
+            case OBJECT:
+                return new TapeObject(this, index);
+            case ARRAY:
+                return new TapeArray(this, index);
+            case STRING:
+                return new JsonStringImpl(string(entry));
+            case LONG:
+                return new JsonLongImpl(parseLong(offset(entry), offset(entry) + length(entry)));
+            case DECIMAL:
+                return decimal(offset(entry), length(entry), doubleNumbers);
+            case BIG_INTEGER:
+                return decimal(offset(entry), length(entry), false);
+            case CREATED:
+                return created[offset(entry)];
+            case TRUE:
+                return JsonValue.TRUE;
+            case FALSE:
+                return JsonValue.FALSE;
+            case NULL:
+                return JsonValue.NULL;
+            default:
+                throw new IllegalStateException("Unknown entry type: " + type(entry));
+        }
+    }
+
+    // the value of the entry at index created once, concurrent accesses get the instance of the first one
+    private JsonValue cachedValue(final AtomicReferenceArray<JsonValue> values, final int slot, final int index) {
+        final JsonValue existing = values.get(slot);
+        if (existing != null) {
+            return existing;
+        }
+        final JsonValue value = value(index);
+        return values.compareAndSet(slot, null, value) ? value : values.get(slot);
+    }
+
+    private String string(final long entry) {
+        if (type(entry) == CREATED) {
+            return JsonString.class.cast(created[offset(entry)]).getString();
+        }
+        return chars != null ?
+                new String(chars, offset(entry), length(entry)) :
+                new String(bytes, offset(entry), length(entry), StandardCharsets.ISO_8859_1);
+    }
+
+    // at most 18 digits (isFitLong) so it can't overflow
+    private long parseLong(final int start, final int end) {
+        final boolean negative = chars != null ? chars[start] == '-' : bytes[start] == '-';
+        long value = 0;
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            value = value * 10 + ((chars != null ? chars[i] : bytes[i]) - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private JsonNumber decimal(final int start, final int length, final boolean asDouble) {
+        if (asDouble) {
+            final double value = chars != null ? Doubles.parse(chars, start, start + length) : Doubles.parse(bytes, start, start + length);
+            if (!Double.isInfinite(value)) {
+                return new JsonDoubleImpl(value);
+            }
+        }
+        if (chars != null) {
+            return new JsonNumberImpl(new BigDecimal(chars, start, length), provider::checkBigDecimalScale);
+        }
+        final char[] number = new char[length];
+        for (int i = 0; i < length; i++) {
+            number[i] = (char) bytes[start + i];
+        }
+        return new JsonNumberImpl(new BigDecimal(number), provider::checkBigDecimalScale);
+    }
+
+    private static final class TapeObject extends AbstractMap<String, JsonValue> implements JsonObject, Serializable {
+        private final transient JsonTape tape;
+        private final int index;
+
+        // created on the first access to a member, members when all of them are needed (iteration)
+        private transient volatile Members children;
+        private transient volatile Map<String, JsonValue> members;
+        private transient Integer hashCode;
+
+        private TapeObject(final JsonTape tape, final int index) {
+            this.tape = tape;
+            this.index = index;
+        }
+
+        private Members children() {
+            Members result = children;
+            if (result == null) {
+                synchronized (this) {
+                    result = children;
+                    if (result == null) {
+                        result = new Members(tape, index);
+                        children = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private <T> T value(final String name, final Class<T> clazz) {
+            final JsonValue v = get(name);
+            if (v != null) {
+                return clazz.cast(v);
+            }
+            return null;
+        }
+
+        private <T> T valueOrException(final String name, final Class<T> clazz) {
+            final T value = value(name, clazz);
+            if (value == null) {
+                throw new NullPointerException("no mapping for " + name);
+            }
+            return value;
+        }
+
+        @Override
+        public JsonValue get(final Object key) {
+            if (isEmpty()) {
+                return null;
+            }
+            final Members children = children();
+            final Integer slot = children.slots.get(key);
+            return slot == null ? null : children.value(slot);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return !isEmpty() && children().slots.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return isEmpty() ? 0 : children().keys.length;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return length(tape.entries[index]) == 0;
+        }
+
+        @Override
+        public Set<Entry<String, JsonValue>> entrySet() {
+            Map<String, JsonValue> m = members;
+            if (m == null) {
+                if (isEmpty()) {
+                    m = Collections.emptyMap();
+                } else {
+                    final Members children = children();
+                    final Map<String, JsonValue> values = new LinkedHashMap<>();
+                    for (int i = 0; i < children.keys.length; i++) {
+                        values.put(children.keys[i], children.value(i));
+                    }
+                    m = Collections.unmodifiableMap(values);
+                }
+                members = m; // same values whatever the thread building it
+            }
+            return m.entrySet();
+        }
+
+        @Override
+        public JsonArray getJsonArray(final String name) {
+            return value(name, JsonArray.class);
+        }
+
+        @Override
+        public JsonObject getJsonObject(final String name) {
+            return value(name, JsonObject.class);
+        }
+
+        @Override
+        public JsonNumber getJsonNumber(final String name) {
+            return value(name, JsonNumber.class);
+        }
+
+        @Override
+        public JsonString getJsonString(final String name) {
+            return value(name, JsonString.class);
+        }
+
+        @Override
+        public String getString(final String name) {
+            return valueOrException(name, JsonString.class).getString();
+        }
+
+        @Override
+        public String getString(final String name, final String defaultValue) {
+            final Object v = get(name);
+            if (v instanceof JsonString) {
+                return JsonString.class.cast(v).getString();
+            }
+            return defaultValue;
+        }
+
+        @Override
+        public int getInt(final String name) {
+            return valueOrException(name, JsonNumber.class).intValue();
+        }
+
+        @Override
+        public int getInt(final String name, final int defaultValue) {
+            final Object v = get(name);
+            if (v instanceof JsonNumber) {
+                return JsonNumber.class.cast(v).intValue();
+            }
+            return defaultValue;
+        }
+
+        @Override
+        public boolean getBoolean(final String name) {
+            final JsonValue obj = valueOrException(name, JsonValue.class);
+            if (JsonValue.TRUE == obj) {
+                return true;
+            }
+            if (JsonValue.FALSE == obj) {
+                return false;
+            }
+            throw new ClassCastException("Wrong value for a boolean: " + obj);
+        }
+
+        @Override
+        public boolean getBoolean(final String name, final boolean defaultValue) {
+            final Object v = get(name);
+            if (v != null) {
+                return JsonValue.TRUE == v || JsonValue.FALSE != v && defaultValue;
+            }
+            return defaultValue;
+        }
+
+        @Override
+        public boolean isNull(final String name) {
+            return JsonValue.NULL == valueOrException(name, JsonValue.class);
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return ValueType.OBJECT;
+        }
+
+        @Override
+        public String toString() {
+            if (isEmpty()) {
+                return "{}";
+            }
+            final StringWriter writer = new StringWriter(2048);
+            try (final JsonGenerator generator = new JsonGeneratorImpl(writer, tape.bufferProvider, false)) {
+                generator.writeStartObject();
+                entrySet().forEach(e -> generator.write(e.getKey(), e.getValue()));
+                generator.writeEnd();
+            }
+            return writer.toString();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return Map.class.isInstance(obj) && super.equals(obj);
+        }
+
+        @Override
+        public int hashCode() {
+            Integer h = hashCode;
+            if (h == null) {
+                h = super.hashCode();
+                hashCode = h;
+            }
+            return h;
+        }
+
+        private Object writeReplace() throws ObjectStreamException {
+            return new SerializableValue(toString());
+        }
+    }
+
+    // the distinct keys of an object in document order and the entry of their value, the last duplicated key wins
+    // as with the default RejectDuplicateKeysMode
+    private static final class Members {
+        private final JsonTape tape;
+        private final String[] keys;
+        private final Map<String, Integer> slots;
+        private final int[] valueIndices;
+        private final AtomicReferenceArray<JsonValue> values;
+
+        private Members(final JsonTape tape, final int index) {
+            this.tape = tape;
+            final int count = length(tape.entries[index]);
+            final String[] names = new String[count];
+            final int[] indices = new int[count];
+            final Map<String, Integer> positions = new HashMap<>();
+            int distinct = 0;
+            int current = index + 1;
+            for (int i = 0; i < count; i++) {
+                final String key = tape.string(tape.entries[current]);
+                Integer slot = positions.get(key);
+                if (slot == null) {
+                    slot = distinct++;
+                    positions.put(key, slot);
+                    names[slot] = key;
+                }
+                indices[slot] = current + 1;
+                current = tape.next(current + 1);
+            }
+            this.keys = distinct == count ? names : Arrays.copyOf(names, distinct);
+            this.slots = positions;
+            this.valueIndices = indices;
+            this.values = new AtomicReferenceArray<>(distinct);
+        }
+
+        private JsonValue value(final int slot) {
+            return tape.cachedValue(values, slot, valueIndices[slot]);
+        }
+    }
+
+    private static final class Elements {
+        private final int[] positions;
+        private final AtomicReferenceArray<JsonValue> values;
+
+        private Elements(final JsonTape tape, final int index, final int size) {
+            positions = new int[size];
+            int current = index + 1;
+            for (int i = 0; i < size; i++) {
+                positions[i] = current;
+                current = tape.next(current);
+            }
+            values = new AtomicReferenceArray<>(size);
+        }
+    }
+
+    private static final class TapeArray extends AbstractList<JsonValue> implements JsonArray, RandomAccess, Serializable {
+        private final transient JsonTape tape;
+        private final int index;
+        private final int size;
+
+        // entry index of each element and created values, computed on the first access
+        private transient volatile Elements elements;
+        private transient Integer hashCode;
+
+        private TapeArray(final JsonTape tape, final int index) {
+            this.tape = tape;
+            this.index = index;
+            this.size = length(tape.entries[index]);
+        }
+
+        @Override
+        public JsonValue get(final int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index + "/" + size);
+            }
+            Elements current = elements;
+            if (current == null) {
+                synchronized (this) {
+                    current = elements;
+                    if (current == null) {
+                        current = new Elements(tape, this.index, size);
+                        elements = current;
+                    }
+                }
+            }
+            return tape.cachedValue(current.values, index, current.positions[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        private <T> T value(final int idx, final Class<T> type) {
+            return type.cast(get(idx));
+        }
+
+        @Override
+        public JsonObject getJsonObject(final int index) {
+            return value(index, JsonObject.class);
+        }
+
+        @Override
+        public JsonArray getJsonArray(final int index) {
+            return value(index, JsonArray.class);
+        }
+
+        @Override
+        public JsonNumber getJsonNumber(final int index) {
+            return value(index, JsonNumber.class);
+        }
+
+        @Override
+        public JsonString getJsonString(final int index) {
+            return value(index, JsonString.class);
+        }
+
+        @Override
+        public <T extends JsonValue> List<T> getValuesAs(final Class<T> clazz) {
+            return (List<T>) this;
+        }
+
+        @Override
+        public String getString(final int index) {
+            return value(index, JsonString.class).getString();
+        }
+
+        @Override
+        public String getString(final int index, final String defaultValue) {
+            final JsonValue val;
+            if (index > size - 1 || !((val = get(index)) instanceof JsonString)) {
+                return defaultValue;
+            }
+            return JsonString.class.cast(val).getString();
+        }
+
+        @Override
+        public int getInt(final int index) {
+            return value(index, JsonNumber.class).intValue();
+        }
+
+        @Override
+        public int getInt(final int index, final int defaultValue) {
+            final JsonValue val;
+            if (index > size - 1 || !((val = get(index)) instanceof JsonNumber)) {
+                return defaultValue;
+            }
+            return JsonNumber.class.cast(val).intValue();
+        }
+
+        @Override
+        public boolean getBoolean(final int index) {
+            final JsonValue val = get(index);
+            if (JsonValue.ValueType.TRUE == val.getValueType()) {
+                return true;
+            } else if (JsonValue.ValueType.FALSE == val.getValueType()) {
+                return false;
+            }
+            throw new ClassCastException();
+        }
+
+        @Override
+        public boolean getBoolean(final int index, final boolean defaultValue) {
+            if (index > size - 1) {
+                return defaultValue;
+            }
+            final ValueType valueType = get(index).getValueType();
+            return JsonValue.ValueType.TRUE == valueType || JsonValue.ValueType.FALSE != valueType && defaultValue;
+        }
+
+        @Override
+        public boolean isNull(final int index) {
+            return JsonValue.ValueType.NULL == get(index).getValueType();
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return ValueType.ARRAY;
+        }
+
+        @Override
+        public String toString() {
+            if (size == 0) {
+                return "[]";
+            }
+            final StringWriter writer = new StringWriter(2048);
+            try (final JsonGenerator generator = new JsonGeneratorImpl(writer, tape.bufferProvider, false)) {
+                generator.writeStartArray();
+                forEach(generator::write);
+                generator.writeEnd();
+            }
+            return writer.toString();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return List.class.isInstance(obj) && super.equals(obj);
+        }
+
+        @Override
+        public int hashCode() {
+            Integer h = hashCode;
+            if (h == null) {
+                h = super.hashCode();
+                hashCode = h;
+            }
+            return h;
+        }
+
+        private Object writeReplace() throws ObjectStreamException {
+            return new SerializableValue(toString());
+        }
+    }
+}
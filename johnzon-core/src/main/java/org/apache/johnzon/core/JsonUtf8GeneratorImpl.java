@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import jakarta.json.JsonException;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Generator encoding the JSON in UTF-8 directly in a byte buffer written to an OutputStream,
+ * it avoids the char buffer, the OutputStreamWriter buffer and its charset encoder of the Writer flavor.
+ *
+ * The state handling is the one of {@link JsonGeneratorImpl}, only the low level output methods differ.
+ * Unpaired surrogates are written as {@code ?} as an {@link java.io.OutputStreamWriter} does.
+ */
+class JsonUtf8GeneratorImpl extends JsonGeneratorImpl {
+    private static final byte REPLACEMENT = '?';
+
+    private transient OutputStream out;
+    private final BufferStrategy.BufferProvider<byte[]> bufferProvider;
+    private byte[] buffer;
+    private int bufferPos = 0;
+    private final char[] digits = new char[DoubleDigits.MAX_DOUBLE_LENGTH]; // numbers are ASCII so written as chars then copied
+
+    JsonUtf8GeneratorImpl(final OutputStream out, final BufferStrategy.BufferProvider<byte[]> bufferProvider,
+                          final boolean prettyPrint, final boolean trusted) {
+        super(prettyPrint, trusted);
+        this.out = out;
+        this.bufferProvider = bufferProvider;
+        this.buffer = bufferProvider.newBuffer();
+    }
+
+    @Override
+    public JohnzonJsonGenerator reset(final OutputStream stream) {
+        resetState();
+        out = stream;
+        return this;
+    }
+
+    @Override
+    void acquireBuffer() {
+        buffer = bufferProvider.newBuffer();
+        bufferPos = 0;
+    }
+
+    @Override
+    void closeOutput() throws IOException {
+        out.close();
+    }
+
+    @Override
+    void flushOutput() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    void releaseBuffer() {
+        bufferProvider.release(buffer);
+    }
+
+    @Override
+    void flushBuffer() {
+        if (bufferPos > 0) {
+            try {
+                out.write(buffer, 0, bufferPos);
+                bufferPos = 0;
+            } catch (final IOException e) {
+                throw new JsonException(e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    void justWrite(final char value) {
+        if (value < 0x80) {
+            if (bufferPos >= buffer.length) {
+                flushBuffer();
+            }
+            buffer[bufferPos++] = (byte) value;
+        } else {
+            writeNonAscii(String.valueOf(value), 0);
+        }
+    }
+
+    @Override
+    void justWrite(final String value) {
+        final int length = value.length();
+        int i = 0;
+        while (i < length) {
+            if (bufferPos >= buffer.length) {
+                flushBuffer();
+            }
+            final int end = Math.min(length, i + buffer.length - bufferPos);
+            int pos = bufferPos;
+            char c = 0;
+            while (i < end && (c = value.charAt(i)) < 0x80) {
+                buffer[pos++] = (byte) c;
+                i++;
+            }
+            bufferPos = pos;
+            if (i < end) {
+                i = writeNonAscii(value, i);
+            }
+        }
+    }
+
+    @Override
+    void writeEscaped0(final String value) {
+        final int length;
+        if (value == null || (length = value.length()) == 0) {
+            return;
+        }
+        int i = 0;
+        while (i < length) {
+            if (bufferPos >= buffer.length) {
+                flushBuffer();
+            }
+
+            // ASCII fast path, one byte per char so the buffer can't overflow before end
+            final int end = Math.min(length, i + buffer.length - bufferPos);
+            int pos = bufferPos;
+            char c = 0;
+            while (i < end && (c = value.charAt(i)) < 0x80 && ESCAPES[c] == null) {
+                buffer[pos++] = (byte) c;
+                i++;
+            }
+            bufferPos = pos;
+            if (i == end) {
+                continue;
+            }
+
+            if (c >= 0x80) {
+                i = writeNonAscii(value, i);
+                continue;
+            }
+            writeAscii(ESCAPES[c]);
+            i++;
+        }
+    }
+
+    @Override
+    void writeEncodedKey(final JohnzonJsonGenerator.PreEncodedKey key) {
+        final byte[] bytes = key.bytes();
+        if (bufferPos + bytes.length <= buffer.length) {
+            System.arraycopy(bytes, 0, buffer, bufferPos, bytes.length);
+            bufferPos += bytes.length;
+            return;
+        }
+        int written = 0;
+        while (written < bytes.length) {
+            if (bufferPos >= buffer.length) {
+                flushBuffer();
+            }
+            final int chunk = Math.min(bytes.length - written, buffer.length - bufferPos);
+            System.arraycopy(bytes, written, buffer, bufferPos, chunk);
+            bufferPos += chunk;
+            written += chunk;
+        }
+    }
+
+    @Override
+    void writeInt0(final int i) {
+        writeDigits(Digits.write(i, digits, 0));
+    }
+
+    @Override
+    void writeLong0(final long i) {
+        writeDigits(Digits.write(i, digits, 0));
+    }
+
+    @Override
+    void writeDouble0(final double value) {
+        writeDigits(DoubleDigits.write(value, digits, 0));
+    }
+
+    @Override
+    void writeFloat0(final float value) {
+        writeDigits(DoubleDigits.write(value, digits, 0));
+    }
+
+    private void writeDigits(final int length) {
+        if (bufferPos + length > buffer.length) {
+            for (int i = 0; i < length; i++) {
+                justWrite(digits[i]);
+            }
+            return;
+        }
+        int pos = bufferPos;
+        for (int i = 0; i < length; i++) {
+            buffer[pos++] = (byte) digits[i];
+        }
+        bufferPos = pos;
+    }
+
+    private void writeAscii(final char[] chars) {
+        if (bufferPos + chars.length > buffer.length) {
+            flushBuffer();
+            if (buffer.length < chars.length) {
+                for (final char c : chars) {
+                    writeByte(c);
+                }
+                return;
+            }
+        }
+        for (final char c : chars) {
+            buffer[bufferPos++] = (byte) c;
+        }
+    }
+
+    // encodes the char at index (with the next one for a surrogate pair), returns the index of the next char to write
+    private int writeNonAscii(final CharSequence value, final int index) {
+        final char c = value.charAt(index);
+        if (c < 0x800) {
+            writeByte(0xC0 | c >> 6);
+            writeByte(0x80 | c & 0x3F);
+            return index + 1;
+        }
+        if (!Character.isSurrogate(c)) {
+            writeByte(0xE0 | c >> 12);
+            writeByte(0x80 | c >> 6 & 0x3F);
+            writeByte(0x80 | c & 0x3F);
+            return index + 1;
+        }
+        if (Character.isHighSurrogate(c) && index + 1 < value.length() && Character.isLowSurrogate(value.charAt(index + 1))) {
+            final int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            writeByte(0xF0 | codePoint >> 18);
+            writeByte(0x80 | codePoint >> 12 & 0x3F);
+            writeByte(0x80 | codePoint >> 6 & 0x3F);
+            writeByte(0x80 | codePoint & 0x3F);
+            return index + 2;
+        }
+        writeByte(REPLACEMENT);
+        return index + 1;
+    }
+
+    private void writeByte(final int value) {
+        if (bufferPos >= buffer.length) {
+            flushBuffer();
+        }
+        buffer[bufferPos++] = (byte) value;
+    }
+}
@@ -0,0 +1,1554 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import jakarta.json.JsonException;
+import jakarta.json.stream.JsonLocation;
+import jakarta.json.stream.JsonParsingException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * UTF-8 flavor of {@link JsonStreamParserImpl}: it tokenizes the raw bytes instead of decoding the whole input
+ * through an {@link java.io.InputStreamReader}. Structural characters, literals and numbers are always ASCII
+ * so only keys and string values are decoded and only when they are read ({@link #getString()}).
+ * ASCII strings (the common case) are converted without any decoding at all.
+ *
+ * Locations are reported in bytes (offset and column) since it is what the parser sees.
+ */
+public class JsonUtf8StreamParserImpl extends JohnzonJsonParserImpl implements JsonChars {
+    private final boolean autoAdjust;
+
+    // do we fail on malformed UTF-8 (as a reader using charset.newDecoder() does) or replace it (as new InputStreamReader(in, charset))
+    private final boolean reportMalformedInput;
+
+    //the main buffer where the stream will be buffered, or the caller array if the whole document is in memory
+    private byte[] buffer;
+
+    //current parser position within the buffer
+    //Initial MIN_VALUE will trigger buffer refill, normally bufferPos is >= -1
+    //-1 would cause a re-read of the first byte in the buffer (which is at zero index)
+    private int bufferPos = Integer.MIN_VALUE;
+
+    // performance optimisation to avoid subtraction on readNextByte
+    private int bufferLeft = 0;
+
+    //available bytes in the buffer. It might be <= "buffer.length".
+    private int availableBytesInBuffer;
+
+    // when parsing an in memory document (in == null) the bounds of the document in the buffer
+    private final int inputStart;
+    private final int inputEnd;
+    private boolean inputConsumed;
+
+    //start and end position of values in the buffer
+    //may cross boundaries, then value is in fallBackCopyBuffer
+    private int startOfValueInBuffer = -1;
+    private int endOfValueInBuffer = -1;
+
+    private InputStream in;
+
+    private final BufferStrategy.BufferProvider<byte[]> bufferProvider;
+    private final BufferStrategy.BufferProvider<byte[]> valueProvider;
+    private final BufferStrategy.BufferProvider<char[]> charArrayProvider;
+
+    //max length for strings and numbers (max count of characters)
+    private final int maxValueLength;
+
+    //we use a byte here, because comparing bytes
+    //is more efficient than comparing enums
+    //Additionally we handle internally two more event: COMMA_EVENT and KEY_SEPARATOR_EVENT
+    private byte previousEvent = -1;
+
+    //this buffer is used to store current String or Number value in case that
+    //within the value a buffer boundary is crossed or the string contains escaped characters
+    //escaped characters are stored UTF-8 encoded so the value is decoded in a single pass
+    private byte[] fallBackCopyBuffer;
+    private boolean releaseFallBackCopyBuffer = true;
+    private int fallBackCopyBufferLength;
+    // when boundaries of fallBackCopyBuffer have been reached
+    private List<Buffer> previousFallBackCopyBuffers;
+
+    // does the current value only contain ASCII bytes (no decoding needed then)
+    private boolean isCurrentValueAscii = true;
+    // escaped surrogates are stored as 3 bytes sequences which are not valid UTF-8 but must be accepted
+    private boolean hasEscapedSurrogate;
+
+    // when malformed input is reported, multi-bytes sequences of strings are validated while they are scanned:
+    // count of continuation bytes still expected and range of the next one
+    private int utf8Remaining;
+    private int utf8Min;
+    private int utf8Max;
+
+    // optional factory cache for keys and short values, currentValueHash is computed while scanning when it is set
+    // only ASCII values are cached since a byte is a char for them
+    private StringCache stringCache;
+    private int currentValueHash;
+
+    // used to decode values, lazily allocated and reused for the parser lifetime
+    private char[] decodeBuffer;
+
+    // location (line, column, offset)
+    // We try to calculate this efficiently so we do not just increment the values per byte read
+    // Instead we calculate the column and offset relative to the pastBufferReadCount and/or lastLineBreakPosition.
+    private long currentLine = 1;
+    private long lastLineBreakPosition;
+    private long pastBufferReadCount;
+
+    //cache (if current value is a number) integral state and the number itself if its only one digit
+    private boolean isCurrentNumberIntegral = true;
+    private int currentIntegralNumber = Integer.MIN_VALUE; //for number from 0 - 9
+
+    //We need a stack if we want detect bad formatted Json do determine if we are within an array or not
+    //see JsonStreamParserImpl for the details
+    private final BitStack structure = new BitStack(); // true for an array, false for an object
+
+    private int arrayDepth = 0;
+    private int objectDepth = 0;
+
+    private boolean closed;
+
+    // bytes of the structure read by rawStructure() which were in previous buffers
+    private ByteArrayOutputStream rawValue;
+    private int rawValueStart;
+
+    private static final class Buffer {
+        private byte[] buffer;
+        private int length;
+
+        public Buffer(byte[] buffer, int length) {
+            this.buffer = buffer;
+            this.length = length;
+        }
+    }
+
+    public JsonUtf8StreamParserImpl(final InputStream inputStream, final boolean reportMalformedInput, final int maxStringLength,
+                                    final BufferStrategy.BufferProvider<byte[]> bufferProvider,
+                                    final BufferStrategy.BufferProvider<byte[]> valueBuffer,
+                                    final BufferStrategy.BufferProvider<char[]> charArrayProvider,
+                                    final boolean autoAdjust, final JsonProviderImpl provider) {
+        this(inputStream, 0, reportMalformedInput, maxStringLength, bufferProvider, valueBuffer, charArrayProvider, autoAdjust, provider);
+    }
+
+    // streamOffset is the position of the first byte of the stream in the source (a skipped BOM for instance)
+    JsonUtf8StreamParserImpl(final InputStream inputStream, final long streamOffset, final boolean reportMalformedInput, final int maxStringLength,
+                             final BufferStrategy.BufferProvider<byte[]> bufferProvider,
+                             final BufferStrategy.BufferProvider<byte[]> valueBuffer,
+                             final BufferStrategy.BufferProvider<char[]> charArrayProvider,
+                             final boolean autoAdjust, final JsonProviderImpl provider) {
+        this(inputStream, null, 0, 0, reportMalformedInput, maxStringLength, bufferProvider, valueBuffer, charArrayProvider, autoAdjust, provider);
+        this.pastBufferReadCount = streamOffset;
+    }
+
+    // parses bytes[offset, offset + length[ without copying them
+    public JsonUtf8StreamParserImpl(final byte[] bytes, final int offset, final int length, final boolean reportMalformedInput,
+                                    final int maxStringLength, final BufferStrategy.BufferProvider<byte[]> valueBuffer,
+                                    final BufferStrategy.BufferProvider<char[]> charArrayProvider,
+                                    final boolean autoAdjust, final JsonProviderImpl provider) {
+        this(null, bytes, offset, offset + length, reportMalformedInput, maxStringLength, null, valueBuffer, charArrayProvider, autoAdjust, provider);
+    }
+
+    private JsonUtf8StreamParserImpl(final InputStream inputStream, final byte[] bytes, final int start, final int end,
+                                     final boolean reportMalformedInput, final int maxStringLength,
+                                     final BufferStrategy.BufferProvider<byte[]> bufferProvider,
+                                     final BufferStrategy.BufferProvider<byte[]> valueBuffer,
+                                     final BufferStrategy.BufferProvider<char[]> charArrayProvider,
+                                     final boolean autoAdjust, final JsonProviderImpl provider) {
+        super(provider);
+        this.autoAdjust = autoAdjust;
+        this.reportMalformedInput = reportMalformedInput;
+        this.maxValueLength = maxStringLength <= 0 ? 8192 : maxStringLength;
+        this.fallBackCopyBuffer = valueBuffer.newBuffer();
+        this.bufferProvider = bufferProvider;
+        this.valueProvider = valueBuffer;
+        this.charArrayProvider = charArrayProvider;
+        this.in = inputStream;
+
+        if (bytes != null) {
+            if (start < 0 || end > bytes.length || start > end) {
+                throw new IndexOutOfBoundsException("Invalid range [" + start + ", " + end + "[ for an array of " + bytes.length + " bytes");
+            }
+            this.buffer = bytes;
+            this.inputStart = start;
+            this.inputEnd = end;
+            this.pastBufferReadCount = -start; // offsets are relative to the first byte of the document
+        } else {
+            this.buffer = bufferProvider.newBuffer();
+            this.inputStart = 0;
+            this.inputEnd = 0;
+        }
+
+        if (fallBackCopyBuffer.length < maxStringLength) {
+            throw cust("Size of value buffer cannot be smaller than maximum string length");
+        }
+    }
+
+    //append a single byte to the value buffer
+    private void appendToCopyBuffer(final byte c) {
+        if (fallBackCopyBufferLength >= fallBackCopyBuffer.length - 1) {
+            createNewFallBackCopyBuffer();
+        }
+        fallBackCopyBuffer[fallBackCopyBufferLength++] = c;
+    }
+
+    //append an unescaped char to the value buffer, UTF-8 encoded
+    private void appendToCopyBuffer(final char c) {
+        if (c < 0x80) {
+            appendToCopyBuffer((byte) c);
+            return;
+        }
+
+        isCurrentValueAscii = false;
+        if (c < 0x800) {
+            appendToCopyBuffer((byte) (0xC0 | (c >> 6)));
+        } else {
+            if (Character.isSurrogate(c)) { // pairs are rebuilt at decoding time
+                hasEscapedSurrogate = true;
+            }
+            appendToCopyBuffer((byte) (0xE0 | (c >> 12)));
+            appendToCopyBuffer((byte) (0x80 | ((c >> 6) & 0x3F)));
+        }
+        appendToCopyBuffer((byte) (0x80 | (c & 0x3F)));
+    }
+
+    //copy content between "start" and "end" from buffer to value buffer
+    private void copyCurrentValue() {
+        final int length = endOfValueInBuffer - startOfValueInBuffer;
+        if (length > 0) {
+
+            if (isTooLong(buffer, startOfValueInBuffer, length)) {
+                throw tmc();
+            }
+
+            if (fallBackCopyBufferLength >= fallBackCopyBuffer.length - length) { // not good at runtime but handled
+                createNewFallBackCopyBuffer();
+            }
+
+            System.arraycopy(buffer, startOfValueInBuffer, fallBackCopyBuffer, fallBackCopyBufferLength, length);
+            fallBackCopyBufferLength += length;
+        }
+
+        startOfValueInBuffer = endOfValueInBuffer = -1;
+    }
+
+    // the limit is expressed in characters so only count them when the byte count is over the limit
+    private boolean isTooLong(final byte[] bytes, final int start, final int length) {
+        if (length <= maxValueLength) {
+            return false;
+        }
+        if (isCurrentValueAscii) {
+            return true;
+        }
+
+        int chars = 0;
+        for (int i = start; i < start + length; i++) {
+            final int b = bytes[i] & 0xFF;
+            if ((b & 0xC0) != 0x80) { // not a continuation byte
+                chars += b >= 0xF0 ? 2 : 1; // 4 bytes sequences are surrogate pairs
+            }
+        }
+        return chars > maxValueLength;
+    }
+
+    // Creates new fallBackCopyBuffer and stores the old instance in previousFallBackCopyBuffers,
+    // this is much faster than resizing (recreating + copying) fallBackCopyBuffer
+    private void createNewFallBackCopyBuffer() {
+        if (!autoAdjust) {
+            throw new ArrayIndexOutOfBoundsException("Buffer too small for such a long string");
+        }
+
+        if (previousFallBackCopyBuffers == null) {
+            previousFallBackCopyBuffers = new LinkedList<>();
+        }
+
+        previousFallBackCopyBuffers.add(new Buffer(fallBackCopyBuffer, fallBackCopyBufferLength));
+        fallBackCopyBuffer = valueProvider.newBuffer();
+        fallBackCopyBufferLength = 0;
+    }
+
+    private void releasePreviousFallBackCopyBuffers() {
+        if (previousFallBackCopyBuffers == null) {
+            return;
+        }
+
+        previousFallBackCopyBuffers.forEach(it -> valueProvider.release(it.buffer));
+        previousFallBackCopyBuffers = null;
+    }
+
+    @Override
+    public final boolean hasNext() {
+        if (!structure.isEmpty() || previousEvent == 0) {
+            return true;
+        }
+        if (previousEvent != END_ARRAY && previousEvent != END_OBJECT &&
+                previousEvent != VALUE_STRING && previousEvent != VALUE_FALSE && previousEvent != VALUE_TRUE &&
+                previousEvent != VALUE_NULL && previousEvent != VALUE_NUMBER) {
+            if (bufferPos < 0) { // check we don't have an empty string to parse
+                final byte c = readNextByte();
+                unreadByte();
+                return c != EOF;
+            }
+            return true;
+        }
+
+        //detect garbage at the end of the file after last object or array is closed
+        if (bufferPos < availableBytesInBuffer) {
+
+            final byte c = readNextNonWhitespaceByte(readNextByte());
+
+            if (c == EOF) {
+                return false;
+            }
+
+            if (bufferPos < availableBytesInBuffer) {
+                throw uexc("EOF expected");
+            }
+
+        }
+
+        return false;
+
+    }
+
+    private static boolean isAsciiDigit(final byte value) {
+        return value <= NINE && value >= ZERO;
+    }
+
+    //check if value is a valid hex digit and return the numeric value
+    private int parseHexDigit(final byte value) {
+
+        if (isAsciiDigit(value)) {
+            return value - 48;
+        } else if (value <= 'f' && value >= 'a') {
+            return (value) - 87;
+        } else if ((value <= 'F' && value >= 'A')) {
+            return (value) - 55;
+        } else {
+            throw uexc("Invalid hex character");
+        }
+    }
+
+    private JsonLocation createLocation() {
+
+        //we start with column = 1, so column is always >= 1
+        //APi is not clear in this, but starting column with 1 is convenient
+        long column = 1;
+        long byteOffset = 0;
+
+        if (bufferPos >= -1) {
+
+            byteOffset = pastBufferReadCount + bufferPos + 1;
+            column = lastLineBreakPosition == 0 ? byteOffset + 1 : byteOffset - lastLineBreakPosition;
+        }
+
+        return new JsonLocationImpl(currentLine, column, byteOffset);
+    }
+
+    //read the next byte from the stream and set/increment the bufferPos
+    //will also refill buffer if necessary
+    //if we are currently processing a value (string or number) and buffer
+    //refill is necessary copy the already read value part into the value buffer
+    protected final byte readNextByte() {
+
+        if (bufferLeft == 0) {
+            //fillbuffer
+
+            //copy content from old buffer to valuebuffer
+            //correct start end mark
+            if (startOfValueInBuffer > -1 && endOfValueInBuffer == -1) {
+                endOfValueInBuffer = availableBytesInBuffer;
+                copyCurrentValue();
+
+                startOfValueInBuffer = 0;
+            }
+
+            if (in == null) { // the whole document is already in the buffer
+                if (inputConsumed || inputStart == inputEnd) {
+                    inputConsumed = true;
+                    availableBytesInBuffer = -1;
+                    return EOF;
+                }
+                inputConsumed = true;
+                availableBytesInBuffer = inputEnd;
+                bufferPos = inputStart;
+                bufferLeft = inputEnd - inputStart - 1;
+                return buffer[bufferPos];
+            }
+
+            if (bufferPos >= -1) {
+                pastBufferReadCount += availableBytesInBuffer;
+            }
+            if (rawValue != null) {
+                rawValue.write(buffer, rawValueStart, availableBytesInBuffer - rawValueStart);
+                rawValueStart = 0;
+            }
+
+            try {
+                availableBytesInBuffer = in.read(buffer, 0, buffer.length);
+                if (availableBytesInBuffer <= 0) {
+                    return EOF;
+                }
+
+            } catch (final IOException e) {
+                close();
+                throw uexio(e);
+            }
+
+            bufferPos = 0;
+            bufferLeft = availableBytesInBuffer - 1;
+            //end fillbuffer
+        } else {
+            bufferPos++;
+            bufferLeft--;
+        }
+
+        return buffer[bufferPos];
+    }
+
+    //skip whitespaces
+    //tracks location informations (line, column)
+    //returns the first non whitespace byte
+    protected final byte readNextNonWhitespaceByte(byte c) {
+
+        int dosCount = 0;
+
+        while (c == SPACE || c == TAB || c == CR || c == EOL) {
+
+            if (c == EOL) {
+                currentLine++;
+                lastLineBreakPosition = pastBufferReadCount + bufferPos;
+            }
+
+            //prevent DOS (denial of service) attack
+            if (dosCount >= maxValueLength) {
+                throw tmc();
+            }
+            dosCount++;
+
+            //skip the buffered spaces (indentation) 8 by 8
+            final int spacesStart = bufferPos + 1;
+            final int spaces = Swar.spacesEnd(buffer, spacesStart, spacesStart + bufferLeft) - spacesStart;
+            if (spaces > 0) {
+                dosCount += spaces;
+                if (dosCount > maxValueLength) {
+                    throw tmc();
+                }
+                bufferLeft -= spaces;
+                bufferPos += spaces;
+            }
+
+            //read next byte
+            c = readNextByte();
+
+        }
+
+        return c;
+    }
+
+    @Override
+    public Event currentEvent() {
+        return previousEvent >= 0 && previousEvent < EVT_MAP.length
+                ? EVT_MAP[previousEvent]
+                : null;
+    }
+
+    @Override
+    public Event current() {
+        if (previousEvent < 0 && hasNext()) {
+            internalNext();
+        }
+
+        return currentEvent();
+    }
+
+    private void unreadByte() {
+        bufferPos--;
+        bufferLeft++;
+    }
+
+    @Override
+    protected final Event internalNext() {
+        //main entry, make decision how to handle the current byte in the stream
+
+        if (!hasNext()) {
+            final byte c = readNextByte();
+            unreadByte();
+            if (c != EOF) {
+                throw uexc("No available event");
+            }
+            throw new NoSuchElementException();
+        }
+
+        if (previousEvent > 0 && structure.isEmpty()) {
+            throw uexc("Unexpected end of structure");
+        }
+
+        final byte c = readNextNonWhitespaceByte(readNextByte());
+
+        if (c == COMMA_CHAR) {
+            //last event must one of the following-> " ] } LITERAL
+            if (previousEvent == KEY_SEPARATOR_EVENT || previousEvent == START_ARRAY
+                    || previousEvent == START_OBJECT || previousEvent == COMMA_EVENT
+                    || previousEvent == KEY_NAME) {
+                throw uexc("Expected \" ] } LITERAL");
+            }
+
+            previousEvent = COMMA_EVENT;
+            return internalNext();
+
+        }
+
+        if (c == KEY_SEPARATOR) {
+
+            if (previousEvent != KEY_NAME) {
+                throw uexc("A : can only follow a key name");
+            }
+
+            previousEvent = KEY_SEPARATOR_EVENT;
+            return internalNext();
+
+        }
+
+        if (!isCurrentNumberIntegral) {
+            isCurrentNumberIntegral = true;
+        }
+        if (currentIntegralNumber != Integer.MIN_VALUE) {
+            currentIntegralNumber = Integer.MIN_VALUE;
+        }
+        if (!isCurrentValueAscii) {
+            isCurrentValueAscii = true;
+        }
+        if (hasEscapedSurrogate) {
+            hasEscapedSurrogate = false;
+        }
+
+        releasePreviousFallBackCopyBuffers();
+        if (fallBackCopyBufferLength != 0) {
+            fallBackCopyBufferLength = 0;
+        }
+
+        startOfValueInBuffer = endOfValueInBuffer = -1;
+
+        switch (c) {
+
+            case START_OBJECT_CHAR:
+
+                return handleStartObject();
+
+            case END_OBJECT_CHAR:
+
+                return handleEndObject();
+
+            case START_ARRAY_CHAR:
+
+                return handleStartArray();
+
+            case END_ARRAY_CHAR:
+
+                return handleEndArray();
+
+            case QUOTE_CHAR:
+
+                return handleQuote();
+
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+            case MINUS:
+            case FALSE_F: // false
+            case TRUE_T: // true
+            case NULL_N: // null
+
+                return handleLiteral();
+
+            default:
+
+                if (c == EOF) {
+                    throw uexc("End of file hit too early");
+                }
+                throw uexc("Expected structural character or digit or 't' or 'n' or 'f' or '-'");
+        }
+    }
+
+    private Event handleStartObject() {
+
+        //last event must one of the following-> : , [
+        if (previousEvent > 0 && previousEvent != KEY_SEPARATOR_EVENT && previousEvent != START_ARRAY && previousEvent != COMMA_EVENT) {
+            throw uexc("Expected : , [");
+        }
+
+        //push upon the stack
+        if (!structure.isEmpty() && !structure.peek() && previousEvent != KEY_SEPARATOR_EVENT) {
+            throw uexc("Expected :");
+        }
+        structure.push(false);
+
+        objectDepth++;
+
+        return EVT_MAP[previousEvent = START_OBJECT];
+
+    }
+
+    private Event handleEndObject() {
+
+        //last event must one of the following-> " ] { } LITERAL
+        if (previousEvent == START_ARRAY || previousEvent == COMMA_EVENT || previousEvent == KEY_NAME
+                || previousEvent == KEY_SEPARATOR_EVENT || structure.isEmpty()) {
+            throw uexc("Expected \" ] { } LITERAL");
+        }
+
+        if (structure.peek()) {
+            throw uexc("Expected : ]");
+        }
+
+        //pop from stack
+        structure.pop();
+
+        objectDepth--;
+
+        return EVT_MAP[previousEvent = END_OBJECT];
+    }
+
+    private Event handleStartArray() {
+
+        //last event must one of the following-> : , [
+        if (previousEvent > 0 && previousEvent != KEY_SEPARATOR_EVENT && previousEvent != START_ARRAY && previousEvent != COMMA_EVENT) {
+            throw uexc("Expected : , [");
+        }
+
+        //push upon the stack
+        if (!structure.isEmpty() && !structure.peek() && previousEvent != KEY_SEPARATOR_EVENT) {
+            throw uexc("Expected \"");
+        }
+        structure.push(true);
+
+        arrayDepth++;
+
+        return EVT_MAP[previousEvent = START_ARRAY];
+    }
+
+    private Event handleEndArray() {
+
+        //last event must one of the following-> [ ] } " LITERAL
+        if (previousEvent == START_OBJECT || previousEvent == COMMA_EVENT || previousEvent == KEY_SEPARATOR_EVENT
+                || structure.isEmpty()) {
+            throw uexc("Expected [ ] } \" LITERAL");
+        }
+
+        if (!structure.peek()) {
+            throw uexc("Expected : }");
+        }
+
+        //pop from stack
+        structure.pop();
+
+        arrayDepth--;
+
+        return EVT_MAP[previousEvent = END_ARRAY];
+    }
+
+    @Override
+    protected boolean isInArray() {
+        return arrayDepth > 0;
+    }
+
+    @Override
+    protected boolean isInObject() {
+        return objectDepth > 0;
+    }
+
+    @Override
+    protected BufferStrategy.BufferProvider<char[]> getCharArrayProvider() {
+        return charArrayProvider;
+    }
+
+    //read a string
+    //Handles escape/d characters
+    //if string contains escape chars and/or cross buffer boundary then copy in the value buffer
+    //if not then denote string start and end in startOfValueInBuffer and endOfValueInBuffer and read directly from buffer
+    //multi-bytes sequences are never interpreted there, they can't contain a quote, a backslash or a control character,
+    //they are only validated when malformed input is reported so no document is accepted whatever is decoded
+    private void readString() {
+
+        do {
+            byte n = readNextByte();
+            //when first called n its first byte after the starting quote
+            //after that its the next byte after the while loop below
+
+            if (utf8Remaining != 0 && n >= 0) { // truncated escaped sequence
+                throw malformedInput(bufferPos);
+            }
+
+            if (n == QUOTE_CHAR) {
+                endOfValueInBuffer = startOfValueInBuffer = bufferPos; //->"" case
+                currentValueHash = 0;
+                return;
+            } else if (n == EOL) {
+                throw uexc("Unexpected linebreak");
+
+            } else if (n >= 0 && n <= '\u001F') {
+                throw uexc("Unescaped control character");
+
+            } else if (n == ESCAPE_CHAR) {
+
+                n = readNextByte();
+
+                //  \ u XXXX -> unicode char
+                if (n == 'u') {
+                    appendToCopyBuffer(parseUnicodeHexChars());
+
+                    // \\ -> \
+                } else if (n == ESCAPE_CHAR) {
+                    appendToCopyBuffer(n);
+
+                } else if ((n & 0xF8) == 0xF0) {
+                    // same leniency than the char parser which accepts an escaped surrogate (4 bytes in UTF-8)
+                    isCurrentValueAscii = false;
+                    if (reportMalformedInput) {
+                        validateUtf8(buffer, bufferPos, bufferPos + 1);
+                    }
+                    appendToCopyBuffer(n);
+
+                    //another escape chars, for example \t
+                } else {
+                    appendToCopyBuffer((byte) Strings.asEscapedChar((char) (n & 0xFF)));
+                }
+
+            } else {
+
+                startOfValueInBuffer = bufferPos;
+                endOfValueInBuffer = -1;
+
+                // a negative byte is part of a multi-bytes sequence, we just track there is one to decode later
+                if (n < 0) {
+                    isCurrentValueAscii = false;
+                    if (reportMalformedInput) {
+                        validateUtf8(buffer, bufferPos, bufferPos + 1);
+                    }
+                }
+                int hash = n;
+                while (true) {
+                    // scan the buffered bytes 8 by 8 then consume the run at once
+                    final int runStart = bufferPos + 1;
+                    final int runEnd;
+                    if (stringCache != null && isCurrentValueAscii) { // only ASCII values are cached and need the hash
+                        final long scan = Swar.hashedAsciiStringEnd(buffer, runStart, runStart + bufferLeft, hash);
+                        runEnd = (int) scan;
+                        hash = (int) (scan >>> 32);
+                    } else {
+                        runEnd = Swar.stringEnd(buffer, runStart, runStart + bufferLeft);
+                        if (isCurrentValueAscii && !Swar.isAscii(buffer, runStart, runEnd)) {
+                            isCurrentValueAscii = false;
+                        }
+                        if (reportMalformedInput && !isCurrentValueAscii) {
+                            validateUtf8(buffer, runStart, runEnd);
+                        }
+                    }
+                    bufferLeft -= runEnd - runStart;
+                    bufferPos = runEnd - 1;
+
+                    n = readNextByte(); // the end of the string, a multi-bytes sequence or the first byte of a refilled buffer
+                    if (n < 0) {
+                        isCurrentValueAscii = false;
+                        if (reportMalformedInput) {
+                            validateUtf8(buffer, bufferPos, bufferPos + 1);
+                        }
+                    } else if (n <= '\u001F' || n == ESCAPE_CHAR || n == QUOTE_CHAR) {
+                        if (utf8Remaining != 0) { // truncated sequence
+                            throw malformedInput(bufferPos);
+                        }
+                        break;
+                    }
+                    hash = 31 * hash + n;
+                }
+                currentValueHash = hash;
+
+                endOfValueInBuffer = bufferPos;
+
+                if (n == QUOTE_CHAR) {
+
+                    if (fallBackCopyBufferLength > 0) {
+                        copyCurrentValue();
+                    } else {
+                        if (isTooLong(buffer, startOfValueInBuffer, endOfValueInBuffer - startOfValueInBuffer)) {
+                            throw tmc();
+                        }
+
+                    }
+
+                    return;
+                } else if (n == EOL) {
+                    throw uexc("Unexpected linebreak");
+
+                } else if (n >= 0 && n <= '\u001F') {
+                    throw uexc("Unescaped control character");
+                }
+
+                copyCurrentValue();
+
+                //current n is one of < '\u001F' -OR- ESCAPE_CHAR -OR- EOL -OR- QUOTE
+
+                unreadByte(); //unread one byte
+
+            }
+        } while (true);
+    }
+
+    //read the next four bytes, check them and treat them as an single unicode char
+    private char parseUnicodeHexChars() {
+        // \u08Ac etc
+        return (char) (((parseHexDigit(readNextByte())) * 4096) + ((parseHexDigit(readNextByte())) * 256)
+                + ((parseHexDigit(readNextByte())) * 16) + ((parseHexDigit(readNextByte()))));
+
+    }
+
+    private Event handleQuote() {
+
+        //always the beginning quote of a key or value
+
+        //last event must one of the following-> : { [ ,
+        if (previousEvent != -1 &&
+                (previousEvent != KEY_SEPARATOR_EVENT &&
+                 previousEvent != START_OBJECT &&
+                 previousEvent != START_ARRAY  &&
+                 previousEvent != COMMA_EVENT)) {
+            throw uexc("Expected : { [ ,");
+        }
+        //starting quote already consumed
+        readString();
+        //end quote already consumed
+
+        //make the decision if its an key or value
+        if (previousEvent == KEY_SEPARATOR_EVENT) {
+            //must be value
+
+            if (!structure.isEmpty() && structure.peek()) {
+                //not in array, only allowed within array
+                throw uexc("Key value pair not allowed in an array");
+            }
+
+            return EVT_MAP[previousEvent = VALUE_STRING];
+
+        } else { //Event is  START_OBJECT  OR START_ARRAY OR COMMA_EVENT
+            //must be a key if we are in an object, if not its a value
+
+            if (structure.isEmpty() || structure.peek()) {
+                return EVT_MAP[previousEvent = VALUE_STRING];
+            }
+
+            return EVT_MAP[previousEvent = KEY_NAME];
+        }
+
+    }
+
+    //read a number
+    //if a number cross buffer boundary then copy in the value buffer
+    //if not then denote string start and end in startOfValueInBuffer and endOfValueInBuffer and read directly from buffer
+    private void readNumber() {
+
+        final byte c = buffer[bufferPos];
+
+        //start can change on any read() if we cross buffer boundary
+        startOfValueInBuffer = bufferPos;
+        endOfValueInBuffer = -1;
+
+        byte y = EOF;
+
+        //sum up the digit values
+        int cumulatedDigitValue = 0;
+        while (isAsciiDigit(y = readNextByte())) {
+
+            if (c == ZERO) {
+                throw uexc("Leading zeros not allowed");
+            }
+
+            if (c == MINUS && cumulatedDigitValue == 48) {
+                throw uexc("Leading zeros after minus not allowed");
+            }
+
+            cumulatedDigitValue += y;
+
+        }
+
+        if (c == MINUS && cumulatedDigitValue == 0) {
+
+            throw uexc("Unexpected premature end of number");
+        }
+
+        if (y == DOT) {
+            isCurrentNumberIntegral = false;
+            cumulatedDigitValue = 0;
+            while (isAsciiDigit(y = readNextByte())) {
+                cumulatedDigitValue++;
+            }
+
+            if (cumulatedDigitValue == 0) {
+
+                throw uexc("Unexpected premature end of number");
+            }
+
+        }
+
+        if (y == EXP_LOWERCASE || y == EXP_UPPERCASE) {
+            isCurrentNumberIntegral = false;
+
+            y = readNextByte(); //+ or - or digit
+
+            if (!isAsciiDigit(y) && y != MINUS && y != PLUS) {
+                throw uexc("Expected DIGIT or + or -");
+            }
+
+            if (y == MINUS || y == PLUS) {
+                y = readNextByte();
+                if (!isAsciiDigit(y)) {
+                    throw uexc("Unexpected premature end of number");
+                }
+
+            }
+
+            while (isAsciiDigit(y = readNextByte())) {
+                //no-op
+            }
+
+        }
+
+        endOfValueInBuffer = y == EOF && endOfValueInBuffer < 0 ? -1 : bufferPos;
+
+        if (y == COMMA_CHAR || y == END_ARRAY_CHAR || y == END_OBJECT_CHAR || y == EOL || y == SPACE || y == TAB || y == CR || y == EOF) {
+
+            unreadByte();//unread one byte
+
+            //['-', DIGIT]
+            if (isCurrentNumberIntegral && c == MINUS && cumulatedDigitValue >= 48 && cumulatedDigitValue <= 57) {
+
+                currentIntegralNumber = -(cumulatedDigitValue - 48); //optimize -0 till -9
+                return;
+            }
+
+            //[DIGIT]
+            if (isCurrentNumberIntegral && c != MINUS && cumulatedDigitValue == 0) {
+
+                currentIntegralNumber = (c - 48); //optimize 0 till 9
+                return;
+            }
+
+            if (fallBackCopyBufferLength > 0) {
+
+                //we crossed a buffer boundary, use value buffer
+                copyCurrentValue();
+
+            } else {
+                if ((endOfValueInBuffer - startOfValueInBuffer) >= maxValueLength) {
+                    throw tmc();
+                }
+            }
+
+            return;
+
+        }
+
+        throw uexc("Unexpected premature end of number");
+
+    }
+
+    //handles false, true, null and numbers
+    private Event handleLiteral() {
+
+        //last event must one of the following-> : , [
+        if (previousEvent != -1 && previousEvent != KEY_SEPARATOR_EVENT && previousEvent != START_ARRAY && previousEvent != COMMA_EVENT) {
+            throw uexc("Expected : , [");
+        }
+
+        if (previousEvent == COMMA_EVENT && !structure.peek()) {
+            //only allowed within array
+            throw uexc("Not in an array context");
+        }
+
+        final byte c = buffer[bufferPos];
+
+        // probe literals
+        switch (c) {
+            case TRUE_T:
+
+                if (readNextByte() != TRUE_R || readNextByte() != TRUE_U || readNextByte() != TRUE_E) {
+                    throw uexc("Expected LITERAL: true");
+                }
+                return EVT_MAP[previousEvent = VALUE_TRUE];
+            case FALSE_F:
+
+                if (readNextByte() != FALSE_A || readNextByte() != FALSE_L || readNextByte() != FALSE_S || readNextByte() != FALSE_E) {
+                    throw uexc("Expected LITERAL: false");
+                }
+
+                return EVT_MAP[previousEvent = VALUE_FALSE];
+
+            case NULL_N:
+
+                if (readNextByte() != NULL_U || readNextByte() != NULL_L || readNextByte() != NULL_L) {
+                    throw uexc("Expected LITERAL: null");
+                }
+                return EVT_MAP[previousEvent = VALUE_NULL];
+
+            default:
+                readNumber();
+                return EVT_MAP[previousEvent = VALUE_NUMBER];
+        }
+
+    }
+
+    @Override
+    public String getString() {
+        if (previousEvent == KEY_NAME || previousEvent == VALUE_STRING || previousEvent == VALUE_NUMBER) {
+            combinePreviousFallbackBuffersToCurrent();
+
+            //if there a content in the value buffer read from them, if not use main buffer
+            return fallBackCopyBufferLength > 0 ?
+                    decode(fallBackCopyBuffer, 0, fallBackCopyBufferLength) :
+                    decode(buffer, startOfValueInBuffer, endOfValueInBuffer - startOfValueInBuffer);
+        } else {
+            throw new IllegalStateException(EVT_MAP[previousEvent] + " doesn't support getString()");
+        }
+    }
+
+    private String decode(final byte[] bytes, final int start, final int length) {
+        if (isCurrentValueAscii) { // no decoding needed, it is a plain copy for compact strings
+            if (stringCache != null && previousEvent != VALUE_NUMBER && stringCache.accepts(previousEvent == KEY_NAME, length)) {
+                return stringCache.getAscii(bytes, start, length, bytes == buffer ? currentValueHash : StringCache.hash(bytes, start, length));
+            }
+            return new String(bytes, start, length, StandardCharsets.ISO_8859_1);
+        }
+
+        // UTF-8 never produces more chars than bytes
+        if (decodeBuffer == null || decodeBuffer.length < length) {
+            decodeBuffer = new char[Math.max(length, 64)];
+        }
+        final char[] chars = decodeBuffer;
+
+        final int end = start + length;
+        int i = start;
+        int count = 0;
+        while (i < end) {
+            final int b = bytes[i];
+            if (b >= 0) {
+                chars[count++] = (char) b;
+                i++;
+                continue;
+            }
+
+            final int lead = b & 0xFF;
+            if (lead >= 0xC2 && lead <= 0xDF && i + 1 < end && isContinuation(bytes[i + 1])) {
+                chars[count++] = (char) (((lead & 0x1F) << 6) | (bytes[i + 1] & 0x3F));
+                i += 2;
+            } else if ((lead & 0xF0) == 0xE0 && i + 2 < end && isContinuation(bytes[i + 1]) && isContinuation(bytes[i + 2])) {
+                final char c = (char) (((lead & 0x0F) << 12) | ((bytes[i + 1] & 0x3F) << 6) | (bytes[i + 2] & 0x3F));
+                if (c < 0x800 || (Character.isSurrogate(c) && !hasEscapedSurrogate)) { // overlong or raw surrogate
+                    count = malformed(chars, count);
+                    i++;
+                    continue;
+                }
+                chars[count++] = c;
+                i += 3;
+            } else if (lead >= 0xF0 && lead <= 0xF4 && i + 3 < end
+                    && isContinuation(bytes[i + 1]) && isContinuation(bytes[i + 2]) && isContinuation(bytes[i + 3])) {
+                final int codePoint = ((lead & 0x07) << 18) | ((bytes[i + 1] & 0x3F) << 12) | ((bytes[i + 2] & 0x3F) << 6) | (bytes[i + 3] & 0x3F);
+                if (codePoint < 0x10000 || codePoint > Character.MAX_CODE_POINT) {
+                    count = malformed(chars, count);
+                    i++;
+                    continue;
+                }
+                chars[count++] = Character.highSurrogate(codePoint);
+                chars[count++] = Character.lowSurrogate(codePoint);
+                i += 4;
+            } else {
+                count = malformed(chars, count);
+                i++;
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    @Override
+    void setStringCache(final StringCache stringCache) {
+        this.stringCache = stringCache;
+    }
+
+    @Override
+    void skipStructureRaw(final boolean array) { // nesting is tracked whatever the structure kind
+        int depth = 1;
+        boolean string = false;
+        boolean escaped = false;
+        while (true) {
+            final int end = bufferPos + 1 + bufferLeft;
+            int i = bufferPos + 1;
+            while (i < end) {
+                if (string && !escaped) { // jump to the next quote, backslash or control byte
+                    final int runEnd = Swar.stringEnd(buffer, i, end);
+                    if (reportMalformedInput && (utf8Remaining != 0 || !Swar.isAscii(buffer, i, runEnd))) {
+                        validateUtf8(buffer, i, runEnd);
+                    }
+                    i = runEnd;
+                    if (i == end) {
+                        break;
+                    }
+                    if (utf8Remaining != 0) { // truncated sequence
+                        throw malformedInput(i);
+                    }
+                }
+                final byte c = buffer[i];
+                if (c == EOL) {
+                    currentLine++;
+                    lastLineBreakPosition = pastBufferReadCount + i;
+                } else if (string) {
+                    if (escaped) {
+                        escaped = false;
+                        if (c < 0 && reportMalformedInput) { // same leniency than readString()
+                            validateUtf8(buffer, i, i + 1);
+                        }
+                    } else if (c == ESCAPE_CHAR) {
+                        escaped = true;
+                    } else if (c == QUOTE_CHAR) {
+                        string = false;
+                    }
+                } else if (c == QUOTE_CHAR) {
+                    string = true;
+                } else if (c == START_OBJECT_CHAR || c == START_ARRAY_CHAR) {
+                    depth++;
+                } else if ((c == END_OBJECT_CHAR || c == END_ARRAY_CHAR) && --depth == 0) {
+                    // move just before the closing bracket and consume it, it validates the bracket type
+                    bufferLeft -= i - 1 - bufferPos;
+                    bufferPos = i - 1;
+                    internalNext();
+                    return;
+                }
+                i++;
+            }
+
+            bufferLeft = 0;
+            bufferPos = end - 1;
+            readNextByte(); // refill
+            if (availableBytesInBuffer <= 0) {
+                throw uexc("End of file hit too early");
+            }
+            unreadByte();
+        }
+    }
+
+    @Override
+    public JohnzonJsonParser reset(final InputStream stream) {
+        if (bufferProvider == null) {
+            throw new UnsupportedOperationException("A parser of an in memory document can't be reset");
+        }
+        releasePreviousFallBackCopyBuffers();
+        if (closed || !releaseFallBackCopyBuffer) { // released or not pooled
+            fallBackCopyBuffer = valueProvider.newBuffer();
+            releaseFallBackCopyBuffer = true;
+        }
+        if (closed) {
+            buffer = bufferProvider.newBuffer();
+            closed = false;
+        }
+        in = stream;
+
+        bufferPos = Integer.MIN_VALUE;
+        bufferLeft = 0;
+        availableBytesInBuffer = 0;
+        startOfValueInBuffer = endOfValueInBuffer = -1;
+        previousEvent = -1;
+        fallBackCopyBufferLength = 0;
+        isCurrentValueAscii = true;
+        hasEscapedSurrogate = false;
+        utf8Remaining = 0;
+        currentLine = 1;
+        lastLineBreakPosition = 0;
+        pastBufferReadCount = 0;
+        isCurrentNumberIntegral = true;
+        currentIntegralNumber = Integer.MIN_VALUE;
+        structure.clear();
+        arrayDepth = 0;
+        objectDepth = 0;
+        resetParser();
+        return this;
+    }
+
+    @Override
+    String rawStructure() {
+        final int start = bufferPos;
+        if (in == null) {
+            skipStructureRaw(previousEvent == START_ARRAY);
+            return new String(buffer, start, bufferPos + 1 - start, StandardCharsets.UTF_8);
+        }
+        rawValue = new ByteArrayOutputStream();
+        rawValueStart = start;
+        try {
+            skipStructureRaw(previousEvent == START_ARRAY);
+            rawValue.write(buffer, rawValueStart, bufferPos + 1 - rawValueStart);
+            return new String(rawValue.toByteArray(), StandardCharsets.UTF_8);
+        } finally {
+            rawValue = null;
+        }
+    }
+
+    @Override
+    byte[] inMemoryBytes() {
+        return in == null ? buffer : null;
+    }
+
+    @Override
+    int valueStart() {
+        return in == null && fallBackCopyBufferLength == 0 && startOfValueInBuffer >= 0 && endOfValueInBuffer >= 0 && (isCurrentValueAscii || previousEvent == VALUE_NUMBER) ?
+                startOfValueInBuffer : -1;
+    }
+
+    @Override
+    int valueEnd() {
+        return endOfValueInBuffer;
+    }
+
+    @Override
+    StructuralIndex indexCurrentArray() {
+        if (in != null || previousEvent != START_ARRAY) { // only when the whole document is in the buffer
+            return null;
+        }
+        // in memory the line break positions are buffer positions shifted by pastBufferReadCount
+        final StructuralIndex index = StructuralIndex.ofArray(
+                buffer, bufferPos, inputEnd, (int) currentLine, (int) (lastLineBreakPosition - pastBufferReadCount));
+        if (index == null) { // let the sequential parsing report the error with its location
+            return null;
+        }
+
+        currentLine = index.closingLine();
+        lastLineBreakPosition = pastBufferReadCount + index.closingLastLineBreak();
+        // move just before the closing bracket and consume it
+        bufferLeft -= index.closingBracket() - 1 - bufferPos;
+        bufferPos = index.closingBracket() - 1;
+        internalNext();
+        return index;
+    }
+
+    @Override
+    JohnzonJsonParserImpl newElementParser(final StructuralIndex index, final int element) {
+        final int start = index.elementStart(element);
+        final JsonUtf8StreamParserImpl parser = new JsonUtf8StreamParserImpl(
+                buffer, start, index.elementEnd(element) - start, reportMalformedInput, maxValueLength, valueProvider, charArrayProvider,
+                autoAdjust, getProvider());
+        parser.setStringCache(stringCache);
+        // locations are the ones of the whole document
+        parser.pastBufferReadCount = pastBufferReadCount;
+        parser.currentLine = index.elementLine(element);
+        parser.lastLineBreakPosition = pastBufferReadCount + index.elementLastLineBreak(element);
+        return parser;
+    }
+
+    private int malformed(final char[] chars, final int count) {
+        if (reportMalformedInput) {
+            throw new JsonParsingException("Invalid UTF-8 sequence on " + createLocation(), createLocation());
+        }
+        chars[count] = '\uFFFD';
+        return count + 1;
+    }
+
+    // validates the multi-bytes sequences of [from, to[, a sequence can continue in the next range (next buffer)
+    private void validateUtf8(final byte[] bytes, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            final int b = bytes[i] & 0xFF;
+            if (utf8Remaining > 0) {
+                if (b < utf8Min || b > utf8Max) {
+                    throw malformedInput(i);
+                }
+                utf8Remaining--;
+                utf8Min = 0x80;
+                utf8Max = 0xBF;
+            } else if (b >= 0x80) {
+                // the range of the second byte rejects overlong forms, surrogates and code points over U+10FFFF
+                utf8Min = b == 0xE0 ? 0xA0 : (b == 0xF0 ? 0x90 : 0x80);
+                utf8Max = b == 0xED ? 0x9F : (b == 0xF4 ? 0x8F : 0xBF);
+                if (b >= 0xC2 && b <= 0xDF) {
+                    utf8Remaining = 1;
+                } else if (b >= 0xE0 && b <= 0xEF) {
+                    utf8Remaining = 2;
+                } else if (b >= 0xF0 && b <= 0xF4) {
+                    utf8Remaining = 3;
+                } else {
+                    throw malformedInput(i);
+                }
+            }
+        }
+    }
+
+    private JsonParsingException malformedInput(final int position) {
+        bufferLeft -= position - bufferPos;
+        bufferPos = position;
+        final JsonLocation location = createLocation();
+        return new JsonParsingException("Invalid UTF-8 sequence on " + location, location);
+    }
+
+    private static boolean isContinuation(final byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    // Combines all old stored fallback buffers into the current fallback buffer again so we have a byte[] to easily access
+    // Releases all previous fallback buffers while doing so
+    private void combinePreviousFallbackBuffersToCurrent() {
+        if (previousFallBackCopyBuffers == null) {
+            return;
+        }
+
+        int newSize = previousFallBackCopyBuffers.stream().mapToInt(it -> it.length).sum() + fallBackCopyBufferLength;
+        byte[] newBuffer = new byte[newSize];
+
+        int index = 0;
+        for (Buffer buffer : previousFallBackCopyBuffers) {
+            System.arraycopy(buffer.buffer, 0, newBuffer, index, buffer.length);
+            index += buffer.length;
+        }
+
+        System.arraycopy(fallBackCopyBuffer, 0, newBuffer, index, fallBackCopyBufferLength);
+        index += fallBackCopyBufferLength;
+
+        releasePreviousFallBackCopyBuffers();
+        if (releaseFallBackCopyBuffer) {
+            valueProvider.release(fallBackCopyBuffer);
+            releaseFallBackCopyBuffer = false;
+        }
+
+        fallBackCopyBuffer = newBuffer;
+        fallBackCopyBufferLength = index;
+    }
+
+    @Override
+    public boolean isIntegralNumber() {
+
+        if (previousEvent != VALUE_NUMBER) {
+            throw new IllegalStateException(EVT_MAP[previousEvent] + " doesn't support isIntegralNumber()");
+        } else {
+            return isCurrentNumberIntegral;
+        }
+    }
+
+    @Override
+    public boolean isNotTooLong() {
+        return (endOfValueInBuffer - startOfValueInBuffer) < 19;
+    }
+
+    @Override
+    public int getInt() {
+        if (previousEvent != VALUE_NUMBER) {
+            throw new IllegalStateException(EVT_MAP[previousEvent] + " doesn't support getInt()");
+        } else if (isCurrentNumberIntegral && currentIntegralNumber != Integer.MIN_VALUE) {
+            return currentIntegralNumber;
+        } else if (isCurrentNumberIntegral) {
+            combinePreviousFallbackBuffersToCurrent();
+            //if there a content in the value buffer read from them, if not use main buffer
+            final Integer retVal = fallBackCopyBufferLength > 0 ? parseIntegerFromBytes(fallBackCopyBuffer, 0, fallBackCopyBufferLength)
+                    : parseIntegerFromBytes(buffer, startOfValueInBuffer, endOfValueInBuffer);
+            if (retVal == null) {
+                return getBigDecimal().intValue();
+            } else {
+                return retVal.intValue();
+            }
+        } else {
+            return getBigDecimal().intValue();
+        }
+    }
+
+    @Override
+    public long getLong() {
+        if (previousEvent != VALUE_NUMBER) {
+            throw new IllegalStateException(EVT_MAP[previousEvent] + " doesn't support getLong()");
+        } else if (isCurrentNumberIntegral && currentIntegralNumber != Integer.MIN_VALUE) {
+            return currentIntegralNumber;
+        } else if (isCurrentNumberIntegral) {
+            combinePreviousFallbackBuffersToCurrent();
+            //if there a content in the value buffer read from them, if not use main buffer
+            final Long retVal = fallBackCopyBufferLength > 0 ? parseLongFromBytes(fallBackCopyBuffer, 0, fallBackCopyBufferLength)
+                    : parseLongFromBytes(buffer, startOfValueInBuffer, endOfValueInBuffer);
+            if (retVal == null) {
+                return getBigDecimal().longValue();
+            } else {
+                return retVal.longValue();
+            }
+        } else {
+            return getBigDecimal().longValue();
+        }
+
+    }
+
+    @Override
+    public boolean isFitLong() { // not exact but good enough for most cases
+        if (!isCurrentNumberIntegral) {
+            return false;
+        }
+
+        // no buffer overflow - assumes a buffer can hold a long
+        // + length <= since max long is 9223372036854775807 and min is -9223372036854775808
+        final int len = endOfValueInBuffer - startOfValueInBuffer;
+        return fallBackCopyBufferLength <= 0 && len > 0 && len <= 18;
+    }
+
+    @Override
+    public BigDecimal getBigDecimal() {
+        if (previousEvent != VALUE_NUMBER) {
+            throw new IllegalStateException(EVT_MAP[previousEvent] + " doesn't support getBigDecimal()");
+        } else if (isCurrentNumberIntegral && currentIntegralNumber != Integer.MIN_VALUE) {
+            return new BigDecimal(currentIntegralNumber);
+        }
+
+        combinePreviousFallbackBuffersToCurrent();
+        //if there a content in the value buffer read from them, if not use main buffer
+        return fallBackCopyBufferLength > 0 ?
+                toBigDecimal(fallBackCopyBuffer, 0, fallBackCopyBufferLength) :
+                toBigDecimal(buffer, startOfValueInBuffer, endOfValueInBuffer - startOfValueInBuffer);
+    }
+
+    @Override
+    public double getDouble() {
+        if (previousEvent != VALUE_NUMBER) {
+            throw new IllegalStateException(EVT_MAP[previousEvent] + " doesn't support getDouble()");
+        } else if (isCurrentNumberIntegral && currentIntegralNumber != Integer.MIN_VALUE) {
+            return currentIntegralNumber;
+        }
+
+        combinePreviousFallbackBuffersToCurrent();
+        return fallBackCopyBufferLength > 0 ?
+                Doubles.parse(fallBackCopyBuffer, 0, fallBackCopyBufferLength) :
+                Doubles.parse(buffer, startOfValueInBuffer, endOfValueInBuffer);
+    }
+
+    // numbers are ASCII so a byte is a char
+    private BigDecimal toBigDecimal(final byte[] bytes, final int start, final int length) {
+        if (decodeBuffer == null || decodeBuffer.length < length) {
+            decodeBuffer = new char[Math.max(length, 64)];
+        }
+        for (int i = 0; i < length; i++) {
+            decodeBuffer[i] = (char) bytes[start + i];
+        }
+        return new BigDecimal(decodeBuffer, 0, length);
+    }
+
+    @Override
+    public JsonLocation getLocation() {
+        return createLocation();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        if (bufferProvider != null) {
+            bufferProvider.release(buffer);
+        }
+        if (releaseFallBackCopyBuffer) {
+            valueProvider.release(fallBackCopyBuffer);
+        }
+        releasePreviousFallBackCopyBuffers();
+
+        try {
+            if (in != null) {
+                in.close();
+            }
+        } catch (final IOException e) {
+            throw new JsonException("Unexpected IO exception " + e.getMessage(), e);
+        } finally {
+            closed = true;
+        }
+    }
+
+    //parse a byte[] to long while checking overflow
+    //if overflowed return null
+    //no additional checks since we are sure here that there are no non digits in the array
+    private static Long parseLongFromBytes(final byte[] bytes, final int start, final int end) {
+
+        long retVal = 0;
+        final boolean negative = bytes[start] == MINUS;
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            final long tmp = retVal * 10 + (bytes[i] - ZERO);
+            if (tmp < retVal) { //check overflow
+                return null;
+            } else {
+                retVal = tmp;
+            }
+        }
+
+        return negative ? -retVal : retVal;
+    }
+
+    //parse a byte[] to int while checking overflow
+    //if overflowed return null
+    //no additional checks since we are sure here that there are no non digits in the array
+    private static Integer parseIntegerFromBytes(final byte[] bytes, final int start, final int end) {
+
+        int retVal = 0;
+        final boolean negative = bytes[start] == MINUS;
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            final int tmp = retVal * 10 + (bytes[i] - ZERO);
+            if (tmp < retVal) { //check overflow
+                return null;
+            } else {
+                retVal = tmp;
+            }
+        }
+
+        return negative ? -retVal : retVal;
+    }
+
+    private JsonParsingException uexc(final byte c, final String message) {
+        final JsonLocation location = createLocation();
+        final int codePoint = c & 0xFF;
+        return new JsonParsingException("Unexpected character '" + (char) codePoint + "' (Codepoint: " + codePoint + ") on "
+                + location + ". Reason is [[" + message + "]]", location);
+    }
+
+    private JsonParsingException uexc(final String message) {
+        final byte c = bufferPos < 0 || bufferPos >= buffer.length ? 0 : buffer[bufferPos];
+        return uexc(c, message);
+    }
+
+    private JsonParsingException tmc() {
+        final JsonLocation location = createLocation();
+        return new JsonParsingException("Too many characters. Maximum string/number length of " + maxValueLength + " exceeded on "
+                + location + ". Maybe increase org.apache.johnzon.max-string-length in jsonp factory properties or system properties.", location);
+    }
+
+    private JsonParsingException uexio(final IOException e) {
+        final JsonLocation location = createLocation();
+        return new JsonParsingException("Unexpected IO exception on " + location, e, location);
+    }
+
+    private JsonParsingException cust(final String message) {
+        final JsonLocation location = createLocation();
+        return new JsonParsingException("General exception on " + location + ". Reason is [[" + message + "]]", location);
+    }
+
+}
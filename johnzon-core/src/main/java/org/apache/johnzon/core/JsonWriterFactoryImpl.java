@@ -22,7 +22,6 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
 
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Collection;
@@ -51,12 +50,12 @@ class JsonWriterFactoryImpl extends AbstractJsonFactory implements JsonWriterFac
 
     @Override
     public JsonWriter createWriter(final OutputStream out) {
-        return createWriter(new OutputStreamWriter(out, UTF_8));
+        return new JsonWriterImpl(factory.createGenerator(out, UTF_8));
     }
 
     @Override
     public JsonWriter createWriter(final OutputStream out, final Charset charset) {
-        return createWriter(new OutputStreamWriter(out, charset));
+        return new JsonWriterImpl(factory.createGenerator(out, charset));
     }
 
     @Override
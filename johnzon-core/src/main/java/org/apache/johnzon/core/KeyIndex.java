@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+/**
+ * Lookup of the keys of a flat object (parallel key and value arrays, see {@link JsonObjectImpl}).
+ *
+ * Small objects are scanned linearly, bigger ones use an open addressing table
+ * where a slot holds the position of the key + 1 (0 is a free slot), it is at most half full.
+ * Keys are unique and never null.
+ */
+final class KeyIndex {
+    // up to this size comparing the keys is cheaper than hashing the searched one and building a table
+    static final int LINEAR_SCAN_MAX = 8;
+
+    private KeyIndex() {
+        // no-op
+    }
+
+    /**
+     * @param keys the keys, only the first {@code size} ones are used.
+     * @param size the number of keys.
+     * @param table the table of these keys or {@code null} to scan them.
+     * @param key the searched key.
+     * @return the position of the key or -1 if absent.
+     */
+    static int indexOf(final String[] keys, final int size, final int[] table, final String key) {
+        if (table == null) {
+            for (int i = 0; i < size; i++) {
+                if (key.equals(keys[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        final int mask = table.length - 1;
+        int slot = spread(key.hashCode()) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (key.equals(keys[entry - 1])) {
+                return entry - 1;
+            }
+            slot = slot + 1 & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the table of the keys or {@code null} if they are few enough to be scanned.
+     */
+    static int[] create(final String[] keys, final int size) {
+        if (size <= LINEAR_SCAN_MAX) {
+            return null;
+        }
+        final int[] table = new int[Integer.highestOneBit(size * 2 - 1) << 1];
+        for (int i = 0; i < size; i++) {
+            insert(table, keys[i], i);
+        }
+        return table;
+    }
+
+    /**
+     * Updates the table after a key was appended at {@code size - 1}.
+     *
+     * @return the table to use from now, it is recreated when too full.
+     */
+    static int[] added(final int[] table, final String[] keys, final int size) {
+        if (table == null || size * 2 > table.length) {
+            return create(keys, size);
+        }
+        insert(table, keys[size - 1], size - 1);
+        return table;
+    }
+
+    private static void insert(final int[] table, final String key, final int index) {
+        final int mask = table.length - 1;
+        int slot = spread(key.hashCode()) & mask;
+        while (table[slot] != 0) {
+            slot = slot + 1 & mask;
+        }
+        table[slot] = index + 1;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ hash >>> 16;
+    }
+}
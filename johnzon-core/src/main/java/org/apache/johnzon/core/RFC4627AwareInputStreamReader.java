@@ -34,7 +34,12 @@ final class RFC4627AwareInputStreamReader extends InputStreamReader {
     }
 
     private RFC4627AwareInputStreamReader(final PushbackInputStream in) {
-        super(in, getCharset(in).newDecoder());
+        this(in, getCharset(in));
+    }
+
+    // when the charset was already detected by the caller (to select the UTF-8 byte parser)
+    RFC4627AwareInputStreamReader(final PushbackInputStream in, final Charset charset) {
+        super(in, charset.newDecoder());
     }
 
     /**
@@ -83,7 +88,7 @@ final class RFC4627AwareInputStreamReader extends InputStreamReader {
 
         */
 
-    private static Charset getCharset(final PushbackInputStream inputStream) {
+    static Charset getCharset(final PushbackInputStream inputStream) {
         Charset charset = StandardCharsets.UTF_8;
         int bomLength=0;
         try {
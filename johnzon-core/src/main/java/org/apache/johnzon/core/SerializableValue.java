@@ -45,7 +45,7 @@ public class SerializableValue implements Serializable {
         }
     }
 
-    private static JsonReaderFactory factory() { // avoid to create too much instances of provider or factories, not needed
+    static JsonReaderFactory factory() { // avoid to create too much instances of provider or factories, not needed
         JsonReaderFactory factory = FACTORY_ATOMIC_REFERENCE.get();
         if (factory == null) {
             FACTORY_ATOMIC_REFERENCE.compareAndSet(null, JsonProvider.provider().createReaderFactory(Collections.<String, Object>emptyMap()));
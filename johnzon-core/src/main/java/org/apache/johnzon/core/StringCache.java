@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded and lossy cache of the strings read by the parsers of a factory (keys and optionally short values).
+ * Documents tend to repeat the same keys so returning a canonical instance avoids to allocate a string
+ * per key and, since its hash is already computed, speeds up the lookups done with it (mapper setters for instance).
+ *
+ * Slots are selected by the hash of the value (same algorithm than {@link String#hashCode()})
+ * and a colliding value just replaces the previous one.
+ * It is thread safe since entries are immutable.
+ */
+public class StringCache {
+    // longer keys are rarely repeated and comparing them costs as much as creating them
+    static final int MAX_KEY_LENGTH = 128;
+
+    private final Entry[] entries;
+    private final int mask;
+    private final int maxValueLength;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    StringCache(final int size, final int maxValueLength) {
+        int capacity = Integer.highestOneBit(Math.max(1, size));
+        if (capacity < size) {
+            capacity <<= 1;
+        }
+        this.entries = new Entry[capacity];
+        this.mask = capacity - 1;
+        this.maxValueLength = maxValueLength;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the ratio of lookups served from the cache, between 0 and 1.
+     */
+    public double getHitRate() {
+        final long hitCount = hits.sum();
+        final long total = hitCount + misses.sum();
+        return total == 0 ? 0 : hitCount / (double) total;
+    }
+
+    boolean accepts(final boolean key, final int length) {
+        return length <= (key ? MAX_KEY_LENGTH : maxValueLength);
+    }
+
+    String get(final char[] chars, final int start, final int length, final int hash) {
+        final int index = index(hash);
+        final Entry entry = entries[index];
+        if (entry != null && entry.hash == hash && entry.value.length() == length) {
+            final String value = entry.value;
+            int i = 0;
+            while (i < length && value.charAt(i) == chars[start + i]) {
+                i++;
+            }
+            if (i == length) {
+                hits.increment();
+                return value;
+            }
+        }
+
+        misses.increment();
+        final String value = new String(chars, start, length);
+        entries[index] = new Entry(hash, value);
+        return value;
+    }
+
+    // bytes must be ASCII (a byte is a char)
+    String getAscii(final byte[] bytes, final int start, final int length, final int hash) {
+        final int index = index(hash);
+        final Entry entry = entries[index];
+        if (entry != null && entry.hash == hash && entry.value.length() == length) {
+            final String value = entry.value;
+            int i = 0;
+            while (i < length && value.charAt(i) == bytes[start + i]) {
+                i++;
+            }
+            if (i == length) {
+                hits.increment();
+                return value;
+            }
+        }
+
+        misses.increment();
+        final String value = new String(bytes, start, length, StandardCharsets.ISO_8859_1);
+        entries[index] = new Entry(hash, value);
+        return value;
+    }
+
+    static int hash(final char[] chars, final int start, final int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash;
+    }
+
+    static int hash(final byte[] bytes, final int start, final int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    private int index(final int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static final class Entry {
+        private final int hash;
+        private final String value;
+
+        private Entry(final int hash, final String value) {
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+}
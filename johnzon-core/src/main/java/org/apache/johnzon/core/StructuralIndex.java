@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.util.Arrays;
+
+/**
+ * Positions of the structural characters delimiting the elements of an in memory array:
+ * the opening bracket, the commas of the array level and the closing bracket.
+ *
+ * This is the first stage of a two stages parsing: a quick scan which only tracks strings
+ * (to ignore the brackets and commas they contain) and the nesting depth,
+ * then elements can be parsed independently - and in parallel - from their own bounds.
+ * Elements themselves are not validated there, it is done when they are parsed, but the array level is:
+ * a missing comma between two elements makes the index invalid so the sequential parsing reports it.
+ * The line of each separator is tracked too so element parsers report absolute locations.
+ */
+final class StructuralIndex {
+    // separators[0] is the opening bracket and separators[size - 1] the closing one, an empty array only stores the closing one
+    private int[] separators = new int[16];
+    // line of each separator and position of the last line break before it (parser coordinates, see ofArray())
+    private int[] lines = new int[16];
+    private int[] lineBreaks = new int[16];
+    private int size;
+
+    private StructuralIndex() {
+        // no-op
+    }
+
+    int elementCount() {
+        return size - 1;
+    }
+
+    // first char/byte of the element, can be a whitespace
+    int elementStart(final int element) {
+        return separators[element] + 1;
+    }
+
+    // exclusive, can be preceded by whitespaces
+    int elementEnd(final int element) {
+        return separators[element + 1];
+    }
+
+    // line of the first char/byte of the element
+    int elementLine(final int element) {
+        return lines[element];
+    }
+
+    // last line break before the first char/byte of the element
+    int elementLastLineBreak(final int element) {
+        return lineBreaks[element];
+    }
+
+    int closingBracket() {
+        return separators[size - 1];
+    }
+
+    int closingLine() {
+        return lines[size - 1];
+    }
+
+    int closingLastLineBreak() {
+        return lineBreaks[size - 1];
+    }
+
+    private void add(final int separator, final int line, final int lastLineBreak) {
+        if (size == separators.length) {
+            separators = Arrays.copyOf(separators, size * 2);
+            lines = Arrays.copyOf(lines, size * 2);
+            lineBreaks = Arrays.copyOf(lineBreaks, size * 2);
+        }
+        separators[size] = separator;
+        lines[size] = line;
+        lineBreaks[size] = lastLineBreak;
+        size++;
+    }
+
+    /**
+     * @param chars the document.
+     * @param open the position of the opening bracket of the array.
+     * @param end the end of the document (exclusive).
+     * @param line the line of the opening bracket.
+     * @param lastLineBreak the position of the last line break before the opening bracket as tracked by the parser,
+     *                      it is only used as the last line break of the elements on the same line.
+     * @return the index of the array or null if its structure is invalid (not closed, empty element, missing comma).
+     */
+    static StructuralIndex ofArray(final char[] chars, final int open, final int end, final int line, final int lastLineBreak) {
+        final StructuralIndex index = new StructuralIndex();
+        index.add(open, line, lastLineBreak);
+        int currentLine = line;
+        int currentLineBreak = lastLineBreak;
+        int depth = 0;
+        boolean empty = true; // no value since the last separator
+        boolean ended = false; // the value of the current element is complete, only whitespaces can follow it
+        for (int i = open + 1; i < end; i++) {
+            final char c = chars[i];
+            if (ended && depth == 0 && c != ',' && c != ']' && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                return null;
+            }
+            switch (c) {
+                case '"':
+                    i++;
+                    while (i < end && chars[i] != '"') {
+                        if (chars[i] == '\\') {
+                            i++;
+                        }
+                        i++;
+                    }
+                    empty = false;
+                    ended = depth == 0;
+                    break;
+                case '[':
+                case '{':
+                    depth++;
+                    empty = false;
+                    break;
+                case ']':
+                case '}':
+                    if (depth == 0) {
+                        if (c != ']' || (empty && index.size > 1)) {
+                            return null;
+                        }
+                        if (empty) { // [], no element
+                            index.size = 0;
+                        }
+                        index.add(i, currentLine, currentLineBreak);
+                        return index;
+                    }
+                    depth--;
+                    ended = depth == 0;
+                    break;
+                case ',':
+                    if (depth == 0) {
+                        if (empty) {
+                            return null;
+                        }
+                        index.add(i, currentLine, currentLineBreak);
+                        empty = true;
+                        ended = false;
+                    }
+                    break;
+                case '\n':
+                    currentLine++;
+                    currentLineBreak = i;
+                    ended = !empty && depth == 0;
+                    break;
+                case ' ':
+                case '\t':
+                case '\r':
+                    ended = !empty && depth == 0;
+                    break;
+                default:
+                    empty = false;
+            }
+        }
+        return null;
+    }
+
+    static StructuralIndex ofArray(final byte[] bytes, final int open, final int end, final int line, final int lastLineBreak) {
+        final StructuralIndex index = new StructuralIndex();
+        index.add(open, line, lastLineBreak);
+        int currentLine = line;
+        int currentLineBreak = lastLineBreak;
+        int depth = 0;
+        boolean empty = true;
+        boolean ended = false;
+        for (int i = open + 1; i < end; i++) {
+            final byte c = bytes[i];
+            if (ended && depth == 0 && c != ',' && c != ']' && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                return null;
+            }
+            switch (c) {
+                case '"':
+                    i = Swar.stringEnd(bytes, i + 1, end);
+                    while (i < end && bytes[i] != '"') {
+                        if (bytes[i] == '\\') {
+                            i++;
+                        }
+                        i = Swar.stringEnd(bytes, i + 1, end);
+                    }
+                    empty = false;
+                    ended = depth == 0;
+                    break;
+                case '[':
+                case '{':
+                    depth++;
+                    empty = false;
+                    break;
+                case ']':
+                case '}':
+                    if (depth == 0) {
+                        if (c != ']' || (empty && index.size > 1)) {
+                            return null;
+                        }
+                        if (empty) { // [], no element
+                            index.size = 0;
+                        }
+                        index.add(i, currentLine, currentLineBreak);
+                        return index;
+                    }
+                    depth--;
+                    ended = depth == 0;
+                    break;
+                case ',':
+                    if (depth == 0) {
+                        if (empty) {
+                            return null;
+                        }
+                        index.add(i, currentLine, currentLineBreak);
+                        empty = true;
+                        ended = false;
+                    }
+                    break;
+                case '\n':
+                    currentLine++;
+                    currentLineBreak = i;
+                    ended = !empty && depth == 0;
+                    break;
+                case ' ':
+                case '\t':
+                case '\r':
+                    ended = !empty && depth == 0;
+                    break;
+                default:
+                    empty = false;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * "SIMD within a register" helpers: 8 bytes are read as one long and tested at once.
+ *
+ * For a byte b of a word w, {@code (w - 0x01..) & ~w & 0x80..} flags the bytes equal to zero
+ * (so {@code w ^ (b * 0x01..)} flags the bytes equal to b) and {@code (w - (n * 0x01..)) & ~w & 0x80..}
+ * the bytes lower than n. The borrow of the subtraction can flag a byte following a matching one
+ * but never one before it so, reading the word in little endian order, the lowest flag is always exact.
+ */
+final class Swar {
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long QUOTES = ONES * '"';
+    private static final long BACKSLASHES = ONES * '\\';
+    private static final long CONTROLS = ONES * 0x20;
+    private static final long SPACES = ONES * ' ';
+
+    // powers of 31 modulo 2^32 (int overflow), as String#hashCode() computes them
+    private static final int POW_31_5 = 0x01B4D89F;
+    private static final int POW_31_6 = 0x34E63B41;
+    private static final int POW_31_7 = 0x67E12CDF;
+    private static final int POW_31_8 = 0x94446F01;
+
+    private Swar() {
+        // no-op
+    }
+
+    /**
+     * @return the index of the first quote, backslash or control character in [from, to) or {@code to}.
+     *          Bytes of multi-bytes sequences (negative) are skipped, they can't be one of them.
+     */
+    static int stringEnd(final byte[] bytes, final int from, final int to) {
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            final long word = (long) LONG.get(bytes, i);
+            final long matches = stringEnds(word) & ~word & HIGH_BITS;
+            if (matches != 0) {
+                return i + (Long.numberOfTrailingZeros(matches) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            final byte b = bytes[i];
+            if ((b >= 0 && b <= '\u001F') || b == '"' || b == '\\') {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Same as {@link #stringEnd(byte[], int, int)} but also stops on the first non ASCII byte and continues
+     * {@code seed}, a {@link String#hashCode()}, with the scanned bytes.
+     *
+     * @return the hash in the high 32 bits and the index in the low 32 bits.
+     */
+    static long hashedAsciiStringEnd(final byte[] bytes, final int from, final int to, final int seed) {
+        int hash = seed;
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            final long word = (long) LONG.get(bytes, i);
+            if (((stringEnds(word) & ~word | word) & HIGH_BITS) != 0) {
+                break; // the bytes before the end are hashed one by one below
+            }
+            // 8 steps of hash = 31 * hash + b at once, the first byte is the lowest one
+            hash = POW_31_8 * hash
+                    + POW_31_7 * (int) (word & 0xFF) + POW_31_6 * (int) (word >>> 8 & 0xFF)
+                    + POW_31_5 * (int) (word >>> 16 & 0xFF) + 923521 * (int) (word >>> 24 & 0xFF)
+                    + 29791 * (int) (word >>> 32 & 0xFF) + 961 * (int) (word >>> 40 & 0xFF)
+                    + 31 * (int) (word >>> 48 & 0xFF) + (int) (word >>> 56);
+        }
+        for (; i < to; i++) {
+            final byte b = bytes[i];
+            if (b <= '\u001F' || b == '"' || b == '\\') { // negative bytes included
+                break;
+            }
+            hash = 31 * hash + b;
+        }
+        return (long) hash << 32 | i;
+    }
+
+    // high bit set for the quotes, backslashes and bytes lower than 0x20 (when the byte high bit is not set)
+    private static long stringEnds(final long word) {
+        final long quotes = word ^ QUOTES;
+        final long backslashes = word ^ BACKSLASHES;
+        return (quotes - ONES) & ~quotes | (backslashes - ONES) & ~backslashes | (word - CONTROLS);
+    }
+
+    static boolean isAscii(final byte[] bytes, final int from, final int to) {
+        int i = from;
+        long bits = 0;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            bits |= (long) LONG.get(bytes, i);
+        }
+        for (; i < to; i++) {
+            bits |= bytes[i];
+        }
+        return (bits & HIGH_BITS) == 0;
+    }
+
+    /**
+     * @return the index of the first byte which is not a space in [from, to) or {@code to}.
+     */
+    static int spacesEnd(final byte[] bytes, final int from, final int to) {
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            final long others = (long) LONG.get(bytes, i) ^ SPACES;
+            if (others != 0) {
+                return i + (Long.numberOfTrailingZeros(others) >>> 3);
+            }
+        }
+        while (i < to && bytes[i] == ' ') {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonStructure;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable view of a {@link JsonStructure} used to apply several modifications (the operations of a patch) in one pass.
+ *
+ * Values are either the original immutable {@link JsonValue}s or thawed containers ({@link ObjectNode}, {@link ArrayNode}).
+ * A container is only thawed when a modification goes through it so {@link #freeze()} rebuilds the modified path
+ * and shares all the untouched subtrees of the original structure by reference.
+ * The original structure is never modified, if an operation fails the view is just dropped.
+ */
+final class TransientJsonStructure {
+    private final JsonProvider provider;
+    private Object root;
+
+    TransientJsonStructure(final JsonProvider provider, final JsonStructure target) {
+        this.provider = provider;
+        this.root = target;
+    }
+
+    Object getRoot() {
+        return root;
+    }
+
+    void setRoot(final Object root) {
+        this.root = root;
+    }
+
+    Object thawRoot() {
+        root = thaw(root);
+        return root;
+    }
+
+    JsonStructure freeze() {
+        return (JsonStructure) freeze(root);
+    }
+
+    Object thaw(final Object value) {
+        if (value instanceof JsonObject) {
+            return new ObjectNode((JsonObject) value);
+        }
+        if (value instanceof JsonArray) {
+            return new ArrayNode((JsonArray) value);
+        }
+        return value;
+    }
+
+    JsonValue freeze(final Object value) {
+        if (value instanceof ObjectNode) {
+            final JsonObjectBuilder builder = provider.createObjectBuilder();
+            for (final Map.Entry<String, Object> entry : ((ObjectNode) value).entries.entrySet()) {
+                builder.add(entry.getKey(), freeze(entry.getValue()));
+            }
+            return builder.build();
+        }
+        if (value instanceof ArrayNode) {
+            final JsonArrayBuilder builder = provider.createArrayBuilder();
+            for (final Object item : ((ArrayNode) value).items) {
+                builder.add(freeze(item));
+            }
+            return builder.build();
+        }
+        return (JsonValue) value;
+    }
+
+    final class ObjectNode {
+        private final Map<String, Object> entries;
+
+        private ObjectNode(final JsonObject object) {
+            entries = new LinkedHashMap<>(object);
+        }
+
+        Object get(final String name) {
+            return entries.get(name);
+        }
+
+        // replaces in place an existing entry, a new one goes after the first entry as JsonPointerImpl always did
+        void put(final String name, final Object value) {
+            if (entries.size() < 2 || entries.containsKey(name)) {
+                entries.put(name, value);
+                return;
+            }
+            final Iterator<Map.Entry<String, Object>> iterator = entries.entrySet().iterator();
+            final Map.Entry<String, Object> first = iterator.next();
+            final Map<String, Object> rest = new LinkedHashMap<>();
+            while (iterator.hasNext()) {
+                final Map.Entry<String, Object> entry = iterator.next();
+                rest.put(entry.getKey(), entry.getValue());
+            }
+            entries.clear();
+            entries.put(first.getKey(), first.getValue());
+            entries.put(name, value);
+            entries.putAll(rest);
+        }
+
+        Object remove(final String name) {
+            return entries.remove(name);
+        }
+
+        Object thaw(final String name) {
+            final Object value = entries.get(name);
+            final Object thawed = TransientJsonStructure.this.thaw(value);
+            if (thawed != value) {
+                entries.put(name, thawed);
+            }
+            return thawed;
+        }
+
+        @Override // only used in error messages
+        public String toString() {
+            return freeze(this).toString();
+        }
+    }
+
+    final class ArrayNode {
+        private final List<Object> items;
+
+        private ArrayNode(final JsonArray array) {
+            items = new ArrayList<>(array);
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        Object get(final int index) {
+            return items.get(index);
+        }
+
+        void add(final int index, final Object value) {
+            items.add(index, value);
+        }
+
+        Object remove(final int index) {
+            return items.remove(index);
+        }
+
+        Object thaw(final int index) {
+            final Object value = items.get(index);
+            final Object thawed = TransientJsonStructure.this.thaw(value);
+            if (thawed != value) {
+                items.set(index, thawed);
+            }
+            return thawed;
+        }
+
+        @Override // only used in error messages
+        public String toString() {
+            return freeze(this).toString();
+        }
+    }
+}
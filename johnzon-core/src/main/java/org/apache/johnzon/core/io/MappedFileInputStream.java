@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An {@link InputStream} reading a file through a {@link MappedByteBuffer} window sliding over the file.
+ * Reads are plain memory copies (no syscall per read) and only one window is mapped at a time so
+ * files bigger than the addressable size of a buffer (2GB) can be read.
+ * A window is unmapped as soon as it is replaced or the stream is closed, when the JVM doesn't give access
+ * to {@code sun.misc.Unsafe#invokeCleaner} it is only unmapped once collected.
+ */
+public class MappedFileInputStream extends InputStream {
+    private static final Unmapper UNMAPPER = Unmapper.create();
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+
+    // file offset of the current window
+    private long windowStart;
+    private MappedByteBuffer window;
+
+    public MappedFileInputStream(final Path path, final int windowSize) throws IOException {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("window size must be greater than zero");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.windowSize = windowSize;
+        try {
+            this.size = channel.size();
+            map(0);
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param bytes where to copy the next bytes of the file, the stream position is not modified.
+     * @return the number of copied bytes.
+     */
+    public int peek(final byte[] bytes) throws IOException {
+        ensureOpen();
+        final long position = windowStart + window.position();
+        final ByteBuffer target = ByteBuffer.wrap(bytes, 0, (int) Math.min(bytes.length, size - position));
+        while (target.hasRemaining()) {
+            if (channel.read(target, position + target.position()) < 0) {
+                break;
+            }
+        }
+        return target.position();
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureOpen();
+        if (!ensureData()) {
+            return -1;
+        }
+        return window.get() & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        ensureOpen();
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        final int count = Math.min(len, window.remaining());
+        window.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        ensureOpen();
+        if (n <= 0) {
+            return 0;
+        }
+        final long position = windowStart + window.position();
+        final long target = Math.min(size, position + n);
+        if (target < windowStart + window.limit()) {
+            window.position((int) (target - windowStart));
+        } else {
+            map(target);
+        }
+        return target - position;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return (int) Math.min(Integer.MAX_VALUE, size - windowStart - window.position());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (window == null) {
+            return;
+        }
+        final MappedByteBuffer mapped = window;
+        window = null;
+        try {
+            UNMAPPER.unmap(mapped);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (window == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private boolean ensureData() throws IOException {
+        if (window.hasRemaining()) {
+            return true;
+        }
+        final long next = windowStart + window.limit();
+        if (next >= size) {
+            return false;
+        }
+        map(next);
+        return true;
+    }
+
+    private void map(final long start) throws IOException {
+        final MappedByteBuffer previous = window;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+        windowStart = start;
+        if (previous != null) {
+            UNMAPPER.unmap(previous);
+        }
+    }
+
+    // the mapping must not be accessed anymore once unmapped, it is why the window is never exposed
+    private static final class Unmapper {
+        private final Object unsafe;
+        private final Method invokeCleaner;
+
+        private Unmapper(final Object unsafe, final Method invokeCleaner) {
+            this.unsafe = unsafe;
+            this.invokeCleaner = invokeCleaner;
+        }
+
+        private static Unmapper create() {
+            try {
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                return new Unmapper(theUnsafe.get(null), unsafeClass.getMethod("invokeCleaner", ByteBuffer.class));
+            } catch (final Exception | LinkageError e) { // no jdk.unsupported module, GC will unmap
+                return new Unmapper(null, null);
+            }
+        }
+
+        private void unmap(final MappedByteBuffer buffer) {
+            if (invokeCleaner == null) {
+                return;
+            }
+            try {
+                invokeCleaner.invoke(unsafe, buffer);
+            } catch (final Exception e) {
+                // unmapped when collected
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BitStackTest {
+
+    @Test
+    public void normalUse() {
+        final BitStack stack = new BitStack();
+        Assert.assertTrue(stack.isEmpty());
+
+        // crosses several words
+        for (int i = 0; i < 200; i++) {
+            stack.push(i % 3 == 0);
+            Assert.assertEquals(i % 3 == 0, stack.peek());
+        }
+        Assert.assertEquals(200, stack.size());
+        for (int i = 199; i >= 0; i--) {
+            Assert.assertEquals(i % 3 == 0, stack.pop());
+        }
+        Assert.assertTrue(stack.isEmpty());
+
+        // previous bits are overwritten
+        stack.push(true);
+        stack.push(true);
+        stack.clear();
+        Assert.assertTrue(stack.isEmpty());
+        stack.push(false);
+        Assert.assertFalse(stack.peek());
+    }
+}
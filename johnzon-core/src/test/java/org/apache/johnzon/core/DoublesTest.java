@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonReader;
+import jakarta.json.stream.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DoublesTest {
+    @Test
+    public void edgeCases() {
+        for (final String value : asList(
+                "0.0", "-0.0", "0e10", "1.5", "-2.25", "0.1", "0.3", "3.141592653589793", "1e22", "1e23", "9007199254740993.0",
+                "1.7976931348623157e308", "1.7976931348623159e308", "1e309", "-1e400", "4.9e-324", "2.5e-324", "2.4e-324",
+                "2.2250738585072011e-308", "2.2250738585072014e-308", "1e-400", "1E+2", "1e-0",
+                "123456789012345678901234567890.5", "0.000000000000000000000000000123456789012345678901",
+                "9007199254740992.5", "9007199254740993.5", "2.00000000000000011102230246251565404236316680908203125",
+                "2.000000000000000111022302462515654042363166809082031251", "7.3177701707893310e+15",
+                "1.00000000000000005551115123125782702118158340454101562", "4503599627370496.5", "4503599627370497.5",
+                "1e-7", "10000000000000000000000.0", "0.00000000000000000000000000000000000000000000001")) {
+            assertParsed(value);
+        }
+    }
+
+    @Test
+    public void random() {
+        final Random random = new Random(1234);
+        for (int i = 0; i < 100_000; i++) {
+            final double value;
+            switch (i % 3) {
+                case 0:
+                    value = Double.longBitsToDouble(random.nextLong());
+                    break;
+                case 1:
+                    value = random.nextDouble() * Math.pow(10, random.nextInt(40) - 20);
+                    break;
+                default:
+                    value = (random.nextInt(2_000_000) - 1_000_000) / 1000.;
+            }
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                continue;
+            }
+            assertParsed(Double.toString(value));
+            assertParsed(new BigDecimal(value).toString()); // exact, up to hundreds of digits
+        }
+    }
+
+    @Test
+    public void parser() {
+        final String json = "[1,-7,1.5,12345678901234567890,0.1,1e2,-3.25E-5]";
+        final double[] expected = {1, -7, 1.5, 12345678901234567890., 0.1, 100, -3.25E-5};
+        final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) new JsonProviderImpl().createParserFactory(emptyMap());
+        for (final JsonParser parser : asList(
+                factory.createParser(new StringReader(json)),
+                factory.createParser(json),
+                factory.createParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))))) {
+            assertEquals(JsonParser.Event.START_ARRAY, parser.next());
+            for (final double value : expected) {
+                assertEquals(JsonParser.Event.VALUE_NUMBER, parser.next());
+                assertEquals(value, JohnzonJsonParser.class.cast(parser).getDouble(), 0.);
+            }
+            parser.close();
+        }
+    }
+
+    @Test
+    public void readerMode() {
+        final JsonReaderFactoryImpl factory = (JsonReaderFactoryImpl) new JsonProviderImpl().createReaderFactory(
+                Map.of(JsonReaderImpl.DOUBLE_NUMBERS, true));
+        assertTrue(factory.getConfigInUse().isEmpty());
+        try (final JsonReader reader = factory.createReader("[1,0.5,{\"a\":-2.5e3},1e400]")) {
+            final JsonArray array = reader.readArray();
+            assertEquals(JsonLongImpl.class, array.get(0).getClass());
+            assertEquals(JsonDoubleImpl.class, array.get(1).getClass());
+            assertEquals(0.5, array.getJsonNumber(1).doubleValue(), 0.);
+            final JsonNumber nested = array.getJsonObject(2).getJsonNumber("a");
+            assertEquals(JsonDoubleImpl.class, nested.getClass());
+            assertEquals(-2500, nested.doubleValue(), 0.);
+            assertEquals(JsonNumberImpl.class, array.get(3).getClass()); // doesn't fit a double
+        }
+    }
+
+    private static void assertParsed(final String value) {
+        final double expected = Double.parseDouble(value);
+        final char[] chars = (' ' + value + ' ').toCharArray();
+        assertEquals(value, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(Doubles.parse(chars, 1, chars.length - 1)));
+        final byte[] bytes = (' ' + value + ' ').getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(value, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(Doubles.parse(bytes, 1, bytes.length - 1)));
+    }
+}
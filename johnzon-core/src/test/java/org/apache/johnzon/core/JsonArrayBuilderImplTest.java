@@ -18,12 +18,19 @@
  */
 package org.apache.johnzon.core;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.math.BigDecimal;
+import java.io.StringReader;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 import jakarta.json.Json;
 import jakarta.json.JsonArray;
@@ -203,6 +210,58 @@ public class JsonArrayBuilderImplTest {
         Assert.assertEquals("[\"a\",\"b\",\"c\",\"d\"]", jsonArray2.toString());
     }
 
+    @Test
+    public void numberArrays() {
+        final JsonArrayBuilder longs = Json.createArrayBuilder();
+        final List<JsonValue> expectedLongs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            longs.add(i * 1_000_000_000L);
+            expectedLongs.add(Json.createValue(i * 1_000_000_000L));
+        }
+        final JsonArray longArray = longs.add(Json.createValue(-1)).build();
+        expectedLongs.add(Json.createValue(-1));
+        assertTrue(longArray instanceof JohnzonJsonNumberArray);
+        assertEquals(expectedLongs, longArray);
+        assertEquals(longArray, expectedLongs);
+        assertEquals(expectedLongs.hashCode(), longArray.hashCode());
+        assertEquals(Json.createArrayBuilder(expectedLongs).add("").remove(21).build().toString(), longArray.toString());
+        assertEquals(1_000_000_000L, longArray.getJsonNumber(1).longValue());
+        assertEquals(1_000_000_000, longArray.getInt(1));
+        assertEquals(7, longArray.getInt(50, 7));
+        assertTrue(((JohnzonJsonNumberArray) longArray).isIntegral());
+        assertEquals(3_000_000_000L, ((JohnzonJsonNumberArray) longArray).getLongArray()[3]);
+        assertEquals(3e9, ((JohnzonJsonNumberArray) longArray).getDoubleArray()[3], 0);
+
+        final JsonArray doubleArray = Json.createArrayBuilder().add(1.5).add(-2.).add(1e10).build();
+        assertTrue(doubleArray instanceof JohnzonJsonNumberArray);
+        assertFalse(((JohnzonJsonNumberArray) doubleArray).isIntegral());
+        assertArrayEquals(new double[]{1.5, -2, 1e10}, ((JohnzonJsonNumberArray) doubleArray).getDoubleArray(), 0);
+        assertArrayEquals(new long[]{1, -2, 10_000_000_000L}, ((JohnzonJsonNumberArray) doubleArray).getLongArray());
+        assertEquals(Arrays.asList(new JsonDoubleImpl(1.5), new JsonDoubleImpl(-2.), new JsonDoubleImpl(1e10)), doubleArray);
+        assertEquals("[1.5,-2.0,1.0E+10]", doubleArray.toString());
+
+        // other values switch to a list
+        final JsonArray mixed = Json.createArrayBuilder().add(1).add(2.5).add("three").build();
+        assertFalse(mixed instanceof JohnzonJsonNumberArray);
+        assertEquals("[1,2.5,\"three\"]", mixed.toString());
+        final JsonArray updated = Json.createArrayBuilder().add(1).add(2).set(0, 3).remove(1).add(0, 4).build();
+        assertEquals("[4,3]", updated.toString());
+        assertEquals(JsonValue.EMPTY_JSON_ARRAY, Json.createArrayBuilder().build());
+
+        final JsonArray read = Json.createReader(new StringReader("[[1,2,3],[4,\"5\"]]")).readArray();
+        assertTrue(read.get(0) instanceof JohnzonJsonNumberArray);
+        assertFalse(read.get(1) instanceof JohnzonJsonNumberArray);
+        assertEquals("[[1,2,3],[4,\"5\"]]", read.toString());
+    }
+
+    @Test
+    public void numberArraysDeclareJsonArray() {
+        for (final JsonArray array : new JsonArray[]{
+                Json.createArrayBuilder().add(1).build(), Json.createArrayBuilder().add(1.5).build()}) {
+            assertTrue(array.getClass().getName(), Stream.of(array.getClass().getInterfaces()).anyMatch(JsonArray.class::isAssignableFrom));
+        }
+    }
+
     /**
      * Testcase for <a href="https://issues.apache.org/jira/browse/JOHNZON-407">JOHNZON-407</a>
      */
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonGeneratorFactory;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JsonChunkPublisherTest {
+    private final JsonGeneratorFactory factory = new JsonProviderImpl().createGeneratorFactory(emptyMap());
+
+    @Test
+    public void chunks() {
+        final AtomicInteger steps = new AtomicInteger();
+        final JsonChunkPublisher publisher = new JsonChunkPublisher(factory, 16, items(1000, steps));
+        final Collector collector = new Collector();
+        publisher.subscribe(collector);
+        assertEquals(0, steps.get()); // nothing generated without demand
+
+        collector.subscription.request(1);
+        assertEquals(1, collector.chunks.size());
+        final int firstSteps = steps.get();
+        assertTrue(String.valueOf(firstSteps), firstSteps < 10);
+
+        collector.subscription.request(2);
+        assertEquals(3, collector.chunks.size());
+        assertTrue(steps.get() < firstSteps + 10);
+
+        collector.subscription.request(Long.MAX_VALUE);
+        assertTrue(collector.completed);
+        assertNull(collector.error);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < collector.chunks.size(); i++) {
+            final ByteBuffer chunk = collector.chunks.get(i);
+            if (i < collector.chunks.size() - 1) {
+                assertEquals(16, chunk.remaining());
+            }
+            out.write(chunk.array(), chunk.position(), chunk.remaining());
+            publisher.release(chunk);
+        }
+
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final JsonGenerator generator = factory.createGenerator(expected, StandardCharsets.UTF_8);
+        final JsonChunkPublisher.Producer producer = items(1000, new AtomicInteger());
+        while (producer.writeNext(generator)) {
+            // no-op
+        }
+        generator.close();
+        assertEquals(expected.toString(StandardCharsets.UTF_8), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void requestFromOnNext() {
+        final Collector collector = new Collector() {
+            @Override
+            public void onNext(final ByteBuffer item) {
+                super.onNext(item);
+                subscription.request(1);
+            }
+        };
+        new JsonChunkPublisher(factory, 7, items(50, new AtomicInteger())).subscribe(collector);
+        collector.subscription.request(1);
+        assertTrue(collector.completed);
+        assertTrue(collector.chunks.size() > 10);
+    }
+
+    @Test
+    public void cancel() {
+        final AtomicInteger steps = new AtomicInteger();
+        final Collector collector = new Collector();
+        new JsonChunkPublisher(factory, 8, items(1000, steps)).subscribe(collector);
+        collector.subscription.request(2);
+        collector.subscription.cancel();
+        final int stepsAtCancel = steps.get();
+        collector.subscription.request(10);
+        assertEquals(2, collector.chunks.size());
+        assertEquals(stepsAtCancel, steps.get());
+        assertFalse(collector.completed);
+        assertNull(collector.error);
+    }
+
+    @Test
+    public void errors() {
+        final Collector failing = new Collector();
+        new JsonChunkPublisher(factory, 8, generator -> {
+            throw new IllegalStateException("boom");
+        }).subscribe(failing);
+        failing.subscription.request(1);
+        assertEquals("boom", failing.error.getMessage());
+
+        final JsonChunkPublisher publisher = new JsonChunkPublisher(factory, 8, items(10, new AtomicInteger()));
+        final Collector first = new Collector();
+        publisher.subscribe(first);
+        first.subscription.request(0);
+        assertTrue(first.error instanceof IllegalArgumentException);
+
+        final Collector second = new Collector();
+        publisher.subscribe(second);
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    @Test
+    public void generatorBufferReleasedOnCancelAndError() throws Exception {
+        final JsonGeneratorFactory pooling = new JsonProviderImpl().createGeneratorFactory(emptyMap());
+        final Collector cancelled = new Collector();
+        new JsonChunkPublisher(pooling, 8, items(1000, new AtomicInteger())).subscribe(cancelled);
+        cancelled.subscription.request(2);
+        assertEquals(0, pooledGeneratorBuffers(pooling));
+        cancelled.subscription.cancel();
+        assertEquals(1, pooledGeneratorBuffers(pooling));
+
+        final Collector failing = new Collector();
+        final AtomicInteger steps = new AtomicInteger();
+        final JsonChunkPublisher.Producer items = items(1000, steps);
+        new JsonChunkPublisher(pooling, 8, generator -> {
+            if (steps.get() == 5) {
+                throw new IllegalStateException("boom");
+            }
+            return items.writeNext(generator);
+        }).subscribe(failing);
+        failing.subscription.request(Long.MAX_VALUE);
+        assertEquals("boom", failing.error.getMessage());
+        assertEquals(1, pooledGeneratorBuffers(pooling)); // reused by the second generator then released again
+    }
+
+    @Test
+    public void chunksUseTheFactoryBufferStrategy() throws Exception {
+        final JsonChunkPublisher publisher = new JsonChunkPublisher(new JsonProviderImpl().createGeneratorFactory(
+                singletonMap(AbstractJsonFactory.BUFFER_STRATEGY, "BY_INSTANCE")), 8, items(1, new AtomicInteger()));
+        final Field chunks = JsonChunkPublisher.class.getDeclaredField("chunks");
+        chunks.setAccessible(true);
+        assertEquals(BufferStrategyFactory.valueOf("BY_INSTANCE").newByteProvider(8).getClass(), chunks.get(publisher).getClass());
+    }
+
+    private static int pooledGeneratorBuffers(final JsonGeneratorFactory factory) throws Exception {
+        final Field byteBuffer = JsonGeneratorFactoryImpl.class.getDeclaredField("byteBuffer");
+        byteBuffer.setAccessible(true);
+        final Object provider = byteBuffer.get(factory);
+        final Field queue = provider.getClass().getSuperclass().getDeclaredField("queue");
+        queue.setAccessible(true);
+        return Queue.class.cast(queue.get(provider)).size();
+    }
+
+    private static JsonChunkPublisher.Producer items(final int count, final AtomicInteger steps) {
+        return new JsonChunkPublisher.Producer() {
+            private int index = -1;
+
+            @Override
+            public boolean writeNext(final JsonGenerator generator) {
+                steps.incrementAndGet();
+                if (index < 0) {
+                    generator.writeStartArray();
+                } else if (index < count) {
+                    generator.writeStartObject().write("id", index).write("name", "item é " + index).writeEnd();
+                } else {
+                    generator.writeEnd();
+                    return false;
+                }
+                index++;
+                return true;
+            }
+        };
+    }
+
+    private static class Collector implements Flow.Subscriber<ByteBuffer> {
+        protected Flow.Subscription subscription;
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+        private boolean completed;
+        private Throwable error;
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(final ByteBuffer item) {
+            chunks.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
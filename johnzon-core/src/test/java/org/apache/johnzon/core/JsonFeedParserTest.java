@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParsingException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonFeedParserTest {
+    private static final String JSON = "{\n" +
+            "  \"string\": \"simple\",\n" +
+            "  \"escapes\": \"q\\\" b\\\\ s\\/ \\b\\f\\n\\r\\t \\u00e9\\u2713 \\ud83d\\ude00\",\n" +
+            "  \"utf8\": \"é✓😀\",\n" +
+            "  \"numbers\": [0, -1, 1234567890123, 123456789012345678901234, 1.5, -2.5e-3, 1E10],\n" +
+            "  \"literals\": [true, false, null],\n" +
+            "  \"nested\": {\"a\": [[], {}, [{\"b\": {}}]]},\n" +
+            "  \"\": \"\"\n" +
+            "}";
+
+    private final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) new JsonProviderImpl().createParserFactory(emptyMap());
+
+    @Test
+    public void chunks() {
+        final List<String> expected = blockingEvents(JSON);
+        final byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        final Random random = new Random(1234);
+        for (int i = 0; i < 500; i++) {
+            final int maxChunk = i < 100 ? 1 : 1 + random.nextInt(i < 300 ? 8 : 64);
+            assertEquals(expected, feedEvents(bytes, random, maxChunk));
+        }
+    }
+
+    @Test
+    public void rootValues() {
+        for (final String json : asList("12", " -1.5e3 ", "\"s\"", "true", "null", "[]", "{}")) {
+            final List<String> expected = blockingEvents(json);
+            for (int chunk = 1; chunk <= json.length(); chunk++) {
+                assertEquals(json, expected, feedEvents(json.getBytes(StandardCharsets.UTF_8), null, chunk));
+            }
+        }
+    }
+
+    @Test
+    public void needsMoreInput() {
+        final JsonFeedParser parser = factory.createFeedParser();
+        assertFalse(parser.hasNext());
+        assertTrue(parser.needsMoreInput());
+        parser.feed(ByteBuffer.wrap("{\"ke".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(parser.hasNext());
+        assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+        assertFalse(parser.hasNext());
+        assertTrue(parser.needsMoreInput());
+        parser.feed(ByteBuffer.wrap("y\": 12".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+        assertEquals("key", parser.getString());
+        assertFalse(parser.hasNext()); // 12 can be followed by other digits
+        parser.feed(ByteBuffer.wrap("}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(JsonParser.Event.VALUE_NUMBER, parser.next());
+        assertEquals(12, parser.getInt());
+        assertEquals(JsonParser.Event.END_OBJECT, parser.next());
+        assertFalse(parser.hasNext());
+        parser.endOfInput();
+        assertFalse(parser.hasNext());
+        assertFalse(parser.needsMoreInput());
+    }
+
+    @Test
+    public void invalid() {
+        for (final String json : asList("{\"a\" 1}", "[1,]", "[1 2]", "{\"a\":1]", "[01]", "[1.]", "[-]", "[tru]", "[\"\\x\"]",
+                "[\"a\u0001\"]", "[1] 2", "[\"unclosed", "{\"a\":", "[nul")) {
+            final JsonFeedParser parser = factory.createFeedParser();
+            try {
+                parser.feed(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+                parser.endOfInput();
+                while (parser.hasNext()) {
+                    parser.next();
+                }
+                fail(json);
+            } catch (final JsonParsingException jpe) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void invalidNumberLocation() {
+        for (final String[] invalid : new String[][]{
+                {"[01]", "'1'", "streamOffset=2", "Leading zeros not allowed"},
+                {"[1.]", "']'", "streamOffset=3", "Unexpected premature end of number"},
+                {"[-]", "']'", "streamOffset=2", "Unexpected premature end of number"},
+                {"[1e+]", "']'", "streamOffset=4", "Expected DIGIT or + or -"},
+                {"1.", "'.'", "streamOffset=1", "Unexpected premature end of number"}}) {
+            for (int chunk = 1; chunk <= invalid[0].length(); chunk++) {
+                final byte[] bytes = invalid[0].getBytes(StandardCharsets.UTF_8);
+                final JsonFeedParser parser = factory.createFeedParser();
+                try {
+                    for (int i = 0; i < bytes.length; i += chunk) {
+                        parser.feed(bytes, i, Math.min(chunk, bytes.length - i));
+                        while (parser.hasNext()) {
+                            parser.next();
+                        }
+                    }
+                    parser.endOfInput();
+                    while (parser.hasNext()) {
+                        parser.next();
+                    }
+                    fail(invalid[0]);
+                } catch (final JsonParsingException jpe) {
+                    final String message = jpe.getMessage();
+                    for (int i = 1; i < invalid.length; i++) {
+                        assertTrue(message, message.contains(invalid[i]));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void malformedUtf8() {
+        final byte[][] malformed = {
+                {'[', '"', 'a', (byte) 0xC3, '"', ']'}, // truncated sequence
+                {'[', '"', (byte) 0xC0, (byte) 0xAF, '"', ']'}, // overlong
+                {'[', '"', (byte) 0xED, (byte) 0xA0, (byte) 0x80, '"', ']'}, // surrogate
+                {'{', '"', (byte) 0x80, '"', ':', '1', '}'} // continuation byte in a key
+        };
+        for (final byte[] bytes : malformed) {
+            try {
+                feedAll(factory.createFeedParser(), bytes);
+                fail(Arrays.toString(bytes));
+            } catch (final JsonParsingException jpe) {
+                assertTrue(jpe.getMessage(), jpe.getMessage().startsWith("Invalid UTF-8 sequence"));
+            }
+        }
+
+        // an explicit encoding replaces them as the UTF-8 stream parsers do
+        final JsonParserFactoryImpl lenient = (JsonParserFactoryImpl) new JsonProviderImpl()
+                .createParserFactory(singletonMap(JsonParserFactoryImpl.ENCODING, "UTF-8"));
+        assertEquals(asList("START_ARRAY", "VALUE_STRING=a\uFFFD", "END_ARRAY"), feedAll(lenient.createFeedParser(), malformed[0]));
+    }
+
+    @Test
+    public void location() {
+        final JsonFeedParser parser = factory.createFeedParser();
+        parser.feed(ByteBuffer.wrap("[\n  1,\n".getBytes(StandardCharsets.UTF_8)));
+        parser.feed(ByteBuffer.wrap("  \"a\"]".getBytes(StandardCharsets.UTF_8)));
+        parser.next();
+        parser.next();
+        assertEquals(2, parser.getLocation().getLineNumber());
+        parser.next();
+        assertEquals(3, parser.getLocation().getLineNumber());
+        assertEquals(6, parser.getLocation().getColumnNumber());
+        assertEquals(12, parser.getLocation().getStreamOffset());
+    }
+
+    @Test
+    public void subscriber() throws Exception {
+        final List<String> events = new ArrayList<>();
+        final CompletableFuture<List<String>> result = new CompletableFuture<>();
+        try (final SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(new JsonFeedSubscriber(factory.createFeedParser(), new JsonFeedSubscriber.Handler() {
+                @Override
+                public void onEvent(final JsonParser.Event event, final JsonParser parser) {
+                    events.add(describe(event, parser));
+                }
+
+                @Override
+                public void onComplete() {
+                    result.complete(events);
+                }
+
+                @Override
+                public void onError(final Throwable error) {
+                    result.completeExceptionally(error);
+                }
+            }));
+            final byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < bytes.length; i += 7) {
+                publisher.submit(ByteBuffer.wrap(bytes, i, Math.min(7, bytes.length - i)));
+            }
+        }
+        assertEquals(blockingEvents(JSON), result.get(1, TimeUnit.MINUTES));
+    }
+
+    private List<String> feedEvents(final byte[] bytes, final Random random, final int maxChunk) {
+        final List<String> events = new ArrayList<>();
+        final JsonFeedParser parser = factory.createFeedParser();
+        int i = 0;
+        while (i < bytes.length) {
+            final int length = Math.min(bytes.length - i, random == null ? maxChunk : 1 + random.nextInt(maxChunk));
+            final byte[] chunk = new byte[length + 2]; // not starting at 0 to check the buffer position is used
+            System.arraycopy(bytes, i, chunk, 1, length);
+            parser.feed(ByteBuffer.wrap(chunk, 1, length));
+            i += length;
+            while (parser.hasNext()) {
+                events.add(describe(parser.next(), parser));
+            }
+        }
+        parser.endOfInput();
+        while (parser.hasNext()) {
+            events.add(describe(parser.next(), parser));
+        }
+        return events;
+    }
+
+    private static List<String> feedAll(final JsonFeedParser parser, final byte[] bytes) {
+        final List<String> events = new ArrayList<>();
+        parser.feed(bytes, 0, bytes.length);
+        parser.endOfInput();
+        while (parser.hasNext()) {
+            events.add(describe(parser.next(), parser));
+        }
+        return events;
+    }
+
+    private List<String> blockingEvents(final String json) {
+        final List<String> events = new ArrayList<>();
+        try (final JsonParser parser = factory.createParser(new StringReader(json))) {
+            while (parser.hasNext()) {
+                events.add(describe(parser.next(), parser));
+            }
+        }
+        return events;
+    }
+
+    private static String describe(final JsonParser.Event event, final JsonParser parser) {
+        switch (event) {
+            case KEY_NAME:
+            case VALUE_STRING:
+                return event + "=" + parser.getString();
+            case VALUE_NUMBER:
+                return event + "=" + parser.getBigDecimal() + "/" + parser.isIntegralNumber() + "/" + parser.getLong() + "/" + parser.getValue();
+            default:
+                return event.name();
+        }
+    }
+}
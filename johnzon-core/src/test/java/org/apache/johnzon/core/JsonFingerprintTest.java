@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonPatch;
+import jakarta.json.JsonValue;
+
+import org.junit.Test;
+
+public class JsonFingerprintTest {
+    @Test
+    public void canonicalNumbers() {
+        final long one = JsonFingerprint.of(new JsonLongImpl(1));
+        assertEquals(one, JsonFingerprint.of(new JsonDoubleImpl(1.)));
+        assertEquals(one, JsonFingerprint.of(new JsonNumberImpl(new BigDecimal("1.00"), d -> {})));
+        assertEquals(one, JsonFingerprint.of(new JsonNumberImpl(new BigDecimal("1E0"), d -> {})));
+        assertEquals(JsonFingerprint.of(new JsonDoubleImpl(0.)), JsonFingerprint.of(new JsonDoubleImpl(-0.)));
+        assertEquals(JsonFingerprint.of(new JsonDoubleImpl(1.5)), JsonFingerprint.of(new JsonNumberImpl(new BigDecimal("1.50"), d -> {})));
+        assertEquals(JsonFingerprint.of(new JsonDoubleImpl(1e300)), JsonFingerprint.of(new JsonNumberImpl(new BigDecimal("1e300"), d -> {})));
+        assertNotEquals(one, JsonFingerprint.of(new JsonLongImpl(2)));
+        assertNotEquals(one, JsonFingerprint.of(new JsonStringImpl("1")));
+        assertNotEquals(one, JsonFingerprint.of(JsonValue.TRUE));
+    }
+
+    @Test
+    public void structures() {
+        final JsonObject object = read("{\"a\":[1,2.5,\"x\"],\"b\":{\"c\":null,\"d\":true}}").asJsonObject();
+        final JsonObject reordered = read("{\"b\":{\"d\":true,\"c\":null},\"a\":[1,2.5,\"x\"]}").asJsonObject();
+        assertEquals(object, reordered);
+        assertEquals(JsonFingerprint.of(object), JsonFingerprint.of(reordered));
+
+        final JsonArray longs = Json.createArrayBuilder().add(1).add(2).build();
+        final JsonArray mixed = Json.createArrayBuilder().add(1).add(new JsonNumberImpl(new BigDecimal(2), d -> {})).build();
+        assertEquals(JsonNumberArrayImpl.Longs.class, longs.getClass());
+        assertEquals(JsonArrayImpl.class, mixed.getClass());
+        assertEquals(longs, mixed);
+        assertEquals(JsonFingerprint.of(longs), JsonFingerprint.of(mixed));
+
+        assertNotEquals(JsonFingerprint.of(longs), JsonFingerprint.of(read("[2,1]")));
+        assertNotEquals(JsonFingerprint.of(object), JsonFingerprint.of(read("{\"a\":[1,2.5,\"y\"],\"b\":{\"c\":null,\"d\":true}}")));
+        assertNotEquals(JsonFingerprint.of(read("{\"a\":1,\"b\":2}")), JsonFingerprint.of(read("{\"a\":2,\"b\":1}")));
+        assertNotEquals(read("[[1],[2]]"), read("[[1],[3]]"));
+    }
+
+    @Test
+    public void diffSkipsSharedSubtrees() {
+        final JsonObject source = read("{\"config\":{\"a\":{\"x\":1},\"b\":[1,2,3]},\"version\":1}").asJsonObject();
+        final JsonObject target = Json.createPatchBuilder()
+                .replace("/version", 2)
+                .add("/config/a/y", "new")
+                .build()
+                .apply(source);
+
+        final JsonPatch diff = Json.createDiff(source, target);
+        assertEquals("[{\"op\":\"add\",\"path\":\"/config/a/y\",\"value\":\"new\"}," +
+                "{\"op\":\"replace\",\"path\":\"/version\",\"value\":2}]", diff.toJsonArray().toString());
+        assertEquals(target, diff.apply(source));
+        assertEquals("{\"config\":{\"a\":{\"y\":\"new\"}},\"version\":2}",
+                Json.createMergeDiff(source, target).toJsonValue().toString());
+    }
+
+    private static JsonValue read(final String json) {
+        return Json.createReader(new StringReader(json)).readValue();
+    }
+}
@@ -18,8 +18,11 @@
  */
 package org.apache.johnzon.core;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -28,7 +31,9 @@ import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Queue;
+import java.util.function.Consumer;
 
 import jakarta.json.Json;
 import jakarta.json.JsonReader;
@@ -37,6 +42,7 @@ import jakarta.json.JsonWriter;
 import jakarta.json.JsonWriterFactory;
 import jakarta.json.stream.JsonGenerationException;
 import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonGeneratorFactory;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -516,4 +522,481 @@ public class JsonGeneratorImplTest {
         Json.createGenerator(writer).write(true).close();
         assertEquals("true", writer.toString());
     }
+
+    @Test
+    public void writeIntegers() {
+        final java.util.Random random = new java.util.Random(1234);
+        final long[] edges = {0, 1, -1, 9, 10, 99, 100, -99, -100, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Integer.MAX_VALUE + 1L, Integer.MIN_VALUE - 1L, 999_999_999_999_999_999L, -1_000_000_000_000_000_000L,
+                Long.MAX_VALUE, Long.MIN_VALUE};
+        for (final int bufferLength : new int[]{1, 7, 20, 64 * 1024}) {
+            final StringWriter writer = new StringWriter();
+            final StringBuilder expected = new StringBuilder("{\"i\":");
+            final JsonGenerator generator = Json.createGeneratorFactory(singletonMap(JsonGeneratorFactoryImpl.GENERATOR_BUFFER_LENGTH, bufferLength))
+                    .createGenerator(writer);
+            generator.writeStartObject().write("i", -42).writeStartArray("values");
+            expected.append("-42,\"values\":[");
+            for (int i = 0; i < 2000; i++) {
+                if (i > 0) {
+                    expected.append(',');
+                }
+                if (i < edges.length) {
+                    generator.write(edges[i]);
+                    expected.append(edges[i]);
+                } else if (i % 2 == 0) {
+                    final int value = random.nextInt() >> random.nextInt(32);
+                    generator.write(value);
+                    expected.append(value);
+                } else {
+                    final long value = random.nextLong() >> random.nextInt(64);
+                    generator.write(value);
+                    expected.append(value);
+                }
+            }
+            generator.writeEnd().write("l", Long.MIN_VALUE).writeEnd().close();
+            expected.append("],\"l\":").append(Long.MIN_VALUE).append('}');
+            assertEquals(expected.toString(), writer.toString());
+        }
+    }
+
+    @Test
+    public void writeDoubles() {
+        assertEquals("[0.0,-0.0,1.0,100.0,0.1,0.002,1.0E7,9999999.0,1.0E-4,1.0E23,4.9E-324,1.7976931348623157E308,-123.456]",
+                writeDoubles(1024, 0., -0., 1., 100., .1, 2e-3, 1e7, 9999999., 1e-4, 1e23, Double.MIN_VALUE, Double.MAX_VALUE, -123.456));
+
+        final java.util.Random random = new java.util.Random(1234);
+        final double[] values = new double[2000];
+        for (int i = 0; i < values.length; i++) {
+            do {
+                values[i] = i % 2 == 0 ? Double.longBitsToDouble(random.nextLong()) : random.nextDouble() * Math.pow(10, random.nextInt(20) - 5);
+            } while (!Double.isFinite(values[i]));
+        }
+        final String reference = writeDoubles(64 * 1024, values);
+        for (final int bufferLength : new int[]{1, 7, 24}) {
+            assertEquals(reference, writeDoubles(bufferLength, values));
+        }
+        final String[] written = reference.substring(1, reference.length() - 1).split(",");
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], Double.parseDouble(written[i]), 0.);
+            // older JVMs don't always write the shortest representation
+            assertTrue(written[i], written[i].length() <= Double.toString(values[i]).length());
+        }
+    }
+
+    private String writeDoubles(final int bufferLength, final double... values) {
+        final StringWriter writer = new StringWriter();
+        final JsonGenerator generator = Json.createGeneratorFactory(singletonMap(JsonGeneratorFactoryImpl.GENERATOR_BUFFER_LENGTH, bufferLength))
+                .createGenerator(writer);
+        generator.writeStartArray();
+        for (final double value : values) {
+            generator.write(value);
+        }
+        generator.writeEnd().close();
+        return writer.toString();
+    }
+
+    @Test
+    public void writeFloats() {
+        assertEquals("[0.0,-0.0,1.0,0.1,0.002,1.0E7,9999999.0,1.0E-4,1.4E-45,3.4028235E38,-123.456]",
+                writeFloats(1024, 0f, -0f, 1f, .1f, 2e-3f, 1e7f, 9999999f, 1e-4f, Float.MIN_VALUE, Float.MAX_VALUE, -123.456f));
+
+        final java.util.Random random = new java.util.Random(1234);
+        final float[] values = new float[2000];
+        for (int i = 0; i < values.length; i++) {
+            do {
+                values[i] = i % 2 == 0 ? Float.intBitsToFloat(random.nextInt()) : (float) (random.nextFloat() * Math.pow(10, random.nextInt(10) - 3));
+            } while (!Float.isFinite(values[i]));
+        }
+        final String reference = writeFloats(64 * 1024, values);
+        for (final int bufferLength : new int[]{1, 7, 24}) {
+            assertEquals(reference, writeFloats(bufferLength, values));
+        }
+        final String[] written = reference.substring(1, reference.length() - 1).split(",");
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], Float.parseFloat(written[i]), 0f);
+            assertTrue(written[i], written[i].length() <= Float.toString(values[i]).length());
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final JohnzonJsonGenerator utf8 = (JohnzonJsonGenerator) Json.createGenerator(out);
+        utf8.writeStartObject();
+        utf8.write("a", .1f);
+        utf8.write(new JohnzonJsonGenerator.PreEncodedKey("b"), 1e-5f);
+        utf8.writeStartArray("c");
+        utf8.write(3.4028235E38f);
+        utf8.writeEnd().writeEnd().close();
+        assertEquals("{\"a\":0.1,\"b\":1.0E-5,\"c\":[3.4028235E38]}", new String(out.toByteArray()));
+    }
+
+    private String writeFloats(final int bufferLength, final float... values) {
+        final StringWriter writer = new StringWriter();
+        final JohnzonJsonGenerator generator = (JohnzonJsonGenerator) Json.createGeneratorFactory(
+                singletonMap(JsonGeneratorFactoryImpl.GENERATOR_BUFFER_LENGTH, bufferLength)).createGenerator(writer);
+        generator.writeStartArray();
+        for (final float value : values) {
+            generator.write(value);
+        }
+        generator.writeEnd().close();
+        return writer.toString();
+    }
+
+    @Test
+    public void preEncodedKeys() {
+        final String[] names = {"simple", "q\"uote", "back\\slash", "ctrl\n\u0001", "\u0085\u2028é"};
+        for (final boolean pretty : new boolean[]{false, true}) {
+            for (final int bufferLength : new int[]{1, 5, 1024}) {
+                final java.util.Map<String, Object> config = new HashMap<>();
+                config.put(JsonGeneratorFactoryImpl.GENERATOR_BUFFER_LENGTH, bufferLength);
+                config.put(JsonGenerator.PRETTY_PRINTING, pretty);
+
+                final StringWriter expected = new StringWriter();
+                final JsonGenerator byName = Json.createGeneratorFactory(config).createGenerator(expected);
+                byName.writeStartObject()
+                        .write(names[0], "v").write(names[1], 1).write(names[2], 2L).write(names[3], 1.5).write(names[4], true)
+                        .writeNull(names[0]).write(names[1], new BigDecimal("1.1")).write(names[2], BigInteger.TEN)
+                        .write(names[3], Json.createArrayBuilder().add(1).add(Json.createObjectBuilder().add("a", "b")).build())
+                        .writeStartObject(names[4]).write(names[0], Json.createValue(3)).writeEnd()
+                        .writeStartArray(names[1]).write(1).writeEnd();
+                byName.writeKey(names[2]).write("k");
+                byName.writeEnd().close();
+
+                final JohnzonJsonGenerator.PreEncodedKey[] keys = new JohnzonJsonGenerator.PreEncodedKey[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    keys[i] = new JohnzonJsonGenerator.PreEncodedKey(names[i]);
+                }
+                final StringWriter actual = new StringWriter();
+                final JohnzonJsonGenerator encoded = (JohnzonJsonGenerator) Json.createGeneratorFactory(config).createGenerator(actual);
+                encoded.writeStartObject();
+                encoded.write(keys[0], "v").write(keys[1], 1).write(keys[2], 2L).write(keys[3], 1.5).write(keys[4], true)
+                        .writeNull(keys[0]).write(keys[1], new BigDecimal("1.1")).write(keys[2], BigInteger.TEN)
+                        .write(keys[3], Json.createArrayBuilder().add(1).add(Json.createObjectBuilder().add("a", "b")).build())
+                        .writeStartObject(keys[4]).write(keys[0], Json.createValue(3)).writeEnd();
+                encoded.writeStartArray(keys[1]).write(1).writeEnd();
+                encoded.writeKey(keys[2]).write("k");
+                encoded.writeEnd().close();
+
+                assertEquals(expected.toString(), actual.toString());
+            }
+        }
+        assertEquals("\"q\\\"uote\":", new JohnzonJsonGenerator.PreEncodedKey("q\"uote").toString());
+    }
+
+    @Test
+    public void utf8OutputStream() throws Exception {
+        final String[] strings = {"simple", "q\"uote \\ \n\r\t\b\f \u0001\u001f", "é à ✓ \u0085\u2028", "😀 emoji", "lone \ud83d high", "lone \ude00 low",
+                "end \ud83d", "", "a very long ascii string to cross several buffer boundaries 0123456789"};
+        for (final boolean pretty : new boolean[]{false, true}) {
+            for (final int bufferLength : new int[]{1, 3, 7, 64, 64 * 1024}) {
+                final java.util.Map<String, Object> config = new HashMap<>();
+                config.put(JsonGeneratorFactoryImpl.GENERATOR_BUFFER_LENGTH, bufferLength);
+                config.put(JsonGenerator.PRETTY_PRINTING, pretty);
+                final JsonGeneratorFactoryImpl factory = (JsonGeneratorFactoryImpl) Json.createGeneratorFactory(config);
+
+                final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+                writeAll(factory.createGenerator(new java.io.OutputStreamWriter(expected, java.nio.charset.StandardCharsets.UTF_8)), strings);
+                final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+                final JsonGenerator generator = factory.createGenerator(actual);
+                assertEquals(JsonUtf8GeneratorImpl.class, generator.getClass());
+                writeAll(generator, strings);
+                assertEquals(pretty + "/" + bufferLength, expected.toString("UTF-8"), actual.toString("UTF-8"));
+                Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+            }
+        }
+        // other charsets still use a writer
+        final ByteArrayOutputStream latin = new ByteArrayOutputStream();
+        Json.createGeneratorFactory(emptyMap()).createGenerator(latin, java.nio.charset.StandardCharsets.ISO_8859_1).write("é").close();
+        Assert.assertArrayEquals(new byte[]{'"', (byte) 0xE9, '"'}, latin.toByteArray());
+    }
+
+    private static void writeAll(final JsonGenerator generator, final String[] strings) {
+        generator.writeStartObject();
+        for (final String string : strings) {
+            generator.write(string, string);
+        }
+        final JohnzonJsonGenerator johnzon = (JohnzonJsonGenerator) generator;
+        johnzon.write(new JohnzonJsonGenerator.PreEncodedKey(strings[2]), strings[3]);
+        generator.writeStartArray("numbers")
+                .write(0).write(-123456789).write(Long.MIN_VALUE).write(1.5).write(-2.5E-300)
+                .write(new BigDecimal("12.50")).write(new BigInteger("123456789012345678901234567890"))
+                .write(true).write(false).writeNull()
+                .write(Json.createObjectBuilder().add("é", "✓").add("n", 1).build())
+                .writeEnd();
+        generator.writeKey("k").write("v");
+        generator.writeEnd().close();
+    }
+
+    @Test
+    public void escapedRuns() {
+        final StringBuilder value = new StringBuilder("clean run ");
+        for (char c = 0; c < 128; c++) {
+            value.append(c);
+        }
+        value.append(" é✓ \u0085 end");
+        final StringBuilder expected = new StringBuilder("[\"clean run ");
+        for (char c = 0; c < 128; c++) {
+            switch (c) {
+                case '"':
+                case '\\':
+                    expected.append('\\').append(c);
+                    break;
+                case '\n':
+                    expected.append("\\n");
+                    break;
+                case '\r':
+                    expected.append("\\r");
+                    break;
+                case '\t':
+                    expected.append("\\t");
+                    break;
+                case '\b':
+                    expected.append("\\b");
+                    break;
+                case '\f':
+                    expected.append("\\f");
+                    break;
+                default:
+                    expected.append(c < ' ' ? String.format("\\u%04x", (int) c) : String.valueOf(c));
+            }
+        }
+        expected.append(" é✓ \u0085 end\"]");
+        for (final int bufferLength : new int[]{1, 4, 1024}) {
+            final StringWriter writer = new StringWriter();
+            Json.createGeneratorFactory(singletonMap(JsonGeneratorFactoryImpl.GENERATOR_BUFFER_LENGTH, bufferLength))
+                    .createGenerator(writer).writeStartArray().write(value.toString()).writeEnd().close();
+            assertEquals(expected.toString(), writer.toString());
+
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            Json.createGeneratorFactory(singletonMap(JsonGeneratorFactoryImpl.GENERATOR_BUFFER_LENGTH, bufferLength))
+                    .createGenerator(bytes).writeStartArray().write(value.toString()).writeEnd().close();
+            assertEquals(expected.toString(), new String(bytes.toByteArray(), java.nio.charset.StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void trustedMode() {
+        for (final boolean pretty : new boolean[]{false, true}) {
+            final java.util.Map<String, Object> config = new HashMap<>();
+            config.put(JsonGenerator.PRETTY_PRINTING, pretty);
+            final JsonGeneratorFactoryImpl checked = (JsonGeneratorFactoryImpl) Json.createGeneratorFactory(config);
+            config.put(JsonGeneratorFactoryImpl.GENERATOR_TRUSTED, true);
+            final JsonGeneratorFactoryImpl trusted = (JsonGeneratorFactoryImpl) Json.createGeneratorFactory(config);
+
+            final StringWriter expected = new StringWriter();
+            writeStructures(checked.createGenerator(expected));
+            final StringWriter actual = new StringWriter();
+            writeStructures(trusted.createGenerator(actual));
+            assertEquals(expected.toString(), actual.toString());
+
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            writeStructures(trusted.createGenerator(bytes));
+            assertEquals(expected.toString(), new String(bytes.toByteArray(), java.nio.charset.StandardCharsets.UTF_8));
+
+            for (final JsonGeneratorFactoryImpl factory : new JsonGeneratorFactoryImpl[]{checked, trusted}) {
+                final StringWriter root = new StringWriter();
+                factory.createGenerator(root).write(1.5).close();
+                assertEquals("1.5", root.toString());
+            }
+        }
+
+        // no validation anymore, the caller is responsible of the structure
+        final StringWriter writer = new StringWriter();
+        Json.createGeneratorFactory(singletonMap(JsonGeneratorFactoryImpl.GENERATOR_TRUSTED, true))
+                .createGenerator(writer).writeStartArray().write("k", "v").writeEnd().close();
+        assertEquals("[\"k\":\"v\"]", writer.toString());
+    }
+
+    @Test
+    public void enableValidation() {
+        final List<Consumer<JsonGenerator>> steps = asList(
+                g -> g.writeStartObject(), g -> g.write("a", 1), g -> g.writeKey("b"), g -> g.writeStartArray(),
+                g -> g.write(1), g -> g.writeStartObject(), g -> g.writeEnd(), g -> g.writeStartArray(), g -> g.writeEnd(),
+                g -> g.writeEnd(), g -> g.writeStartObject("c"), g -> g.writeEnd(), g -> g.writeKey("d"), g -> g.write("x"),
+                g -> g.writeEnd());
+        for (final boolean pretty : new boolean[]{false, true}) {
+            final java.util.Map<String, Object> config = new HashMap<>();
+            config.put(JsonGenerator.PRETTY_PRINTING, pretty);
+            final StringWriter expected = new StringWriter();
+            final JsonGenerator checked = Json.createGeneratorFactory(config).createGenerator(expected);
+            steps.forEach(step -> step.accept(checked));
+            checked.close();
+
+            config.put(JsonGeneratorFactoryImpl.GENERATOR_TRUSTED, true);
+            final JsonGeneratorFactory trusted = Json.createGeneratorFactory(config);
+            for (int i = 0; i <= steps.size(); i++) { // switch before each step
+                final StringWriter actual = new StringWriter();
+                final JsonGenerator generator = trusted.createGenerator(actual);
+                for (int j = 0; j < steps.size(); j++) {
+                    if (i == j) {
+                        ((JohnzonJsonGenerator) generator).enableValidation();
+                    }
+                    steps.get(j).accept(generator);
+                }
+                ((JohnzonJsonGenerator) generator).enableValidation().close();
+                assertEquals("switched at " + i, expected.toString(), actual.toString());
+            }
+        }
+
+        // after the switch invalid calls fail as with a generator created with the validation
+        final JsonGeneratorFactory trusted = Json.createGeneratorFactory(singletonMap(JsonGeneratorFactoryImpl.GENERATOR_TRUSTED, true));
+        final List<Consumer<JohnzonJsonGenerator>> written = asList(
+                g -> g.writeStartArray(), g -> g.writeStartObject().write("a", 1), g -> g.writeStartObject().writeKey("b"),
+                g -> g.writeStartObject().writeKey("b"), g -> g.write(1), g -> g.writeStartArray().writeStartObject().writeEnd());
+        final List<Consumer<JohnzonJsonGenerator>> invalid = asList(
+                g -> g.write("k", "v"), g -> g.write("v"), g -> g.writeEnd(),
+                g -> g.write("k", "v"), g -> g.write(2), JsonGenerator::close);
+        for (int i = 0; i < written.size(); i++) {
+            final JohnzonJsonGenerator generator = (JohnzonJsonGenerator) trusted.createGenerator(new StringWriter());
+            written.get(i).accept(generator);
+            generator.enableValidation();
+            try {
+                invalid.get(i).accept(generator);
+                Assert.fail(String.valueOf(i));
+            } catch (final JsonGenerationException expected) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void writeRaw() {
+        final String fragment = "{\"cached\": [1, \"é\\\"]\"], \"n\":null}";
+        final StringWriter writer = new StringWriter();
+        final JohnzonJsonGenerator generator = (JohnzonJsonGenerator) Json.createGenerator(writer);
+        generator.writeStartObject();
+        generator.writeRaw("first", fragment).writeStartArray("values");
+        generator.writeRaw(fragment).writeRaw(" -1.5E3 ").writeRaw(new StringBuilder("true"));
+        generator.writeEnd().writeEnd().close();
+        assertEquals("{\"first\":" + fragment + ",\"values\":[" + fragment + ", -1.5E3 ,true]}", writer.toString());
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ((JohnzonJsonGenerator) Json.createGeneratorFactory(emptyMap()).createGenerator(bytes)).writeRaw(fragment).close();
+        assertEquals(fragment, new String(bytes.toByteArray(), java.nio.charset.StandardCharsets.UTF_8));
+
+        for (final String valid : new String[]{"{}", "[]", " [ [ ] , { } ] ", "0", "-0.5e-3", "[null,false,true]",
+                "\"\\u00e9\\/\\n\"", "{\"a\":{\"b\":[1,{}]},\"c\":\"d\"}"}) {
+            final StringWriter out = new StringWriter();
+            ((JohnzonJsonGenerator) Json.createGenerator(out)).writeRaw(valid).close();
+            assertEquals(valid, out.toString());
+        }
+        for (final String invalid : new String[]{"", "  ", "{", "[}", "{\"a\":1]", "\"open", "1 2", "{} {}", "\"a\" : 1", "[1,#]", "\"\n\"",
+                "{\"a\" 1}", "[1 2]", "{\"a\":1 \"b\":2}", "[1,]", "[,1]", "{\"a\":1,}", "{1:2}", "{\"a\"}", "[\"a\":1]",
+                "[nul]", "[truex]", "nulll", "[01]", "[1.]", "[-]", "[1e]", "[.5]", "[+1]", "1.5.2", "\"\\x\"", "\"\\u12g4\""}) {
+            try {
+                ((JohnzonJsonGenerator) Json.createGenerator(new StringWriter())).writeRaw(invalid);
+                Assert.fail(invalid);
+            } catch (final JsonGenerationException expected) {
+                // ok
+            }
+        }
+
+        // validation can be disabled for trusted fragments, it is independent of the trusted mode
+        final StringWriter unchecked = new StringWriter();
+        ((JohnzonJsonGenerator) Json.createGeneratorFactory(singletonMap(JsonGeneratorFactoryImpl.GENERATOR_RAW_VALIDATION, false))
+                .createGenerator(unchecked)).writeRaw("{").close();
+        assertEquals("{", unchecked.toString());
+        try {
+            ((JohnzonJsonGenerator) Json.createGeneratorFactory(singletonMap(JsonGeneratorFactoryImpl.GENERATOR_TRUSTED, true))
+                    .createGenerator(new StringWriter())).writeRaw("[1 2]");
+            Assert.fail();
+        } catch (final JsonGenerationException expected) {
+            // ok
+        }
+    }
+
+    @Test
+    public void reset() {
+        for (final boolean trusted : new boolean[]{false, true}) {
+            final java.util.Map<String, Object> config = new HashMap<>();
+            config.put(JsonGeneratorFactoryImpl.GENERATOR_TRUSTED, trusted);
+            config.put(JsonGenerator.PRETTY_PRINTING, true);
+            final JsonGeneratorFactoryImpl factory = (JsonGeneratorFactoryImpl) Json.createGeneratorFactory(config);
+
+            final StringWriter expected = new StringWriter();
+            writeStructures(factory.createGenerator(expected));
+
+            final StringWriter first = new StringWriter();
+            final JohnzonJsonGenerator generator = (JohnzonJsonGenerator) factory.createGenerator(first);
+            generator.writeStartObject().write("pending", 1); // unfinished document, flushed to its output
+            final StringWriter second = new StringWriter();
+            writeStructures(generator.reset(second)); // closes the generator at the end
+            assertEquals("{\n  \"pending\":1", first.toString());
+            assertEquals(expected.toString(), second.toString());
+            final StringWriter third = new StringWriter();
+            writeStructures(generator.reset(third));
+            assertEquals(expected.toString(), third.toString());
+
+            final JohnzonJsonGenerator utf8 = (JohnzonJsonGenerator) factory.createGenerator(new ByteArrayOutputStream());
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            utf8.write(1).close();
+            writeStructures(utf8.reset(bytes));
+            assertEquals(expected.toString(), new String(bytes.toByteArray(), java.nio.charset.StandardCharsets.UTF_8));
+            try {
+                utf8.reset(new StringWriter());
+                Assert.fail("utf-8 generators write bytes");
+            } catch (final UnsupportedOperationException e) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void stringGenerator() {
+        for (final boolean pretty : new boolean[]{false, true}) {
+            for (final int bufferLength : new int[]{1, 7, 64 * 1024}) {
+                final java.util.Map<String, Object> config = new HashMap<>();
+                config.put(JsonGenerator.PRETTY_PRINTING, pretty);
+                config.put(JsonGeneratorFactoryImpl.GENERATOR_BUFFER_LENGTH, bufferLength);
+                final JsonGeneratorFactoryImpl factory = (JsonGeneratorFactoryImpl) Json.createGeneratorFactory(config);
+
+                final StringWriter expected = new StringWriter();
+                writeStructures(factory.createGenerator(expected));
+                final JsonGenerator generator = factory.createStringGenerator();
+                writeStructures(generator);
+                assertEquals(expected.toString(), generator.toString());
+            }
+        }
+
+        // the pooled buffer goes back to the pool once, when it is replaced by a bigger one
+        final java.util.concurrent.atomic.AtomicInteger released = new java.util.concurrent.atomic.AtomicInteger();
+        final JsonStringGeneratorImpl generator = new JsonStringGeneratorImpl(new BufferStrategy.BufferProvider<char[]>() {
+            @Override
+            public char[] newBuffer() {
+                return new char[4];
+            }
+
+            @Override
+            public void release(final char[] value) {
+                assertEquals(4, value.length);
+                released.incrementAndGet();
+            }
+        }, false, false);
+        generator.writeStartArray().write("ab");
+        assertEquals("[\"ab\"", generator.toString());
+        assertEquals(1, released.get());
+        generator.writeEnd().close();
+        assertEquals("[\"ab\"]", generator.toString());
+        assertEquals(1, released.get());
+    }
+
+    private static void writeStructures(final JsonGenerator generator) {
+        final JohnzonJsonGenerator johnzon = (JohnzonJsonGenerator) generator;
+        generator.writeStartObject()
+                .writeStartObject("empty").writeEnd()
+                .writeStartArray("emptyArray").writeEnd()
+                .write("string", "value")
+                .writeStartArray("array")
+                    .write(1).write("two").writeStartObject().write("three", 3L).writeEnd()
+                    .writeStartArray().writeEnd()
+                    .writeStartArray().write(true).writeNull().writeEnd()
+                    .write(4.5)
+                .writeEnd()
+                .writeKey("afterKey").writeStartObject().write("nested", false).writeEnd()
+                .writeKey("afterKeyArray").writeStartArray().write(1).writeEnd();
+        johnzon.write(new JohnzonJsonGenerator.PreEncodedKey("encoded"), 1);
+        johnzon.writeStartObject(new JohnzonJsonGenerator.PreEncodedKey("encodedObject")).writeNull("n").writeEnd();
+        generator.write("value", Json.createObjectBuilder()
+                .add("a", Json.createArrayBuilder().add(1).add(Json.createObjectBuilder()))
+                .add("b", Json.createArrayBuilder()).build());
+        generator.writeEnd().close();
+    }
 }
@@ -84,6 +84,20 @@ public class JsonMergeBatchTest {
         Assert.assertEquals("xc", jsonTarget.getString("c"));
     }
 
+    @Test
+    public void testUnchangedSiblingsAreShared() {
+        JsonObject source = jsonObjectFrom("{\"a\":{\"x\":1},\"b\":{\"y\":{\"z\":2}},\"c\":[1,2]}");
+        JsonObject patch = jsonObjectFrom("{\"b\":{\"y\":{\"z\":3}},\"d\":null}");
+
+        JsonObject patched = Json.createMergePatch(patch).apply(source).asJsonObject();
+        Assert.assertEquals(jsonObjectFrom("{\"a\":{\"x\":1},\"b\":{\"y\":{\"z\":3}},\"c\":[1,2]}"), patched);
+        Assert.assertSame(source.get("a"), patched.get("a"));
+        Assert.assertSame(source.get("c"), patched.get("c"));
+
+        // removing a missing key changes nothing
+        Assert.assertSame(source, Json.createMergePatch(jsonObjectFrom("{\"d\":null}")).apply(source));
+    }
+
 
     private JsonObject jsonObjectFrom(String val) {
         return json.createReader(new StringReader(val)).readObject();
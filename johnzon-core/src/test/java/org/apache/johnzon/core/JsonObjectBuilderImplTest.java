@@ -18,6 +18,7 @@
  */
 package org.apache.johnzon.core;
 
+import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.HashMap;
@@ -65,6 +66,30 @@ public class JsonObjectBuilderImplTest {
         assertEquals("{\"foo\":1}", built.toString());
     }
 
+    @Test
+    public void keyStrategiesOnBigObjects() { // keys are indexed past a few entries
+        for (final JsonConfig.KeyStrategy strategy : JsonConfig.KeyStrategy.values()) {
+            final JsonObjectBuilder builder = Json.createBuilderFactory(singletonMap(JsonConfig.KEY_STRATEGY, strategy)).createObjectBuilder();
+            for (int i = 0; i < 12; i++) {
+                builder.add("k" + i, i);
+            }
+            try {
+                builder.add("k3", -3).add("k11", -11);
+                Assert.assertNotEquals(JsonConfig.KeyStrategy.NONE, strategy);
+            } catch (final JsonException e) {
+                assertEquals(JsonConfig.KeyStrategy.NONE, strategy);
+                assertEquals("Rejected key: 'k3', already present", e.getMessage());
+                continue;
+            }
+            final JsonObject built = builder.build();
+            assertEquals(12, built.size());
+            assertEquals("k3", built.keySet().toArray()[3]);
+            final boolean first = strategy == JsonConfig.KeyStrategy.FIRST;
+            assertEquals(first ? 3 : -3, built.getInt("k3"));
+            assertEquals(first ? 11 : -11, built.getInt("k11"));
+        }
+    }
+
     @Test
     public void keyStrategyLast() {
         JsonObject built = Json.createBuilderFactory(singletonMap(JsonConfig.KEY_STRATEGY, JsonConfig.KeyStrategy.LAST))
@@ -178,4 +203,31 @@ public class JsonObjectBuilderImplTest {
         final JsonObjectBuilder builder = Json.createObjectBuilder();
         builder.add(null, "b");
     }
+
+    @Test
+    public void builtObjectIsTrimmedAndIndexedOnLookup() throws Exception {
+        final JsonObjectBuilder builder = Json.createObjectBuilder();
+        for (int i = 0; i < 20; i++) {
+            builder.add("k" + i, i);
+        }
+        final JsonObject object = builder.add("k3", 33).remove("k4").build();
+        assertEquals(19, ((Object[]) field("keys").get(object)).length);
+        assertEquals(19, ((Object[]) field("values").get(object)).length);
+
+        final Field index = field("index");
+        Assert.assertNull(index.get(object));
+        Assert.assertTrue(object.toString().startsWith("{\"k0\":0,\"k1\":1,\"k2\":2,\"k3\":33,\"k5\":5,"));
+        Assert.assertNull(index.get(object));
+
+        assertEquals(33, object.getInt("k3"));
+        Assert.assertNotNull(index.get(object));
+        assertEquals(19, object.getInt("k19"));
+        Assert.assertFalse(object.containsKey("k4"));
+    }
+
+    private static Field field(final String name) throws NoSuchFieldException {
+        final Field field = JsonObjectImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
 }
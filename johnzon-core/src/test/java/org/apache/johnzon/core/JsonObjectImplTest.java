@@ -24,6 +24,10 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.stream.IntStream;
 
 import jakarta.json.Json;
@@ -35,6 +39,41 @@ import jakarta.json.JsonValue;
 import org.junit.Test;
 
 public class JsonObjectImplTest {
+    @Test
+    public void flatEntries() { // around the size where lookups switch from a scan to a table
+        for (int size = 0; size < 40; size++) {
+            final JsonObjectBuilder builder = Json.createObjectBuilder();
+            final Map<String, JsonValue> expected = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                builder.add("k" + i, i);
+                expected.put("k" + i, Json.createValue(i));
+            }
+            builder.add("k0", "replaced"); // keeps its position
+            builder.remove("k1").remove("missing");
+            expected.put("k0", Json.createValue("replaced"));
+            expected.remove("k1");
+
+            final JsonObject object = builder.build();
+            assertEquals(expected, object);
+            assertEquals(object, expected);
+            assertEquals(expected.hashCode(), object.hashCode());
+            assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(object.keySet()));
+            for (final Map.Entry<String, JsonValue> entry : expected.entrySet()) {
+                assertEquals(entry.getValue(), object.get(entry.getKey()));
+                assertTrue(object.containsKey(entry.getKey()));
+            }
+            assertNull(object.get("absent"));
+            assertNull(object.get(1));
+            assertFalse(object.containsKey("k1"));
+            assertEquals(object, Json.createReader(new StringReader(object.toString())).readObject());
+
+            final JsonObject copy = Json.createObjectBuilder(object).add("extra", true).build();
+            assertEquals(object.size() + 1, copy.size());
+            assertEquals(JsonValue.TRUE, copy.get("extra"));
+            assertEquals(expected.size(), object.size()); // the built object doesn't share the builder arrays
+        }
+    }
+
     @Test
     public void reuseObjectBuilder() {
         final JsonObjectBuilder jsonObjectBuilder = Json.createObjectBuilder();
@@ -22,14 +22,19 @@ import static org.junit.Assert.assertNotNull;
 
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import jakarta.json.Json;
 import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonPatch;
 import jakarta.json.JsonReader;
 import jakarta.json.JsonValue;
 import jakarta.json.JsonWriter;
+import jakarta.json.spi.JsonProvider;
 import jakarta.json.stream.JsonGenerator;
 
 import org.junit.Assert;
@@ -457,6 +462,84 @@ public class JsonPatchDiffTest {
         containsOperation(patchOperations, JsonPatch.Operation.ADD, "/f", Json.createValue("xe"));
     }
 
+    @Test
+    public void minimalArrayDiffInsertAtHead() {
+        final JsonProviderImpl provider = new JsonProviderImpl();
+        provider.setMinimalArrayDiff(true);
+        final JsonArrayBuilder source = provider.createArrayBuilder();
+        final JsonArrayBuilder target = provider.createArrayBuilder().add("first");
+        for (int i = 0; i < 10_000; i++) {
+            source.add(provider.createObjectBuilder().add("id", i));
+            target.add(provider.createObjectBuilder().add("id", i));
+        }
+
+        final JsonArray sourceArray = source.build();
+        final JsonArray patch = provider.createDiff(sourceArray, target.build()).toJsonArray();
+        assertEquals("[{\"op\":\"add\",\"path\":\"/0\",\"value\":\"first\"}]", patch.toString());
+    }
+
+    @Test
+    public void minimalArrayDiffMoveAndCopy() {
+        final JsonProviderImpl provider = new JsonProviderImpl();
+        provider.setMinimalArrayDiff(true);
+        final JsonArray source = Json.createReader(new StringReader(
+                "[{\"a\":1},\"b\",\"c\",\"d\",{\"e\":[1]}]")).readArray();
+        final JsonArray target = Json.createReader(new StringReader(
+                "[\"b\",\"c\",\"d\",{\"a\":1},{\"e\":[1,2]},{\"a\":1}]")).readArray();
+
+        final JsonPatch patch = provider.createDiff(source, target);
+        assertEquals("[{\"op\":\"move\",\"path\":\"/3\",\"from\":\"/0\"}," +
+                "{\"op\":\"add\",\"path\":\"/4/e/1\",\"value\":2}," +
+                "{\"op\":\"copy\",\"path\":\"/5\",\"from\":\"/3\"}]", patch.toJsonArray().toString());
+        assertEquals(target, patch.apply(source));
+    }
+
+    @Test
+    public void minimalArrayDiffRoundTrip() {
+        final JsonProviderImpl provider = new JsonProviderImpl();
+        provider.setMinimalArrayDiff(true);
+        final Random random = new Random(1234);
+        for (int run = 0; run < 500; run++) {
+            final JsonArray source = randomArray(provider, random, run % 50 == 0 ? 600 : 12);
+            final JsonArrayBuilder target = provider.createArrayBuilder();
+            for (final JsonValue value : source) {
+                switch (random.nextInt(6)) {
+                    case 0: // removed
+                        break;
+                    case 1:
+                        target.add(random.nextInt(5));
+                        target.add(value);
+                        break;
+                    case 2:
+                        target.add(provider.createObjectBuilder().add("v", random.nextInt(3)));
+                        break;
+                    default:
+                        target.add(value);
+                }
+            }
+            final JsonArray targetArray = target.build();
+            final List<JsonValue> shuffled = new ArrayList<>(targetArray);
+            if (random.nextBoolean() && shuffled.size() > 1) {
+                shuffled.add(random.nextInt(shuffled.size()), shuffled.remove(random.nextInt(shuffled.size())));
+            }
+            final JsonArray expected = provider.createArrayBuilder(shuffled).build();
+
+            assertEquals(expected, provider.createDiff(source, expected).apply(source));
+        }
+    }
+
+    private static JsonArray randomArray(final JsonProvider provider, final Random random, final int size) {
+        final JsonArrayBuilder builder = provider.createArrayBuilder();
+        for (int i = 0; i < size; i++) {
+            if (random.nextBoolean()) {
+                builder.add(random.nextInt(5));
+            } else {
+                builder.add(provider.createObjectBuilder().add("v", random.nextInt(3)));
+            }
+        }
+        return builder.build();
+    }
+
     private void containsOperation(JsonArray patchOperations,
                                    JsonPatch.Operation patchOperation,
                                    String jsonPointer) {
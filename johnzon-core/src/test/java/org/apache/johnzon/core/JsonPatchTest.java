@@ -1046,6 +1046,36 @@ public class JsonPatchTest {
         assertEquals("{\"foo\":[{\"bar\":\"1\"},{\"bar\":\"3\"}]}", toJsonString(patched));
     }
 
+    @Test
+    public void testUntouchedSubtreesAreShared() {
+        final JsonObject object = Json.createObjectBuilder()
+            .add("big", Json.createArrayBuilder()
+                    .add(Json.createObjectBuilder().add("id", 1))
+                    .add(Json.createObjectBuilder().add("id", 2)))
+            .add("data", Json.createObjectBuilder()
+                    .add("left", Json.createObjectBuilder().add("v", "l"))
+                    .add("right", Json.createObjectBuilder().add("v", "r")))
+            .build();
+        final JsonPatch patch = Json.createPatchBuilder()
+            .add("/data/left/w", "added")
+            .replace("/data/left/v", "replaced")
+            .move("/data/moved", "/data/left/w")
+            .copy("/data/copy", "/data/left")
+            .remove("/big/1")
+            .test("/data/copy/v", "replaced")
+            .build();
+
+        final JsonObject patched = patch.apply(object);
+        assertEquals("{\"big\":[{\"id\":1}],\"data\":{\"left\":{\"v\":\"replaced\"},\"copy\":{\"v\":\"replaced\"}," +
+                "\"moved\":\"added\",\"right\":{\"v\":\"r\"}}}", toJsonString(patched));
+        assertSame(object.getJsonObject("data").getJsonObject("right"), patched.getJsonObject("data").getJsonObject("right"));
+        assertSame(object.getJsonArray("big").getJsonObject(0), patched.getJsonArray("big").getJsonObject(0));
+        assertEquals("{\"v\":\"l\"}", toJsonString(object.getJsonObject("data").getJsonObject("left")));
+
+        // nothing modified, nothing copied
+        assertSame(object, Json.createPatchBuilder().test("/data/right/v", "r").build().apply(object));
+    }
+
 
     private static String toJsonString(final JsonStructure value) {
         return value.toString();
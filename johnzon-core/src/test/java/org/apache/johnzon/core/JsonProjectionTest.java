@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import jakarta.json.JsonPointer;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class JsonProjectionTest {
+    private static final String JSON = "{\n" +
+            "  \"skipped\": {\"s\": \"a \\\" ] } [ {\", \"n\": [1, [2, {\"x\": \"\\\\\"}]]},\n" +
+            "  \"id\": 42,\n" +
+            "  \"a/b\": \"slash\",\n" +
+            "  \"items\": [\n" +
+            "    {\"name\": \"first\", \"tags\": [\"t1\"]},\n" +
+            "    {\"name\": \"second\", \"tags\": [\"t2\", \"t3\"]},\n" +
+            "    {\"name\": \"third\"}\n" +
+            "  ],\n" +
+            "  \"nested\": {\"deep\": {\"value\": true, \"other\": null}},\n" +
+            "  \"scalar\": 1,\n" +
+            "  \"last\": \"é\"\n" +
+            "}";
+
+    private final JsonProviderImpl provider = new JsonProviderImpl();
+
+    @Test
+    public void extract() {
+        final Set<JsonPointer> pointers = pointers("/id", "/a~1b", "/items/1/name", "/items/1/tags", "/items/1/tags/0",
+                "/nested/deep/value", "/scalar/x", "/missing", "/items/01", "/last");
+        for (final Function<String, JsonParser> parsers : parsers()) {
+            final Map<String, JsonValue> values = new JsonProjection(provider, pointers).extract(parsers.apply(JSON));
+            assertEquals(asList("/id", "/a~1b", "/items/1/name", "/items/1/tags", "/items/1/tags/0", "/nested/deep/value", "/last"),
+                    new ArrayList<>(values.keySet()));
+            assertEquals(42, ((jakarta.json.JsonNumber) values.get("/id")).intValue());
+            assertEquals(provider.createValue("slash"), values.get("/a~1b"));
+            assertEquals(provider.createValue("second"), values.get("/items/1/name"));
+            assertEquals(provider.createArrayBuilder().add("t2").add("t3").build(), values.get("/items/1/tags"));
+            assertEquals(provider.createValue("t2"), values.get("/items/1/tags/0"));
+            assertEquals(JsonValue.TRUE, values.get("/nested/deep/value"));
+            assertEquals(provider.createValue("é"), values.get("/last"));
+        }
+    }
+
+    @Test
+    public void events() {
+        final JsonProjection projection = new JsonProjection(provider, pointers("/skipped/n/1", "/id"));
+        for (final Function<String, JsonParser> parsers : parsers()) {
+            final List<String> events = new ArrayList<>();
+            try (final JsonProjection.ProjectedParser parser = projection.project(parsers.apply(JSON))) {
+                while (parser.hasNext()) {
+                    final JsonParser.Event event = parser.next();
+                    events.add(event + (event == JsonParser.Event.START_ARRAY ? "@" + provider.createPointer("/skipped/n/1").equals(parser.getPointer()) : ""));
+                }
+            }
+            assertEquals(asList(
+                    "START_ARRAY@true", "VALUE_NUMBER", "START_OBJECT", "KEY_NAME", "VALUE_STRING", "END_OBJECT", "END_ARRAY",
+                    "VALUE_NUMBER"), events);
+        }
+    }
+
+    @Test
+    public void stopsWhenEverythingIsRead() {
+        // the rest of the document is only scanned for its nesting so its invalid values are not seen
+        final String json = "{\"a\": {\"b\": 1, \"c\": 2}, \"d\": [1 2 tru]}";
+        for (final Function<String, JsonParser> parsers : parsers()) {
+            final Map<String, JsonValue> values = new JsonProjection(provider, pointers("/a/b")).extract(parsers.apply(json));
+            assertEquals(1, values.size());
+            assertEquals(1, ((jakarta.json.JsonNumber) values.get("/a/b")).intValue());
+        }
+    }
+
+    @Test
+    public void arrayInObject() {
+        final String json = "{\"a\":[1,{\"x\":1}],\"b\":2}";
+        final JsonParserFactoryImpl comments = (JsonParserFactoryImpl) provider.createParserFactory(
+                Map.of(JsonParserFactoryImpl.SUPPORTS_COMMENTS, true));
+        final List<Function<String, JsonParser>> parsers = new ArrayList<>(parsers());
+        parsers.add(comments::createParser);
+        parsers.add(s -> comments.createParser(new StringReader(s)));
+        parsers.add(s -> provider.createParserFactory(emptyMap()).createParser(provider.createReader(new StringReader(s)).readObject()));
+        for (final Function<String, JsonParser> parser : parsers) {
+            // "a" is skipped from its start then after its first element
+            for (final Set<JsonPointer> pointers : asList(pointers("/b"), pointers("/a/0", "/b"))) {
+                final Map<String, JsonValue> values = new JsonProjection(provider, pointers).extract(parser.apply(json));
+                assertEquals(provider.createValue(2), values.get("/b"));
+                assertEquals(pointers.size(), values.size());
+            }
+        }
+    }
+
+    @Test
+    public void root() {
+        final Map<String, JsonValue> values = new JsonProjection(provider, pointers("", "/0")).extract(provider.createParser(new StringReader("[1,2]")));
+        assertEquals(provider.createArrayBuilder().add(1).add(2).build(), values.get(""));
+        assertEquals(provider.createValue(1), values.get("/0"));
+    }
+
+    @Test
+    public void smallBuffers() {
+        final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) provider.createParserFactory(
+                Map.of(JsonParserFactoryImpl.BUFFER_LENGTH, 8));
+        for (final JsonParser parser : asList(
+                factory.createParser(new StringReader(JSON)),
+                factory.createParser(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8))))) {
+            final JsonProjection.ProjectedParser projected = new JsonProjection(provider, pointers("/nested/deep/value", "/last")).project(parser);
+            assertEquals(JsonParser.Event.VALUE_TRUE, projected.next());
+            assertEquals(10, projected.getLocation().getLineNumber());
+            assertEquals(JsonParser.Event.VALUE_STRING, projected.next());
+            assertEquals("é", projected.getString());
+            assertFalse(projected.hasNext());
+        }
+    }
+
+    @Test
+    public void reader() {
+        final Map<String, JsonValue> values = ((JsonReaderImpl) provider.createReader(new StringReader(JSON))).extract(pointers("/items/2/name"));
+        assertEquals(provider.createValue("third"), values.get("/items/2/name"));
+    }
+
+    private List<Function<String, JsonParser>> parsers() {
+        final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) provider.createParserFactory(emptyMap());
+        return asList(
+                factory::createParser,
+                json -> factory.createParser(json.getBytes(StandardCharsets.UTF_8)),
+                json -> factory.createParser(new StringReader(json)),
+                json -> factory.createParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private Set<JsonPointer> pointers(final String... pointers) {
+        final Set<JsonPointer> set = new HashSet<>();
+        for (final String pointer : pointers) {
+            set.add(provider.createPointer(pointer));
+        }
+        return set;
+    }
+}
@@ -37,6 +37,9 @@ import java.util.Map;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class JsonStreamParserImplTest {
@@ -136,6 +139,212 @@ public class JsonStreamParserImplTest {
         assertTrue(TrackingBufferStrategy.TrackingBufferProvider.borrowed.isEmpty());
     }
 
+    @Test
+    public void inMemoryChars() {
+        final char[] chars = "--{\"a\":\"b\",\"c\":[1,-2.5]}--".toCharArray();
+        final BufferStrategy.BufferProvider<char[]> noBuffer = new BufferStrategy.BufferProvider<char[]>() {
+            @Override
+            public char[] newBuffer() {
+                throw new IllegalStateException("unescaped in memory values must be read in place");
+            }
+
+            @Override
+            public void release(final char[] value) {
+                throw new IllegalStateException("nothing borrowed");
+            }
+        };
+
+        final JsonParser parser = new JsonStreamParserImpl(chars, 2, chars.length - 4, 10, noBuffer, true,
+                (JsonProviderImpl) JsonProviderImpl.provider());
+        final List<String> events = new ArrayList<>();
+        while (parser.hasNext()) {
+            final JsonParser.Event event = parser.next();
+            events.add(event.name());
+            if (event == JsonParser.Event.KEY_NAME || event == JsonParser.Event.VALUE_STRING || event == JsonParser.Event.VALUE_NUMBER) {
+                events.add(parser.getString());
+            }
+        }
+        assertEquals(22, parser.getLocation().getStreamOffset());
+        parser.close();
+        assertEquals(
+                asList("START_OBJECT", "KEY_NAME", "a", "VALUE_STRING", "b", "KEY_NAME", "c",
+                        "START_ARRAY", "VALUE_NUMBER", "1", "VALUE_NUMBER", "-2.5", "END_ARRAY", "END_OBJECT"),
+                events);
+    }
+
+    @Test
+    public void inMemoryEscapedString() {
+        final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) JsonProvider.provider().createParserFactory(Map.of(
+                JsonParserFactoryImpl.BUFFER_STRATEGY, TrackingBufferStrategy.class.getName()));
+
+        final JsonParser parser = factory.createParser("{\"data\":\"a\\\"b\\u00e9\"}");
+        assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+        assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+        assertEquals(JsonParser.Event.VALUE_STRING, parser.next());
+        assertEquals("a\"bé", parser.getString());
+        assertEquals(JsonParser.Event.END_OBJECT, parser.next());
+        parser.close();
+
+        assertTrue(TrackingBufferStrategy.TrackingBufferProvider.borrowed.isEmpty());
+    }
+
+    @Test
+    public void rawValue() {
+        final String nested = "{ \"a\" : [1, 2.50, \"x\\\"]}\" ],\n  \"b\":{\"é\":\"\\u00e9 ✓\"} }";
+        final String json = "[" + nested + ", [ ], 1e3, \"s\\u0041\", true]";
+        for (final boolean comments : new boolean[]{false, true}) {
+            for (final int bufferLength : new int[]{1, 2, 5, 1024}) {
+                final Map<String, Object> config = new java.util.HashMap<>();
+                config.put(JsonParserFactoryImpl.BUFFER_LENGTH, bufferLength);
+                config.put(JsonParserFactoryImpl.SUPPORTS_COMMENTS, comments);
+                final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) JsonProvider.provider().createParserFactory(config);
+                final List<JsonParser> parsers = asList(
+                        factory.createParser(new StringReader(json)), factory.createParser(json),
+                        factory.createParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))),
+                        factory.createParser(json.getBytes(StandardCharsets.UTF_8)));
+                for (final JsonParser parser : parsers) {
+                    final JohnzonJsonParser johnzon = (JohnzonJsonParser) parser;
+                    final String message = comments + "/" + bufferLength + "/" + parser.getClass().getSimpleName();
+                    assertEquals(JsonParser.Event.START_ARRAY, parser.next());
+                    assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+                    assertEquals(message, nested, johnzon.getRawValue());
+                    assertEquals(JsonParser.Event.START_ARRAY, parser.next());
+                    assertEquals(message, "[ ]", johnzon.getRawValue());
+                    assertEquals(JsonParser.Event.VALUE_NUMBER, parser.next());
+                    assertEquals(message, "1e3", johnzon.getRawValue()); // not normalized (1E+3)
+                    assertEquals(JsonParser.Event.VALUE_STRING, parser.next());
+                    assertEquals("\"sA\"", johnzon.getRawValue()); // scalars are serialized again
+                    assertEquals(JsonParser.Event.VALUE_TRUE, parser.next());
+                    assertEquals("true", johnzon.getRawValue());
+                    assertEquals(JsonParser.Event.END_ARRAY, parser.next());
+                    parser.close();
+                }
+            }
+        }
+
+        final JohnzonJsonParser inMemory = (JohnzonJsonParser) Json.createParserFactory(emptyMap())
+                .createParser(Json.createObjectBuilder().add("a", Json.createArrayBuilder().add(1)).build());
+        assertEquals(JsonParser.Event.START_OBJECT, inMemory.next());
+        assertEquals("{\"a\":[1]}", inMemory.getRawValue());
+    }
+
+    @Test
+    public void rawValueOfArrayInObject() {
+        final String json = "{\"a\":[1,{\"x\":1}],\"b\":2}";
+        for (final boolean comments : new boolean[]{false, true}) {
+            final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) JsonProvider.provider()
+                    .createParserFactory(Map.of(JsonParserFactoryImpl.SUPPORTS_COMMENTS, comments));
+            for (final JsonParser parser : asList(
+                    factory.createParser(new StringReader(json)), factory.createParser(json),
+                    factory.createParser(Json.createReader(new StringReader(json)).readObject()))) {
+                final JohnzonJsonParser johnzon = (JohnzonJsonParser) parser;
+                final String message = comments + "/" + parser.getClass().getSimpleName();
+                assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+                assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+                assertEquals(JsonParser.Event.START_ARRAY, parser.next());
+                assertEquals(message, "[1,{\"x\":1}]", johnzon.getRawValue());
+                assertEquals(message, JsonParser.Event.KEY_NAME, parser.next());
+                assertEquals(message, "b", parser.getString());
+                assertEquals(JsonParser.Event.VALUE_NUMBER, parser.next());
+                assertEquals(JsonParser.Event.END_OBJECT, parser.next());
+                parser.close();
+            }
+        }
+    }
+
+    @Test
+    public void reset() {
+        final Map<String, Object> config = new java.util.HashMap<>();
+        config.put(JsonParserFactoryImpl.BUFFER_LENGTH, 4);
+        config.put(JsonParserFactoryImpl.BUFFER_STRATEGY, TrackingBufferStrategy.class.getName());
+        final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) JsonProvider.provider().createParserFactory(config);
+
+        final String first = "{\"a\":[1,{\"b\":\"long enough value\\n\"}]}";
+        final String second = "[\"x\", 12]";
+        final JohnzonJsonParser parser = (JohnzonJsonParser) factory.createParser(new StringReader(first));
+        assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+        assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+        assertEquals(JsonParser.Event.START_ARRAY, parser.next()); // stopped in the middle of the document
+
+        parser.reset(new StringReader(second));
+        assertEquals(asList("START_ARRAY", "VALUE_STRING:x", "VALUE_NUMBER:12", "END_ARRAY"), events(parser));
+        parser.close();
+        assertTrue(TrackingBufferStrategy.TrackingBufferProvider.borrowed.isEmpty());
+
+        parser.reset(new StringReader(first)); // closed parsers can be reused
+        assertEquals(asList("START_OBJECT", "KEY_NAME:a", "START_ARRAY", "VALUE_NUMBER:1", "START_OBJECT",
+                "KEY_NAME:b", "VALUE_STRING:long enough value\n", "END_OBJECT", "END_ARRAY", "END_OBJECT"), events(parser));
+        parser.close();
+        assertTrue(TrackingBufferStrategy.TrackingBufferProvider.borrowed.isEmpty());
+
+        final JohnzonJsonParser utf8 = (JohnzonJsonParser) factory.createParser(new ByteArrayInputStream(first.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(JsonUtf8StreamParserImpl.class, utf8.getClass());
+        assertEquals(JsonParser.Event.START_OBJECT, utf8.next());
+        utf8.reset(new ByteArrayInputStream(second.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(asList("START_ARRAY", "VALUE_STRING:x", "VALUE_NUMBER:12", "END_ARRAY"), events(utf8));
+        utf8.close();
+        utf8.reset(new ByteArrayInputStream(second.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(asList("START_ARRAY", "VALUE_STRING:x", "VALUE_NUMBER:12", "END_ARRAY"), events(utf8));
+        utf8.close();
+
+        try {
+            ((JohnzonJsonParser) factory.createParser(second.toCharArray(), 0, second.length())).reset(new StringReader(first));
+            org.junit.Assert.fail("in memory documents can't be reset");
+        } catch (final UnsupportedOperationException expected) {
+            // ok
+        }
+    }
+
+    private static List<String> events(final JsonParser parser) {
+        final List<String> events = new ArrayList<>();
+        while (parser.hasNext()) {
+            final JsonParser.Event event = parser.next();
+            switch (event) {
+                case KEY_NAME:
+                case VALUE_STRING:
+                case VALUE_NUMBER:
+                    events.add(event + ":" + parser.getString());
+                    break;
+                default:
+                    events.add(event.name());
+            }
+        }
+        return events;
+    }
+
+    @Test
+    public void longCharSequencesAreStreamed() {
+        final Map<String, Object> config = new java.util.HashMap<>();
+        config.put(JsonParserFactoryImpl.BUFFER_LENGTH, 16);
+        config.put(JsonParserFactoryImpl.BUFFER_STRATEGY, TrackingBufferStrategy.class.getName());
+        final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) JsonProvider.provider().createParserFactory(config);
+
+        final String small = "[\"a\",1]";
+        final JohnzonJsonParserImpl inMemory = (JohnzonJsonParserImpl) factory.createParser(small);
+        assertNotNull(inMemory.inMemoryChars()); // not bigger than the buffer a Reader would use
+        assertEquals(asList("START_ARRAY", "VALUE_STRING:a", "VALUE_NUMBER:1", "END_ARRAY"), events(inMemory));
+        inMemory.close();
+
+        final String big = "{\"a\":[1,{\"b\":\"long enough value\\n\"}],\"c\":\"é\"}";
+        final JsonParser reference = factory.createParser(new StringReader(big));
+        final List<String> expected = events(reference);
+        reference.close();
+        for (final CharSequence chars : asList(big, new StringBuilder(big))) {
+            final JohnzonJsonParserImpl parser = (JohnzonJsonParserImpl) factory.createParser(chars);
+            assertNull(parser.inMemoryChars()); // no copy of the whole document, it goes through the pooled buffer
+            assertEquals(expected, events(parser));
+            parser.close();
+        }
+        assertTrue(TrackingBufferStrategy.TrackingBufferProvider.borrowed.isEmpty());
+
+        // lazy values need the whole document
+        config.put(JsonReaderImpl.LAZY_VALUES, true);
+        final JohnzonJsonReaderFactory readerFactory = (JohnzonJsonReaderFactory) JsonProvider.provider().createReaderFactory(config);
+        try (final JsonReader reader = readerFactory.createReader(big)) {
+            assertNotEquals(JsonObjectImpl.class, reader.readObject().getClass());
+        }
+    }
+
     public static class TrackingBufferStrategy implements BufferStrategy {
         private final BufferStrategy delegate = BufferStrategyFactory.valueOf("BY_INSTANCE");
 
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParsingException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonTapeTest {
+    private static final String JSON = "{\n" +
+            "  \"id\": 12,\n" +
+            "  \"name\": \"johnzon\",\n" +
+            "  \"escaped\": \"a\\\"b\\u00e9\\n\",\n" +
+            "  \"unicode\": \"é✓\",\n" +
+            "  \"\\u0063omment\": \"escaped key\",\n" +
+            "  \"decimal\": -1.25e2,\n" +
+            "  \"flags\": [true, false, null],\n" +
+            "  \"nested\": {\"a\": [1, {\"b\": \"c\"}, []], \"e\": {}},\n" +
+            "  \"dup\": 1,\n" +
+            "  \"dup\": 2,\n" +
+            "  \"last\": \"\"\n" +
+            "}";
+
+    @Test
+    public void lazyObject() {
+        for (final Function<JsonReaderFactoryImpl, JsonReader> readers : asList(
+                (Function<JsonReaderFactoryImpl, JsonReader>) f -> f.createReader(JSON),
+                f -> f.createReader(JSON.getBytes(StandardCharsets.UTF_8)))) {
+            final JsonObject object = readers.apply(lazyFactory(false)).readObject();
+            assertEquals("TapeObject", object.getClass().getSimpleName());
+            assertEquals(12, object.getInt("id"));
+            assertEquals("johnzon", object.getString("name"));
+            assertEquals("a\"bé\n", object.getString("escaped"));
+            assertEquals("é✓", object.getString("unicode"));
+            assertEquals("escaped key", object.getString("comment"));
+            assertEquals(new BigDecimal("-1.25e2"), object.getJsonNumber("decimal").bigDecimalValue());
+            assertTrue(object.getJsonArray("flags").getBoolean(0));
+            assertFalse(object.getJsonArray("flags").getBoolean(1));
+            assertTrue(object.getJsonArray("flags").isNull(2));
+            assertEquals("c", object.getJsonObject("nested").getJsonArray("a").getJsonObject(1).getString("b"));
+            assertTrue(object.getJsonObject("nested").getJsonArray("a").getJsonArray(2).isEmpty());
+            assertTrue(object.getJsonObject("nested").getJsonObject("e").isEmpty());
+            assertEquals(2, object.getInt("dup"));
+            assertEquals("", object.getString("last"));
+            assertNull(object.get("missing"));
+            assertFalse(object.containsKey("missing"));
+            assertEquals(10, object.size());
+
+            final JsonObject eager = eager(JSON);
+            assertEquals(eager, object);
+            assertEquals(object, eager);
+            assertEquals(eager.hashCode(), object.hashCode());
+            assertEquals(eager.toString(), object.toString());
+            assertEquals(eager.keySet(), object.keySet());
+        }
+    }
+
+    @Test
+    public void lazyArray() {
+        final JsonArray array = lazyFactory(false).createReader("[1, 2.5, \"s\", [3], {\"k\": 4}]").readArray();
+        assertEquals(5, array.size());
+        assertEquals(4, array.getJsonObject(4).getInt("k"));
+        assertEquals(3, array.getJsonArray(3).getInt(0));
+        assertEquals("s", array.getString(2));
+        assertEquals("d", array.getString(10, "d"));
+        assertEquals(eager("{\"a\":[1, 2.5, \"s\", [3], {\"k\": 4}]}").getJsonArray("a"), array);
+        assertEquals("[1,2.5,\"s\",[3],{\"k\":4}]", array.toString());
+    }
+
+    @Test
+    public void cachedChildren() throws Exception {
+        final JsonObject object = lazyFactory(false).createReader(JSON).readObject();
+        assertSame(object.get("nested"), object.get("nested"));
+        assertSame(object.get("dup"), object.entrySet().stream().filter(e -> e.getKey().equals("dup")).findFirst().get().getValue());
+
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"i\":").append(i).append('}');
+        }
+        final JsonArray array = lazyFactory(false).createReader(json.append(']').toString()).readArray();
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<List<JsonValue>>> reads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                reads.add(pool.submit(() -> {
+                    final List<JsonValue> values = new ArrayList<>();
+                    for (int i = 0; i < array.size(); i++) {
+                        values.add(array.getJsonObject(i).get("i"));
+                    }
+                    return values;
+                }));
+            }
+            final List<JsonValue> first = reads.get(0).get();
+            for (final Future<List<JsonValue>> read : reads) {
+                final List<JsonValue> values = read.get();
+                for (int i = 0; i < values.size(); i++) {
+                    assertSame(first.get(i), values.get(i));
+                    assertEquals(i, JsonNumber.class.cast(values.get(i)).intValue());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void doubleNumbers() {
+        final JsonArray array = lazyFactory(true).createReader("[0.1, 12345678901234567890]").readArray();
+        assertEquals(JsonDoubleImpl.class, array.get(0).getClass());
+        assertEquals(0.1, array.getJsonNumber(0).doubleValue(), 0.);
+        assertEquals(new BigDecimal("12345678901234567890"), array.getJsonNumber(1).bigDecimalValue());
+    }
+
+    @Test
+    public void serialization() throws Exception {
+        final JsonObject object = lazyFactory(false).createReader(JSON).readObject();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(object);
+        }
+        try (final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(object, ois.readObject());
+        }
+    }
+
+    @Test
+    public void eagerFallbacks() {
+        // streams are not kept in memory
+        assertEquals(JsonObjectImpl.class, lazyFactory(false).createReader(new StringReader("{\"a\":1}")).readObject().getClass());
+
+        final Map<String, Object> config = new HashMap<>();
+        config.put(JsonReaderImpl.LAZY_VALUES, true);
+        config.put("johnzon.rejectDuplicateKeys", true);
+        final JsonReaderFactoryImpl factory = (JsonReaderFactoryImpl) new JsonProviderImpl().createReaderFactory(config);
+        assertEquals(JsonObjectImpl.class, factory.createReader("{\"a\":1}").readObject().getClass());
+    }
+
+    @Test
+    public void invalid() {
+        for (final String json : asList("{\"a\":}", "[1,]", "[1] 2", "{\"a\" 1}")) {
+            try {
+                lazyFactory(false).createReader(json).read();
+                fail(json);
+            } catch (final JsonParsingException jpe) {
+                // ok
+            }
+        }
+    }
+
+    private static JsonReaderFactoryImpl lazyFactory(final boolean doubleNumbers) {
+        final Map<String, Object> config = new HashMap<>();
+        config.put(JsonReaderImpl.LAZY_VALUES, true);
+        config.put(JsonReaderImpl.DOUBLE_NUMBERS, doubleNumbers);
+        return (JsonReaderFactoryImpl) new JsonProviderImpl().createReaderFactory(config);
+    }
+
+    private static JsonObject eager(final String json) {
+        try (final JsonReader reader = new JsonProviderImpl().createReaderFactory(emptyMap()).createReader(new StringReader(json))) {
+            return reader.readObject();
+        }
+    }
+}
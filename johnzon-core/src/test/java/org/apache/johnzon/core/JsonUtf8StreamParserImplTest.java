@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParsingException;
+import jakarta.json.JsonReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonUtf8StreamParserImplTest {
+    private static final String JSON = "{\"clé\":\"値😀ü\",\"ascii\":\"plain value\",\"escaped\":\"a\\u00e9\\ud83d\\ude00\\n\\\"x\\\\\"," +
+            "\"numbers\":[0,-1,1.5,-2.5e3,12345678901234,123456789012345678901234567890],\"literals\":[true,false,null]," +
+            "\"nested\":{\"€\":[{}]}}";
+
+    @Test
+    public void sameEventsThanCharParserWhateverTheBufferLength() {
+        final List<String> expected = dump(factory(1024).createParser(new StringReader(JSON)));
+        for (int bufferLength = 1; bufferLength < 40; bufferLength++) {
+            final JsonParser parser = factory(bufferLength).createParser(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)));
+            assertTrue(JsonUtf8StreamParserImpl.class.isInstance(parser));
+            assertEquals("buffer length = " + bufferLength, expected, dump(parser));
+        }
+    }
+
+    @Test
+    public void inMemoryInputs() {
+        final List<String> expected = dump(factory(1024).createParser(new StringReader(JSON)));
+        final byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        final JsonParserFactoryImpl factory = factory(1024);
+
+        assertEquals(expected, dump(factory.createParser(bytes)));
+
+        final byte[] padded = new byte[bytes.length + 10];
+        System.arraycopy(bytes, 0, padded, 5, bytes.length);
+        assertEquals(expected, dump(factory.createParser(padded, 5, bytes.length)));
+        assertEquals(expected, dump(factory.createParser(ByteBuffer.wrap(padded, 5, bytes.length).slice())));
+
+        final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals(expected, dump(factory.createParser(direct)));
+        assertEquals(0, direct.position());
+    }
+
+    @Test
+    public void bom() {
+        final byte[] json = "{\"a\":\"é\"}".getBytes(StandardCharsets.UTF_8);
+        final byte[] bytes = new byte[json.length + 3];
+        bytes[0] = (byte) 0xEF;
+        bytes[1] = (byte) 0xBB;
+        bytes[2] = (byte) 0xBF;
+        System.arraycopy(json, 0, bytes, 3, json.length);
+
+        final List<String> expected = dump(factory(1024).createParser(new ByteArrayInputStream(json)));
+        assertEquals(expected, dump(factory(1024).createParser(new ByteArrayInputStream(bytes))));
+        assertEquals(expected, dump(factory(1024).createParser(bytes)));
+    }
+
+    @Test
+    public void utf16FallsBackOnCharParser() {
+        final byte[] bytes = "[\"é\"]".getBytes(StandardCharsets.UTF_16LE);
+        final JsonParser parser = factory(1024).createParser(new ByteArrayInputStream(bytes));
+        assertTrue(JsonStreamParserImpl.class.isInstance(parser));
+        assertEquals(JsonParser.Event.START_ARRAY, parser.next());
+        assertEquals(JsonParser.Event.VALUE_STRING, parser.next());
+        assertEquals("é", parser.getString());
+        parser.close();
+
+        final JsonParser fromBytes = factory(1024).createParser(bytes);
+        assertEquals(JsonParser.Event.START_ARRAY, fromBytes.next());
+        assertEquals(JsonParser.Event.VALUE_STRING, fromBytes.next());
+        assertEquals("é", fromBytes.getString());
+        fromBytes.close();
+    }
+
+    @Test
+    public void locationIsInBytes() {
+        final JsonParser parser = factory(1024).createParser("{\"é\":\n1}".getBytes(StandardCharsets.UTF_8));
+        assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+        assertEquals(1, parser.getLocation().getStreamOffset());
+        assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+        assertEquals(5, parser.getLocation().getStreamOffset());
+        assertEquals(JsonParser.Event.VALUE_NUMBER, parser.next());
+        assertEquals(2, parser.getLocation().getLineNumber());
+        assertEquals(2, parser.getLocation().getColumnNumber());
+        assertEquals(8, parser.getLocation().getStreamOffset());
+        parser.close();
+    }
+
+    @Test
+    public void malformedInput() {
+        final byte[] bytes = new byte[]{'[', '"', (byte) 0xC3, '(', '"', ']'};
+
+        final JsonParser strict = factory(1024).createParser(new ByteArrayInputStream(bytes));
+        assertEquals(JsonParser.Event.START_ARRAY, strict.next());
+        try {
+            strict.next(); // detected while scanning, not only when decoding
+            fail();
+        } catch (final JsonParsingException jpe) {
+            assertEquals(4, jpe.getLocation().getStreamOffset()); // as other errors, after the offending byte
+        }
+        strict.close();
+
+        final JsonParser lenient = factory(1024).createParser(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+        assertEquals(JsonParser.Event.START_ARRAY, lenient.next());
+        assertEquals(JsonParser.Event.VALUE_STRING, lenient.next());
+        assertEquals("�(", lenient.getString());
+        lenient.close();
+    }
+
+    @Test
+    public void malformedInputIsRejectedWithoutReadingValues() {
+        final List<String> invalid = asList(
+                "[\"\u00C3(\"]", // missing continuation byte
+                "[\"a\u00C3\"]", // truncated at the end of the string
+                "[\"\u0080\"]", // continuation byte without lead
+                "[\"\u00C0\u00AF\"]", // overlong
+                "[\"\u00ED\u00A0\u0080\"]", // surrogate
+                "[\"\u00F4\u0090\u0080\u0080\"]", // over U+10FFFF
+                "{\"a\u00FF\":1}", // key
+                "[{\"a\":[\"ok\",\"\u00E9\u00C3\"]},1]"); // skipped without being tokenized
+        for (int bufferLength = 1; bufferLength < 16; bufferLength += 7) {
+            for (final String json : invalid) {
+                final byte[] bytes = json.getBytes(StandardCharsets.ISO_8859_1); // the chars are the raw bytes
+                final JsonParserFactoryImpl factory = factory(bufferLength);
+                for (final JsonParser parser : asList(factory.createParser(new ByteArrayInputStream(bytes)), factory.createParser(bytes))) {
+                    try {
+                        while (parser.hasNext()) {
+                            if (parser.next() == JsonParser.Event.START_OBJECT && json.startsWith("[{")) {
+                                ((JohnzonJsonParserImpl) parser).skipStructureRaw(false);
+                            }
+                        }
+                        fail(json);
+                    } catch (final JsonParsingException jpe) {
+                        assertTrue(json + " -> " + jpe.getMessage(), jpe.getMessage().startsWith("Invalid UTF-8 sequence"));
+                    } finally {
+                        parser.close();
+                    }
+                }
+
+                // lenient when the charset is given
+                final JsonParser lenient = factory.createParser(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+                while (lenient.hasNext()) {
+                    lenient.next();
+                }
+                lenient.close();
+            }
+        }
+
+        final JsonParser valid = factory(1).createParser(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)));
+        while (valid.hasNext()) {
+            if (valid.next() == JsonParser.Event.START_OBJECT) {
+                ((JohnzonJsonParserImpl) valid).skipStructureRaw(false);
+            }
+        }
+        valid.close();
+    }
+
+    @Test
+    public void maxStringLengthIsInChars() {
+        final Map<String, Object> config = new HashMap<>();
+        config.put(JsonParserFactoryImpl.MAX_STRING_LENGTH, 3);
+        final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) new JsonProviderImpl().createParserFactory(config);
+
+        final JsonParser parser = factory.createParser("[\"ééé\"]".getBytes(StandardCharsets.UTF_8));
+        parser.next();
+        parser.next();
+        assertEquals("ééé", parser.getString());
+        parser.close();
+
+        final JsonParser tooLong = factory.createParser("[\"éééé\"]".getBytes(StandardCharsets.UTF_8));
+        tooLong.next();
+        try {
+            tooLong.next();
+            fail();
+        } catch (final JsonParsingException jpe) {
+            // ok
+        }
+        tooLong.close();
+    }
+
+    @Test
+    public void mappedFile() throws IOException {
+        final List<String> expected = dump(factory(1024).createParser(new StringReader(JSON)));
+        final byte[] json = JSON.getBytes(StandardCharsets.UTF_8);
+        final byte[] withBom = new byte[json.length + 3];
+        withBom[0] = (byte) 0xEF;
+        withBom[1] = (byte) 0xBB;
+        withBom[2] = (byte) 0xBF;
+        System.arraycopy(json, 0, withBom, 3, json.length);
+
+        final Path file = Files.createTempFile("johnzon-mapped", ".json");
+        try {
+            for (int window = 1; window < 20; window++) {
+                final Map<String, Object> config = new HashMap<>();
+                config.put(JsonParserFactoryImpl.BUFFER_LENGTH, 16);
+                config.put(JsonParserFactoryImpl.MAPPED_WINDOW_LENGTH, window);
+                final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) new JsonProviderImpl().createParserFactory(config);
+
+                Files.write(file, json);
+                assertEquals("window = " + window, expected, dump(factory.createParser(file)));
+
+                Files.write(file, withBom);
+                assertEquals("window = " + window, expected, dump(factory.createParser(file)));
+            }
+
+            // offsets are the file ones
+            final JsonParser parser = factory(1024).createParser(file);
+            assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+            assertEquals(4, parser.getLocation().getStreamOffset());
+            assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+            assertEquals(10, parser.getLocation().getStreamOffset());
+            parser.close();
+
+            Files.write(file, "[\"é\"]".getBytes(StandardCharsets.UTF_16BE));
+            try (final JsonReader reader = ((JsonReaderFactoryImpl) new JsonProviderImpl().createReaderFactory(emptyMap())).createReader(file)) {
+                assertEquals("é", reader.readArray().getString(0));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static JsonParserFactoryImpl factory(final int bufferLength) {
+        final Map<String, Object> config = new HashMap<>();
+        config.put(JsonParserFactoryImpl.BUFFER_LENGTH, bufferLength);
+        config.put(JsonParserFactoryImpl.MAX_STRING_LENGTH, 64);
+        return (JsonParserFactoryImpl) new JsonProviderImpl().createParserFactory(config);
+    }
+
+    private static List<String> dump(final JsonParser parser) {
+        final List<String> events = new ArrayList<>();
+        while (parser.hasNext()) {
+            final JsonParser.Event event = parser.next();
+            switch (event) {
+                case KEY_NAME:
+                case VALUE_STRING:
+                    events.add(event + ":" + parser.getString());
+                    break;
+                case VALUE_NUMBER:
+                    events.add(event + ":" + parser.getBigDecimal() + ":" + parser.isIntegralNumber()
+                            + (parser.isIntegralNumber() ? ":" + parser.getLong() + ":" + parser.getInt() : ""));
+                    break;
+                default:
+                    events.add(event.name());
+            }
+        }
+        parser.close();
+        return events;
+    }
+}
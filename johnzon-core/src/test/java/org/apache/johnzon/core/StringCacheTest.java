@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import jakarta.json.stream.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class StringCacheTest {
+    private static final String JSON = "{\"name\":\"short\",\"na\\u006de\":\"short\",\"clé\":\"long value\",\"\":\"\",\"n\":1}";
+
+    @Test
+    public void disabledByDefault() {
+        assertNull(((JsonParserFactoryImpl) new JsonProviderImpl().createParserFactory(emptyMap())).getStringCache());
+    }
+
+    @Test
+    public void charParser() {
+        assertCanonical(f -> f.createParser(new StringReader(JSON)));
+    }
+
+    @Test
+    public void inMemoryCharParser() {
+        assertCanonical(f -> f.createParser(JSON));
+    }
+
+    @Test
+    public void byteParser() {
+        assertCanonical(f -> f.createParser(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void smallBuffer() {
+        final JsonParserFactoryImpl factory = factory(64, 0, 1);
+        final List<String> first = strings(factory.createParser(new StringReader(JSON)));
+        final List<String> second = strings(factory.createParser(new StringReader(JSON)));
+        assertEquals(asList("name", "short", "name", "short", "clé", "long value", "", "", "n", "1"), second);
+        assertSame(first.get(0), second.get(0));
+    }
+
+    @Test
+    public void collisions() {
+        final JsonParserFactoryImpl factory = factory(1, 0, 1024); // a single slot
+        for (int i = 0; i < 3; i++) {
+            assertEquals(asList("a", "1", "b", "2", "a", "3"), strings(factory.createParser("{\"a\":1,\"b\":2,\"a\":3}")));
+        }
+        // only the first key of the next document finds the last key of the previous one
+        assertEquals(2, factory.getStringCache().getHits());
+        assertEquals(7, factory.getStringCache().getMisses());
+    }
+
+    private void assertCanonical(final Function<JsonParserFactoryImpl, JsonParser> parserFactory) {
+        final JsonParserFactoryImpl factory = factory(64, 5, 1024);
+
+        final List<String> first = strings(parserFactory.apply(factory));
+        assertEquals(asList("name", "short", "name", "short", "clé", "long value", "", "", "n", "1"), first);
+        assertSame(first.get(0), first.get(2)); // escaped keys are cached too
+        assertSame(first.get(1), first.get(3)); // short value
+
+        final List<String> second = strings(parserFactory.apply(factory));
+        assertEquals(first, second);
+        assertSame(first.get(0), second.get(0));
+        assertSame(first.get(1), second.get(1));
+        assertNotSame(first.get(5), second.get(5)); // too long value
+        assertNotSame(first.get(9), second.get(9)); // numbers are not cached
+        assertEquals(factory.getStringCache().getHits() / (double) (factory.getStringCache().getHits() + factory.getStringCache().getMisses()),
+                factory.getStringCache().getHitRate(), 0.);
+    }
+
+    private static JsonParserFactoryImpl factory(final int size, final int maxValueLength, final int bufferLength) {
+        final Map<String, Object> config = new HashMap<>();
+        config.put(JsonParserFactoryImpl.STRING_CACHE_SIZE, size);
+        config.put(JsonParserFactoryImpl.STRING_CACHE_MAX_VALUE_LENGTH, maxValueLength);
+        config.put(JsonParserFactoryImpl.BUFFER_LENGTH, bufferLength);
+        return (JsonParserFactoryImpl) new JsonProviderImpl().createParserFactory(config);
+    }
+
+    private static List<String> strings(final JsonParser parser) {
+        final List<String> values = new ArrayList<>();
+        while (parser.hasNext()) {
+            switch (parser.next()) {
+                case KEY_NAME:
+                case VALUE_STRING:
+                case VALUE_NUMBER:
+                    values.add(parser.getString());
+                    break;
+                default:
+            }
+        }
+        parser.close();
+        return values;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import jakarta.json.JsonException;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParsingException;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StructuralIndexTest {
+    private static final String JSON = "[\n" +
+            IntStream.range(0, 1000)
+                    .mapToObj(i -> "  {\"id\":" + i + ",\"name\":\"n\\\"[,]{}" + i + "é\",\"tags\":[" + i + ",\"" + i + "\"],\"v\":" + i + ".5}")
+                    .collect(Collectors.joining(",\n")) +
+            ",\n  \"last\", 1, true, null, [], {}\n]";
+
+    @Test
+    public void index() {
+        final String json = "[1, \"a,]\\\"\", {\"b\":[2,3]}, [] ]";
+        final StructuralIndex index = StructuralIndex.ofArray(json.toCharArray(), 0, json.length(), 1, 0);
+        assertNotNull(index);
+        assertEquals(4, index.elementCount());
+        assertEquals(" {\"b\":[2,3]}", json.substring(index.elementStart(2), index.elementEnd(2)));
+        assertEquals(json.length() - 1, index.closingBracket());
+
+        final StructuralIndex bytes = StructuralIndex.ofArray(json.getBytes(StandardCharsets.UTF_8), 0, json.length(), 1, 0);
+        assertNotNull(bytes);
+        assertEquals(4, bytes.elementCount());
+        assertEquals(index.elementStart(2), bytes.elementStart(2));
+
+        assertEquals(0, StructuralIndex.ofArray(" [ ]".toCharArray(), 1, 4, 1, 0).elementCount());
+        assertNull(StructuralIndex.ofArray("[1,,2]".toCharArray(), 0, 6, 1, 0));
+        assertNull(StructuralIndex.ofArray("[1,]".toCharArray(), 0, 4, 1, 0));
+        assertNull(StructuralIndex.ofArray("[1}".toCharArray(), 0, 3, 1, 0));
+        assertNull(StructuralIndex.ofArray("[1,[2]".toCharArray(), 0, 6, 1, 0));
+        assertNull(StructuralIndex.ofArray("[1 2]".toCharArray(), 0, 5, 1, 0));
+        assertNull(StructuralIndex.ofArray("[\"a\"1]".toCharArray(), 0, 6, 1, 0));
+        assertNull(StructuralIndex.ofArray("[{} []]".toCharArray(), 0, 7, 1, 0));
+        assertNotNull(StructuralIndex.ofArray("[ 1 , {} ,\"a\" ]".toCharArray(), 0, 15, 1, 0));
+
+        final StructuralIndex lines = StructuralIndex.ofArray("[1,\n2,\n\n3]".toCharArray(), 0, 10, 4, 7);
+        assertEquals(4, lines.elementLine(0));
+        assertEquals(7, lines.elementLastLineBreak(0));
+        assertEquals(4, lines.elementLine(1)); // the element parser counts the line breaks before its value
+        assertEquals(7, lines.elementLastLineBreak(1));
+        assertEquals(5, lines.elementLine(2));
+        assertEquals(3, lines.elementLastLineBreak(2));
+        assertEquals(7, lines.closingLine());
+    }
+
+    @Test
+    public void parallelArrayStream() {
+        final List<JsonValue> expected = sequential();
+        final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) new JsonProviderImpl().createParserFactory(emptyMap());
+        for (final Function<String, JsonParser> parsers : asList(
+                (Function<String, JsonParser>) factory::createParser,
+                json -> factory.createParser(json.getBytes(StandardCharsets.UTF_8)))) {
+            final JsonParser parser = parsers.apply(JSON);
+            assertEquals(JsonParser.Event.START_ARRAY, parser.next());
+            final Stream<JsonValue> stream = parser.getArrayStream();
+            assertTrue(stream.spliterator().hasCharacteristics(Spliterator.SUBSIZED));
+
+            final JsonParser parser2 = parsers.apply(JSON);
+            parser2.next();
+            assertEquals(expected, parser2.getArrayStream().parallel().collect(Collectors.toList()));
+            // the parser is after the array
+            assertEquals(JsonParser.Event.END_ARRAY, ((JohnzonJsonParser) parser2).current());
+            assertEquals(1003, parser2.getLocation().getLineNumber());
+            assertTrue(!parser2.hasNext());
+            parser2.close();
+            parser.close();
+        }
+    }
+
+    @Test
+    public void readerArrayStream() {
+        final JsonReaderFactoryImpl factory = (JsonReaderFactoryImpl) new JsonProviderImpl().createReaderFactory(emptyMap());
+        try (final Stream<JsonValue> stream = ((JsonReaderImpl) factory.createReader(JSON)).readArrayStream()) {
+            assertEquals(sequential(), stream.parallel().collect(Collectors.toList()));
+        }
+        try (final Stream<JsonValue> stream = ((JsonReaderImpl) factory.createReader("[]")).readArrayStream()) {
+            assertEquals(emptyList(), stream.parallel().collect(Collectors.toList()));
+        }
+        try (final Stream<JsonValue> stream = ((JsonReaderImpl) factory.createReader(new StringReader("[1,2]"))).readArrayStream()) {
+            assertEquals(asList(1, 2), stream.map(v -> ((jakarta.json.JsonNumber) v).intValue()).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void readerConfigInArrayStream() {
+        final Map<String, Object> config = new HashMap<>();
+        config.put(JsonReaderImpl.DOUBLE_NUMBERS, true);
+        config.put("johnzon.rejectDuplicateKeys", true);
+        final JsonReaderFactoryImpl factory = (JsonReaderFactoryImpl) new JsonProviderImpl().createReaderFactory(config);
+        for (final Function<String, JsonReader> readers : asList(
+                (Function<String, JsonReader>) factory::createReader, // indexed
+                json -> factory.createReader(new StringReader(json)))) {
+            try (final Stream<JsonValue> stream = ((JsonReaderImpl) readers.apply("[{\"a\":[0.5]},1.5]")).readArrayStream()) {
+                final List<JsonValue> values = stream.collect(Collectors.toList());
+                assertEquals(JsonDoubleImpl.class, values.get(0).asJsonObject().getJsonArray("a").get(0).getClass());
+                assertEquals(JsonDoubleImpl.class, values.get(1).getClass());
+            }
+            try (final Stream<JsonValue> stream = ((JsonReaderImpl) readers.apply("[{\"a\":1,\"a\":2}]")).readArrayStream()) {
+                stream.collect(Collectors.toList());
+                fail();
+            } catch (final JsonException e) {
+                assertEquals("Rejected key: 'a', already present", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void invalidElement() {
+        final JsonReaderFactoryImpl factory = (JsonReaderFactoryImpl) new JsonProviderImpl().createReaderFactory(emptyMap());
+        for (final String json : asList("[1,,2]", "[1, 2 3]", "[{\"a\":]}]")) {
+            try (final Stream<JsonValue> stream = ((JsonReaderImpl) factory.createReader(json)).readArrayStream()) {
+                stream.parallel().collect(Collectors.toList());
+                fail(json);
+            } catch (final JsonParsingException jpe) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void invalidElementLocation() {
+        final JsonReaderFactoryImpl factory = (JsonReaderFactoryImpl) new JsonProviderImpl().createReaderFactory(emptyMap());
+        for (final String json : asList("[1,2 3]", "[{\"a\":1},\n{\"b\":x}]", "[1,\n [2 3]]", "[\"a\" \"b\"]", "[1,2,3] x", "[1,2,3]\n[]")) {
+            final String expected;
+            try (final JsonReader reader = factory.createReader(new StringReader(json))) {
+                reader.readArray();
+                fail(json);
+                return;
+            } catch (final JsonParsingException jpe) {
+                expected = jpe.getMessage();
+            }
+            for (final Function<String, JsonReader> readers : asList(
+                    (Function<String, JsonReader>) factory::createReader, // indexed
+                    j -> factory.createReader(j.getBytes(StandardCharsets.UTF_8)), // indexed
+                    j -> factory.createReader(new StringReader(j)))) {
+                try (final Stream<JsonValue> stream = ((JsonReaderImpl) readers.apply(json)).readArrayStream()) {
+                    stream.parallel().collect(Collectors.toList());
+                    fail(json);
+                } catch (final JsonParsingException jpe) {
+                    assertEquals(json, expected, jpe.getMessage());
+                }
+            }
+        }
+    }
+
+    private static List<JsonValue> sequential() {
+        try (final JsonReader reader = new JsonProviderImpl().createReader(
+                new ByteArrayInputStream(("{\"a\":" + JSON + "}").getBytes(StandardCharsets.UTF_8)))) {
+            return reader.readObject().getJsonArray("a");
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParsingException;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SwarTest {
+    private static final byte[] ALPHABET = {'a', ' ', '"', '\\', '\n', 0, 0x1F, 0x20, 0x7F, (byte) 0x80, (byte) 0xC3, (byte) 0xFF, 'Z'};
+
+    @Test
+    public void scans() {
+        final Random random = new Random(1234);
+        for (int i = 0; i < 20_000; i++) {
+            final byte[] bytes = new byte[random.nextInt(40)];
+            for (int j = 0; j < bytes.length; j++) { // mostly "regular" bytes to get long runs
+                bytes[j] = random.nextInt(8) == 0 ? ALPHABET[random.nextInt(ALPHABET.length)] : (byte) ('a' + random.nextInt(26));
+            }
+            final int from = bytes.length == 0 ? 0 : random.nextInt(bytes.length);
+            assertEquals(expectedStringEnd(bytes, from), Swar.stringEnd(bytes, from, bytes.length));
+            assertEquals(expectedIsAscii(bytes, from), Swar.isAscii(bytes, from, bytes.length));
+
+            final int asciiEnd = expectedAsciiStringEnd(bytes, from);
+            final long hashedScan = Swar.hashedAsciiStringEnd(bytes, from, bytes.length, 17);
+            assertEquals(asciiEnd, (int) hashedScan);
+            assertEquals(expectedHash(bytes, from, asciiEnd, 17), (int) (hashedScan >>> 32));
+
+            final byte[] spaces = new byte[bytes.length];
+            for (int j = 0; j < spaces.length; j++) {
+                spaces[j] = random.nextInt(12) == 0 ? bytes[j] : (byte) ' ';
+            }
+            assertEquals(expectedSpacesEnd(spaces, from), Swar.spacesEnd(spaces, from, spaces.length));
+        }
+    }
+
+    @Test
+    public void longStrings() {
+        final String value = "lorem ipsum dolor sit amet é ✓ \\\" \\u00e9 \\n ".repeat(50);
+        final String expectedValue = "lorem ipsum dolor sit amet é ✓ \" é \n ".repeat(50);
+        final String json = "{\n        \"description\":                \"" + value + "\",\n        \"" + "k".repeat(100) + "\": \"\"\n}";
+        final List<String> expected = asList("description", expectedValue, "k".repeat(100), "");
+        for (final int bufferLength : asList(7, 64, 8192)) {
+            final JsonParserFactoryImpl factory = factory(bufferLength);
+            assertEquals(expected, strings(factory, f -> f.createParser(new StringReader(json))));
+            assertEquals(expected, strings(factory, f -> f.createParser(json)));
+            assertEquals(expected, strings(factory, f -> f.createParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))));
+        }
+    }
+
+    @Test
+    public void cacheHashComputedWhileScanning() {
+        final List<String> values = asList("description", "lorem ipsum dolor sit amet consectetur", "k".repeat(100), "");
+        final String json = "[\"" + String.join("\",\"", values) + "\"]";
+        final Map<String, Object> config = new HashMap<>();
+        config.put(JsonParserFactoryImpl.STRING_CACHE_SIZE, 1024);
+        config.put(JsonParserFactoryImpl.STRING_CACHE_MAX_VALUE_LENGTH, 128);
+        for (final Function<JsonParserFactoryImpl, JsonParser> parserFactory : asList(
+                (Function<JsonParserFactoryImpl, JsonParser>) f -> f.createParser(new StringReader(json)),
+                f -> f.createParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))))) {
+            final JsonParserFactoryImpl factory = (JsonParserFactoryImpl) new JsonProviderImpl().createParserFactory(config);
+            final List<String> parsed = strings(factory, parserFactory);
+            assertEquals(values, parsed);
+            for (final String value : parsed) { // cached with the String hash computed while scanning
+                assertSame(value, factory.getStringCache().get(value.toCharArray(), 0, value.length(), value.hashCode()));
+            }
+        }
+    }
+
+    @Test
+    public void controlCharacterAfterRun() {
+        final String json = "[\"" + "a".repeat(21) + "\u0001\"]";
+        for (final Function<JsonParserFactoryImpl, JsonParser> parserFactory : asList(
+                (Function<JsonParserFactoryImpl, JsonParser>) f -> f.createParser(json),
+                f -> f.createParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))))) {
+            try {
+                strings(factory(8192), parserFactory);
+                fail();
+            } catch (final JsonParsingException jpe) {
+                assertTrue(jpe.getMessage(), jpe.getMessage().endsWith("Reason is [[Unescaped control character]]"));
+            }
+        }
+    }
+
+    @Test
+    public void lineTracking() {
+        final String json = "[\n" + " ".repeat(20) + "1,\n" + " ".repeat(20) + "2]";
+        for (final Function<JsonParserFactoryImpl, JsonParser> parserFactory : asList(
+                (Function<JsonParserFactoryImpl, JsonParser>) f -> f.createParser(json),
+                f -> f.createParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))))) {
+            final JsonParser parser = parserFactory.apply(factory(8192));
+            assertEquals(JsonParser.Event.START_ARRAY, parser.next());
+            assertEquals(JsonParser.Event.VALUE_NUMBER, parser.next());
+            assertEquals(2, parser.getLocation().getLineNumber());
+            assertEquals(22, parser.getLocation().getColumnNumber());
+            assertEquals(JsonParser.Event.VALUE_NUMBER, parser.next());
+            assertEquals(3, parser.getLocation().getLineNumber());
+            parser.close();
+        }
+    }
+
+    private static JsonParserFactoryImpl factory(final int bufferLength) {
+        return (JsonParserFactoryImpl) new JsonProviderImpl().createParserFactory(Map.of(JsonParserFactoryImpl.BUFFER_LENGTH, bufferLength));
+    }
+
+    private static List<String> strings(final JsonParserFactoryImpl factory, final Function<JsonParserFactoryImpl, JsonParser> parserFactory) {
+        final List<String> values = new ArrayList<>();
+        try (final JsonParser parser = parserFactory.apply(factory)) {
+            while (parser.hasNext()) {
+                final JsonParser.Event event = parser.next();
+                if (event == JsonParser.Event.KEY_NAME || event == JsonParser.Event.VALUE_STRING) {
+                    values.add(parser.getString());
+                }
+            }
+        }
+        return values;
+    }
+
+    private static int expectedStringEnd(final byte[] bytes, final int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if ((bytes[i] >= 0 && bytes[i] < 0x20) || bytes[i] == '"' || bytes[i] == '\\') {
+                return i;
+            }
+        }
+        return bytes.length;
+    }
+
+    private static int expectedAsciiStringEnd(final byte[] bytes, final int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] < 0x20 || bytes[i] == '"' || bytes[i] == '\\') {
+                return i;
+            }
+        }
+        return bytes.length;
+    }
+
+    private static int expectedHash(final byte[] bytes, final int from, final int to, final int seed) {
+        int hash = seed;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    private static boolean expectedIsAscii(final byte[] bytes, final int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int expectedSpacesEnd(final byte[] bytes, final int from) {
+        int i = from;
+        while (i < bytes.length && bytes[i] == ' ') {
+            i++;
+        }
+        return i;
+    }
+}
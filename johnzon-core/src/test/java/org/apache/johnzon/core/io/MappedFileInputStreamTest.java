@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class MappedFileInputStreamTest {
+    // windows smaller than the file are replaced while reading
+    @Test
+    public void slidingWindow() throws IOException {
+        final Path file = Files.createTempFile("johnzon-mapped", ".txt");
+        try {
+            Files.write(file, "0123456789abcdefghij".getBytes(UTF_8));
+            try (final InputStream stream = new MappedFileInputStream(file, 3)) {
+                assertEquals('0', stream.read());
+                assertEquals(4, stream.skip(4));
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[2];
+                int read;
+                while ((read = stream.read(buffer)) >= 0) {
+                    out.write(buffer, 0, read);
+                }
+                assertEquals("56789abcdefghij", out.toString("UTF-8"));
+                assertEquals(-1, stream.read());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void readAfterClose() throws IOException {
+        final Path file = Files.createTempFile("johnzon-mapped", ".txt");
+        try {
+            Files.write(file, "{}".getBytes(UTF_8));
+            final InputStream stream = new MappedFileInputStream(file, 16);
+            stream.close();
+            stream.close(); // no-op
+            try {
+                stream.read();
+                fail();
+            } catch (final IOException e) {
+                assertEquals("Stream closed", e.getMessage());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -309,6 +309,10 @@ public class ConfigurableJohnzonProvider<T> implements MessageBodyWriter<T>, Mes
         builder.setUseBigDecimalForFloats(useBigDecimalForFloats);
     }
 
+    public void setUseDoubleForDecimalNumbers(final boolean useDoubleForDecimalNumbers) {
+        builder.setUseDoubleForDecimalNumbers(useDoubleForDecimalNumbers);
+    }
+
     public void setAutoAdjustStringBuffers(final boolean autoAdjustStringBuffers) {
         builder.setAutoAdjustStringBuffers(autoAdjustStringBuffers);
     }
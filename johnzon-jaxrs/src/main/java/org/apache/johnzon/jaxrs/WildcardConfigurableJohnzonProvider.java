@@ -234,6 +234,10 @@ public class WildcardConfigurableJohnzonProvider<T> implements MessageBodyWriter
         builder.setUseBigDecimalForFloats(useBigDecimalForFloats);
     }
 
+    public void setUseDoubleForDecimalNumbers(final boolean useDoubleForDecimalNumbers) {
+        builder.setUseDoubleForDecimalNumbers(useDoubleForDecimalNumbers);
+    }
+
     public void setSerializeValueFilter(final String val) {
         try {
             builder.setSerializeValueFilter(SerializeValueFilter.class.cast(
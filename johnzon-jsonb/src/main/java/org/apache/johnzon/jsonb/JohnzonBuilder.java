@@ -450,6 +450,7 @@ public class JohnzonBuilder implements JsonbBuilder {
 
     private Map<String, ?> generatorConfig() {
         final Map<String, Object> map = new HashMap<>();
+        map.put("org.apache.johnzon.generator.trusted", true); // the mapper only writes well formed structures
         if (config == null) {
             return map;
         }
@@ -469,6 +470,7 @@ public class JohnzonBuilder implements JsonbBuilder {
         config.getProperty("org.apache.johnzon.max-string-length").ifPresent(b -> map.put("org.apache.johnzon.max-string-length", b));
         config.getProperty("org.apache.johnzon.supports-comments").ifPresent(b -> map.put("org.apache.johnzon.supports-comments", b));
         config.getProperty("org.apache.johnzon.buffer-strategy").ifPresent(b -> map.put("org.apache.johnzon.buffer-strategy", b));
+        config.getProperty("org.apache.johnzon.double-numbers").ifPresent(b -> map.put("org.apache.johnzon.double-numbers", b));
         return map;
     }
 
@@ -38,7 +38,6 @@ import jakarta.json.stream.JsonParser;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
-import java.io.StringReader;
 import java.io.Writer;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -73,11 +72,11 @@ public class JohnzonJsonb implements Jsonb, AutoCloseable, JsonbExtension {
     public <T> T fromJson(final String str, final Class<T> type) throws JsonbException {
         try {
             if (isArray(type)) {
-                return delegate.readTypedArray(new StringReader(str), type.getComponentType(), type);
+                return delegate.readTypedArray(str, type.getComponentType(), type);
             } else if (JsonArray.class == type) {
-                return (T) delegate.readJsonArray(new StringReader(str));
+                return (T) delegate.readJsonArray(str);
             } else if (Collection.class.isAssignableFrom(type)) {
-                return (T) delegate.readCollection(new StringReader(str), new JohnzonParameterizedType(type, Object.class));
+                return (T) delegate.readCollection(str, new JohnzonParameterizedType(type, Object.class));
             }
             final Type mappingType = unwrapPrimitiveOptional(type);
             final Object object = delegate.readObject(str, mappingType);
@@ -132,11 +131,11 @@ public class JohnzonJsonb implements Jsonb, AutoCloseable, JsonbExtension {
         try {
             if (isArray(runtimeType)) {
                 final Class cast = Class.class.cast(runtimeType);
-                return (T) delegate.readTypedArray(new StringReader(str), cast.getComponentType(), cast);
+                return (T) delegate.readTypedArray(str, cast.getComponentType(), cast);
             } else if (JsonArray.class == runtimeType) {
-                return (T) delegate.readJsonArray(new StringReader(str));
+                return (T) delegate.readJsonArray(str);
             } else if (isCollection(runtimeType)) {
-                return (T) delegate.readCollection(new StringReader(str), toCollectionType(runtimeType));
+                return (T) delegate.readCollection(str, toCollectionType(runtimeType));
             }
             final Type mappingType = unwrapPrimitiveOptional(runtimeType);
             final Object object = delegate.readObject(str, mappingType);
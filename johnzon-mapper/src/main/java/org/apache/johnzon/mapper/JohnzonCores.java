@@ -71,6 +71,14 @@ public final class JohnzonCores {
         }
     }
 
+    // reads the string without a Reader when johnzon-core is the provider, null otherwise
+    public static JsonReader read(final CharSequence json, final JsonReaderFactory readerFactory) {
+        if (CREATE_READER == null) {
+            return null;
+        }
+        return Readers.read(json, readerFactory);
+    }
+
     // indirection (for classloading)
     private static class Snippets {
         private Snippets() {
@@ -81,4 +89,18 @@ public final class JohnzonCores {
             return new org.apache.johnzon.core.Snippet(max, factory)::of;
         }
     }
+
+    // indirection (for classloading)
+    private static class Readers {
+        private Readers() {
+            // no-op
+        }
+
+        private static JsonReader read(final CharSequence json, final JsonReaderFactory readerFactory) {
+            if (!org.apache.johnzon.core.JohnzonJsonReaderFactory.class.isInstance(readerFactory)) {
+                return null;
+            }
+            return org.apache.johnzon.core.JohnzonJsonReaderFactory.class.cast(readerFactory).createReader(json);
+        }
+    }
 }
@@ -18,6 +18,8 @@
  */
 package org.apache.johnzon.mapper;
 
+import org.apache.johnzon.core.JsonChunkPublisher;
+import org.apache.johnzon.core.JsonGeneratorFactoryImpl;
 import org.apache.johnzon.mapper.internal.JsonPointerTracker;
 import org.apache.johnzon.mapper.reflection.JohnzonCollectionType;
 import org.apache.johnzon.mapper.util.ArrayUtil;
@@ -47,15 +49,19 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
 
 import static org.apache.johnzon.mapper.internal.Streams.noClose;
 
 public class Mapper implements Closeable {
+    private static final int CHUNK_SIZE = 8192;
 
     protected final MapperConfig config;
     protected final Mappings mappings;
@@ -111,7 +117,9 @@ public class Mapper implements Closeable {
     }
 
     public <T> void writeArray(final Collection<T> object, final OutputStream stream) {
-        writeArray(object, new OutputStreamWriter(stream, config.getEncoding()));
+        try (final JsonGenerator generator = generatorFactory.createGenerator(stream(stream), config.getEncoding())) {
+            writeObject(object, generator, null, config.isDeduplicateObjects() ? JsonPointerTracker.ROOT : null);
+        }
     }
 
     public <T> void writeArray(final Collection<T> object, final Writer stream) {
@@ -121,7 +129,9 @@ public class Mapper implements Closeable {
     }
 
     public <T> void writeIterable(final Iterable<T> object, final OutputStream stream) {
-        writeIterable(object, new OutputStreamWriter(stream, config.getEncoding()));
+        try (final JsonGenerator generator = generatorFactory.createGenerator(stream(stream), config.getEncoding())) {
+            writeObject(object, generator, null, config.isDeduplicateObjects() ? JsonPointerTracker.ROOT : null);
+        }
     }
 
     public <T> void writeIterable(final Iterable<T> object, final Writer stream) {
@@ -130,6 +140,17 @@ public class Mapper implements Closeable {
         }
     }
 
+    /**
+     * Publishes the iterable as a JSON array in UTF-8 chunks: items are serialized only when the subscriber
+     * requests chunks so a large (or lazily loaded) iterable is never fully buffered.
+     */
+    public <T> void writeIterable(final Iterable<T> object, final Flow.Subscriber<? super ByteBuffer> subscriber) {
+        final MappingGeneratorImpl mappingGenerator = new MappingGeneratorImpl(config, mappings);
+        new JsonChunkPublisher(generatorFactory, CHUNK_SIZE,
+                mappingGenerator.iterableProducer(object, config.isDeduplicateObjects() ? JsonPointerTracker.ROOT : null))
+                .subscribe(subscriber);
+    }
+
     public JsonValue toStructure(final Object object) {
         if (object == null) {
             return JsonValue.NULL;
@@ -181,12 +202,16 @@ public class Mapper implements Closeable {
             return;
         }
         try (final JsonGenerator generator = generatorFactory.createGenerator(stream(stream))) {
-            final Object converted = adapter == null ? object : adapter.from(object);
-            if (CharSequence.class.isInstance(converted)) {
-                writeObjectWithGenerator(provider.createValue(converted.toString()), generator);
-            } else {
-                writeObjectWithGenerator(converted, generator);
-            }
+            writeConverted(object, adapter, generator);
+        }
+    }
+
+    private void writeConverted(final Object object, final Adapter adapter, final JsonGenerator generator) {
+        final Object converted = adapter == null ? object : adapter.from(object);
+        if (CharSequence.class.isInstance(converted)) {
+            writeObjectWithGenerator(provider.createValue(converted.toString()), generator);
+        } else {
+            writeObjectWithGenerator(converted, generator);
         }
     }
 
@@ -200,7 +225,19 @@ public class Mapper implements Closeable {
             charset = StandardCharsets.UTF_8;
         }
 
-        writeObject(object, new OutputStreamWriter(stream, charset));
+        if (object == null) {
+            writeObject(null, new OutputStreamWriter(stream, charset));
+            return;
+        }
+        final Adapter adapter = config.findAdapter(object.getClass());
+        if (adapter != null && TypeAwareAdapter.class.isInstance(adapter) && TypeAwareAdapter.class.cast(adapter).getTo() == JsonString.class) {
+            writeObject(adapter.from(object), stream);
+            return;
+        }
+        // let the generator factory encode directly in the stream (no intermediate Writer for UTF-8 with johnzon-core)
+        try (final JsonGenerator generator = generatorFactory.createGenerator(stream(stream), charset)) {
+            writeConverted(object, adapter, generator);
+        }
     }
 
     private void writeObject(final Object object, final JsonGenerator generator, final Collection<String> ignored,
@@ -210,21 +247,42 @@ public class Mapper implements Closeable {
     }
 
     public String writeArrayAsString(final Collection<?> instance) {
-        final StringWriter writer = new StringWriter(2048);
-        writeArray(instance, writer);
-        return writer.toString();
+        return writeAsString(generator -> writeObject(instance, generator, null,
+                config.isDeduplicateObjects() ? JsonPointerTracker.ROOT : null));
     }
 
     public <T> String writeArrayAsString(final T[] instance) {
-        final StringWriter writer = new StringWriter(2048);
-        writeArray(instance, writer);
-        return writer.toString();
+        return writeObjectAsString(Arrays.asList(instance));
     }
 
     public String writeObjectAsString(final Object instance) {
-        final StringWriter writer = new StringWriter(2048);
-        writeObject(instance, writer);
-        return writer.toString();
+        if (instance == null) {
+            return "null";
+        }
+        final Adapter adapter = config.findAdapter(instance.getClass());
+        if (adapter != null && TypeAwareAdapter.class.isInstance(adapter) && TypeAwareAdapter.class.cast(adapter).getTo() == JsonString.class) {
+            return writeObjectAsString(adapter.from(instance));
+        }
+        return writeAsString(generator -> writeConverted(instance, adapter, generator));
+    }
+
+    // johnzon-core generators can keep the document in their buffer, the String is then its only copy,
+    // factories returning no string generator (subclasses only customizing createGenerator(Writer)) use a StringWriter
+    private String writeAsString(final Consumer<JsonGenerator> writer) {
+        if (JsonGeneratorFactoryImpl.class.isInstance(generatorFactory)) {
+            final JsonGenerator generator = JsonGeneratorFactoryImpl.class.cast(generatorFactory).createStringGenerator();
+            if (generator != null) {
+                try (generator) {
+                    writer.accept(generator);
+                }
+                return generator.toString();
+            }
+        }
+        final StringWriter out = new StringWriter(2048);
+        try (final JsonGenerator generator = generatorFactory.createGenerator(out)) {
+            writer.accept(generator);
+        }
+        return out.toString();
     }
 
     public <T> T readObject(final JsonValue value, final Type clazz) {
@@ -266,7 +324,9 @@ public class Mapper implements Closeable {
     }
 
     public <T> T readObject(final String string, final Type clazz) {
-        return readObject(new StringReader(string), clazz);
+        try (final JsonReader reader = createReader(string)) {
+            return mapObject(clazz, reader);
+        }
     }
 
     public <T> T readObject(final Reader stream, final Type clazz) {
@@ -308,6 +368,12 @@ public class Mapper implements Closeable {
         }
     }
 
+    public <T> Collection<T> readCollection(final String string, final ParameterizedType genericType) {
+        try (final JsonReader reader = createReader(string)) {
+            return mapObject(genericType, reader);
+        }
+    }
+
     public <T> Collection<T> readCollection(final JsonParser stream, final ParameterizedType genericType) {
         try (final JsonReader reader = JohnzonCores.map(stream, readerFactory)) {
             return mapObject(genericType, reader);
@@ -332,6 +398,12 @@ public class Mapper implements Closeable {
         }
     }
 
+    public <T> T readTypedArray(final String string, final Class<?> elementType, final Class<T> arrayType) {
+        try (final JsonReader reader = createReader(string)) {
+            return arrayType.cast(mapArray(elementType, reader));
+        }
+    }
+
     public <T> T readTypedArray(final JsonParser parser, final Class<?> elementType, final Class<T> arrayType) {
         try (final JsonReader reader = JohnzonCores.map(parser, readerFactory)) {
             return arrayType.cast(mapArray(elementType, reader));
@@ -344,6 +416,12 @@ public class Mapper implements Closeable {
         }
     }
 
+    public JsonArray readJsonArray(final String string) {
+        try (final JsonReader reader = createReader(string)) {
+            return reader.readArray();
+        }
+    }
+
     public JsonArray readJsonArray(final JsonParser stream) {
         try (final JsonReader reader = JohnzonCores.map(stream, readerFactory)) {
             return reader.readArray();
@@ -373,6 +451,12 @@ public class Mapper implements Closeable {
     }
 
 
+    // strings are read by johnzon-core without a Reader (in place when they fit its buffer) when it is the provider
+    private JsonReader createReader(final String string) {
+        final JsonReader reader = JohnzonCores.read(string, readerFactory);
+        return reader != null ? reader : readerFactory.createReader(new StringReader(string));
+    }
+
     private Reader stream(final Reader stream) {
         return !config.isClose() ? noClose(stream) : stream;
     }
@@ -381,6 +465,10 @@ public class Mapper implements Closeable {
         return !config.isClose() ? noClose(stream) : stream;
     }
 
+    private OutputStream stream(final OutputStream stream) {
+        return !config.isClose() ? noClose(stream) : stream;
+    }
+
     private InputStream stream(final InputStream stream) {
         return !config.isClose() ? noClose(stream) : stream;
     }
@@ -102,6 +102,8 @@ public class MapperBuilder {
     private boolean failOnUnknownProperties;
     private SerializeValueFilter serializeValueFilter;
     private boolean useBigDecimalForFloats;
+    private boolean useDoubleForDecimalNumbers;
+    private boolean useFloatDigits = true;
     private Boolean deduplicateObjects = null;
     private boolean useJsRange;
     private boolean useBigDecimalForObjectNumbers;
@@ -140,11 +142,14 @@ public class MapperBuilder {
                 if (pretty) {
                     config.put(JsonGenerator.PRETTY_PRINTING, true);
                 }
+                // the mapping always writes well formed structures, johnzon generators can skip their state validation
+                config.put("org.apache.johnzon.generator.trusted", true);
                 generatorFactory = provider.createGeneratorFactory(config);
             }
 
             if (readerFactory == null) {
                 config.remove(JsonGenerator.PRETTY_PRINTING); // doesn't mean anything anymore for reader
+                config.remove("org.apache.johnzon.generator.trusted");
                 if (supportsComments) {
                     config.put("org.apache.johnzon.supports-comments", "true");
                 }
@@ -157,6 +162,9 @@ public class MapperBuilder {
                 if (autoAdjustStringBuffers) {
                     config.put("org.apache.johnzon.auto-adjust-buffer", true);
                 }
+                if (useDoubleForDecimalNumbers) {
+                    config.put("org.apache.johnzon.double-numbers", true);
+                }
                 readerFactory = provider.createReaderFactory(config);
             }
         } else if (this.provider == null) {
@@ -243,7 +251,8 @@ public class MapperBuilder {
                         typeLoader, discriminatorMapper, discriminator,
                         deserializationPredicate, serializationPredicate,
                         enumConverterFactory,
-                        JohnzonCores.snippetFactory(snippetMaxLength, generatorFactory), mappingsFactory),
+                        JohnzonCores.snippetFactory(snippetMaxLength, generatorFactory), mappingsFactory,
+                        useFloatDigits),
                 closeables);
     }
 
@@ -493,6 +502,31 @@ public class MapperBuilder {
         return this;
     }
 
+    /**
+     * Read decimal numbers as double instead of BigDecimal, it is faster for double/float bindings
+     * but BigDecimal bindings only get the double precision.
+     *
+     * @param useDoubleForDecimalNumbers {@code true} to parse decimal numbers directly as double.
+     * @return this builder.
+     */
+    public MapperBuilder setUseDoubleForDecimalNumbers(final boolean useDoubleForDecimalNumbers) {
+        this.useDoubleForDecimalNumbers = useDoubleForDecimalNumbers;
+        return this;
+    }
+
+    /**
+     * Write float values with the shortest digits of the float itself ({@code 0.3}, {@code 1.0E10}), default.
+     * {@code false} restores the previous output: float[] items are written as the widened double
+     * ({@code 0.30000001192092896}) and Float values through BigDecimal ({@code 1.0E+10}).
+     *
+     * @param useFloatDigits {@code false} to write floats as before.
+     * @return this builder.
+     */
+    public MapperBuilder setUseFloatDigits(final boolean useFloatDigits) {
+        this.useFloatDigits = useFloatDigits;
+        return this;
+    }
+
     public MapperBuilder setAutoAdjustStringBuffers(final boolean autoAdjustStringBuffers) {
         this.autoAdjustStringBuffers = autoAdjustStringBuffers;
         return this;
@@ -80,6 +80,7 @@ public /* DON'T MAKE IT HIDDEN */ class MapperConfig implements Cloneable {
     private final boolean failOnUnknown;
     private final SerializeValueFilter serializeValueFilter;
     private final boolean useBigDecimalForFloats;
+    private final boolean useFloatDigits;
     private final Boolean deduplicateObjects;
     private final Map<Class<?>, Class<?>> interfaceImplementationMapping;
     private final boolean useBigDecimalForObjectNumbers;
@@ -134,11 +135,11 @@ public /* DON'T MAKE IT HIDDEN */ class MapperConfig implements Cloneable {
                 attributeOrder, failOnUnknown, serializeValueFilter, useBigDecimalForFloats, deduplicateObjects, interfaceImplementationMapping,
                 useJsRange, useBigDecimalForObjectNumbers, maxBigDecimalScale, supportEnumMapDeserialization, typeLoader,
                 discriminatorMapper, discriminator, deserializationPredicate, serializationPredicate, enumConverterFactory,
-                JohnzonCores.snippetFactory(50, Json.createGeneratorFactory(emptyMap())), null);
+                JohnzonCores.snippetFactory(50, Json.createGeneratorFactory(emptyMap())), null, true);
     }
 
-    //disable checkstyle for 10+ parameters
     //CHECKSTYLE:OFF
+    @Deprecated
     public MapperConfig(final LazyConverterMap adapters,
                         final Map<Class<?>, ObjectConverter.Writer<?>> objectConverterWriters,
                         final Map<Class<?>, ObjectConverter.Reader<?>> objectConverterReaders,
@@ -166,6 +167,45 @@ public /* DON'T MAKE IT HIDDEN */ class MapperConfig implements Cloneable {
                         final SnippetFactory snippet,
                         final Function<MapperConfig, Mappings> mappingsFactory) {
         //CHECKSTYLE:ON
+        this(adapters, objectConverterWriters, objectConverterReaders, version, close, skipNull, skipEmptyArray,
+                treatByteArrayAsBase64, treatByteArrayAsBase64URL, readAttributeBeforeWrite, accessMode, encoding,
+                attributeOrder, failOnUnknown, serializeValueFilter, useBigDecimalForFloats, deduplicateObjects, interfaceImplementationMapping,
+                useJsRange, useBigDecimalForObjectNumbers, maxBigDecimalScale, supportEnumMapDeserialization, typeLoader,
+                discriminatorMapper, discriminator, deserializationPredicate, serializationPredicate, enumConverterFactory,
+                snippet, mappingsFactory, true);
+    }
+
+    //disable checkstyle for 10+ parameters
+    //CHECKSTYLE:OFF
+    public MapperConfig(final LazyConverterMap adapters,
+                        final Map<Class<?>, ObjectConverter.Writer<?>> objectConverterWriters,
+                        final Map<Class<?>, ObjectConverter.Reader<?>> objectConverterReaders,
+                        final int version, final boolean close,
+                        final boolean skipNull, final boolean skipEmptyArray,
+                        final boolean treatByteArrayAsBase64, final boolean treatByteArrayAsBase64URL,
+                        final boolean readAttributeBeforeWrite,
+                        final AccessMode accessMode, final Charset encoding,
+                        final Comparator<String> attributeOrder,
+                        final boolean failOnUnknown,
+                        final SerializeValueFilter serializeValueFilter,
+                        final boolean useBigDecimalForFloats,
+                        final Boolean deduplicateObjects,
+                        final Map<Class<?>, Class<?>> interfaceImplementationMapping,
+                        final boolean useJsRange,
+                        final boolean useBigDecimalForObjectNumbers,
+                        final int maxBigDecimalScale,
+                        final boolean supportEnumMapDeserialization,
+                        final Function<String, Class<?>> typeLoader,
+                        final Function<Class<?>, String> discriminatorMapper,
+                        final String discriminator,
+                        final Predicate<Class<?>> deserializationPredicate,
+                        final Predicate<Class<?>> serializationPredicate,
+                        final Function<Class<?>, CustomEnumConverter<?>> enumConverterFactory,
+                        final SnippetFactory snippet,
+                        final Function<MapperConfig, Mappings> mappingsFactory,
+                        final boolean useFloatDigits) {
+        //CHECKSTYLE:ON
+        this.useFloatDigits = useFloatDigits;
         this.objectConverterWriters = objectConverterWriters;
         this.objectConverterReaders = objectConverterReaders;
         this.version = version;
@@ -466,6 +506,10 @@ public /* DON'T MAKE IT HIDDEN */ class MapperConfig implements Cloneable {
         return attributeOrder;
     }
 
+    public boolean isUseFloatDigits() {
+        return useFloatDigits;
+    }
+
     public boolean isUseBigDecimalForFloats() {
         return useBigDecimalForFloats;
     }
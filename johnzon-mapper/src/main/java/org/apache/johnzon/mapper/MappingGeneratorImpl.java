@@ -22,6 +22,8 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.stream.Collectors.toList;
 
+import org.apache.johnzon.core.JohnzonJsonGenerator;
+import org.apache.johnzon.core.JsonChunkPublisher;
 import org.apache.johnzon.mapper.internal.JsonPointerTracker;
 import org.apache.johnzon.mapper.jsonp.DeferredStartJsonGenerator;
 import org.apache.johnzon.mapper.util.ArrayUtil;
@@ -63,7 +65,7 @@ public class MappingGeneratorImpl implements MappingGenerator {
             final Class<?> objectClass = object.getClass();
             try {
                 if (Map.class.isInstance(object)) {
-                    writeValue(Map.class, false, false, false, false, true, null, key, object,
+                    writeValue(Map.class, false, false, false, false, true, null, key, null, object,
                             null, emptyList(), isDedup() ? JsonPointerTracker.ROOT : null, generator);
                 } else if(writePrimitives(key, objectClass, object, generator)) {
                     // no-op
@@ -72,19 +74,19 @@ public class MappingGeneratorImpl implements MappingGenerator {
                     final String adaptedValue = adapter.from(object).toString(); // we know it ends as String for enums
                     generator.write(key, adaptedValue);
                 } else if (objectClass.isArray()) {
-                    writeValue(Map.class, false, false, true, false, false, null, key, object,
+                    writeValue(Map.class, false, false, true, false, false, null, key, null, object,
                             null, emptyList(), isDedup() ? JsonPointerTracker.ROOT : null, generator);
                 } else if (Iterable.class.isInstance(object)) {
-                    writeValue(Map.class, false, false, false, true, false, null, key, object,
+                    writeValue(Map.class, false, false, false, true, false, null, key, null, object,
                             null, emptyList(), isDedup() ? JsonPointerTracker.ROOT : null, generator);
                 } else {
                     final ObjectConverter.Writer objectConverter = config.findObjectConverterWriter(objectClass);
                     if (objectConverter != null) {
-                        DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(generator, key);
+                        DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(validating(generator), key);
                         objectConverter.writeJson(object, this, deferredStartJsonGenerator);
                         deferredStartJsonGenerator.writeEnd();
                     } else {
-                        writeValue(objectClass, false, false, false, false, false, null, key, object,
+                        writeValue(objectClass, false, false, false, false, false, null, key, null, object,
                                 null, emptyList(), isDedup() ? JsonPointerTracker.ROOT : null, generator);
                     }
                 }
@@ -167,9 +169,9 @@ public class MappingGeneratorImpl implements MappingGenerator {
             ObjectConverter.Writer objectConverter = config.findObjectConverterWriter(objectClass);
             if (writeBody && objectConverter != null) {
                 if (!writeBody) {
-                    objectConverter.writeJson(object, this, generator);
+                    objectConverter.writeJson(object, this, validating(generator));
                 } else {
-                    DeferredStartJsonGenerator deferredGenerator = new DeferredStartJsonGenerator(generator, null);
+                    DeferredStartJsonGenerator deferredGenerator = new DeferredStartJsonGenerator(validating(generator), null);
                     objectConverter.writeJson(object, this, deferredGenerator);
                     deferredGenerator.writeEnd();
                 }
@@ -217,7 +219,7 @@ public class MappingGeneratorImpl implements MappingGenerator {
             final Class<?> valueClass = value.getClass();
             writeValue(valueClass, true,
                     false, false, false, false, itemConverter,
-                    key == null ? "null" : key.toString(), value, null, null, null,
+                    key == null ? "null" : key.toString(), null, value, null, null, null,
                     generator);
         }
         return generator;
@@ -253,8 +255,13 @@ public class MappingGeneratorImpl implements MappingGenerator {
             handled = true;
         } else if (isFloat(type)) {
             if (type == Float.class || type == float.class) {
-                if (!Float.isNaN(Float.class.cast(value))) {
-                    generator.write(new BigDecimal(value.toString()));
+                final float floatValue = Float.class.cast(value);
+                if (!Float.isNaN(floatValue)) {
+                    if (config.isUseFloatDigits() && JohnzonJsonGenerator.class.isInstance(generator)) {
+                        JohnzonJsonGenerator.class.cast(generator).write(floatValue);
+                    } else {
+                        generator.write(new BigDecimal(value.toString()));
+                    }
                 }
             } else {
                 final double doubleValue = Number.class.cast(value).doubleValue();
@@ -301,8 +308,13 @@ public class MappingGeneratorImpl implements MappingGenerator {
             handled = true;
         } else if (isFloat(type)) {
             if (type == Float.class) {
-                if (!Float.isNaN((Float) value)) {
-                    generator.write(key, new BigDecimal(value.toString()));
+                final float floatValue = (Float) value;
+                if (!Float.isNaN(floatValue)) {
+                    if (config.isUseFloatDigits() && JohnzonJsonGenerator.class.isInstance(generator)) {
+                        JohnzonJsonGenerator.class.cast(generator).write(key, floatValue);
+                    } else {
+                        generator.write(key, new BigDecimal(value.toString()));
+                    }
                 }
             } else {
                 final double doubleValue = ((Number) value).doubleValue();
@@ -328,6 +340,50 @@ public class MappingGeneratorImpl implements MappingGenerator {
     }
 
 
+    // hot path of objects properties, other types use the key name
+    private boolean writePrimitives(final String key, final JohnzonJsonGenerator.PreEncodedKey encodedKey,
+                                    final Class<?> type, final Object value, final JsonGenerator generator) {
+        if (encodedKey == null) {
+            return writePrimitives(key, type, value, generator);
+        }
+        final JohnzonJsonGenerator johnzonGenerator = JohnzonJsonGenerator.class.cast(generator);
+        if (type == String.class) {
+            johnzonGenerator.write(encodedKey, value.toString());
+        } else if (type == Long.class) {
+            final long longValue = ((Long) value).longValue();
+            if (isInJsRange(longValue)) {
+                johnzonGenerator.write(encodedKey, longValue);
+            } else {
+                johnzonGenerator.write(encodedKey, value.toString());
+            }
+        } else if (isInt(type)) {
+            johnzonGenerator.write(encodedKey, ((Number) value).intValue());
+        } else if (type == Double.class) {
+            final double doubleValue = ((Number) value).doubleValue();
+            if (!Double.isNaN(doubleValue)) {
+                johnzonGenerator.write(encodedKey, doubleValue);
+            }
+        } else if (type == Float.class && config.isUseFloatDigits()) {
+            final float floatValue = (Float) value;
+            if (!Float.isNaN(floatValue)) {
+                johnzonGenerator.write(encodedKey, floatValue);
+            }
+        } else if (type == Boolean.class) {
+            johnzonGenerator.write(encodedKey, Boolean.class.cast(value));
+        } else {
+            return writePrimitives(key, type, value, generator);
+        }
+        return true;
+    }
+
+    // converters are user code, trusted generators (no validation) are not handed to them
+    private static JsonGenerator validating(final JsonGenerator generator) {
+        if (JohnzonJsonGenerator.class.isInstance(generator)) {
+            JohnzonJsonGenerator.class.cast(generator).enableValidation();
+        }
+        return generator;
+    }
+
     private static boolean isInt(final Class<?> type) {
         // no need to check for primitives, as those are already converted to wrapper types
         return type == Integer.class || type == Byte.class || type == Short.class;
@@ -360,7 +416,7 @@ public class MappingGeneratorImpl implements MappingGenerator {
         }
 
         if (classMapping.writer != null) {
-            DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(generator, null);
+            DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(validating(generator), null);
             classMapping.writer.writeJson(object, this, deferredStartJsonGenerator);
             deferredStartJsonGenerator.writeEnd();
             return false;
@@ -376,6 +432,8 @@ public class MappingGeneratorImpl implements MappingGenerator {
             }
         }
 
+        final JohnzonJsonGenerator johnzonGenerator = JohnzonJsonGenerator.class.isInstance(generator) ?
+                JohnzonJsonGenerator.class.cast(generator) : null;
         for (final Map.Entry<String, Mappings.Getter> getterEntry : classMapping.getters.entrySet()) {
             final Mappings.Getter getter = getterEntry.getValue();
             if (ignored != null && ignored.contains(getterEntry.getKey())) {
@@ -385,15 +443,24 @@ public class MappingGeneratorImpl implements MappingGenerator {
                 continue;
             }
 
+            final JohnzonJsonGenerator.PreEncodedKey encodedKey = johnzonGenerator == null ?
+                    null : classMapping.encodedKeys.get(getterEntry.getKey());
             final Object value = getter.reader.read(object);
             if (JsonValue.class.isInstance(value)) {
-                generator.write(getterEntry.getKey(), JsonValue.class.cast(value));
+                if (encodedKey != null) {
+                    johnzonGenerator.write(encodedKey, JsonValue.class.cast(value));
+                } else {
+                    generator.write(getterEntry.getKey(), JsonValue.class.cast(value));
+                }
                 continue;
             }
 
             if (value == null) {
                 if (!getter.reader.isNillable(!config.isSkipNull())) {
                     continue;
+                } else if (encodedKey != null) {
+                    johnzonGenerator.writeNull(encodedKey);
+                    continue;
                 } else {
                     generator.writeNull(getterEntry.getKey());
                     continue;
@@ -405,7 +472,11 @@ public class MappingGeneratorImpl implements MappingGenerator {
             String valJsonPointer = jsonPointers.get(val);
             if (valJsonPointer != null) {
                 // write the JsonPointer instead
-                generator.write(getterEntry.getKey(), valJsonPointer);
+                if (encodedKey != null) {
+                    johnzonGenerator.write(encodedKey, valJsonPointer);
+                } else {
+                    generator.write(getterEntry.getKey(), valJsonPointer);
+                }
             } else {
                 writeValue(val.getClass(),
                         getter.dynamic,
@@ -415,6 +486,7 @@ public class MappingGeneratorImpl implements MappingGenerator {
                         getter.map,
                         getter.itemConverter,
                         getterEntry.getKey(),
+                        encodedKey,
                         val,
                         getter.objectConverter,
                         getter.ignoreNested,
@@ -440,7 +512,8 @@ public class MappingGeneratorImpl implements MappingGenerator {
                             final boolean primitive, final boolean array,
                             final boolean collection, final boolean map,
                             final Adapter itemConverter,
-                            final String key, final Object value,
+                            final String key, final JohnzonJsonGenerator.PreEncodedKey encodedKey,
+                            final Object value,
                             final ObjectConverter.Writer objectConverter,
                             final Collection<String> ignoredProperties,
                             final JsonPointerTracker jsonPointer,
@@ -456,7 +529,8 @@ public class MappingGeneratorImpl implements MappingGenerator {
             writeIterator(itemConverter, key, objectConverter, ignoredProperties, jsonPointer, generator,
                     Iterable.class.cast(value).iterator(), value);
         } else if ((!dynamic && map) || (dynamic && Map.class.isAssignableFrom(type))) {
-            DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(generator, key);
+            DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(
+                    objectConverter != null ? validating(generator) : generator, key);
             if (objectConverter != null) {
                 objectConverter.writeJson(value, this, deferredStartJsonGenerator);
             } else {
@@ -465,18 +539,18 @@ public class MappingGeneratorImpl implements MappingGenerator {
             deferredStartJsonGenerator.writeEnd();
         } else if ((!dynamic && primitive) || (dynamic && Mappings.isPrimitive(type))) {
             if (objectConverter != null) {
-                DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(generator, key);
+                DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(validating(generator), key);
                 objectConverter.writeJson(value, this, deferredStartJsonGenerator);
                 deferredStartJsonGenerator.writeEnd();
             } else {
-                writePrimitives(key, type, value, generator);
+                writePrimitives(key, encodedKey, type, value, generator);
             }
         } else if (BaseStream.class.isAssignableFrom(type)) {
             writeIterator(itemConverter, key, objectConverter, ignoredProperties, jsonPointer, generator,
                     BaseStream.class.cast(value).iterator(), value);
         } else if (Iterator.class.isAssignableFrom(type)) {
             if (objectConverter != null) {
-                DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(generator, key);
+                DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(validating(generator), key);
                 objectConverter.writeJson(value, this, deferredStartJsonGenerator);
                 deferredStartJsonGenerator.writeEnd();
             } else {
@@ -485,7 +559,7 @@ public class MappingGeneratorImpl implements MappingGenerator {
             }
         } else {
             if (objectConverter != null) {
-                DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(generator, key);
+                DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(validating(generator), key);
                 objectConverter.writeJson(value, this, deferredStartJsonGenerator);
                 deferredStartJsonGenerator.writeEnd();
                 return;
@@ -494,10 +568,10 @@ public class MappingGeneratorImpl implements MappingGenerator {
             final Adapter converter = config.findAdapter(type);
             if (converter != null) {
                 final Object adapted = doConvertFrom(value, converter);
-                if (writePrimitives(key, adapted.getClass(), adapted, generator)) {
+                if (writePrimitives(key, encodedKey, adapted.getClass(), adapted, generator)) {
                     return;
                 }
-                writeValue(String.class, true, true, false, false, false, null, key, adapted, null, ignoredProperties, jsonPointer, generator);
+                writeValue(String.class, true, true, false, false, false, null, key, encodedKey, adapted, null, ignoredProperties, jsonPointer, generator);
                 return;
             } else {
                 ObjectConverter.Writer objectConverterToUse = objectConverter;
@@ -506,13 +580,13 @@ public class MappingGeneratorImpl implements MappingGenerator {
                 }
 
                 if (objectConverterToUse != null) {
-                    DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(generator, key);
+                    DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(validating(generator), key);
                     objectConverterToUse.writeJson(value, this, deferredStartJsonGenerator);
                     deferredStartJsonGenerator.writeEnd();
                     return;
                 }
             }
-            if (writePrimitives(key, type, value, generator)) {
+            if (writePrimitives(key, encodedKey, type, value, generator)) {
                 return;
             }
             DeferredStartJsonGenerator deferredStartGenerator = new DeferredStartJsonGenerator(generator, key);
@@ -534,7 +608,7 @@ public class MappingGeneratorImpl implements MappingGenerator {
                     List.class.cast(originalValue) :
                     StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.IMMUTABLE), false)
                         .collect(toList());
-            DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(generator, key, true);
+            DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(validating(generator), key, true);
             objectConverter.writeJson(list, this, deferredStartJsonGenerator);
             deferredStartJsonGenerator.writeEnd();
             return;
@@ -555,7 +629,7 @@ public class MappingGeneratorImpl implements MappingGenerator {
                 }
 
                 if (objectConverterToUse != null) {
-                    DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(generator, null);
+                    DeferredStartJsonGenerator deferredStartJsonGenerator = new DeferredStartJsonGenerator(validating(generator), null);
                     objectConverterToUse.writeJson(o, this, deferredStartJsonGenerator);
                     deferredStartJsonGenerator.writeEnd();
                 } else {
@@ -631,6 +705,13 @@ public class MappingGeneratorImpl implements MappingGenerator {
                 final long o = tArrayValue[i];
                 generator.write(o);
             }
+        } else if (type == float[].class && config.isUseFloatDigits() && JohnzonJsonGenerator.class.isInstance(generator)) {
+            final JohnzonJsonGenerator johnzonGenerator = JohnzonJsonGenerator.class.cast(generator);
+            float[] tArrayValue = (float[]) arrayValue;
+            for (int i = 0; i < length; i++) {
+                final float o = tArrayValue[i];
+                johnzonGenerator.write(o);
+            }
         } else if (type == float[].class) {
             float[] tArrayValue = (float[]) arrayValue;
             for (int i = 0; i < length; i++) {
@@ -723,21 +804,58 @@ public class MappingGeneratorImpl implements MappingGenerator {
             generator.writeStartArray();
             int i = 0;
             for (final T t : object) {
-                if (JsonValue.class.isInstance(t)) {
-                    generator.write(JsonValue.class.cast(t));
-                } else {
-                    if (t == null) {
-                        generator.writeNull();
-                    } else {
-                        writeItem(t, ignoredProperties, isDedup() ? new JsonPointerTracker(jsonPointer, i) : null, generator);
-                    }
-                }
+                writeIterableItem(t, i, ignoredProperties, jsonPointer, generator);
                 i++;
             }
             generator.writeEnd();
         }
     }
 
+    private void writeIterableItem(final Object item, final int index, final Collection<String> ignoredProperties,
+                                   final JsonPointerTracker jsonPointer, final JsonGenerator generator) {
+        if (JsonValue.class.isInstance(item)) {
+            generator.write(JsonValue.class.cast(item));
+        } else {
+            if (item == null) {
+                generator.writeNull();
+            } else {
+                writeItem(item, ignoredProperties, isDedup() ? new JsonPointerTracker(jsonPointer, index) : null, generator);
+            }
+        }
+    }
+
+    /**
+     * Writes a root iterable as {@link #doWriteObject} does but one item per call
+     * so the caller decides when the next item is serialized.
+     */
+    JsonChunkPublisher.Producer iterableProducer(final Iterable<?> object, final JsonPointerTracker jsonPointer) {
+        if (object == null) {
+            return generator -> {
+                generator.writeStartArray().writeEnd();
+                return false;
+            };
+        }
+        return new JsonChunkPublisher.Producer() {
+            private Iterator<?> iterator;
+            private int index;
+
+            @Override
+            public boolean writeNext(final JsonGenerator generator) {
+                if (iterator == null) {
+                    iterator = object.iterator();
+                    generator.writeStartArray();
+                    return true;
+                }
+                if (!iterator.hasNext()) {
+                    generator.writeEnd();
+                    return false;
+                }
+                writeIterableItem(iterator.next(), index++, null, jsonPointer, generator);
+                return true;
+            }
+        };
+    }
+
 
     private <T> Object doConvertFrom(final T value, final Adapter<T, Object> converter) {
         if (converter == null) {
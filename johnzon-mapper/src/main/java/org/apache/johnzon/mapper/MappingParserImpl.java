@@ -18,6 +18,7 @@
  */
 package org.apache.johnzon.mapper;
 
+import org.apache.johnzon.core.JohnzonJsonNumberArray;
 import org.apache.johnzon.mapper.access.AccessMode;
 import org.apache.johnzon.mapper.converter.CharacterConverter;
 import org.apache.johnzon.mapper.internal.AdapterKey;
@@ -926,6 +927,10 @@ public class MappingParserImpl implements MappingParser {
             return array;
         }
         if (long.class == componentType) {
+            if (itemConverter == null && JohnzonJsonNumberArray.class.isInstance(jsonArray)
+                    && JohnzonJsonNumberArray.class.cast(jsonArray).isIntegral()) { // no JsonNumber per item
+                return JohnzonJsonNumberArray.class.cast(jsonArray).getLongArray();
+            }
             long[] array = new long[jsonArray.size()];
             int i = 0;
             for (final JsonValue value : jsonArray) {
@@ -954,6 +959,9 @@ public class MappingParserImpl implements MappingParser {
             return array;
         }
         if (double.class == componentType) {
+            if (itemConverter == null && JohnzonJsonNumberArray.class.isInstance(jsonArray)) {
+                return JohnzonJsonNumberArray.class.cast(jsonArray).getDoubleArray();
+            }
             double[] array = new double[jsonArray.size()];
             int i = 0;
             for (final JsonValue value : jsonArray) {
@@ -55,6 +55,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.BiFunction;
 
+import org.apache.johnzon.core.JohnzonJsonGenerator;
 import org.apache.johnzon.mapper.access.AccessMode;
 import org.apache.johnzon.mapper.access.FieldAccessMode;
 import org.apache.johnzon.mapper.access.MethodAccessMode;
@@ -80,6 +81,8 @@ public class Mappings {
         public final Class<?> mapAdderType;
         public final Map.Entry<String, String>[] serializedPolymorphicProperties;
         public final BiFunction<JsonObject, Class<?>, Class<?>> polymorphicDeserializedTypeResolver;
+        // getter names escaped once to write them without escaping them again for each instance
+        public final Map<String, JohnzonJsonGenerator.PreEncodedKey> encodedKeys;
 
         public boolean deduplicateObjects;
 
@@ -115,6 +118,18 @@ public class Mappings {
             this.serializedPolymorphicProperties = serializedPolymorphicProperties;
             this.polymorphicDeserializedTypeResolver = polymorphicDeserializedTypeResolver;
             this.deduplicateObjects = isDeduplicateObjects();
+            this.encodedKeys = encodeKeys(getters);
+        }
+
+        private static Map<String, JohnzonJsonGenerator.PreEncodedKey> encodeKeys(final Map<String, Getter> getters) {
+            if (getters == null || getters.isEmpty()) {
+                return emptyMap();
+            }
+            final Map<String, JohnzonJsonGenerator.PreEncodedKey> keys = new HashMap<>(getters.size());
+            for (final String name : getters.keySet()) {
+                keys.put(name, new JohnzonJsonGenerator.PreEncodedKey(name));
+            }
+            return keys;
         }
 
         private Boolean isDeduplicateObjects() {
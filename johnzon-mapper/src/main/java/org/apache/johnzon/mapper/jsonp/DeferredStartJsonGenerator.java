@@ -22,6 +22,8 @@ import java.math.BigInteger;
 import jakarta.json.JsonValue;
 import jakarta.json.stream.JsonGenerator;
 
+import org.apache.johnzon.core.JohnzonJsonGenerator;
+
 
 /**
  * This JsonGenerator will not automatically write a startObject '{' character, but only if needed.
@@ -30,9 +32,10 @@ import jakarta.json.stream.JsonGenerator;
  * 
  * This class must only be used in cases where you would call {@code jsonGenerator.startObject(key)} !
  */
-public class DeferredStartJsonGenerator implements JsonGenerator {
+public class DeferredStartJsonGenerator implements JohnzonJsonGenerator {
 
     private final JsonGenerator delegate;
+    private final JohnzonJsonGenerator johnzonDelegate; // null if pre-encoded keys are not supported
     private final String key;
     private final boolean array;
 
@@ -60,6 +63,7 @@ public class DeferredStartJsonGenerator implements JsonGenerator {
      */
     public DeferredStartJsonGenerator(JsonGenerator delegate, String key, boolean array) {
         this.delegate = delegate;
+        this.johnzonDelegate = delegate instanceof JohnzonJsonGenerator ? (JohnzonJsonGenerator) delegate : null;
         this.key = key;
         this.array = array;
     }
@@ -128,6 +132,18 @@ public class DeferredStartJsonGenerator implements JsonGenerator {
         return this;
     }
 
+    @Override
+    public JohnzonJsonGenerator write(String name, float value) {
+        ensureStart();
+        if (johnzonDelegate != null) {
+            johnzonDelegate.write(name, value);
+        } else {
+            JohnzonJsonGenerator.super.write(name, value);
+        }
+        empty = false;
+        return this;
+    }
+
     @Override
     public JsonGenerator write(String name, int value) {
         ensureStart();
@@ -160,6 +176,134 @@ public class DeferredStartJsonGenerator implements JsonGenerator {
         return this;
     }
 
+    @Override
+    public JohnzonJsonGenerator write(PreEncodedKey name, String value) {
+        ensureStart();
+        if (johnzonDelegate != null) {
+            johnzonDelegate.write(name, value);
+        } else {
+            delegate.write(name.getName(), value);
+        }
+        empty = false;
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(PreEncodedKey name, boolean value) {
+        ensureStart();
+        if (johnzonDelegate != null) {
+            johnzonDelegate.write(name, value);
+        } else {
+            delegate.write(name.getName(), value);
+        }
+        empty = false;
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(PreEncodedKey name, double value) {
+        ensureStart();
+        if (johnzonDelegate != null) {
+            johnzonDelegate.write(name, value);
+        } else {
+            delegate.write(name.getName(), value);
+        }
+        empty = false;
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(PreEncodedKey name, float value) {
+        ensureStart();
+        if (johnzonDelegate != null) {
+            johnzonDelegate.write(name, value);
+        } else {
+            JohnzonJsonGenerator.super.write(name.getName(), value);
+        }
+        empty = false;
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(PreEncodedKey name, int value) {
+        ensureStart();
+        if (johnzonDelegate != null) {
+            johnzonDelegate.write(name, value);
+        } else {
+            delegate.write(name.getName(), value);
+        }
+        empty = false;
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(PreEncodedKey name, long value) {
+        ensureStart();
+        if (johnzonDelegate != null) {
+            johnzonDelegate.write(name, value);
+        } else {
+            delegate.write(name.getName(), value);
+        }
+        empty = false;
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator write(PreEncodedKey name, JsonValue value) {
+        ensureStart();
+        if (johnzonDelegate != null) {
+            johnzonDelegate.write(name, value);
+        } else {
+            delegate.write(name.getName(), value);
+        }
+        empty = false;
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator enableValidation() {
+        if (johnzonDelegate != null) {
+            johnzonDelegate.enableValidation();
+        }
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator writeRaw(CharSequence json) {
+        ensureStart();
+        if (johnzonDelegate != null) {
+            johnzonDelegate.writeRaw(json);
+        } else {
+            JohnzonJsonGenerator.super.writeRaw(json);
+        }
+        empty = false;
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator writeRaw(String name, CharSequence json) {
+        ensureStart();
+        if (johnzonDelegate != null) {
+            johnzonDelegate.writeRaw(name, json);
+        } else {
+            JohnzonJsonGenerator.super.writeRaw(name, json);
+        }
+        empty = false;
+        return this;
+    }
+
+    @Override
+    public JohnzonJsonGenerator writeNull(PreEncodedKey name) {
+        ensureStart();
+        if (johnzonDelegate != null) {
+            johnzonDelegate.writeNull(name);
+        } else {
+            delegate.writeNull(name.getName());
+        }
+        empty = false;
+        return this;
+    }
+
     @Override
     public JsonGenerator write(BigDecimal value) {
         if (!started && key != null) {
@@ -208,6 +352,24 @@ public class DeferredStartJsonGenerator implements JsonGenerator {
         return this;
     }
 
+    @Override
+    public JohnzonJsonGenerator write(float value) {
+        if (!started && key != null) {
+            // means we write a value instead of an object
+            if (johnzonDelegate != null) {
+                johnzonDelegate.write(key, value);
+            } else {
+                delegate.write(key, new BigDecimal(Float.toString(value)));
+            }
+        } else if (johnzonDelegate != null) {
+            johnzonDelegate.write(value);
+        } else {
+            delegate.write(new BigDecimal(Float.toString(value)));
+        }
+        empty = false;
+        return this;
+    }
+
     @Override
     public JsonGenerator write(int value) {
         if (!started && key != null) {
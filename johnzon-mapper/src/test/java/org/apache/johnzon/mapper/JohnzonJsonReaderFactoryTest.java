@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.mapper;
+
+import org.apache.johnzon.core.JohnzonJsonReaderFactory;
+import org.apache.johnzon.core.JsonReaderImpl;
+import org.junit.Test;
+
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonReaderFactory;
+import jakarta.json.spi.JsonProvider;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+// the in memory and file entry points of johnzon-core are usable outside of its package
+public class JohnzonJsonReaderFactoryTest {
+    private static final String JSON = "{\"name\":\"é\",\"values\":[1,2.5,true,null],\"nested\":{\"a\":\"b\"}}";
+
+    @Test
+    public void inMemoryAndFileReaders() throws IOException {
+        final JsonReaderFactory factory = JsonProvider.provider().createReaderFactory(emptyMap());
+        assertTrue(factory instanceof JohnzonJsonReaderFactory);
+        final JohnzonJsonReaderFactory johnzon = (JohnzonJsonReaderFactory) factory;
+
+        final JsonObject expected = read(factory.createReader(new StringReader(JSON)));
+        assertEquals(expected, read(johnzon.createReader(JSON)));
+        assertEquals(expected, read(johnzon.createReader(new StringBuilder(JSON))));
+
+        final byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected, read(johnzon.createReader(bytes)));
+
+        final Path file = Files.createTempFile("johnzon-reader", ".json");
+        try {
+            Files.write(file, bytes);
+            assertEquals(expected, read(johnzon.createReader(file)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void lazyValues() {
+        final JohnzonJsonReaderFactory factory = (JohnzonJsonReaderFactory) JsonProvider.provider()
+                .createReaderFactory(singletonMap(JsonReaderImpl.LAZY_VALUES, true));
+
+        final JsonObject eager = read(factory.createReader(new StringReader(JSON))); // streams are never lazy
+        for (final JsonObject lazy : new JsonObject[]{
+                read(factory.createReader(JSON)), read(factory.createReader(JSON.getBytes(StandardCharsets.UTF_8)))}) {
+            assertNotEquals(eager.getClass(), lazy.getClass());
+            assertEquals(eager, lazy);
+            assertEquals("b", lazy.getJsonObject("nested").getString("a"));
+        }
+    }
+
+    private static JsonObject read(final JsonReader reader) {
+        try (final JsonReader r = reader) {
+            return r.readObject();
+        }
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.johnzon.mapper;
 
+import org.apache.johnzon.core.JohnzonJsonGenerator;
+import org.apache.johnzon.core.JsonGeneratorFactoryImpl;
 import org.apache.johnzon.core.TestBufferProvider;
 import org.apache.johnzon.core.TestJsonGeneratorFactory;
 import org.junit.Assert;
@@ -27,11 +29,13 @@ import org.junit.runners.Parameterized;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RunWith(Parameterized.class)
 public class JsonGeneratorCloseTest {
@@ -73,6 +77,28 @@ public class JsonGeneratorCloseTest {
         }
     }
 
+    @Test
+    public void testStringGeneratorOfSubclass() {
+        final AtomicInteger stringGenerators = new AtomicInteger();
+        Mapper mapper = new MapperBuilder().setAccessModeName(accessMode)
+                                           .setGeneratorFactory(new JsonGeneratorFactoryImpl(Collections.emptyMap()) {
+                                               @Override
+                                               public JohnzonJsonGenerator createStringGenerator() {
+                                                   stringGenerators.incrementAndGet();
+                                                   return super.createStringGenerator();
+                                               }
+                                           })
+                                           .setAttributeOrder(String.CASE_INSENSITIVE_ORDER)
+                                           .build();
+
+        ClassToWrite toWrite = new ClassToWrite();
+        toWrite.setName("The Name");
+        toWrite.setInteger(42);
+
+        Assert.assertEquals("{\"aDouble\":0.0,\"aLong\":0,\"integer\":42,\"name\":\"The Name\"}", mapper.writeObjectAsString(toWrite));
+        Assert.assertEquals(1, stringGenerators.get());
+    }
+
     @Test
     public void testCloseWithException() {
 
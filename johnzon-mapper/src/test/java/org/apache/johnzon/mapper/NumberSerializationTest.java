@@ -166,10 +166,62 @@ public class NumberSerializationTest {
         }
     }
 
+    @Test
+    public void doubleForDecimalNumbers() {
+        try (final Mapper mapper = new MapperBuilder().setUseDoubleForDecimalNumbers(true).build()) {
+            final Coordinates coordinates = mapper.readObject(
+                    "{\"latitude\":-65.613616999999977,\"longitude\":43.420273000000009,\"altitude\":12.5,\"count\":3}",
+                    Coordinates.class);
+            assertEquals(-65.613616999999977, coordinates.latitude, 0.);
+            assertEquals(43.420273000000009, coordinates.longitude, 0.);
+            assertEquals(12.5f, coordinates.altitude, 0.f);
+            assertEquals(3, coordinates.count);
+        }
+    }
+
+    @Test
+    public void floats() {
+        try (final Mapper mapper = new MapperBuilder().setAttributeOrder(String::compareTo).build()) {
+            final Floats floats = new Floats();
+            floats.primitive = .1f;
+            floats.wrapper = 1e10f;
+            floats.array = new float[]{.3f, -2.5f, 3.4028235E38f};
+            assertEquals("{\"array\":[0.3,-2.5,3.4028235E38],\"primitive\":0.1,\"wrapper\":1.0E10}",
+                    mapper.writeObjectAsString(floats));
+            assertEquals("0.7", mapper.writeObjectAsString(.7f));
+        }
+    }
+
+    @Test
+    public void floatsAsBefore() {
+        try (final Mapper mapper = new MapperBuilder().setAttributeOrder(String::compareTo).setUseFloatDigits(false).build()) {
+            final Floats floats = new Floats();
+            floats.primitive = .1f;
+            floats.wrapper = 1e10f;
+            floats.array = new float[]{.3f, -2.5f, 3.4028235E38f};
+            assertEquals("{\"array\":[0.30000001192092896,-2.5,3.4028234663852886E38],\"primitive\":0.1,\"wrapper\":1.0E+10}",
+                    mapper.writeObjectAsString(floats));
+            assertEquals("0.7", mapper.writeObjectAsString(.7f));
+        }
+    }
+
     public static class Holder {
         public long value;
     }
 
+    public static class Coordinates {
+        public double latitude;
+        public Double longitude;
+        public float altitude;
+        public int count;
+    }
+
+    public static class Floats {
+        public float primitive;
+        public Float wrapper;
+        public float[] array;
+    }
+
     public static class Num {
         public Number value;
     }
@@ -21,6 +21,8 @@ package org.apache.johnzon.mapper;
 import org.junit.Assert;
 import org.junit.Test;
 
+import jakarta.json.stream.JsonGenerationException;
+import jakarta.json.stream.JsonGenerator;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -54,6 +56,20 @@ public class ObjectConverterTest {
         Assert.assertEquals(contact, c);
     }
 
+    @Test(expected = JsonGenerationException.class)
+    public void objectConverterGetsAValidatingGenerator() {
+        final Mapper mapper = new MapperBuilder()
+                .addObjectConverter(Person.class, new ObjectConverter.Writer<Person>() {
+                    @Override
+                    public void writeJson(final Person instance, final MappingGenerator jsonbGenerator, final JsonGenerator generator) {
+                        generator.writeStartArray();
+                        generator.write("name", instance.getFirstName()); // a key in an array
+                        generator.writeEnd();
+                    }
+                })
+                .build();
+        mapper.writeObjectAsString(new Person("f1", "l1"));
+    }
 
     public static class PersonConverter implements Converter<Person> {
         @Override
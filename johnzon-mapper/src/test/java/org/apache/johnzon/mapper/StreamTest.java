@@ -22,7 +22,14 @@ import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -44,6 +51,65 @@ public class StreamTest {
         assertArrayEquals(IntStream.range(0, 5).toArray(), deserialized.ints.toArray());
     }
 
+    @Test
+    public void publishIterable() {
+        final AtomicInteger pulled = new AtomicInteger();
+        final Iterable<ILoveStreams> rows = () -> new Iterator<ILoveStreams>() {
+            @Override
+            public boolean hasNext() {
+                return pulled.get() < 100_000;
+            }
+
+            @Override
+            public ILoveStreams next() {
+                pulled.incrementAndGet();
+                return new ILoveStreams();
+            }
+        };
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final AtomicInteger chunks = new AtomicInteger();
+        final Flow.Subscription[] subscription = new Flow.Subscription[1];
+        final boolean[] completed = new boolean[1];
+        mapper.writeIterable(rows, new Flow.Subscriber<ByteBuffer>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(final ByteBuffer item) {
+                chunks.incrementAndGet();
+                out.write(item.array(), item.position(), item.remaining());
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        });
+        assertEquals(0, pulled.get());
+
+        subscription[0].request(1);
+        assertEquals(1, chunks.get());
+        assertTrue(String.valueOf(pulled.get()), pulled.get() < 1_000); // only what the first chunk needed
+
+        subscription[0].request(Long.MAX_VALUE);
+        assertTrue(completed[0]);
+        assertEquals(100_000, pulled.get());
+
+        final String json = out.toString(StandardCharsets.UTF_8);
+        final String row = "{\"ints\":[0,1,2,3,4],\"strings\":[\"a\",\"b\",\"c\"]}";
+        assertEquals(100_000 * (row.length() + 1) + 1, json.length());
+        assertTrue(json.startsWith("[" + row + "," + row + ","));
+        assertTrue(json.endsWith("," + row + "]"));
+    }
+
     public static class ILoveStreams {
         public Stream<String> strings = Stream.of("a", "b", "c");
         public IntStream ints = IntStream.range(0, 5);
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.mapper.jsonp;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonGenerationException;
+
+import org.apache.johnzon.mapper.JsonObjectGenerator;
+import org.junit.Test;
+
+public class DeferredStartJsonGeneratorTest {
+    @Test
+    public void rawValuesOfAnotherGenerator() { // not a johnzon one, the raw values are parsed
+        final JsonObjectGenerator object = new JsonObjectGenerator(Json.createBuilderFactory(emptyMap()));
+        new DeferredStartJsonGenerator(object, null)
+                .writeRaw("number", "1e3").writeRaw("object", " {\"a\": [true, null]} ")
+                .writeEnd();
+        assertEquals("{\"number\":1E+3,\"object\":{\"a\":[true,null]}}", object.getResult().toString());
+
+        final JsonObjectGenerator array = new JsonObjectGenerator(Json.createBuilderFactory(emptyMap()));
+        final DeferredStartJsonGenerator generator = new DeferredStartJsonGenerator(array, null, true);
+        generator.writeRaw("\"x\"");
+        try {
+            generator.writeRaw("[1 2]");
+            fail();
+        } catch (final JsonGenerationException expected) {
+            // ok
+        }
+        generator.writeEnd();
+        assertEquals("[\"x\"]", array.getResult().toString());
+    }
+}